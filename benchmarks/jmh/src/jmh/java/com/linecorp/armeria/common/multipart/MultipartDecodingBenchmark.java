@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.multipart;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.stream.StreamMessage;
+
+/**
+ * Microbenchmarks for decoding a multipart body into {@link BodyPart}s.
+ */
+@State(Scope.Benchmark)
+public class MultipartDecodingBenchmark {
+
+    private static final String BOUNDARY = "----ArmeriaBenchmarkBoundary7MA4YWxkTrZu0gW";
+
+    @Param({ "1024", "65536", "1048576" })
+    private int partSize;
+
+    @Param({ "4" })
+    private int numParts;
+
+    // The typical size of a chunk read from a socket.
+    @Param({ "8192" })
+    private int chunkSize;
+
+    private HttpData[] chunks;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < numParts; i++) {
+            final byte[] content = new byte[partSize];
+            random.nextBytes(content);
+            write(out, "--" + BOUNDARY + "\r\n" +
+                       "Content-Disposition: form-data; name=\"file" + i + "\"; filename=\"image" + i +
+                       ".png\"\r\n" +
+                       "Content-Type: image/png\r\n\r\n");
+            out.write(content, 0, content.length);
+            write(out, "\r\n");
+        }
+        write(out, "--" + BOUNDARY + "--\r\n");
+
+        final byte[] body = out.toByteArray();
+        final List<HttpData> chunks = new ArrayList<>();
+        for (int i = 0; i < body.length; i += chunkSize) {
+            final int length = Math.min(chunkSize, body.length - i);
+            final byte[] chunk = new byte[length];
+            System.arraycopy(body, i, chunk, 0, length);
+            chunks.add(HttpData.wrap(chunk));
+        }
+        this.chunks = chunks.toArray(new HttpData[0]);
+    }
+
+    private static void write(ByteArrayOutputStream out, String str) {
+        final byte[] bytes = str.getBytes(StandardCharsets.US_ASCII);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    @Benchmark
+    public long decode() {
+        final Multipart multipart = Multipart.from(BOUNDARY, StreamMessage.of(chunks));
+        // The body parts have to be consumed one by one.
+        final List<Integer> lengths = multipart.bodyParts()
+                                               .flatMap(BodyPart::content, 1)
+                                               .map(data -> {
+                                                   final int length = data.length();
+                                                   data.close();
+                                                   return length;
+                                               })
+                                               .collect()
+                                               .join();
+        long total = 0;
+        for (int length : lengths) {
+            total += length;
+        }
+        return total;
+    }
+}
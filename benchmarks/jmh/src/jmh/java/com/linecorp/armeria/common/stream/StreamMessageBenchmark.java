@@ -16,6 +16,7 @@
 
 package com.linecorp.armeria.common.stream;
 
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 
 import org.openjdk.jmh.annotations.Benchmark;
@@ -26,6 +27,7 @@ import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
@@ -158,6 +160,52 @@ public class StreamMessageBenchmark {
         return streamObjects.computedSum(stream);
     }
 
+    @State(Scope.Thread)
+    public static class BatchedWrites {
+
+        // The cost of a downstream write regardless of the number of elements, e.g. a round trip to
+        // a database or a message queue.
+        private static final long WRITE_OVERHEAD_TOKENS = 1000;
+
+        @Param({ "1000" })
+        private int num;
+
+        @Param({ "1", "16", "128" })
+        private int batchSize;
+
+        private Integer[] values;
+
+        private long sum;
+
+        @Setup(Level.Trial)
+        public void setValues() {
+            values = new Integer[num];
+            for (int i = 0; i < num; i++) {
+                values[i] = i;
+            }
+        }
+
+        private void write(List<Integer> batch) {
+            Blackhole.consumeCPU(WRITE_OVERHEAD_TOKENS);
+            for (Integer value : batch) {
+                sum += value;
+            }
+        }
+    }
+
+    // Shows the throughput gained by writing the elements to a sink with a per-write overhead in batches.
+    // 'batchSize' 1 is the baseline that writes every element separately.
+    @Benchmark
+    public long batchedDownstreamWrites(BatchedWrites batchedWrites) {
+        batchedWrites.sum = 0;
+        StreamMessage.of(batchedWrites.values)
+                     .buffer(batchedWrites.batchSize)
+                     .peek(batchedWrites::write)
+                     .subscribe(EventLoopJmhExecutor.currentEventLoop())
+                     .join();
+        return batchedWrites.sum;
+    }
+
     static StreamMessage<Integer> newStream(StreamObjects streamObjects) {
         switch (streamObjects.streamType) {
             case DEFAULT_STREAM_MESSAGE:
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.linecorp.armeria.shared.EventLoopJmhExecutor;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Compares {@link StreamMessage#flatMap(java.util.function.Function, int)} and
+ * {@link StreamMessage#merge(Iterable)} with the equivalent Reactor pipelines.
+ */
+@Fork(jvmArgsAppend = { EventLoopJmhExecutor.JVM_ARG_1, EventLoopJmhExecutor.JVM_ARG_2,
+                        "-Dcom.linecorp.armeria.reportBlockedEventLoop=false"})
+@State(Scope.Benchmark)
+public class StreamMessageFlatMapBenchmark {
+
+    @Param({ "10", "100" })
+    private int numSources;
+
+    @Param({ "100" })
+    private int numElementsPerSource;
+
+    @Param({ "4", "256" })
+    private int maxConcurrency;
+
+    private Integer[] sourceIndexes;
+    private Integer[][] sources;
+
+    @Setup
+    public void setUp() {
+        sourceIndexes = new Integer[numSources];
+        sources = new Integer[numSources][];
+        for (int i = 0; i < numSources; i++) {
+            sourceIndexes[i] = i;
+            sources[i] = new Integer[numElementsPerSource];
+            for (int j = 0; j < numElementsPerSource; j++) {
+                sources[i][j] = j;
+            }
+        }
+    }
+
+    @Benchmark
+    public long armeriaFlatMap() {
+        final long[] sum = new long[1];
+        StreamMessage.of(sourceIndexes)
+                     .flatMap(i -> StreamMessage.of(sources[i]), maxConcurrency)
+                     .peek(value -> sum[0] += value)
+                     .subscribe(EventLoopJmhExecutor.currentEventLoop())
+                     .join();
+        return sum[0];
+    }
+
+    @Benchmark
+    public long reactorFlatMap() {
+        return Flux.fromArray(sourceIndexes)
+                   .flatMap(i -> Flux.fromArray(sources[i]), maxConcurrency)
+                   .reduce(0L, (sum, value) -> sum + value)
+                   .block();
+    }
+
+    @Benchmark
+    public long armeriaMerge() {
+        final List<StreamMessage<Integer>> publishers = new ArrayList<>(numSources);
+        for (Integer[] source : sources) {
+            publishers.add(StreamMessage.of(source));
+        }
+        final long[] sum = new long[1];
+        StreamMessage.merge(publishers)
+                     .peek(value -> sum[0] += value)
+                     .subscribe(EventLoopJmhExecutor.currentEventLoop())
+                     .join();
+        return sum[0];
+    }
+
+    @Benchmark
+    public long reactorMerge() {
+        final List<Flux<Integer>> publishers = new ArrayList<>(numSources);
+        for (Integer[] source : sources) {
+            publishers.add(Flux.fromArray(source));
+        }
+        return Flux.merge(publishers)
+                   .reduce(0L, (sum, value) -> sum + value)
+                   .block();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.thrift.text;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Strings;
+
+import com.linecorp.armeria.internal.common.thrift.TByteBufTransport;
+import com.linecorp.armeria.thrift.services.HelloService.hello_args;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+/**
+ * Measures the throughput of decoding a Thrift call encoded with {@link TTextProtocol} from
+ * a pooled {@link ByteBuf}, compared with only building a {@link com.fasterxml.jackson.databind.JsonNode}
+ * tree of the same input, which is what {@link TTextProtocol} used to do before decoding.
+ */
+@State(Scope.Thread)
+public class TTextProtocolDecodeBenchmark {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @Param({ "16", "1024", "65536" })
+    private int nameLength;
+
+    private byte[] content;
+    private ByteBuf buf;
+
+    @Setup
+    public void setUp() {
+        content = ("{\"method\":\"hello\",\"type\":\"CALL\",\"seqid\":1,\"args\":{\"name\":\"" +
+                   Strings.repeat("a", nameLength) + "\"}}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Setup(Level.Invocation)
+    public void allocateBuffer() {
+        buf = ByteBufAllocator.DEFAULT.buffer(content.length).writeBytes(content);
+    }
+
+    @TearDown(Level.Invocation)
+    public void releaseBuffer() {
+        buf.release();
+    }
+
+    @Benchmark
+    public void decode(Blackhole bh) throws TException {
+        final TTextProtocol prot = new TTextProtocol(new TByteBufTransport(buf));
+        final TMessage header = prot.readMessageBegin();
+        final hello_args args = new hello_args();
+        args.read(prot);
+        prot.readMessageEnd();
+        bh.consume(header);
+        bh.consume(args);
+    }
+
+    @Benchmark
+    public void readTree(Blackhole bh) throws Exception {
+        final byte[] bytes = new byte[buf.readableBytes()];
+        buf.readBytes(bytes);
+        bh.consume(mapper.readTree(bytes));
+    }
+}
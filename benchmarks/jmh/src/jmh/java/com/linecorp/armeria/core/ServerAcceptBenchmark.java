@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.core;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.metric.NoopMeterRegistry;
+import com.linecorp.armeria.server.Server;
+import com.linecorp.armeria.server.ServerBuilder;
+
+/**
+ * Microbenchmarks of the connection-accept throughput of a {@link Server}. Every invocation opens a new
+ * connection, sends a request with {@code "connection: close"} and waits for the server to close the
+ * connection.
+ *
+ * <p>Compare {@code acceptorsPerPort=1} with a value equal to the number of the worker event loops to see
+ * the effect of {@link ServerBuilder#acceptorsPerPort(int)}. Note that {@code SO_REUSEPORT} is only used
+ * with the {@code EPOLL} and {@code IO_URING} transports.
+ */
+@State(Scope.Benchmark)
+public class ServerAcceptBenchmark {
+
+    private static final byte[] REQUEST = ("GET / HTTP/1.1\r\n" +
+                                           "host: 127.0.0.1\r\n" +
+                                           "connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+
+    @Param({ "1", "4" })
+    private int acceptorsPerPort;
+
+    @Param("4")
+    private int numEventLoops;
+
+    private Server server;
+    private InetSocketAddress serverAddress;
+
+    @Setup
+    public void startServer() {
+        server = Server.builder()
+                       .http(0)
+                       .workerGroup(numEventLoops)
+                       .acceptorsPerPort(acceptorsPerPort)
+                       .maxNumConnections(Integer.MAX_VALUE)
+                       .service("/", (ctx, req) -> HttpResponse.of(HttpStatus.OK))
+                       .meterRegistry(NoopMeterRegistry.get())
+                       .build();
+        server.start().join();
+        serverAddress = new InetSocketAddress("127.0.0.1", server.activeLocalPort());
+    }
+
+    @TearDown
+    public void stopServer() {
+        server.stop().join();
+    }
+
+    @Threads(Threads.MAX)
+    @Benchmark
+    public int connectAndRequest() throws Exception {
+        try (Socket socket = new Socket()) {
+            // Reset the connection on close so that the client does not run out of the local ports
+            // because of the sockets in TIME_WAIT state.
+            socket.setSoLinger(true, 0);
+            socket.connect(serverAddress);
+            final OutputStream out = socket.getOutputStream();
+            out.write(REQUEST);
+            out.flush();
+
+            // Read until the server closes the connection.
+            final InputStream in = socket.getInputStream();
+            final byte[] buf = new byte[256];
+            int numBytes = 0;
+            for (;;) {
+                final int n = in.read(buf);
+                if (n < 0) {
+                    return numBytes;
+                }
+                numBytes += n;
+            }
+        }
+    }
+}
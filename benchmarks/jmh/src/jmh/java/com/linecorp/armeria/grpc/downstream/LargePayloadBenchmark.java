@@ -60,8 +60,17 @@ public class LargePayloadBenchmark {
     private BindableService bindableService;
     private BinaryProxyStub binaryProxyClient;
 
-    @Param({ "false", "true" })
-    private boolean wrapBuffer;
+    public enum RequestBufferMode {
+        // Copies the request buffers into the parsed messages.
+        COPY,
+        // Wraps the request buffers and releases them explicitly with GrpcUnsafeBufferUtil.
+        WRAP,
+        // Wraps the request buffers and releases them when the request is complete.
+        WRAP_AUTO_RELEASE
+    }
+
+    @Param
+    private RequestBufferMode requestBufferMode;
 
     @Setup
     public void setUp() {
@@ -75,7 +84,7 @@ public class LargePayloadBenchmark {
                         try {
                             responseObserver.onNext(value);
                         } finally {
-                            if (wrapBuffer) {
+                            if (requestBufferMode == RequestBufferMode.WRAP) {
                                 GrpcUnsafeBufferUtil.releaseBuffer(value, ServiceRequestContext.current());
                             }
                         }
@@ -98,7 +107,11 @@ public class LargePayloadBenchmark {
                        .serviceUnder("/",
                                      GrpcService.builder()
                                                 .addService(bindableService)
-                                                .unsafeWrapRequestBuffers(wrapBuffer)
+                                                .unsafeWrapRequestBuffers(
+                                                        requestBufferMode != RequestBufferMode.COPY)
+                                                .autoReleaseRequestBuffers(
+                                                        requestBufferMode ==
+                                                        RequestBufferMode.WRAP_AUTO_RELEASE)
                                                 .build())
                        .build();
         server.start().join();
@@ -160,6 +173,7 @@ public class LargePayloadBenchmark {
 
     public static void main(String[] args) throws Exception {
         final LargePayloadBenchmark benchmark = new LargePayloadBenchmark();
+        benchmark.requestBufferMode = RequestBufferMode.WRAP_AUTO_RELEASE;
         benchmark.setUp();
         try {
             benchmark.normal();
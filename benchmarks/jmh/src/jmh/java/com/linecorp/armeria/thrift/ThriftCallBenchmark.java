@@ -0,0 +1,129 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.thrift;
+
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TMessage;
+import org.apache.thrift.protocol.TMessageType;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.transport.TMemoryBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.linecorp.armeria.client.thrift.ThriftClients;
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.thrift.ThriftSerializationFormats;
+import com.linecorp.armeria.server.Server;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.server.thrift.THttpService;
+import com.linecorp.armeria.thrift.services.HelloService;
+import com.linecorp.armeria.thrift.services.HelloService.AsyncIface;
+
+/**
+ * Measures the overhead of dispatching a Thrift call, i.e. decoding the arguments, invoking the service
+ * implementation and encoding the result. {@link #serve()} measures {@link THttpService} only while
+ * {@link #call(ServerState)} measures a round trip of a client call via the loopback interface.
+ */
+@State(Scope.Thread)
+public class ThriftCallBenchmark {
+
+    private static final THttpService SERVICE =
+            THttpService.of((AsyncIface) (name, cb) -> cb.onComplete("Hello, " + name));
+
+    private static final byte[] HELLO_CALL;
+
+    static {
+        try {
+            final TMemoryBuffer buffer = new TMemoryBuffer(64);
+            final TProtocol protocol = new TBinaryProtocol(buffer);
+            protocol.writeMessageBegin(new TMessage("hello", TMessageType.CALL, 1));
+            new HelloService.hello_args("Armeria").write(protocol);
+            protocol.writeMessageEnd();
+            HELLO_CALL = buffer.getArray().clone();
+        } catch (TException e) {
+            throw new Error(e);
+        }
+    }
+
+    private static final RequestHeaders HEADERS =
+            RequestHeaders.of(HttpMethod.POST, "/",
+                              HttpHeaderNames.CONTENT_TYPE, ThriftSerializationFormats.BINARY.mediaType());
+
+    private HttpRequest req;
+    private ServiceRequestContext ctx;
+    private HttpResponse response;
+
+    @Setup(Level.Invocation)
+    public void initRequest() {
+        req = HttpRequest.of(HEADERS, HttpData.wrap(HELLO_CALL));
+        ctx = ServiceRequestContext.builder(req)
+                                   .service(SERVICE)
+                                   .build();
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeResponse() {
+        if (response != null) {
+            response.aggregate().join();
+            response = null;
+        }
+    }
+
+    @Benchmark
+    public HttpResponse serve() throws Exception {
+        return response = SERVICE.serve(ctx, req);
+    }
+
+    @Benchmark
+    public String call(ServerState state) throws Exception {
+        return state.client.hello("Armeria");
+    }
+
+    @State(Scope.Benchmark)
+    public static class ServerState {
+
+        private Server server;
+        private HelloService.Iface client;
+
+        @Setup
+        public void startServer() {
+            server = Server.builder()
+                           .service("/hello", SERVICE)
+                           .build();
+            server.start().join();
+            final int httpPort = server.activeLocalPort(SessionProtocol.HTTP);
+            client = ThriftClients.newClient("http://127.0.0.1:" + httpPort + "/hello",
+                                             HelloService.Iface.class);
+        }
+
+        @TearDown
+        public void stopServer() {
+            server.stop().join();
+        }
+    }
+}
@@ -18,7 +18,6 @@ package com.linecorp.armeria.client.consul;
 import static java.util.Objects.requireNonNull;
 
 import java.net.URI;
-import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -26,22 +25,27 @@ import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.linecorp.armeria.client.ClientRequestContext;
 import com.linecorp.armeria.client.ClientRequestContextCaptor;
 import com.linecorp.armeria.client.Clients;
 import com.linecorp.armeria.client.Endpoint;
 import com.linecorp.armeria.client.endpoint.DynamicEndpointGroup;
 import com.linecorp.armeria.client.endpoint.EndpointGroup;
 import com.linecorp.armeria.client.endpoint.EndpointSelectionStrategy;
+import com.linecorp.armeria.client.retry.Backoff;
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.annotation.UnstableApi;
 import com.linecorp.armeria.internal.consul.ConsulClient;
+import com.linecorp.armeria.internal.consul.ConsulEndpoints;
 
 import io.netty.channel.EventLoop;
 
 /**
  * A Consul-based {@link EndpointGroup} implementation that retrieves the list of {@link Endpoint}s
  * from Consul using <a href="https://www.consul.io/api">Consul's HTTP API</a> and updates the
- * {@link Endpoint}s periodically.
+ * {@link Endpoint}s. By default, the {@link Endpoint}s are watched using
+ * <a href="https://developer.hashicorp.com/consul/api-docs/features/blocking">blocking queries</a>
+ * so that a change is applied as soon as Consul notices it.
  */
 @UnstableApi
 public final class ConsulEndpointGroup extends DynamicEndpointGroup {
@@ -74,6 +78,9 @@ public final class ConsulEndpointGroup extends DynamicEndpointGroup {
     private final ConsulClient consulClient;
     private final String serviceName;
     private final long registryFetchIntervalMillis;
+    private final boolean useBlockingQueries;
+    private final long blockingQueryWaitMillis;
+    private final Backoff retryBackoff;
     private final boolean useHealthyEndpoints;
     @Nullable
     private final String datacenter;
@@ -82,15 +89,25 @@ public final class ConsulEndpointGroup extends DynamicEndpointGroup {
 
     @Nullable
     private volatile ScheduledFuture<?> scheduledFuture;
+    @Nullable
+    private volatile ClientRequestContext pendingQueryCtx;
+
+    // The following fields are accessed by one update at a time.
+    private long lastIndex;
+    private int numFailures;
 
     ConsulEndpointGroup(EndpointSelectionStrategy selectionStrategy, boolean allowEmptyEndpoints,
                         long selectionTimeoutMillis, ConsulClient consulClient,
-                        String serviceName, long registryFetchIntervalMillis, boolean useHealthyEndpoints,
+                        String serviceName, long registryFetchIntervalMillis, boolean useBlockingQueries,
+                        long blockingQueryWaitMillis, Backoff retryBackoff, boolean useHealthyEndpoints,
                         @Nullable String datacenter, @Nullable String filter) {
         super(selectionStrategy, allowEmptyEndpoints, selectionTimeoutMillis);
         this.consulClient = requireNonNull(consulClient, "consulClient");
         this.serviceName = requireNonNull(serviceName, "serviceName");
         this.registryFetchIntervalMillis = registryFetchIntervalMillis;
+        this.useBlockingQueries = useBlockingQueries;
+        this.blockingQueryWaitMillis = blockingQueryWaitMillis;
+        this.retryBackoff = requireNonNull(retryBackoff, "retryBackoff");
         this.useHealthyEndpoints = useHealthyEndpoints;
         this.datacenter = datacenter;
         this.filter = filter;
@@ -103,30 +120,67 @@ public final class ConsulEndpointGroup extends DynamicEndpointGroup {
             return;
         }
 
-        final CompletableFuture<List<Endpoint>> response;
-        final EventLoop eventLoop;
+        // Block until the endpoints are changed from the last known index.
+        final long index = useBlockingQueries ? lastIndex : 0;
+        final CompletableFuture<ConsulEndpoints> response;
+        final ClientRequestContext ctx;
         try (ClientRequestContextCaptor captor = Clients.newContextCaptor()) {
             if (useHealthyEndpoints) {
-                response = consulClient.healthyEndpoints(serviceName, datacenter, filter);
+                response = consulClient.healthyEndpoints(serviceName, datacenter, filter,
+                                                         index, blockingQueryWaitMillis);
             } else {
-                response = consulClient.endpoints(serviceName, datacenter, filter);
+                response = consulClient.endpoints(serviceName, datacenter, filter,
+                                                  index, blockingQueryWaitMillis);
             }
-            eventLoop = captor.get().eventLoop().withoutContext();
+            ctx = captor.get();
+        }
+        pendingQueryCtx = ctx;
+        if (isClosing()) {
+            // Closed while sending the query.
+            ctx.cancel();
         }
 
-        response.handle((endpoints, cause) -> {
+        final EventLoop eventLoop = ctx.eventLoop().withoutContext();
+        response.handle((result, cause) -> {
             if (isClosing()) {
                 return null;
             }
-            if (cause != null) {
-                logger.warn("Unexpected exception while fetching the registry from: {}" +
-                            " (serviceName: {})", consulClient.uri(), serviceName, cause);
-            } else if (endpoints != null) {
-                setEndpoints(endpoints);
+            if (cause != null || result == null) {
+                if (cause != null) {
+                    logger.warn("Unexpected exception while fetching the registry from: {}" +
+                                " (serviceName: {})", consulClient.uri(), serviceName, cause);
+                }
+                // Start over with a non-blocking query after backing off.
+                lastIndex = 0;
+                long delayMillis = retryBackoff.nextDelayMillis(++numFailures);
+                if (delayMillis < 0) {
+                    delayMillis = registryFetchIntervalMillis;
+                }
+                scheduledFuture = eventLoop.schedule(this::update, delayMillis, TimeUnit.MILLISECONDS);
+                return null;
+            }
+
+            numFailures = 0;
+            final long newIndex = result.index();
+            if (newIndex == 0 || newIndex != lastIndex) {
+                setEndpoints(result.endpoints());
+            }
+            if (newIndex < lastIndex) {
+                // The index went backwards, e.g. after the Consul state was restored from a snapshot.
+                // Start over with a non-blocking query as Consul recommends.
+                lastIndex = 0;
+            } else {
+                lastIndex = newIndex;
             }
 
-            scheduledFuture = eventLoop.schedule(this::update, registryFetchIntervalMillis,
-                                                 TimeUnit.MILLISECONDS);
+            if (useBlockingQueries && newIndex > 0) {
+                // The next query blocks until a change, so send it right away.
+                eventLoop.execute(this::update);
+            } else {
+                // Consul didn't return an index or blocking queries are disabled.
+                scheduledFuture = eventLoop.schedule(this::update, registryFetchIntervalMillis,
+                                                     TimeUnit.MILLISECONDS);
+            }
             return null;
         });
     }
@@ -137,6 +191,11 @@ public final class ConsulEndpointGroup extends DynamicEndpointGroup {
         if (scheduledFuture != null) {
             scheduledFuture.cancel(true);
         }
+        final ClientRequestContext pendingQueryCtx = this.pendingQueryCtx;
+        if (pendingQueryCtx != null) {
+            // Stop waiting for the blocking query.
+            pendingQueryCtx.cancel();
+        }
         future.complete(null);
     }
 
@@ -24,6 +24,7 @@ import java.time.Duration;
 import com.linecorp.armeria.client.Endpoint;
 import com.linecorp.armeria.client.endpoint.AbstractDynamicEndpointGroupBuilder;
 import com.linecorp.armeria.client.endpoint.EndpointSelectionStrategy;
+import com.linecorp.armeria.client.retry.Backoff;
 import com.linecorp.armeria.common.Flags;
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.annotation.UnstableApi;
@@ -47,11 +48,16 @@ public final class ConsulEndpointGroupBuilder
         extends AbstractDynamicEndpointGroupBuilder implements ConsulConfigSetters {
 
     private static final long DEFAULT_HEALTH_CHECK_INTERVAL_MILLIS = 10_000;
+    private static final long DEFAULT_BLOCKING_QUERY_WAIT_MILLIS = 60_000;
+    private static final Backoff DEFAULT_RETRY_BACKOFF = Backoff.exponential(1000, 30_000).withJitter(0.2);
 
     private EndpointSelectionStrategy selectionStrategy = EndpointSelectionStrategy.weightedRoundRobin();
 
     private final String serviceName;
     private long registryFetchIntervalMillis = DEFAULT_HEALTH_CHECK_INTERVAL_MILLIS;
+    private boolean useBlockingQueries = true;
+    private long blockingQueryWaitMillis = DEFAULT_BLOCKING_QUERY_WAIT_MILLIS;
+    private Backoff retryBackoff = DEFAULT_RETRY_BACKOFF;
     private boolean useHealthyEndpoints;
     private final ConsulClientBuilder consulClientBuilder;
     @Nullable
@@ -74,7 +80,8 @@ public final class ConsulEndpointGroupBuilder
     }
 
     /**
-     * Sets the interval between fetching registry requests.
+     * Sets the interval between fetching registry requests, which is used when
+     * {@linkplain #useBlockingQueries(boolean) blocking queries} are disabled or not supported by Consul.
      * If not set, {@value #DEFAULT_HEALTH_CHECK_INTERVAL_MILLIS} milliseconds is used by default.
      */
     public ConsulEndpointGroupBuilder registryFetchInterval(Duration registryFetchInterval) {
@@ -86,7 +93,8 @@ public final class ConsulEndpointGroupBuilder
     }
 
     /**
-     * Sets the interval between fetching registry requests in milliseconds.
+     * Sets the interval between fetching registry requests in milliseconds, which is used when
+     * {@linkplain #useBlockingQueries(boolean) blocking queries} are disabled or not supported by Consul.
      * If not set, {@value #DEFAULT_HEALTH_CHECK_INTERVAL_MILLIS} is used by default.
      */
     public ConsulEndpointGroupBuilder registryFetchIntervalMillis(long registryFetchIntervalMillis) {
@@ -96,6 +104,52 @@ public final class ConsulEndpointGroupBuilder
         return this;
     }
 
+    /**
+     * Sets whether to watch the registry using
+     * <a href="https://developer.hashicorp.com/consul/api-docs/features/blocking">blocking queries</a>.
+     * If enabled, Consul holds a registry request until the registry is changed or
+     * {@linkplain #blockingQueryWait(Duration) the wait time} elapses, so that a change is applied
+     * immediately without fetching the registry periodically. If disabled, the registry is fetched every
+     * {@linkplain #registryFetchInterval(Duration) registry fetch interval}.
+     * If not set, blocking queries are enabled by default.
+     */
+    public ConsulEndpointGroupBuilder useBlockingQueries(boolean useBlockingQueries) {
+        this.useBlockingQueries = useBlockingQueries;
+        return this;
+    }
+
+    /**
+     * Sets the maximum duration for which Consul holds a blocking query.
+     * If not set, {@value #DEFAULT_BLOCKING_QUERY_WAIT_MILLIS} milliseconds is used by default.
+     */
+    public ConsulEndpointGroupBuilder blockingQueryWait(Duration blockingQueryWait) {
+        requireNonNull(blockingQueryWait, "blockingQueryWait");
+        checkArgument(!blockingQueryWait.isZero() && !blockingQueryWait.isNegative(),
+                      "blockingQueryWait: %s (expected: > 0)", blockingQueryWait);
+        return blockingQueryWaitMillis(blockingQueryWait.toMillis());
+    }
+
+    /**
+     * Sets the maximum duration in milliseconds for which Consul holds a blocking query.
+     * If not set, {@value #DEFAULT_BLOCKING_QUERY_WAIT_MILLIS} is used by default.
+     */
+    public ConsulEndpointGroupBuilder blockingQueryWaitMillis(long blockingQueryWaitMillis) {
+        checkArgument(blockingQueryWaitMillis > 0, "blockingQueryWaitMillis: %s (expected: > 0)",
+                      blockingQueryWaitMillis);
+        this.blockingQueryWaitMillis = blockingQueryWaitMillis;
+        return this;
+    }
+
+    /**
+     * Sets the {@link Backoff} which determines the delay before retrying to fetch the registry
+     * after a failure. If not set, an exponential {@link Backoff} from 1 second up to 30 seconds
+     * with 20% jitter is used by default.
+     */
+    public ConsulEndpointGroupBuilder retryBackoff(Backoff retryBackoff) {
+        this.retryBackoff = requireNonNull(retryBackoff, "retryBackoff");
+        return this;
+    }
+
     /**
      * Sets whether to use <a href="https://www.consul.io/api/health.html">Health HTTP endpoint</a>.
      * Make sure that your target endpoints are health-checked by Consul before enabling this feature.
@@ -144,6 +198,7 @@ public final class ConsulEndpointGroupBuilder
     public ConsulEndpointGroup build() {
         return new ConsulEndpointGroup(selectionStrategy, shouldAllowEmptyEndpoints(), selectionTimeoutMillis(),
                                        consulClientBuilder.build(), serviceName, registryFetchIntervalMillis,
+                                       useBlockingQueries, blockingQueryWaitMillis, retryBackoff,
                                        useHealthyEndpoints, datacenter, filter);
     }
 
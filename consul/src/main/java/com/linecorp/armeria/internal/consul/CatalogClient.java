@@ -32,8 +32,10 @@ import com.google.common.base.Strings;
 
 import com.linecorp.armeria.client.Endpoint;
 import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.client.WebClientRequestPreparation;
 import com.linecorp.armeria.common.HttpEntity;
 import com.linecorp.armeria.common.QueryParams;
+import com.linecorp.armeria.common.ResponseEntity;
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.internal.common.PercentEncoder;
 
@@ -68,6 +70,24 @@ final class CatalogClient {
                                          .collect(toImmutableList()));
     }
 
+    /**
+     * Gets endpoint list by service name using a blocking query which waits up to {@code waitMillis} until
+     * the endpoint list is changed from the specified {@code index}. The query does not block if
+     * {@code index} is {@code 0}.
+     */
+    CompletableFuture<ConsulEndpoints> endpoints(String serviceName, @Nullable String datacenter,
+                                                 @Nullable String filter, long index, long waitMillis) {
+        requireNonNull(serviceName, "serviceName");
+        return service(serviceName, datacenter, filter, index, waitMillis)
+                .thenApply(entity -> {
+                    final List<Endpoint> endpoints = entity.content().stream()
+                                                           .map(CatalogClient::toEndpoint)
+                                                           .filter(Objects::nonNull)
+                                                           .collect(toImmutableList());
+                    return new ConsulEndpoints(endpoints, ConsulClientUtil.consulIndex(entity.headers()));
+                });
+    }
+
     /**
      * Returns node list by service name.
      */
@@ -75,17 +95,25 @@ final class CatalogClient {
     CompletableFuture<List<Node>> service(String serviceName, @Nullable String datacenter,
                                           @Nullable String filter) {
         requireNonNull(serviceName, "serviceName");
+        return service(serviceName, datacenter, filter, 0, 0).thenApply(HttpEntity::content);
+    }
+
+    private CompletableFuture<ResponseEntity<List<Node>>> service(String serviceName,
+                                                                 @Nullable String datacenter,
+                                                                 @Nullable String filter,
+                                                                 long index, long waitMillis) {
         final StringBuilder path = new StringBuilder("/catalog/service/");
         PercentEncoder.encodeComponent(path, serviceName);
-        final QueryParams params = ConsulClientUtil.queryParams(datacenter, filter);
+        final QueryParams params = ConsulClientUtil.queryParams(datacenter, filter, index, waitMillis);
         if (!params.isEmpty()) {
             path.append('?').append(params.toQueryString());
         }
-        return client.prepare()
-                     .get(path.toString())
-                     .asJson(collectionTypeForNode)
-                     .as(HttpEntity::content)
-                     .execute();
+        final WebClientRequestPreparation preparation = client.prepare().get(path.toString());
+        if (index > 0) {
+            // A non-blocking query uses the response timeout of the client.
+            preparation.responseTimeoutMillis(ConsulClientUtil.blockingQueryTimeoutMillis(waitMillis));
+        }
+        return preparation.asJson(collectionTypeForNode).execute();
     }
 
     @Nullable
@@ -113,6 +113,18 @@ public final class ConsulClient {
         return catalogClient.endpoints(serviceName, datacenter, filter);
     }
 
+    /**
+     * Get registered endpoints with service name in datacenter from Consul agent using a
+     * <a href="https://developer.hashicorp.com/consul/api-docs/features/blocking">blocking query</a>
+     * which waits up to {@code waitMillis} until the endpoints are changed from the specified {@code index}.
+     * The query does not block if {@code index} is {@code 0}.
+     */
+    public CompletableFuture<ConsulEndpoints> endpoints(String serviceName, @Nullable String datacenter,
+                                                        @Nullable String filter, long index,
+                                                        long waitMillis) {
+        return catalogClient.endpoints(serviceName, datacenter, filter, index, waitMillis);
+    }
+
     /**
      * Returns the registered endpoints with the specified service name from Consul agent.
      */
@@ -128,6 +140,19 @@ public final class ConsulClient {
         return healthClient.healthyEndpoints(serviceName, datacenter, filter);
     }
 
+    /**
+     * Returns the registered endpoints with the specified service name in datacenter from Consul agent
+     * using a <a href="https://developer.hashicorp.com/consul/api-docs/features/blocking">blocking query</a>
+     * which waits up to {@code waitMillis} until the endpoints are changed from the specified {@code index}.
+     * The query does not block if {@code index} is {@code 0}. The returned {@link CompletableFuture} is
+     * completed with {@code null} if failed to retrieve the endpoints.
+     */
+    public CompletableFuture<ConsulEndpoints> healthyEndpoints(String serviceName, @Nullable String datacenter,
+                                                               @Nullable String filter, long index,
+                                                               long waitMillis) {
+        return healthClient.healthyEndpoints(serviceName, datacenter, filter, index, waitMillis);
+    }
+
     /**
      * Returns a {@code WebClient} for accessing to Consul server.
      */
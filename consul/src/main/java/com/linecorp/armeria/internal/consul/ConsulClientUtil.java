@@ -15,8 +15,10 @@
  */
 package com.linecorp.armeria.internal.consul;
 
+import com.linecorp.armeria.common.HttpHeaderNames;
 import com.linecorp.armeria.common.QueryParams;
 import com.linecorp.armeria.common.QueryParamsBuilder;
+import com.linecorp.armeria.common.ResponseHeaders;
 import com.linecorp.armeria.common.annotation.Nullable;
 
 /**
@@ -26,6 +28,12 @@ final class ConsulClientUtil {
 
     private static final String DATACENTER_PARAM = "dc";
     private static final String FILTER_PARAM = "filter";
+    private static final String INDEX_PARAM = "index";
+    private static final String WAIT_PARAM = "wait";
+
+    private static final long MIN_BLOCKING_QUERY_TIMEOUT_MARGIN_MILLIS = 1000;
+
+    private static final CharSequence X_CONSUL_INDEX = HttpHeaderNames.of("x-consul-index");
 
     /**
      * Encodes common Consul API parameters as {@code QueryParams}.
@@ -41,5 +49,48 @@ final class ConsulClientUtil {
         return paramsBuilder.build();
     }
 
+    /**
+     * Encodes common Consul API parameters and the parameters of a
+     * <a href="https://developer.hashicorp.com/consul/api-docs/features/blocking">blocking query</a>
+     * as {@code QueryParams}. The query does not block if {@code index} is {@code 0}.
+     */
+    static QueryParams queryParams(@Nullable String datacenter, @Nullable String filter,
+                                   long index, long waitMillis) {
+        final QueryParams params = queryParams(datacenter, filter);
+        if (index <= 0) {
+            return params;
+        }
+        return params.toBuilder()
+                     .add(INDEX_PARAM, Long.toString(index))
+                     .add(WAIT_PARAM, waitMillis + "ms")
+                     .build();
+    }
+
+    /**
+     * Returns the response timeout of a blocking query which waits up to {@code waitMillis}. Consul adds
+     * a random wait time of up to {@code waitMillis / 16} to a blocking query, so the timeout is extended
+     * by the maximum random wait time plus the same amount of margin, which is at least
+     * {@value #MIN_BLOCKING_QUERY_TIMEOUT_MARGIN_MILLIS} milliseconds.
+     */
+    static long blockingQueryTimeoutMillis(long waitMillis) {
+        final long jitterMillis = waitMillis / 16;
+        return waitMillis + jitterMillis + Math.max(jitterMillis, MIN_BLOCKING_QUERY_TIMEOUT_MARGIN_MILLIS);
+    }
+
+    /**
+     * Returns the value of the {@code X-Consul-Index} header, or {@code 0} if the header is absent or invalid.
+     */
+    static long consulIndex(ResponseHeaders headers) {
+        final String index = headers.get(X_CONSUL_INDEX);
+        if (index == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Long.parseLong(index));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
     private ConsulClientUtil() {}
 }
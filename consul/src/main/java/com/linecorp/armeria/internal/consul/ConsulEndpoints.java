@@ -0,0 +1,63 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.consul;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+
+import com.google.common.base.MoreObjects;
+
+import com.linecorp.armeria.client.Endpoint;
+
+/**
+ * The {@link Endpoint}s retrieved from Consul, with the {@code X-Consul-Index} of the response which is
+ * used for the next <a href="https://developer.hashicorp.com/consul/api-docs/features/blocking">blocking
+ * query</a>.
+ */
+public final class ConsulEndpoints {
+
+    private final List<Endpoint> endpoints;
+    private final long index;
+
+    ConsulEndpoints(List<Endpoint> endpoints, long index) {
+        this.endpoints = requireNonNull(endpoints, "endpoints");
+        this.index = index;
+    }
+
+    /**
+     * Returns the retrieved {@link Endpoint}s.
+     */
+    public List<Endpoint> endpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Returns the value of the {@code X-Consul-Index} header, or {@code 0} if the header was absent.
+     */
+    public long index() {
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("endpoints", endpoints)
+                          .add("index", index)
+                          .toString();
+    }
+}
@@ -37,6 +37,7 @@ import com.google.common.base.Strings;
 
 import com.linecorp.armeria.client.Endpoint;
 import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.client.WebClientRequestPreparation;
 import com.linecorp.armeria.common.HttpStatus;
 import com.linecorp.armeria.common.QueryParams;
 import com.linecorp.armeria.common.QueryParamsBuilder;
@@ -70,15 +71,31 @@ final class HealthClient {
      */
     CompletableFuture<List<Endpoint>> healthyEndpoints(String serviceName, @Nullable String datacenter,
                                                        @Nullable String filter) {
+        return healthyEndpoints(serviceName, datacenter, filter, 0, 0)
+                .thenApply(endpoints -> endpoints != null ? endpoints.endpoints() : null);
+    }
+
+    /**
+     * Returns a healthy endpoint list by service name using a blocking query which waits up to
+     * {@code waitMillis} until the endpoint list is changed from the specified {@code index}.
+     * The query does not block if {@code index} is {@code 0}.
+     */
+    CompletableFuture<ConsulEndpoints> healthyEndpoints(String serviceName, @Nullable String datacenter,
+                                                        @Nullable String filter, long index, long waitMillis) {
         requireNonNull(serviceName, "serviceName");
         final StringBuilder path = new StringBuilder("/health/service/");
         PercentEncoder.encodeComponent(path, serviceName);
         final QueryParamsBuilder paramsBuilder = QueryParams.builder();
         paramsBuilder.add(PASSING_PARAM, "true");
-        paramsBuilder.add(ConsulClientUtil.queryParams(datacenter, filter));
+        paramsBuilder.add(ConsulClientUtil.queryParams(datacenter, filter, index, waitMillis));
         path.append('?').append(paramsBuilder.build().toQueryString());
-        return client
-                .get(path.toString())
+        final WebClientRequestPreparation preparation = client.prepare().get(path.toString());
+        if (index > 0) {
+            // A non-blocking query uses the response timeout of the client.
+            preparation.responseTimeoutMillis(ConsulClientUtil.blockingQueryTimeoutMillis(waitMillis));
+        }
+        return preparation
+                .execute()
                 .aggregate()
                 .handle((response, cause) -> {
                     if (cause != null) {
@@ -96,10 +113,12 @@ final class HealthClient {
                     }
 
                     try {
-                        return Arrays.stream(mapper.readValue(content, HealthService[].class))
-                                     .map(HealthClient::toEndpoint)
-                                     .filter(Objects::nonNull)
-                                     .collect(toImmutableList());
+                        final List<Endpoint> endpoints =
+                                Arrays.stream(mapper.readValue(content, HealthService[].class))
+                                      .map(HealthClient::toEndpoint)
+                                      .filter(Objects::nonNull)
+                                      .collect(toImmutableList());
+                        return new ConsulEndpoints(endpoints, ConsulClientUtil.consulIndex(response.headers()));
                     } catch (IOException e) {
                         logger.warn("Unexpected exception while parsing a response from Consul: {}" +
                                     " (content: {}, serviceName: {})", client.uri(), content, serviceName, e);
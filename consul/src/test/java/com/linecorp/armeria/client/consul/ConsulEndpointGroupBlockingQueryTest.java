@@ -0,0 +1,201 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.consul;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.client.retry.Backoff;
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.QueryParams;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+class ConsulEndpointGroupBlockingQueryTest {
+
+    private static final Object lock = new Object();
+    private static final BlockingQueue<QueryParams> queries = new LinkedBlockingQueue<>();
+    private static final AtomicInteger numFailures = new AtomicInteger();
+    private static long index;
+    private static List<Endpoint> endpoints = new ArrayList<>();
+    private static final List<CompletableFuture<HttpResponse>> pendingResponses = new ArrayList<>();
+
+    @RegisterExtension
+    static final ServerExtension consul = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) {
+            sb.service("/v1/catalog/service/my-service", (ctx, req) -> {
+                final QueryParams params = ctx.queryParams();
+                queries.add(params);
+                if (numFailures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                    return HttpResponse.of(HttpStatus.INTERNAL_SERVER_ERROR);
+                }
+                synchronized (lock) {
+                    final String requestedIndex = params.get("index");
+                    if (requestedIndex == null || Long.parseLong(requestedIndex) != index) {
+                        return newResponse();
+                    }
+                    // Hold the response until the endpoints are changed.
+                    final CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+                    pendingResponses.add(future);
+                    return HttpResponse.of(future);
+                }
+            });
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        synchronized (lock) {
+            index = 1;
+            endpoints = new ArrayList<>();
+            endpoints.add(Endpoint.of("127.0.0.1", 8080));
+        }
+        queries.clear();
+        numFailures.set(0);
+    }
+
+    @Test
+    void updatedImmediatelyWithBlockingQueries() throws Exception {
+        try (ConsulEndpointGroup group =
+                     ConsulEndpointGroup.builder(consul.httpUri(), "my-service")
+                                        // Should not be used.
+                                        .registryFetchInterval(Duration.ofHours(1))
+                                        .build()) {
+            assertThat(group.whenReady().join()).containsExactly(Endpoint.of("127.0.0.1", 8080));
+            // The first query doesn't block.
+            assertThat(queries.take().contains("index")).isFalse();
+
+            final QueryParams blockingQuery = queries.take();
+            assertThat(blockingQuery.get("index")).isEqualTo("1");
+            assertThat(blockingQuery.get("wait")).isEqualTo("60000ms");
+
+            update(Endpoint.of("127.0.0.1", 8081));
+            await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+                assertThat(group.endpoints()).containsExactly(Endpoint.of("127.0.0.1", 8080),
+                                                              Endpoint.of("127.0.0.1", 8081));
+            });
+            assertThat(queries.take().get("index")).isEqualTo("2");
+        }
+    }
+
+    @Test
+    void resetIndexWhenGoingBackwards() throws Exception {
+        try (ConsulEndpointGroup group =
+                     ConsulEndpointGroup.builder(consul.httpUri(), "my-service")
+                                        .registryFetchInterval(Duration.ofHours(1))
+                                        .build()) {
+            assertThat(group.whenReady().join()).containsExactly(Endpoint.of("127.0.0.1", 8080));
+            assertThat(queries.take().contains("index")).isFalse();
+            update(Endpoint.of("127.0.0.1", 8081));
+            assertThat(queries.take().get("index")).isEqualTo("1");
+            assertThat(queries.take().get("index")).isEqualTo("2");
+
+            // The index goes backwards.
+            final List<CompletableFuture<HttpResponse>> responses;
+            synchronized (lock) {
+                index = 1;
+                endpoints.remove(0);
+                responses = new ArrayList<>(pendingResponses);
+                pendingResponses.clear();
+            }
+            responses.forEach(future -> future.complete(newResponse()));
+            await().untilAsserted(() -> {
+                assertThat(group.endpoints()).containsExactly(Endpoint.of("127.0.0.1", 8081));
+            });
+
+            // Start over without an index.
+            assertThat(queries.take().contains("index")).isFalse();
+            assertThat(queries.take().get("index")).isEqualTo("1");
+        }
+    }
+
+    @Test
+    void retryWithBackoffOnFailure() {
+        numFailures.set(5);
+        try (ConsulEndpointGroup group =
+                     ConsulEndpointGroup.builder(consul.httpUri(), "my-service")
+                                        .registryFetchInterval(Duration.ofHours(1))
+                                        .retryBackoff(Backoff.fixed(10))
+                                        .build()) {
+            assertThat(group.whenReady().join()).containsExactly(Endpoint.of("127.0.0.1", 8080));
+        }
+    }
+
+    @Test
+    void pollingWithoutBlockingQueries() throws Exception {
+        try (ConsulEndpointGroup group =
+                     ConsulEndpointGroup.builder(consul.httpUri(), "my-service")
+                                        .useBlockingQueries(false)
+                                        .registryFetchIntervalMillis(100)
+                                        .build()) {
+            assertThat(group.whenReady().join()).containsExactly(Endpoint.of("127.0.0.1", 8080));
+            update(Endpoint.of("127.0.0.1", 8081));
+            await().untilAsserted(() -> assertThat(group.endpoints()).hasSize(2));
+            for (int i = 0; i < 2; i++) {
+                assertThat(queries.take().contains("index")).isFalse();
+            }
+        }
+    }
+
+    private static void update(Endpoint newEndpoint) {
+        final List<CompletableFuture<HttpResponse>> responses;
+        synchronized (lock) {
+            index++;
+            endpoints.add(newEndpoint);
+            responses = new ArrayList<>(pendingResponses);
+            pendingResponses.clear();
+        }
+        responses.forEach(future -> future.complete(newResponse()));
+    }
+
+    private static HttpResponse newResponse() {
+        final StringBuilder content = new StringBuilder("[");
+        synchronized (lock) {
+            for (Endpoint endpoint : endpoints) {
+                if (content.length() > 1) {
+                    content.append(',');
+                }
+                content.append("{\"ServiceAddress\":\"").append(endpoint.host())
+                       .append("\",\"ServicePort\":").append(endpoint.port()).append('}');
+            }
+            content.append(']');
+            return HttpResponse.of(ResponseHeaders.builder(HttpStatus.OK)
+                                                  .contentType(MediaType.JSON)
+                                                  .set("x-consul-index", Long.toString(index))
+                                                  .build(),
+                                   HttpData.ofUtf8(content.toString()));
+        }
+    }
+}
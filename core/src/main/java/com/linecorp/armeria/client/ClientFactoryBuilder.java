@@ -476,6 +476,39 @@ public final class ClientFactoryBuilder implements TlsSetters {
         return this;
     }
 
+    /**
+     * Sets the maximum number of the TLS sessions cached for session resumption. The sessions are cached
+     * per remote host and port, so that a reconnection to the same endpoint can resume the previous session
+     * with an abbreviated handshake. If not set, the default of the TLS implementation is used.
+     */
+    @UnstableApi
+    public ClientFactoryBuilder tlsSessionCacheSize(int tlsSessionCacheSize) {
+        checkArgument(tlsSessionCacheSize > 0, "tlsSessionCacheSize: %s (expected: > 0)",
+                      tlsSessionCacheSize);
+        option(ClientFactoryOptions.TLS_SESSION_CACHE_SIZE, tlsSessionCacheSize);
+        return this;
+    }
+
+    /**
+     * Sets the lifetime of the cached TLS sessions. If not set, the default of the TLS implementation is used.
+     */
+    @UnstableApi
+    public ClientFactoryBuilder tlsSessionTimeout(Duration tlsSessionTimeout) {
+        return tlsSessionTimeoutMillis(requireNonNull(tlsSessionTimeout, "tlsSessionTimeout").toMillis());
+    }
+
+    /**
+     * Sets the lifetime of the cached TLS sessions in milliseconds. If not set, the default of the TLS
+     * implementation is used.
+     */
+    @UnstableApi
+    public ClientFactoryBuilder tlsSessionTimeoutMillis(long tlsSessionTimeoutMillis) {
+        checkArgument(tlsSessionTimeoutMillis > 0, "tlsSessionTimeoutMillis: %s (expected: > 0)",
+                      tlsSessionTimeoutMillis);
+        option(ClientFactoryOptions.TLS_SESSION_TIMEOUT_MILLIS, tlsSessionTimeoutMillis);
+        return this;
+    }
+
     /**
      * Sets the factory that creates a {@link AddressResolverGroup} which resolves remote addresses into
      * {@link InetSocketAddress}es.
@@ -800,6 +833,19 @@ public final class ClientFactoryBuilder implements TlsSetters {
         return this;
     }
 
+    /**
+     * Sets whether to monitor the event loops of the {@linkplain #workerGroup(EventLoopGroup, boolean)
+     * worker group} and export their task queue delay, busy ratio and long tasks to the
+     * {@link #meterRegistry(MeterRegistry)} with the {@code "armeria.netty.client"} prefix. A probe task is
+     * submitted to each event loop periodically until the {@link ClientFactory} is closed.
+     * This option is disabled by default.
+     */
+    @UnstableApi
+    public ClientFactoryBuilder enableEventLoopMetrics(boolean enableEventLoopMetrics) {
+        option(ClientFactoryOptions.ENABLE_EVENT_LOOP_METRICS, enableEventLoopMetrics);
+        return this;
+    }
+
     /**
      * Sets the {@link ProxyConfig} which contains proxy related configuration.
      */
@@ -98,6 +98,23 @@ public final class ClientFactoryOptions
     public static final ClientFactoryOption<Boolean> TLS_ALLOW_UNSAFE_CIPHERS =
             ClientFactoryOption.define("tlsAllowUnsafeCiphers", Flags.tlsAllowUnsafeCiphers());
 
+    /**
+     * The maximum number of the TLS sessions cached for session resumption. The sessions are cached per
+     * remote host and port, so that a reconnection to the same endpoint can resume the previous session.
+     * {@code 0} means the default of the TLS implementation.
+     */
+    @UnstableApi
+    public static final ClientFactoryOption<Integer> TLS_SESSION_CACHE_SIZE =
+            ClientFactoryOption.define("TLS_SESSION_CACHE_SIZE", 0);
+
+    /**
+     * The lifetime of the cached TLS sessions in milliseconds.
+     * {@code 0} means the default of the TLS implementation.
+     */
+    @UnstableApi
+    public static final ClientFactoryOption<Long> TLS_SESSION_TIMEOUT_MILLIS =
+            ClientFactoryOption.define("TLS_SESSION_TIMEOUT_MILLIS", 0L);
+
     /**
      * The factory that creates an {@link AddressResolverGroup} which resolves remote addresses into
      * {@link InetSocketAddress}es.
@@ -247,6 +264,14 @@ public final class ClientFactoryOptions
     public static final ClientFactoryOption<MeterRegistry> METER_REGISTRY =
             ClientFactoryOption.define("METER_REGISTRY", Flags.meterRegistry());
 
+    /**
+     * Whether to monitor the event loops of the worker group and export their metrics to
+     * the {@link MeterRegistry}.
+     */
+    @UnstableApi
+    public static final ClientFactoryOption<Boolean> ENABLE_EVENT_LOOP_METRICS =
+            ClientFactoryOption.define("ENABLE_EVENT_LOOP_METRICS", false);
+
     /**
      * The {@link ProxyConfigSelector} which determines the {@link ProxyConfig} to be used.
      */
@@ -564,6 +589,15 @@ public final class ClientFactoryOptions
         return get(METER_REGISTRY);
     }
 
+    /**
+     * Returns whether to monitor the event loops of the worker group and export their metrics to
+     * the {@link MeterRegistry}.
+     */
+    @UnstableApi
+    public boolean enableEventLoopMetrics() {
+        return get(ENABLE_EVENT_LOOP_METRICS);
+    }
+
     /**
      * The {@link ProxyConfigSelector} which determines the {@link ProxyConfig} to be used.
      */
@@ -594,6 +628,24 @@ public final class ClientFactoryOptions
         return get(TLS_ALLOW_UNSAFE_CIPHERS);
     }
 
+    /**
+     * Returns the maximum number of the TLS sessions cached for session resumption.
+     * {@code 0} means the default of the TLS implementation.
+     */
+    @UnstableApi
+    public int tlsSessionCacheSize() {
+        return get(TLS_SESSION_CACHE_SIZE);
+    }
+
+    /**
+     * Returns the lifetime of the cached TLS sessions in milliseconds.
+     * {@code 0} means the default of the TLS implementation.
+     */
+    @UnstableApi
+    public long tlsSessionTimeoutMillis() {
+        return get(TLS_SESSION_TIMEOUT_MILLIS);
+    }
+
     /**
      * The {@link Consumer} that customizes the Netty {@link ChannelPipeline}.
      * This customizer is run right before {@link ChannelPipeline#connect(SocketAddress)}
@@ -148,7 +148,9 @@ final class HttpChannelPool implements AsyncCloseable {
 
         if (proxyConfig instanceof ConnectProxyConfig && ((ConnectProxyConfig) proxyConfig).useTls()) {
             final SslContext sslCtx = bootstraps.determineSslContext(desiredProtocol);
-            ch.pipeline().addFirst(sslCtx.newHandler(ch.alloc()));
+            // Specify the peer host and port so that the TLS session can be resumed on reconnection.
+            ch.pipeline().addFirst(sslCtx.newHandler(ch.alloc(), proxyAddress.getHostString(),
+                                                     proxyAddress.getPort()));
         }
     }
 
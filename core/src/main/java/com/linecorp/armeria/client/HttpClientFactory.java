@@ -55,6 +55,7 @@ import com.linecorp.armeria.common.util.ReleasableHolder;
 import com.linecorp.armeria.common.util.ShutdownHooks;
 import com.linecorp.armeria.common.util.TransportType;
 import com.linecorp.armeria.internal.common.RequestTargetCache;
+import com.linecorp.armeria.internal.common.metric.EventLoopMonitorMetrics;
 import com.linecorp.armeria.internal.common.util.ChannelUtil;
 import com.linecorp.armeria.internal.common.util.SslContextUtil;
 
@@ -86,7 +87,8 @@ final class HttpClientFactory implements ClientFactory {
                                           Scheme.of(SerializationFormat.WS, p)))
                   .collect(toImmutableSet());
 
-    private static void setupTlsMetrics(List<X509Certificate> certificates, MeterRegistry registry) {
+    private static void setupTlsMetrics(List<X509Certificate> certificates, List<SslContext> sslContexts,
+                                        MeterRegistry registry) {
         final MeterIdPrefix meterIdPrefix = new MeterIdPrefix("armeria.client");
             try {
                 MoreMeterBinders.certificateMetrics(certificates, meterIdPrefix)
@@ -94,6 +96,11 @@ final class HttpClientFactory implements ClientFactory {
             } catch (Exception ex) {
                 logger.warn("Failed to set up TLS certificate metrics: {}", certificates, ex);
             }
+        try {
+            MoreMeterBinders.tlsSessionMetrics(sslContexts, meterIdPrefix).bindTo(registry);
+        } catch (Exception ex) {
+            logger.warn("Failed to set up TLS session metrics", ex);
+        }
     }
 
     private final EventLoopGroup workerGroup;
@@ -121,6 +128,8 @@ final class HttpClientFactory implements ClientFactory {
     private final boolean useHttp1Pipelining;
     private final ConnectionPoolListener connectionPoolListener;
     private MeterRegistry meterRegistry;
+    @Nullable
+    private final EventLoopMonitorMetrics eventLoopMonitorMetrics;
     private final ProxyConfigSelector proxyConfigSelector;
     private final Http1HeaderNaming http1HeaderNaming;
     private final Consumer<? super ChannelPipeline> channelPipelineCustomizer;
@@ -184,7 +193,12 @@ final class HttpClientFactory implements ClientFactory {
         sslCtxHttp1Only = SslContextUtil
                 .createSslContext(SslContextBuilder::forClient, true, tlsAllowUnsafeCiphers, tlsCustomizers,
                                   keyCertChainCaptor);
-        setupTlsMetrics(keyCertChainCaptor, options.meterRegistry());
+        SslContextUtil.configureSessionCache(sslCtxHttp1Or2, options.tlsSessionCacheSize(),
+                                             options.tlsSessionTimeoutMillis());
+        SslContextUtil.configureSessionCache(sslCtxHttp1Only, options.tlsSessionCacheSize(),
+                                             options.tlsSessionTimeoutMillis());
+        setupTlsMetrics(keyCertChainCaptor, ImmutableList.of(sslCtxHttp1Or2, sslCtxHttp1Only),
+                        options.meterRegistry());
 
         http2InitialConnectionWindowSize = options.http2InitialConnectionWindowSize();
         http2InitialStreamWindowSize = options.http2InitialStreamWindowSize();
@@ -201,6 +215,12 @@ final class HttpClientFactory implements ClientFactory {
         useHttp1Pipelining = options.useHttp1Pipelining();
         connectionPoolListener = options.connectionPoolListener();
         meterRegistry = options.meterRegistry();
+        if (options.enableEventLoopMetrics()) {
+            eventLoopMonitorMetrics = EventLoopMonitorMetrics.bind(
+                    workerGroup, meterRegistry, new MeterIdPrefix("armeria.netty.client"));
+        } else {
+            eventLoopMonitorMetrics = null;
+        }
         proxyConfigSelector = options.proxyConfigSelector();
         http1HeaderNaming = options.http1HeaderNaming();
         maxConnectionAgeMillis = options.maxConnectionAgeMillis();
@@ -432,6 +452,9 @@ final class HttpClientFactory implements ClientFactory {
         }
 
         addressResolverGroup.close();
+        if (eventLoopMonitorMetrics != null) {
+            eventLoopMonitorMetrics.unbind(workerGroup);
+        }
 
         CompletableFuture.allOf(dependencies.toArray(EMPTY_FUTURES)).handle((unused, cause) -> {
             if (cause != null) {
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.cache;
+
+import static com.linecorp.armeria.internal.client.ClientUtil.executeWithFallback;
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.HttpClient;
+import com.linecorp.armeria.client.SimpleDecoratingHttpClient;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.logging.RequestLogBuilder;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.util.SafeCloseable;
+import com.linecorp.armeria.internal.client.ClientUtil;
+import com.linecorp.armeria.internal.common.cache.HttpResponseCache;
+import com.linecorp.armeria.internal.common.metric.CaffeineMetricSupport;
+
+/**
+ * A decorating client that caches the responses of {@code GET} requests according to the HTTP caching
+ * semantics defined in <a href="https://datatracker.ietf.org/doc/html/rfc9111">RFC 9111</a>.
+ *
+ * <p>The {@code "cache-control"}, {@code "expires"}, {@code "vary"}, {@code "etag"} and
+ * {@code "last-modified"} headers are honored. A stale response is revalidated with a conditional request,
+ * and a stale response within the {@code "stale-while-revalidate"} window is returned immediately while it
+ * is revalidated in the background. The concurrent requests that miss the cache for the same URI are
+ * collapsed into a single request.
+ *
+ * <p>A response is streamed to the caller as it is received. Its content is collected for the cache only
+ * if its headers indicate that it can be cached, and the collection stops once the content exceeds
+ * {@link CachingClientBuilder#maxEntrySizeBytes(int)}.
+ *
+ * <pre>{@code
+ * WebClient client = WebClient.builder("https://example.com")
+ *                             .decorator(CachingClient.newDecorator())
+ *                             .build();
+ * }</pre>
+ */
+@UnstableApi
+public final class CachingClient extends SimpleDecoratingHttpClient {
+
+    /**
+     * Returns a new {@link HttpClient} decorator with the default cache settings.
+     * The clients decorated by the returned decorator share the same cache.
+     */
+    public static Function<? super HttpClient, CachingClient> newDecorator() {
+        return builder().newDecorator();
+    }
+
+    /**
+     * Returns a new {@link CachingClientBuilder}.
+     */
+    public static CachingClientBuilder builder() {
+        return new CachingClientBuilder();
+    }
+
+    private final HttpResponseCache cache;
+    private final MeterIdPrefix meterIdPrefix;
+    private final AtomicBoolean metricsRegistered;
+
+    CachingClient(HttpClient delegate, HttpResponseCache cache, MeterIdPrefix meterIdPrefix,
+                  AtomicBoolean metricsRegistered) {
+        super(delegate);
+        this.cache = requireNonNull(cache, "cache");
+        this.meterIdPrefix = requireNonNull(meterIdPrefix, "meterIdPrefix");
+        this.metricsRegistered = requireNonNull(metricsRegistered, "metricsRegistered");
+    }
+
+    @Override
+    public HttpResponse execute(ClientRequestContext ctx, HttpRequest req) throws Exception {
+        if (!metricsRegistered.get() && metricsRegistered.compareAndSet(false, true)) {
+            CaffeineMetricSupport.setup(ctx.meterRegistry(), meterIdPrefix, cache.cache());
+        }
+
+        final Upstream upstream = new Upstream(ctx);
+        final HttpResponse res = cache.serve(ctx.uri().toString(), req, upstream);
+        if (upstream.executed) {
+            return res;
+        }
+
+        // The response is served from the cache or from the response of another in-flight request,
+        // which is in memory already. Fill the log that would have been filled by the delegate.
+        final RequestLogBuilder logBuilder = ctx.logBuilder();
+        return HttpResponse.of(res.aggregate().handle((aggregated, cause) -> {
+            if (upstream.executed) {
+                return cause != null ? HttpResponse.ofFailure(cause) : aggregated.toHttpResponse();
+            }
+            if (cause != null) {
+                logBuilder.endRequest(cause);
+                logBuilder.endResponse(cause);
+                return HttpResponse.ofFailure(cause);
+            }
+            logBuilder.endRequest();
+            logBuilder.responseHeaders(aggregated.headers());
+            logBuilder.increaseResponseLength(aggregated.content());
+            if (!aggregated.trailers().isEmpty()) {
+                logBuilder.responseTrailers(aggregated.trailers());
+            }
+            logBuilder.endResponse();
+            return aggregated.toHttpResponse();
+        }));
+    }
+
+    private final class Upstream implements HttpResponseCache.Upstream {
+
+        private final ClientRequestContext ctx;
+        private volatile boolean executed;
+
+        Upstream(ClientRequestContext ctx) {
+            this.ctx = ctx;
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest req) {
+            executed = true;
+            if (req != ctx.request()) {
+                ctx.updateRequest(req);
+            }
+            try (SafeCloseable ignored = ctx.push()) {
+                return unwrap().execute(ctx, req);
+            } catch (Exception e) {
+                return HttpResponse.ofFailure(e);
+            }
+        }
+
+        @Override
+        public HttpResponse executeInBackground(HttpRequest req) {
+            final ClientRequestContext derivedCtx = ClientUtil.newDerivedContext(ctx, req, null, true);
+            return executeWithFallback(unwrap(), derivedCtx, (context, cause) -> HttpResponse.ofFailure(cause));
+        }
+
+        @Override
+        public Executor executor() {
+            return ctx.eventLoop();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.cache;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import com.linecorp.armeria.client.HttpClient;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.util.Ticker;
+import com.linecorp.armeria.internal.common.cache.HttpResponseCache;
+
+/**
+ * Builds a new {@link CachingClient} decorator.
+ */
+@UnstableApi
+public final class CachingClientBuilder {
+
+    private static final long DEFAULT_MAX_SIZE_BYTES = 64 * 1024 * 1024;
+    private static final int DEFAULT_MAX_ENTRY_SIZE_BYTES = 1024 * 1024;
+
+    private long maxSizeBytes = DEFAULT_MAX_SIZE_BYTES;
+    private int maxEntrySizeBytes = DEFAULT_MAX_ENTRY_SIZE_BYTES;
+    private boolean shared;
+    private MeterIdPrefix meterIdPrefix = new MeterIdPrefix("armeria.client.cache");
+    private Ticker ticker = Ticker.systemTicker();
+
+    CachingClientBuilder() {}
+
+    /**
+     * Sets the maximum total size of the cached responses in bytes. The least recently used responses
+     * are evicted when the total size exceeds the limit. If not set, 64 MiB is used.
+     */
+    public CachingClientBuilder maxSizeBytes(long maxSizeBytes) {
+        checkArgument(maxSizeBytes > 0, "maxSizeBytes: %s (expected: > 0)", maxSizeBytes);
+        this.maxSizeBytes = maxSizeBytes;
+        return this;
+    }
+
+    /**
+     * Sets the maximum content length of a response that can be cached in bytes.
+     * If not set, 1 MiB is used.
+     */
+    public CachingClientBuilder maxEntrySizeBytes(int maxEntrySizeBytes) {
+        checkArgument(maxEntrySizeBytes > 0, "maxEntrySizeBytes: %s (expected: > 0)", maxEntrySizeBytes);
+        this.maxEntrySizeBytes = maxEntrySizeBytes;
+        return this;
+    }
+
+    /**
+     * Sets whether the cache is shared by multiple users, e.g. when the client is used by a proxy or
+     * an API gateway. A shared cache honors the {@code "s-maxage"} directive and does not cache the responses
+     * with the {@code "private"} directive or a {@code "set-cookie"} header.
+     * This option is disabled by default.
+     */
+    public CachingClientBuilder shared(boolean shared) {
+        this.shared = shared;
+        return this;
+    }
+
+    /**
+     * Sets the {@link MeterIdPrefix} of the cache metrics such as the hit and miss counts.
+     * If not set, {@code "armeria.client.cache"} is used.
+     */
+    public CachingClientBuilder meterIdPrefix(MeterIdPrefix meterIdPrefix) {
+        this.meterIdPrefix = requireNonNull(meterIdPrefix, "meterIdPrefix");
+        return this;
+    }
+
+    CachingClientBuilder ticker(Ticker ticker) {
+        this.ticker = requireNonNull(ticker, "ticker");
+        return this;
+    }
+
+    /**
+     * Returns a newly-created decorator that decorates an {@link HttpClient} with a new
+     * {@link CachingClient} based on the properties of this builder. The clients decorated by
+     * the returned decorator share the same cache.
+     */
+    public Function<? super HttpClient, CachingClient> newDecorator() {
+        final HttpResponseCache cache = new HttpResponseCache(maxSizeBytes, maxEntrySizeBytes, shared, ticker);
+        final MeterIdPrefix meterIdPrefix = this.meterIdPrefix;
+        final AtomicBoolean metricsRegistered = new AtomicBoolean();
+        return delegate -> new CachingClient(delegate, cache, meterIdPrefix, metricsRegistered);
+    }
+}
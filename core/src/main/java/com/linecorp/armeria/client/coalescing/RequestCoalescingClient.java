@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.coalescing;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.HttpClient;
+import com.linecorp.armeria.client.SimpleDecoratingHttpClient;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.logging.RequestLogBuilder;
+import com.linecorp.armeria.internal.common.coalescing.RequestCoalescer;
+
+/**
+ * A decorating client that deduplicates the concurrent requests which share the same key.
+ * While a request is in flight, the requests with the same key are not sent to the server but are served
+ * with the duplicates of the response of the first request. This is useful for preventing a burst of
+ * identical requests from hitting a downstream service, e.g. when a cache in front of the client has
+ * expired.
+ *
+ * <p>By default, only {@code GET} and {@code HEAD} requests are coalesced and the key of a request consists
+ * of its method, URI and the values of the headers which usually affect the response, such as
+ * {@code "authorization"} and {@code "accept-encoding"}. A request joins the first request only until
+ * the headers of its response are received. The response is passed through as it is if no other request
+ * joined, or it's shared with the joined requests while buffering the content which has not been consumed
+ * by all of them, up to {@link RequestCoalescingClientBuilder#maxResponseLength(long)}.
+ *
+ * <pre>{@code
+ * WebClient client = WebClient.builder("https://example.com")
+ *                             .decorator(RequestCoalescingClient.newDecorator())
+ *                             .build();
+ * }</pre>
+ */
+@UnstableApi
+public final class RequestCoalescingClient extends SimpleDecoratingHttpClient {
+
+    /**
+     * Returns a new {@link HttpClient} decorator with the default settings.
+     * The clients decorated by the returned decorator coalesce their requests with each other.
+     */
+    public static Function<? super HttpClient, RequestCoalescingClient> newDecorator() {
+        return builder().newDecorator();
+    }
+
+    /**
+     * Returns a new {@link RequestCoalescingClientBuilder}.
+     */
+    public static RequestCoalescingClientBuilder builder() {
+        return new RequestCoalescingClientBuilder();
+    }
+
+    private final RequestCoalescer coalescer;
+    private final Set<HttpMethod> methods;
+    private final BiFunction<? super ClientRequestContext, ? super HttpRequest,
+            ? extends @Nullable String> keyFunction;
+    private final long maxResponseLength;
+
+    RequestCoalescingClient(HttpClient delegate, RequestCoalescer coalescer, Set<HttpMethod> methods,
+                            BiFunction<? super ClientRequestContext, ? super HttpRequest,
+                                    ? extends @Nullable String> keyFunction,
+                            long maxResponseLength) {
+        super(delegate);
+        this.coalescer = requireNonNull(coalescer, "coalescer");
+        this.methods = requireNonNull(methods, "methods");
+        this.keyFunction = requireNonNull(keyFunction, "keyFunction");
+        this.maxResponseLength = maxResponseLength;
+    }
+
+    @Override
+    public HttpResponse execute(ClientRequestContext ctx, HttpRequest req) throws Exception {
+        if (!methods.contains(req.method())) {
+            return unwrap().execute(ctx, req);
+        }
+        final String key = keyFunction.apply(ctx, req);
+        if (key == null) {
+            return unwrap().execute(ctx, req);
+        }
+
+        final boolean[] executed = new boolean[1];
+        final HttpResponse res = coalescer.execute(key, ctx.eventLoop(), maxResponseLength, () -> {
+            executed[0] = true;
+            try {
+                return unwrap().execute(ctx, req);
+            } catch (Exception e) {
+                return HttpResponse.ofFailure(e);
+            }
+        });
+        if (executed[0]) {
+            return res;
+        }
+
+        // Served with the response of another request. Fill the log that would have been filled
+        // by the delegate.
+        final RequestLogBuilder logBuilder = ctx.logBuilder();
+        logBuilder.endRequest();
+        ctx.whenResponseCancelling().thenAccept(res::abort);
+        final HttpResponse peeked = res.peekHeaders(logBuilder::responseHeaders)
+                                       .peekTrailers(logBuilder::responseTrailers);
+        peeked.whenComplete().handle((unused, cause) -> {
+            if (cause != null) {
+                logBuilder.endResponse(cause);
+            } else {
+                logBuilder.endResponse();
+            }
+            return null;
+        });
+        return peeked;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.coalescing;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.HttpClient;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.coalescing.AbstractRequestCoalescingBuilder;
+import com.linecorp.armeria.internal.common.coalescing.RequestCoalescer;
+
+import io.netty.util.AsciiString;
+
+/**
+ * Builds a new {@link RequestCoalescingClient} or its decorator function.
+ */
+@UnstableApi
+public final class RequestCoalescingClientBuilder extends AbstractRequestCoalescingBuilder {
+
+    @Nullable
+    private BiFunction<? super ClientRequestContext, ? super HttpRequest,
+            ? extends @Nullable String> keyFunction;
+
+    RequestCoalescingClientBuilder() {}
+
+    /**
+     * Sets the {@link BiFunction} that returns the key of a request. The requests which have the same key
+     * are coalesced. If the function returns {@code null}, the request is not coalesced.
+     * If not set, the method, URI and the values of the {@linkplain #headers(Iterable)
+     * specified headers} are used as the key.
+     */
+    public RequestCoalescingClientBuilder keyFunction(
+            BiFunction<? super ClientRequestContext, ? super HttpRequest,
+                    ? extends @Nullable String> keyFunction) {
+        this.keyFunction = requireNonNull(keyFunction, "keyFunction");
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link RequestCoalescingClient} based on the properties of this builder.
+     */
+    public RequestCoalescingClient build(HttpClient delegate) {
+        requireNonNull(delegate, "delegate");
+        return new RequestCoalescingClient(delegate, new RequestCoalescer(), methods(), resolveKeyFunction(),
+                                           maxResponseLength());
+    }
+
+    /**
+     * Returns a newly-created decorator that decorates an {@link HttpClient} with a new
+     * {@link RequestCoalescingClient} based on the properties of this builder. The clients decorated by
+     * the returned decorator coalesce their requests with each other.
+     */
+    public Function<? super HttpClient, RequestCoalescingClient> newDecorator() {
+        final Set<HttpMethod> methods = methods();
+        final BiFunction<? super ClientRequestContext, ? super HttpRequest,
+                ? extends @Nullable String> keyFunction = resolveKeyFunction();
+        final long maxResponseLength = maxResponseLength();
+        final RequestCoalescer coalescer = new RequestCoalescer();
+        return delegate -> new RequestCoalescingClient(delegate, coalescer, methods, keyFunction,
+                                                       maxResponseLength);
+    }
+
+    private BiFunction<? super ClientRequestContext, ? super HttpRequest,
+            ? extends @Nullable String> resolveKeyFunction() {
+        if (keyFunction != null) {
+            return keyFunction;
+        }
+        final List<AsciiString> headerNames = headerNames();
+        return (ctx, req) -> RequestCoalescer.key(req.method(), ctx.uri().toString(), req.headers(),
+                                                  headerNames);
+    }
+
+    // Override the return type of the chaining methods in the superclass.
+
+    @Override
+    public RequestCoalescingClientBuilder methods(HttpMethod... methods) {
+        return (RequestCoalescingClientBuilder) super.methods(methods);
+    }
+
+    @Override
+    public RequestCoalescingClientBuilder methods(Iterable<HttpMethod> methods) {
+        return (RequestCoalescingClientBuilder) super.methods(methods);
+    }
+
+    @Override
+    public RequestCoalescingClientBuilder headers(CharSequence... headerNames) {
+        return (RequestCoalescingClientBuilder) super.headers(headerNames);
+    }
+
+    @Override
+    public RequestCoalescingClientBuilder headers(Iterable<? extends CharSequence> headerNames) {
+        return (RequestCoalescingClientBuilder) super.headers(headerNames);
+    }
+
+    @Override
+    public RequestCoalescingClientBuilder maxResponseLength(long maxResponseLength) {
+        return (RequestCoalescingClientBuilder) super.maxResponseLength(maxResponseLength);
+    }
+}
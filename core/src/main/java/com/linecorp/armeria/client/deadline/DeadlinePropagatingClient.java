@@ -0,0 +1,193 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.deadline;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.HttpClient;
+import com.linecorp.armeria.client.ResponseTimeoutException;
+import com.linecorp.armeria.client.SimpleDecoratingHttpClient;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.util.TimeoutMode;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+import io.netty.util.AsciiString;
+import io.netty.util.AttributeKey;
+
+/**
+ * A decorating client that propagates the deadline of the {@link ServiceRequestContext} which triggered
+ * a client request. If a client request is sent while a {@link ServiceRequestContext} is current,
+ * the response timeout of the client request is shortened to the remaining time of the server request
+ * minus a safety margin, and the timeout is sent to the downstream server via the {@code grpc-timeout}
+ * header and an optional custom header. The client request is also cancelled when the server request is
+ * cancelled, so that the whole call tree stops working on a request whose caller has gone.
+ *
+ * <pre>{@code
+ * WebClient client = WebClient.builder("https://example.com")
+ *                             .decorator(DeadlinePropagatingClient.newDecorator())
+ *                             .build();
+ * }</pre>
+ */
+@UnstableApi
+public final class DeadlinePropagatingClient extends SimpleDecoratingHttpClient {
+
+    private static final AsciiString GRPC_TIMEOUT = AsciiString.cached("grpc-timeout");
+
+    @VisibleForTesting
+    static final AttributeKey<Set<ClientRequestContext>> PENDING_REQUESTS =
+            AttributeKey.valueOf(DeadlinePropagatingClient.class, "PENDING_REQUESTS");
+
+    /**
+     * Returns a new {@link HttpClient} decorator with the default settings.
+     */
+    public static Function<? super HttpClient, DeadlinePropagatingClient> newDecorator() {
+        return builder().newDecorator();
+    }
+
+    /**
+     * Returns a new {@link DeadlinePropagatingClientBuilder}.
+     */
+    public static DeadlinePropagatingClientBuilder builder() {
+        return new DeadlinePropagatingClientBuilder();
+    }
+
+    private final long safetyMarginNanos;
+    private final boolean useGrpcTimeoutHeader;
+    @Nullable
+    private final AsciiString timeoutHeader;
+    private final boolean propagateCancellation;
+
+    DeadlinePropagatingClient(HttpClient delegate, long safetyMarginNanos, boolean useGrpcTimeoutHeader,
+                              @Nullable AsciiString timeoutHeader, boolean propagateCancellation) {
+        super(delegate);
+        this.safetyMarginNanos = safetyMarginNanos;
+        this.useGrpcTimeoutHeader = useGrpcTimeoutHeader;
+        this.timeoutHeader = timeoutHeader;
+        this.propagateCancellation = propagateCancellation;
+    }
+
+    @Override
+    public HttpResponse execute(ClientRequestContext ctx, HttpRequest req) throws Exception {
+        final ServiceRequestContext root = ctx.root();
+        if (root == null) {
+            return unwrap().execute(ctx, req);
+        }
+
+        if (propagateCancellation) {
+            propagateCancellation(root, ctx);
+        }
+
+        final long requestTimeoutMillis = root.requestTimeoutMillis();
+        if (requestTimeoutMillis <= 0) {
+            // The server request has no deadline.
+            return unwrap().execute(ctx, req);
+        }
+
+        // The request timeout of a server request is measured from when the request was received.
+        final long deadlineNanos = root.log().partial().requestStartTimeNanos() +
+                                   TimeUnit.MILLISECONDS.toNanos(requestTimeoutMillis);
+        final long remainingNanos = deadlineNanos - System.nanoTime() - safetyMarginNanos;
+        if (remainingNanos <= 0) {
+            // The server request has already timed out, so fail fast without sending the client request.
+            final ResponseTimeoutException cause = ResponseTimeoutException.get();
+            req.abort(cause);
+            ctx.logBuilder().endRequest(cause);
+            ctx.logBuilder().endResponse(cause);
+            return HttpResponse.ofFailure(cause);
+        }
+
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(ctx.responseTimeoutMillis());
+        if (timeoutNanos <= 0 || timeoutNanos > remainingNanos) {
+            ctx.setResponseTimeout(TimeoutMode.SET_FROM_NOW, Duration.ofNanos(remainingNanos));
+            timeoutNanos = remainingNanos;
+        }
+
+        if (useGrpcTimeoutHeader) {
+            ctx.setAdditionalRequestHeader(GRPC_TIMEOUT, toGrpcTimeout(timeoutNanos));
+        }
+        if (timeoutHeader != null) {
+            // Round up so that a sub-millisecond timeout is not sent as 0, which means no timeout.
+            final long timeoutMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+            ctx.setAdditionalRequestHeader(timeoutHeader, Long.toString(timeoutMillis));
+        }
+        return unwrap().execute(ctx, req);
+    }
+
+    /**
+     * Cancels the specified {@link ClientRequestContext} when the specified {@link ServiceRequestContext} is
+     * cancelled. Only one callback is registered per server request, and the client request is forgotten
+     * as soon as its log is complete, so that a long-lived server request which sends many client requests
+     * does not accumulate the callbacks.
+     */
+    private static void propagateCancellation(ServiceRequestContext root, ClientRequestContext ctx) {
+        Set<ClientRequestContext> pending = root.ownAttr(PENDING_REQUESTS);
+        if (pending == null) {
+            // A benign race; if two client requests create the set at the same time, both sets are
+            // still cancelled by their own callbacks.
+            final Set<ClientRequestContext> newPending = ConcurrentHashMap.newKeySet();
+            root.setAttr(PENDING_REQUESTS, newPending);
+            root.whenRequestCancelling().thenAccept(cause -> {
+                newPending.forEach(pendingCtx -> pendingCtx.cancel(cause));
+            });
+            pending = newPending;
+        }
+
+        final Set<ClientRequestContext> finalPending = pending;
+        finalPending.add(ctx);
+        ctx.log().whenComplete().thenRun(() -> finalPending.remove(ctx));
+        if (root.isCancelled()) {
+            // The server request was cancelled before the client request was added.
+            final Throwable cause = root.cancellationCause();
+            assert cause != null;
+            ctx.cancel(cause);
+        }
+    }
+
+    /**
+     * Converts the specified timeout into the value of a {@code grpc-timeout} header, which consists of
+     * at most 8 digits followed by a unit.
+     */
+    static String toGrpcTimeout(long timeoutNanos) {
+        final long cutoff = 100_000_000;
+        if (timeoutNanos < cutoff) {
+            return timeoutNanos + "n";
+        }
+        if (timeoutNanos < cutoff * 1000L) {
+            return TimeUnit.NANOSECONDS.toMicros(timeoutNanos) + "u";
+        }
+        if (timeoutNanos < cutoff * 1000L * 1000L) {
+            return TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "m";
+        }
+        if (timeoutNanos < cutoff * 1000L * 1000L * 1000L) {
+            return TimeUnit.NANOSECONDS.toSeconds(timeoutNanos) + "S";
+        }
+        if (timeoutNanos < cutoff * 1000L * 1000L * 1000L * 60L) {
+            return TimeUnit.NANOSECONDS.toMinutes(timeoutNanos) + "M";
+        }
+        return TimeUnit.NANOSECONDS.toHours(timeoutNanos) + "H";
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.deadline;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import com.linecorp.armeria.client.HttpClient;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+import io.netty.util.AsciiString;
+
+/**
+ * Builds a new {@link DeadlinePropagatingClient} or its decorator function.
+ */
+@UnstableApi
+public final class DeadlinePropagatingClientBuilder {
+
+    private static final Duration DEFAULT_SAFETY_MARGIN = Duration.ofMillis(10);
+
+    private Duration safetyMargin = DEFAULT_SAFETY_MARGIN;
+    private boolean useGrpcTimeoutHeader = true;
+    @Nullable
+    private AsciiString timeoutHeader;
+    private boolean propagateCancellation = true;
+
+    DeadlinePropagatingClientBuilder() {}
+
+    /**
+     * Sets the time subtracted from the remaining time of a {@link ServiceRequestContext}, which accounts
+     * for the time taken to send the request and to process its response. If not set, 10 milliseconds
+     * is used.
+     */
+    public DeadlinePropagatingClientBuilder safetyMargin(Duration safetyMargin) {
+        requireNonNull(safetyMargin, "safetyMargin");
+        checkArgument(!safetyMargin.isNegative(), "safetyMargin: %s (expected: >= 0)", safetyMargin);
+        this.safetyMargin = safetyMargin;
+        return this;
+    }
+
+    /**
+     * Sets whether the timeout is sent via the {@code grpc-timeout} header. This option is enabled
+     * by default.
+     */
+    public DeadlinePropagatingClientBuilder useGrpcTimeoutHeader(boolean useGrpcTimeoutHeader) {
+        this.useGrpcTimeoutHeader = useGrpcTimeoutHeader;
+        return this;
+    }
+
+    /**
+     * Sets the name of the HTTP header that carries the timeout in milliseconds,
+     * e.g. {@code x-timeout-millis: 500}. The header is not sent if not set.
+     */
+    public DeadlinePropagatingClientBuilder timeoutHeader(CharSequence timeoutHeader) {
+        requireNonNull(timeoutHeader, "timeoutHeader");
+        checkArgument(timeoutHeader.length() > 0, "timeoutHeader is empty.");
+        this.timeoutHeader = AsciiString.of(timeoutHeader).toLowerCase();
+        return this;
+    }
+
+    /**
+     * Sets whether a client request is cancelled when the {@link ServiceRequestContext} which triggered
+     * the client request is cancelled. This option is enabled by default.
+     */
+    public DeadlinePropagatingClientBuilder propagateCancellation(boolean propagateCancellation) {
+        this.propagateCancellation = propagateCancellation;
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link DeadlinePropagatingClient} based on the properties of this builder.
+     */
+    public DeadlinePropagatingClient build(HttpClient delegate) {
+        requireNonNull(delegate, "delegate");
+        return new DeadlinePropagatingClient(delegate, safetyMargin.toNanos(), useGrpcTimeoutHeader,
+                                             timeoutHeader, propagateCancellation);
+    }
+
+    /**
+     * Returns a newly-created decorator that decorates an {@link HttpClient} with a new
+     * {@link DeadlinePropagatingClient} based on the properties of this builder.
+     */
+    public Function<? super HttpClient, DeadlinePropagatingClient> newDecorator() {
+        return this::build;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint.outlier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.linecorp.armeria.client.Endpoint;
+
+/**
+ * The request outcomes and the ejection state of an {@link Endpoint}. The counters are updated without
+ * locking because they are updated for every request. The ejection state is guarded by the lock of
+ * {@link OutlierDetectingEndpointGroup}.
+ */
+final class EndpointOutlierStats {
+
+    private final Endpoint endpoint;
+    private final LongAdder numSuccesses = new LongAdder();
+    private final LongAdder numFailures = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicInteger consecutiveErrors = new AtomicInteger();
+    private final AtomicInteger consecutiveGatewayErrors = new AtomicInteger();
+
+    // Guarded by OutlierDetectingEndpointGroup.lock
+    private boolean ejected;
+    private long ejectedUntilNanos;
+    private int ejectionMultiplier;
+
+    EndpointOutlierStats(Endpoint endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    Endpoint endpoint() {
+        return endpoint;
+    }
+
+    void recordSuccess(long latencyNanos) {
+        numSuccesses.increment();
+        totalLatencyNanos.add(latencyNanos);
+        // Avoid writing to the shared memory if possible.
+        if (consecutiveErrors.get() != 0) {
+            consecutiveErrors.set(0);
+        }
+        if (consecutiveGatewayErrors.get() != 0) {
+            consecutiveGatewayErrors.set(0);
+        }
+    }
+
+    /**
+     * Records an error and returns the number of consecutive errors.
+     */
+    int recordError(long latencyNanos) {
+        numFailures.increment();
+        totalLatencyNanos.add(latencyNanos);
+        return consecutiveErrors.incrementAndGet();
+    }
+
+    /**
+     * Records that the last error was a gateway error and returns the number of consecutive gateway errors.
+     */
+    int recordGatewayError() {
+        return consecutiveGatewayErrors.incrementAndGet();
+    }
+
+    void resetConsecutiveGatewayErrors() {
+        if (consecutiveGatewayErrors.get() != 0) {
+            consecutiveGatewayErrors.set(0);
+        }
+    }
+
+    /**
+     * Returns the snapshot of the counters which were recorded since the last invocation and resets them.
+     */
+    Snapshot snapshotAndReset() {
+        final long numSuccesses = this.numSuccesses.sumThenReset();
+        final long numFailures = this.numFailures.sumThenReset();
+        final long totalLatencyNanos = this.totalLatencyNanos.sumThenReset();
+        return new Snapshot(this, numSuccesses, numFailures, totalLatencyNanos);
+    }
+
+    boolean isEjected() {
+        return ejected;
+    }
+
+    /**
+     * Marks the {@link Endpoint} as ejected and returns the ejection duration, which grows exponentially
+     * from {@code baseEjectionNanos} every time the {@link Endpoint} is ejected again before it has been
+     * healthy for long enough.
+     */
+    long eject(long nowNanos, long baseEjectionNanos, long maxEjectionNanos) {
+        ejected = true;
+        if (ejectionMultiplier < Integer.SIZE - 2) {
+            ejectionMultiplier++;
+        }
+        long ejectionNanos = baseEjectionNanos;
+        for (int i = 1; i < ejectionMultiplier && ejectionNanos < maxEjectionNanos; i++) {
+            ejectionNanos <<= 1;
+        }
+        ejectionNanos = Math.min(ejectionNanos, maxEjectionNanos);
+        ejectedUntilNanos = nowNanos + ejectionNanos;
+        consecutiveErrors.set(0);
+        consecutiveGatewayErrors.set(0);
+        return ejectionNanos;
+    }
+
+    /**
+     * Restores the ejected {@link Endpoint} if its ejection is expired, or decreases the ejection multiplier
+     * if the {@link Endpoint} is not ejected.
+     *
+     * @return {@code true} if the {@link Endpoint} has been restored.
+     */
+    boolean maybeRestore(long nowNanos) {
+        if (!ejected) {
+            if (ejectionMultiplier > 0) {
+                ejectionMultiplier--;
+            }
+            return false;
+        }
+        if (nowNanos - ejectedUntilNanos < 0) {
+            return false;
+        }
+        ejected = false;
+        return true;
+    }
+
+    static final class Snapshot {
+
+        final EndpointOutlierStats stats;
+        final long numSuccesses;
+        final long numFailures;
+        final long totalLatencyNanos;
+
+        Snapshot(EndpointOutlierStats stats, long numSuccesses, long numFailures, long totalLatencyNanos) {
+            this.stats = stats;
+            this.numSuccesses = numSuccesses;
+            this.numFailures = numFailures;
+            this.totalLatencyNanos = totalLatencyNanos;
+        }
+
+        long numRequests() {
+            return numSuccesses + numFailures;
+        }
+
+        double successRate() {
+            return (double) numSuccesses / numRequests();
+        }
+
+        double averageLatencyNanos() {
+            return (double) totalLatencyNanos / numRequests();
+        }
+    }
+}
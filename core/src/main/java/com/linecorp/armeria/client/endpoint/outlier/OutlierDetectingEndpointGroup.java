@@ -0,0 +1,517 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint.outlier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.client.UnprocessedRequestException;
+import com.linecorp.armeria.client.endpoint.DynamicEndpointGroup;
+import com.linecorp.armeria.client.endpoint.EndpointGroup;
+import com.linecorp.armeria.client.endpoint.healthcheck.HealthCheckedEndpointGroup;
+import com.linecorp.armeria.client.endpoint.outlier.EndpointOutlierStats.Snapshot;
+import com.linecorp.armeria.common.CancellationException;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.TimeoutException;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.stream.AbortedStreamException;
+import com.linecorp.armeria.common.util.Exceptions;
+import com.linecorp.armeria.internal.common.util.ReentrantShortLock;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.netty.util.concurrent.EventExecutor;
+
+/**
+ * An {@link EndpointGroup} that temporarily ejects the {@link Endpoint}s of an existing {@link EndpointGroup}
+ * which behave differently from the others, by watching the outcomes of the actual requests sent to them.
+ * Unlike {@link HealthCheckedEndpointGroup} which sends a health check request periodically, this
+ * {@link EndpointGroup} stops sending requests to a misbehaving {@link Endpoint} as soon as it's detected.
+ * An {@link Endpoint} is ejected when:
+ * <ul>
+ *   <li>it fails consecutively, by responding with a {@code 5xx} status, timing out or being unreachable,</li>
+ *   <li>its success rate is an outlier compared to the other {@link Endpoint}s, or</li>
+ *   <li>its average latency is an outlier compared to the other {@link Endpoint}s.</li>
+ * </ul>
+ *
+ * <p>An ejected {@link Endpoint} is restored after the ejection duration, which grows exponentially if
+ * the {@link Endpoint} is ejected again shortly after restored. The number of the ejected {@link Endpoint}s
+ * is capped by {@link OutlierDetectingEndpointGroupBuilder#maxEjectionPercent(int)}.
+ *
+ * <pre>{@code
+ * EndpointGroup originalGroup = ...
+ *
+ * OutlierDetectingEndpointGroup group =
+ *         OutlierDetectingEndpointGroup.builder(originalGroup)
+ *                                      .consecutiveErrors(5)
+ *                                      .baseEjectionDuration(Duration.ofSeconds(30))
+ *                                      .build();
+ *
+ * // You must specify the OutlierDetectingEndpointGroup when building a WebClient, otherwise
+ * // the outcomes of the requests will not be watched.
+ * WebClient client = WebClient.builder(SessionProtocol.HTTP, group)
+ *                             .build();
+ * }</pre>
+ */
+@UnstableApi
+public final class OutlierDetectingEndpointGroup extends DynamicEndpointGroup {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutlierDetectingEndpointGroup.class);
+
+    /**
+     * Returns a newly created {@link OutlierDetectingEndpointGroup} that ejects the outliers of
+     * the specified {@link EndpointGroup} with the default options.
+     */
+    public static OutlierDetectingEndpointGroup of(EndpointGroup delegate) {
+        return builder(delegate).build();
+    }
+
+    /**
+     * Returns a newly created {@link OutlierDetectingEndpointGroupBuilder} that builds
+     * an {@link OutlierDetectingEndpointGroup} which ejects the outliers of the specified
+     * {@link EndpointGroup}.
+     */
+    public static OutlierDetectingEndpointGroupBuilder builder(EndpointGroup delegate) {
+        return new OutlierDetectingEndpointGroupBuilder(delegate);
+    }
+
+    final EndpointGroup delegate;
+    private final int consecutiveErrors;
+    private final int consecutiveGatewayErrors;
+    private final double successRateStdevFactor;
+    private final double latencyFactor;
+    private final int minimumRequests;
+    private final int minimumHosts;
+    private final long baseEjectionNanos;
+    private final long maxEjectionNanos;
+    private final int maxEjectionPercent;
+    private final List<OutlierEjectionListener> listeners;
+    private final ScheduledFuture<?> analysisFuture;
+
+    private final Map<OutlierEjectionReason, LongAdder> numEjections;
+
+    private final ReentrantLock lock = new ReentrantShortLock();
+    // Looked up for every request without locking.
+    private final Map<Endpoint, EndpointOutlierStats> stats = new ConcurrentHashMap<>();
+    @GuardedBy("lock")
+    private List<Endpoint> candidates = ImmutableList.of();
+    @GuardedBy("lock")
+    private int numEjected;
+
+    OutlierDetectingEndpointGroup(EndpointGroup delegate, EventExecutor executor,
+                                  int consecutiveErrors, int consecutiveGatewayErrors,
+                                  double successRateStdevFactor, double latencyFactor,
+                                  int minimumRequests, int minimumHosts, Duration interval,
+                                  Duration baseEjectionDuration, Duration maxEjectionDuration,
+                                  int maxEjectionPercent, List<OutlierEjectionListener> listeners) {
+        this(delegate, new OutlierDetectingSelectionStrategy(delegate.selectionStrategy()), executor,
+             consecutiveErrors, consecutiveGatewayErrors, successRateStdevFactor, latencyFactor,
+             minimumRequests, minimumHosts, interval, baseEjectionDuration, maxEjectionDuration,
+             maxEjectionPercent, listeners);
+    }
+
+    private OutlierDetectingEndpointGroup(EndpointGroup delegate,
+                                          OutlierDetectingSelectionStrategy selectionStrategy,
+                                          EventExecutor executor,
+                                          int consecutiveErrors, int consecutiveGatewayErrors,
+                                          double successRateStdevFactor, double latencyFactor,
+                                          int minimumRequests, int minimumHosts, Duration interval,
+                                          Duration baseEjectionDuration, Duration maxEjectionDuration,
+                                          int maxEjectionPercent, List<OutlierEjectionListener> listeners) {
+        super(selectionStrategy, true, delegate.selectionTimeoutMillis());
+        this.delegate = delegate;
+        this.consecutiveErrors = consecutiveErrors;
+        this.consecutiveGatewayErrors = consecutiveGatewayErrors;
+        this.successRateStdevFactor = successRateStdevFactor;
+        this.latencyFactor = latencyFactor;
+        this.minimumRequests = minimumRequests;
+        this.minimumHosts = minimumHosts;
+        baseEjectionNanos = baseEjectionDuration.toNanos();
+        maxEjectionNanos = maxEjectionDuration.toNanos();
+        this.maxEjectionPercent = maxEjectionPercent;
+        this.listeners = listeners;
+
+        final EnumMap<OutlierEjectionReason, LongAdder> numEjections =
+                new EnumMap<>(OutlierEjectionReason.class);
+        for (OutlierEjectionReason reason : OutlierEjectionReason.values()) {
+            numEjections.put(reason, new LongAdder());
+        }
+        this.numEjections = numEjections;
+
+        selectionStrategy.init(this);
+        delegate.addListener(this::setCandidates, true);
+        final long intervalNanos = interval.toNanos();
+        analysisFuture = executor.scheduleWithFixedDelay(this::analyze, intervalNanos, intervalNanos,
+                                                         TimeUnit.NANOSECONDS);
+    }
+
+    private void setCandidates(List<Endpoint> endpoints) {
+        lock.lock();
+        try {
+            final Map<Endpoint, EndpointOutlierStats> newStats = new HashMap<>(endpoints.size());
+            int numEjected = 0;
+            for (Endpoint endpoint : endpoints) {
+                if (newStats.containsKey(endpoint)) {
+                    continue;
+                }
+                final EndpointOutlierStats stats =
+                        this.stats.computeIfAbsent(endpoint, EndpointOutlierStats::new);
+                if (stats.isEjected()) {
+                    numEjected++;
+                }
+                newStats.put(endpoint, stats);
+            }
+            stats.keySet().retainAll(newStats.keySet());
+            candidates = ImmutableList.copyOf(endpoints);
+            this.numEjected = numEjected;
+            updateEndpoints();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @GuardedBy("lock")
+    private void updateEndpoints() {
+        final ImmutableList.Builder<Endpoint> builder =
+                ImmutableList.builderWithExpectedSize(candidates.size());
+        for (Endpoint endpoint : candidates) {
+            final EndpointOutlierStats stats = this.stats.get(endpoint);
+            if (stats == null || !stats.isEjected()) {
+                builder.add(endpoint);
+            }
+        }
+        setEndpoints(builder.build());
+    }
+
+    /**
+     * Records the outcome of the request of the specified {@link ClientRequestContext}
+     * when it's complete.
+     */
+    void watch(ClientRequestContext ctx, Endpoint endpoint) {
+        ctx.log().whenComplete().thenAccept(log -> record(endpoint, log));
+    }
+
+    private void record(Endpoint endpoint, RequestLog log) {
+        final EndpointOutlierStats stats = this.stats.get(endpoint);
+        if (stats == null) {
+            // Removed from the delegate.
+            return;
+        }
+
+        final boolean error;
+        final boolean gatewayError;
+        final Throwable cause = log.responseCause();
+        if (cause != null) {
+            final Throwable peeled = Exceptions.peel(cause);
+            // Note that TimeoutException is a CancellationException.
+            gatewayError = peeled instanceof UnprocessedRequestException ||
+                           peeled instanceof TimeoutException;
+            if (!gatewayError &&
+                (peeled instanceof CancellationException || peeled instanceof AbortedStreamException)) {
+                // Cancelled by the caller, which says nothing about the endpoint.
+                return;
+            }
+            error = true;
+        } else {
+            final HttpStatus status = log.responseHeaders().status();
+            error = status.isServerError();
+            gatewayError = status == HttpStatus.BAD_GATEWAY ||
+                           status == HttpStatus.SERVICE_UNAVAILABLE ||
+                           status == HttpStatus.GATEWAY_TIMEOUT;
+        }
+
+        final long latencyNanos = log.totalDurationNanos();
+        if (!error) {
+            stats.recordSuccess(latencyNanos);
+            return;
+        }
+
+        final int numErrors = stats.recordError(latencyNanos);
+        if (gatewayError) {
+            final int numGatewayErrors = stats.recordGatewayError();
+            if (consecutiveGatewayErrors > 0 && numGatewayErrors >= consecutiveGatewayErrors) {
+                eject(stats, OutlierEjectionReason.CONSECUTIVE_GATEWAY_ERRORS);
+                return;
+            }
+        } else {
+            stats.resetConsecutiveGatewayErrors();
+        }
+        if (consecutiveErrors > 0 && numErrors >= consecutiveErrors) {
+            eject(stats, OutlierEjectionReason.CONSECUTIVE_ERRORS);
+        }
+    }
+
+    private void eject(EndpointOutlierStats stats, OutlierEjectionReason reason) {
+        final long ejectionNanos;
+        lock.lock();
+        try {
+            ejectionNanos = tryEject(stats, reason, System.nanoTime());
+            if (ejectionNanos < 0) {
+                return;
+            }
+            updateEndpoints();
+        } finally {
+            lock.unlock();
+        }
+        notifyEjected(stats.endpoint(), reason, ejectionNanos);
+    }
+
+    /**
+     * Ejects the {@link Endpoint} of the specified {@link EndpointOutlierStats} if allowed.
+     *
+     * @return the ejection duration in nanoseconds, or {@code -1} if the {@link Endpoint} was not ejected.
+     */
+    @GuardedBy("lock")
+    private long tryEject(EndpointOutlierStats stats, OutlierEjectionReason reason, long nowNanos) {
+        if (stats.isEjected() || this.stats.get(stats.endpoint()) != stats) {
+            // Ejected already or removed from the delegate.
+            return -1;
+        }
+        if (numEjected >= maxEjections()) {
+            logger.debug("Not ejecting {} due to the ejection limit: {}", stats.endpoint(), reason);
+            return -1;
+        }
+        numEjected++;
+        numEjections.get(reason).increment();
+        return stats.eject(nowNanos, baseEjectionNanos, maxEjectionNanos);
+    }
+
+    @GuardedBy("lock")
+    private int maxEjections() {
+        if (maxEjectionPercent == 0) {
+            return 0;
+        }
+        final int numCandidates = stats.size();
+        final int maxEjections = (int) ((long) numCandidates * maxEjectionPercent / 100);
+        // Allow ejecting at least one endpoint unless it's the only one.
+        return numCandidates > 1 ? Math.max(1, maxEjections) : maxEjections;
+    }
+
+    /**
+     * Restores the {@link Endpoint}s whose ejection is expired and detects the outliers using the outcomes
+     * recorded since the last analysis.
+     */
+    private void analyze() {
+        final List<Endpoint> restored = new ArrayList<>();
+        final List<Ejection> ejected = new ArrayList<>();
+        lock.lock();
+        try {
+            final long nowNanos = System.nanoTime();
+            final List<Snapshot> snapshots = new ArrayList<>(stats.size());
+            for (EndpointOutlierStats stats : this.stats.values()) {
+                if (stats.maybeRestore(nowNanos)) {
+                    numEjected--;
+                    restored.add(stats.endpoint());
+                }
+                final Snapshot snapshot = stats.snapshotAndReset();
+                if (!stats.isEjected() && snapshot.numRequests() >= minimumRequests) {
+                    snapshots.add(snapshot);
+                }
+            }
+
+            if (snapshots.size() >= minimumHosts) {
+                if (successRateStdevFactor > 0) {
+                    detectSuccessRateOutliers(snapshots, nowNanos, ejected);
+                }
+                if (latencyFactor > 0) {
+                    detectLatencyOutliers(snapshots, nowNanos, ejected);
+                }
+            }
+
+            if (!restored.isEmpty() || !ejected.isEmpty()) {
+                updateEndpoints();
+            }
+        } catch (Throwable t) {
+            logger.warn("Unexpected exception while detecting outliers:", t);
+        } finally {
+            lock.unlock();
+        }
+
+        for (Endpoint endpoint : restored) {
+            notifyRestored(endpoint);
+        }
+        for (Ejection ejection : ejected) {
+            notifyEjected(ejection.endpoint, ejection.reason, ejection.ejectionNanos);
+        }
+    }
+
+    @GuardedBy("lock")
+    private void detectSuccessRateOutliers(List<Snapshot> snapshots, long nowNanos, List<Ejection> ejected) {
+        double sum = 0;
+        for (Snapshot snapshot : snapshots) {
+            sum += snapshot.successRate();
+        }
+        final double mean = sum / snapshots.size();
+        double squaredDiffSum = 0;
+        for (Snapshot snapshot : snapshots) {
+            final double diff = snapshot.successRate() - mean;
+            squaredDiffSum += diff * diff;
+        }
+        final double stdev = Math.sqrt(squaredDiffSum / snapshots.size());
+        final double threshold = mean - successRateStdevFactor * stdev;
+
+        // Eject the worst ones first in case the number of ejections is limited.
+        final List<Snapshot> sorted = new ArrayList<>(snapshots);
+        sorted.sort(Comparator.comparingDouble(Snapshot::successRate));
+        for (Snapshot snapshot : sorted) {
+            if (snapshot.successRate() >= threshold) {
+                break;
+            }
+            maybeEject(snapshot.stats, OutlierEjectionReason.SUCCESS_RATE, nowNanos, ejected);
+        }
+    }
+
+    @GuardedBy("lock")
+    private void detectLatencyOutliers(List<Snapshot> snapshots, long nowNanos, List<Ejection> ejected) {
+        final List<Snapshot> sorted = new ArrayList<>(snapshots);
+        sorted.sort(Comparator.comparingDouble(Snapshot::averageLatencyNanos).reversed());
+        final int size = sorted.size();
+        final double median;
+        if (size % 2 == 0) {
+            median = (sorted.get(size / 2 - 1).averageLatencyNanos() +
+                      sorted.get(size / 2).averageLatencyNanos()) / 2;
+        } else {
+            median = sorted.get(size / 2).averageLatencyNanos();
+        }
+        final double threshold = median * latencyFactor;
+
+        // Eject the slowest ones first in case the number of ejections is limited.
+        for (Snapshot snapshot : sorted) {
+            if (snapshot.averageLatencyNanos() <= threshold) {
+                break;
+            }
+            maybeEject(snapshot.stats, OutlierEjectionReason.LATENCY, nowNanos, ejected);
+        }
+    }
+
+    @GuardedBy("lock")
+    private void maybeEject(EndpointOutlierStats stats, OutlierEjectionReason reason, long nowNanos,
+                            List<Ejection> ejected) {
+        final long ejectionNanos = tryEject(stats, reason, nowNanos);
+        if (ejectionNanos >= 0) {
+            ejected.add(new Ejection(stats.endpoint(), reason, ejectionNanos));
+        }
+    }
+
+    private void notifyEjected(Endpoint endpoint, OutlierEjectionReason reason, long ejectionNanos) {
+        final Duration ejectionDuration = Duration.ofNanos(ejectionNanos);
+        logger.debug("Ejected an outlier endpoint: {} (reason: {}, duration: {})",
+                     endpoint, reason, ejectionDuration);
+        for (OutlierEjectionListener listener : listeners) {
+            try {
+                listener.onEjected(endpoint, reason, ejectionDuration);
+            } catch (Throwable t) {
+                logger.warn("Unexpected exception from {}.onEjected():", listener, t);
+            }
+        }
+    }
+
+    private void notifyRestored(Endpoint endpoint) {
+        logger.debug("Restored an ejected endpoint: {}", endpoint);
+        for (OutlierEjectionListener listener : listeners) {
+            try {
+                listener.onRestored(endpoint);
+            } catch (Throwable t) {
+                logger.warn("Unexpected exception from {}.onRestored():", listener, t);
+            }
+        }
+    }
+
+    /**
+     * Returns the {@link Endpoint}s which are currently ejected.
+     */
+    public List<Endpoint> ejectedEndpoints() {
+        lock.lock();
+        try {
+            final ImmutableList.Builder<Endpoint> builder = ImmutableList.builder();
+            for (Endpoint endpoint : candidates) {
+                final EndpointOutlierStats stats = this.stats.get(endpoint);
+                if (stats != null && stats.isEjected()) {
+                    builder.add(endpoint);
+                }
+            }
+            return builder.build();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long numEjections(OutlierEjectionReason reason) {
+        return numEjections.get(reason).sum();
+    }
+
+    /**
+     * Returns a newly-created {@link MeterBinder} which binds the stats about this
+     * {@link OutlierDetectingEndpointGroup} with the default meter names.
+     */
+    public MeterBinder newMeterBinder(String groupName) {
+        return newMeterBinder(new MeterIdPrefix("armeria.client.endpoint.group.outlier", "name", groupName));
+    }
+
+    /**
+     * Returns a newly-created {@link MeterBinder} which binds the stats about this
+     * {@link OutlierDetectingEndpointGroup}.
+     */
+    public MeterBinder newMeterBinder(MeterIdPrefix idPrefix) {
+        return new OutlierDetectingEndpointGroupMetrics(this, idPrefix);
+    }
+
+    @Override
+    protected void doCloseAsync(CompletableFuture<?> future) {
+        analysisFuture.cancel(false);
+        delegate.closeAsync().handle((unused1, unused2) -> future.complete(null));
+    }
+
+    @Override
+    public String toString() {
+        return toString(buf -> buf.append(", delegate=").append(delegate)
+                                  .append(", ejectedEndpoints=").append(ejectedEndpoints()));
+    }
+
+    private static final class Ejection {
+
+        final Endpoint endpoint;
+        final OutlierEjectionReason reason;
+        final long ejectionNanos;
+
+        Ejection(Endpoint endpoint, OutlierEjectionReason reason, long ejectionNanos) {
+            this.endpoint = endpoint;
+            this.reason = reason;
+            this.ejectionNanos = ejectionNanos;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint.outlier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.client.endpoint.EndpointGroup;
+import com.linecorp.armeria.common.CommonPools;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+
+import io.netty.util.concurrent.EventExecutor;
+
+/**
+ * A builder for creating a new {@link OutlierDetectingEndpointGroup}.
+ */
+@UnstableApi
+public final class OutlierDetectingEndpointGroupBuilder {
+
+    static final int DEFAULT_CONSECUTIVE_ERRORS = 5;
+    static final double DEFAULT_SUCCESS_RATE_STDEV_FACTOR = 1.9;
+    static final int DEFAULT_MINIMUM_REQUESTS = 100;
+    static final int DEFAULT_MINIMUM_HOSTS = 5;
+    static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(10);
+    static final Duration DEFAULT_BASE_EJECTION_DURATION = Duration.ofSeconds(30);
+    static final Duration DEFAULT_MAX_EJECTION_DURATION = Duration.ofMinutes(5);
+    static final int DEFAULT_MAX_EJECTION_PERCENT = 10;
+
+    private final EndpointGroup delegate;
+    @Nullable
+    private EventExecutor executor;
+    private int consecutiveErrors = DEFAULT_CONSECUTIVE_ERRORS;
+    private int consecutiveGatewayErrors;
+    private double successRateStdevFactor = DEFAULT_SUCCESS_RATE_STDEV_FACTOR;
+    private double latencyFactor;
+    private int minimumRequests = DEFAULT_MINIMUM_REQUESTS;
+    private int minimumHosts = DEFAULT_MINIMUM_HOSTS;
+    private Duration interval = DEFAULT_INTERVAL;
+    private Duration baseEjectionDuration = DEFAULT_BASE_EJECTION_DURATION;
+    private Duration maxEjectionDuration = DEFAULT_MAX_EJECTION_DURATION;
+    private int maxEjectionPercent = DEFAULT_MAX_EJECTION_PERCENT;
+    private final ImmutableList.Builder<OutlierEjectionListener> listeners = ImmutableList.builder();
+
+    OutlierDetectingEndpointGroupBuilder(EndpointGroup delegate) {
+        this.delegate = requireNonNull(delegate, "delegate");
+    }
+
+    /**
+     * Sets the number of consecutive errors which makes an {@link Endpoint} ejected. An error is
+     * a {@code 5xx} response or a failure to receive a response, such as a connection failure or
+     * a response timeout. {@code 0} disables the ejection by consecutive errors.
+     * If unspecified, {@value DEFAULT_CONSECUTIVE_ERRORS} is used.
+     */
+    public OutlierDetectingEndpointGroupBuilder consecutiveErrors(int consecutiveErrors) {
+        checkArgument(consecutiveErrors >= 0, "consecutiveErrors: %s (expected: >= 0)", consecutiveErrors);
+        this.consecutiveErrors = consecutiveErrors;
+        return this;
+    }
+
+    /**
+     * Sets the number of consecutive gateway errors which makes an {@link Endpoint} ejected. A gateway error
+     * is a {@code 502 Bad Gateway}, {@code 503 Service Unavailable} or {@code 504 Gateway Timeout} response,
+     * a connection failure or a response timeout. {@code 0} disables the ejection by consecutive gateway
+     * errors, which is the default.
+     */
+    public OutlierDetectingEndpointGroupBuilder consecutiveGatewayErrors(int consecutiveGatewayErrors) {
+        checkArgument(consecutiveGatewayErrors >= 0, "consecutiveGatewayErrors: %s (expected: >= 0)",
+                      consecutiveGatewayErrors);
+        this.consecutiveGatewayErrors = consecutiveGatewayErrors;
+        return this;
+    }
+
+    /**
+     * Sets the factor of the standard deviation of the success rates which determines whether an
+     * {@link Endpoint} is an outlier. An {@link Endpoint} whose success rate is less than
+     * {@code mean - (stdev * successRateStdevFactor)} is ejected. {@code 0} disables the ejection by
+     * success rate. If unspecified, {@value DEFAULT_SUCCESS_RATE_STDEV_FACTOR} is used.
+     */
+    public OutlierDetectingEndpointGroupBuilder successRateStdevFactor(double successRateStdevFactor) {
+        checkArgument(successRateStdevFactor >= 0, "successRateStdevFactor: %s (expected: >= 0)",
+                      successRateStdevFactor);
+        this.successRateStdevFactor = successRateStdevFactor;
+        return this;
+    }
+
+    /**
+     * Sets the factor of the median of the average latencies which determines whether an {@link Endpoint}
+     * is an outlier. An {@link Endpoint} whose average latency is greater than
+     * {@code median * latencyFactor} is ejected. {@code 0} disables the ejection by latency,
+     * which is the default.
+     */
+    public OutlierDetectingEndpointGroupBuilder latencyFactor(double latencyFactor) {
+        checkArgument(latencyFactor == 0 || latencyFactor > 1, "latencyFactor: %s (expected: 0 or > 1)",
+                      latencyFactor);
+        this.latencyFactor = latencyFactor;
+        return this;
+    }
+
+    /**
+     * Sets the minimum number of requests an {@link Endpoint} has to receive during an
+     * {@linkplain #interval(Duration) interval} to be considered by the success rate and latency outlier
+     * detection. If unspecified, {@value DEFAULT_MINIMUM_REQUESTS} is used.
+     */
+    public OutlierDetectingEndpointGroupBuilder minimumRequests(int minimumRequests) {
+        checkArgument(minimumRequests > 0, "minimumRequests: %s (expected: > 0)", minimumRequests);
+        this.minimumRequests = minimumRequests;
+        return this;
+    }
+
+    /**
+     * Sets the minimum number of {@link Endpoint}s which received at least
+     * {@linkplain #minimumRequests(int) the minimum number of requests} for the success rate and latency
+     * outlier detection to be performed. If unspecified, {@value DEFAULT_MINIMUM_HOSTS} is used.
+     */
+    public OutlierDetectingEndpointGroupBuilder minimumHosts(int minimumHosts) {
+        checkArgument(minimumHosts > 0, "minimumHosts: %s (expected: > 0)", minimumHosts);
+        this.minimumHosts = minimumHosts;
+        return this;
+    }
+
+    /**
+     * Sets the interval between the success rate and latency outlier detections. The ejected
+     * {@link Endpoint}s are also restored at this interval. If unspecified, 10 seconds is used.
+     */
+    public OutlierDetectingEndpointGroupBuilder interval(Duration interval) {
+        requireNonNull(interval, "interval");
+        checkArgument(!interval.isNegative() && !interval.isZero(), "interval: %s (expected: > 0)",
+                      interval);
+        this.interval = interval;
+        return this;
+    }
+
+    /**
+     * Sets the duration for which an {@link Endpoint} is ejected for the first time. The duration doubles
+     * every time the {@link Endpoint} is ejected again, up to
+     * {@linkplain #maxEjectionDuration(Duration) the maximum ejection duration}, and shrinks back
+     * while the {@link Endpoint} is not ejected. If unspecified, 30 seconds is used.
+     */
+    public OutlierDetectingEndpointGroupBuilder baseEjectionDuration(Duration baseEjectionDuration) {
+        requireNonNull(baseEjectionDuration, "baseEjectionDuration");
+        checkArgument(!baseEjectionDuration.isNegative() && !baseEjectionDuration.isZero(),
+                      "baseEjectionDuration: %s (expected: > 0)", baseEjectionDuration);
+        this.baseEjectionDuration = baseEjectionDuration;
+        return this;
+    }
+
+    /**
+     * Sets the maximum duration for which an {@link Endpoint} is ejected. If unspecified, 5 minutes is used.
+     */
+    public OutlierDetectingEndpointGroupBuilder maxEjectionDuration(Duration maxEjectionDuration) {
+        requireNonNull(maxEjectionDuration, "maxEjectionDuration");
+        checkArgument(!maxEjectionDuration.isNegative() && !maxEjectionDuration.isZero(),
+                      "maxEjectionDuration: %s (expected: > 0)", maxEjectionDuration);
+        this.maxEjectionDuration = maxEjectionDuration;
+        return this;
+    }
+
+    /**
+     * Sets the maximum percentage of the {@link Endpoint}s which can be ejected at the same time.
+     * At least one {@link Endpoint} can be ejected unless it's the only {@link Endpoint} or
+     * {@code 0} is specified. If unspecified, {@value DEFAULT_MAX_EJECTION_PERCENT} is used.
+     */
+    public OutlierDetectingEndpointGroupBuilder maxEjectionPercent(int maxEjectionPercent) {
+        checkArgument(maxEjectionPercent >= 0 && maxEjectionPercent <= 100,
+                      "maxEjectionPercent: %s (expected: 0 <= maxEjectionPercent <= 100)",
+                      maxEjectionPercent);
+        this.maxEjectionPercent = maxEjectionPercent;
+        return this;
+    }
+
+    /**
+     * Adds the {@link OutlierEjectionListener} which is notified when an {@link Endpoint} is ejected or
+     * restored.
+     */
+    public OutlierDetectingEndpointGroupBuilder listener(OutlierEjectionListener listener) {
+        listeners.add(requireNonNull(listener, "listener"));
+        return this;
+    }
+
+    /**
+     * Sets the {@link EventExecutor} which performs the periodic outlier detection.
+     * If unspecified, an {@link EventExecutor} of {@link CommonPools#workerGroup()} is used.
+     */
+    public OutlierDetectingEndpointGroupBuilder executor(EventExecutor executor) {
+        this.executor = requireNonNull(executor, "executor");
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link OutlierDetectingEndpointGroup} based on the properties set so far.
+     */
+    public OutlierDetectingEndpointGroup build() {
+        checkArgument(baseEjectionDuration.compareTo(maxEjectionDuration) <= 0,
+                      "baseEjectionDuration: %s (expected: <= maxEjectionDuration(%s))",
+                      baseEjectionDuration, maxEjectionDuration);
+        final EventExecutor executor = this.executor != null ? this.executor
+                                                             : CommonPools.workerGroup().next();
+        return new OutlierDetectingEndpointGroup(delegate, executor, consecutiveErrors,
+                                                 consecutiveGatewayErrors, successRateStdevFactor,
+                                                 latencyFactor, minimumRequests, minimumHosts, interval,
+                                                 baseEjectionDuration, maxEjectionDuration,
+                                                 maxEjectionPercent, listeners.build());
+    }
+}
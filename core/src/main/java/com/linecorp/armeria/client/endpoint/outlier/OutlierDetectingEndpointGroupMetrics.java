@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint.outlier;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Locale;
+
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * {@link MeterBinder} for an {@link OutlierDetectingEndpointGroup}.
+ */
+final class OutlierDetectingEndpointGroupMetrics implements MeterBinder {
+
+    private final OutlierDetectingEndpointGroup endpointGroup;
+    private final MeterIdPrefix idPrefix;
+
+    OutlierDetectingEndpointGroupMetrics(OutlierDetectingEndpointGroup endpointGroup,
+                                         MeterIdPrefix idPrefix) {
+        this.endpointGroup = requireNonNull(endpointGroup, "endpointGroup");
+        this.idPrefix = requireNonNull(idPrefix, "idPrefix");
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        final String count = idPrefix.name("count");
+        registry.gauge(count, idPrefix.tags("state", "active"), endpointGroup,
+                       unused -> endpointGroup.endpoints().size());
+        registry.gauge(count, idPrefix.tags("state", "ejected"), endpointGroup,
+                       unused -> endpointGroup.ejectedEndpoints().size());
+
+        final String ejections = idPrefix.name("ejections");
+        for (OutlierEjectionReason reason : OutlierEjectionReason.values()) {
+            FunctionCounter.builder(ejections, endpointGroup, group -> group.numEjections(reason))
+                           .tags(idPrefix.tags("reason", reason.name().toLowerCase(Locale.ROOT)))
+                           .register(registry);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint.outlier;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.client.endpoint.EndpointGroup;
+import com.linecorp.armeria.client.endpoint.EndpointSelectionStrategy;
+import com.linecorp.armeria.client.endpoint.EndpointSelector;
+import com.linecorp.armeria.common.annotation.Nullable;
+
+/**
+ * An {@link EndpointSelectionStrategy} which decorates the {@link EndpointSelector}s of another
+ * {@link EndpointSelectionStrategy} so that the outcome of every request sent to a selected {@link Endpoint}
+ * is reported to an {@link OutlierDetectingEndpointGroup}.
+ */
+final class OutlierDetectingSelectionStrategy implements EndpointSelectionStrategy {
+
+    private final EndpointSelectionStrategy delegate;
+    @Nullable
+    private OutlierDetectingEndpointGroup group;
+
+    OutlierDetectingSelectionStrategy(EndpointSelectionStrategy delegate) {
+        this.delegate = requireNonNull(delegate, "delegate");
+    }
+
+    void init(OutlierDetectingEndpointGroup group) {
+        assert this.group == null;
+        this.group = group;
+    }
+
+    @Override
+    public EndpointSelector newSelector(EndpointGroup endpointGroup) {
+        final OutlierDetectingEndpointGroup group = this.group;
+        assert group != null;
+        return new OutlierDetectingSelector(delegate.newSelector(endpointGroup), group);
+    }
+
+    private static final class OutlierDetectingSelector implements EndpointSelector {
+
+        private final EndpointSelector delegate;
+        private final OutlierDetectingEndpointGroup group;
+
+        OutlierDetectingSelector(EndpointSelector delegate, OutlierDetectingEndpointGroup group) {
+            this.delegate = delegate;
+            this.group = group;
+        }
+
+        @Nullable
+        @Override
+        public Endpoint selectNow(ClientRequestContext ctx) {
+            final Endpoint endpoint = delegate.selectNow(ctx);
+            if (endpoint != null) {
+                group.watch(ctx, endpoint);
+            }
+            return endpoint;
+        }
+
+        @Deprecated
+        @Override
+        public CompletableFuture<Endpoint> select(ClientRequestContext ctx, ScheduledExecutorService executor,
+                                                  long timeoutMillis) {
+            return watch(ctx, delegate.select(ctx, executor, timeoutMillis));
+        }
+
+        @Override
+        public CompletableFuture<Endpoint> select(ClientRequestContext ctx,
+                                                  ScheduledExecutorService executor) {
+            return watch(ctx, delegate.select(ctx, executor));
+        }
+
+        private CompletableFuture<Endpoint> watch(ClientRequestContext ctx,
+                                                  CompletableFuture<Endpoint> future) {
+            return future.thenApply(endpoint -> {
+                if (endpoint != null) {
+                    group.watch(ctx, endpoint);
+                }
+                return endpoint;
+            });
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint.outlier;
+
+import java.time.Duration;
+
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+
+/**
+ * A listener which is notified when an {@link OutlierDetectingEndpointGroup} ejects or restores
+ * an {@link Endpoint}. The methods are invoked from the thread which detected the outlier, which can be
+ * an event loop thread, so they must not block.
+ */
+@UnstableApi
+public interface OutlierEjectionListener {
+
+    /**
+     * Invoked when the specified {@link Endpoint} is ejected for the specified {@link Duration}.
+     */
+    void onEjected(Endpoint endpoint, OutlierEjectionReason reason, Duration ejectionDuration);
+
+    /**
+     * Invoked when the ejection of the specified {@link Endpoint} is expired and it's available again.
+     */
+    default void onRestored(Endpoint endpoint) {}
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint.outlier;
+
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+
+/**
+ * The reason why an {@link Endpoint} was ejected by an {@link OutlierDetectingEndpointGroup}.
+ */
+@UnstableApi
+public enum OutlierEjectionReason {
+    /**
+     * The {@link Endpoint} failed consecutively, by responding with a {@code 5xx} status or
+     * failing to respond at all.
+     */
+    CONSECUTIVE_ERRORS,
+    /**
+     * The {@link Endpoint} failed consecutively, by responding with a {@code 502 Bad Gateway},
+     * {@code 503 Service Unavailable} or {@code 504 Gateway Timeout}, or by being unreachable or timing out.
+     */
+    CONSECUTIVE_GATEWAY_ERRORS,
+    /**
+     * The success rate of the {@link Endpoint} was lower than the mean success rate of all {@link Endpoint}s
+     * by more than the configured number of standard deviations.
+     */
+    SUCCESS_RATE,
+    /**
+     * The average latency of the {@link Endpoint} was greater than the median of the average latencies
+     * of all {@link Endpoint}s by more than the configured factor.
+     */
+    LATENCY
+}
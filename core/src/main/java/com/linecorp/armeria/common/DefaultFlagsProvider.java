@@ -47,6 +47,7 @@ final class DefaultFlagsProvider implements FlagsProvider {
     static final int MAX_NUM_CONNECTIONS = Integer.MAX_VALUE;
     static final int NUM_COMMON_BLOCKING_TASK_THREADS = 200; // from Tomcat default maxThreads
     static final long DEFAULT_MAX_REQUEST_LENGTH = 10 * 1024 * 1024; // 10 MiB
+    static final long DEFAULT_MULTIPART_MAX_PART_LENGTH = 0; // Unlimited
     static final long DEFAULT_MAX_RESPONSE_LENGTH = 10 * 1024 * 1024; // 10 MiB
 
     // Use slightly greater value than the client-side default so that clients close the connection more often.
@@ -453,6 +454,11 @@ final class DefaultFlagsProvider implements FlagsProvider {
                          File.separatorChar + "multipart-uploads");
     }
 
+    @Override
+    public Long defaultMultipartMaxPartLength() {
+        return DEFAULT_MULTIPART_MAX_PART_LENGTH;
+    }
+
     @Override
     public Sampler<? super RequestContext> requestContextLeakDetectionSampler() {
         return Sampler.never();
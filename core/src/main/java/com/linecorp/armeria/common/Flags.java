@@ -395,6 +395,10 @@ public final class Flags {
     private static final Path DEFAULT_MULTIPART_UPLOADS_LOCATION =
             getValue(FlagsProvider::defaultMultipartUploadsLocation, "defaultMultipartUploadsLocation");
 
+    private static final long DEFAULT_MULTIPART_MAX_PART_LENGTH =
+            getValue(FlagsProvider::defaultMultipartMaxPartLength, "defaultMultipartMaxPartLength",
+                     value -> value >= 0);
+
     private static final Sampler<? super RequestContext> REQUEST_CONTEXT_LEAK_DETECTION_SAMPLER =
             getValue(FlagsProvider::requestContextLeakDetectionSampler, "requestContextLeakDetectionSampler");
 
@@ -1402,6 +1406,22 @@ public final class Flags {
         return DEFAULT_MULTIPART_UPLOADS_LOCATION;
     }
 
+    /**
+     * Returns the maximum length of each part of a {@code multipart/form-data} request which is received
+     * by an annotated service method with {@code @Param} parameters. The length of a part is checked while
+     * its content is streamed into a file or memory, so an oversized part is rejected with
+     * {@code 413 Request Entity Too Large} without buffering the whole part. Note that the maximum length of
+     * the whole request is still limited by {@link ServerBuilder#maxRequestLength(long)}.
+     *
+     * <p>The default value of this flag is {@value DefaultFlagsProvider#DEFAULT_MULTIPART_MAX_PART_LENGTH}.
+     * Specify the {@code -Dcom.linecorp.armeria.defaultMultipartMaxPartLength=<long>} to override
+     * the default value. {@code 0} disables the length limit.
+     */
+    @UnstableApi
+    public static long defaultMultipartMaxPartLength() {
+        return DEFAULT_MULTIPART_MAX_PART_LENGTH;
+    }
+
     /**
      * Returns whether to allow double dots ({@code ..}) in a request path query string.
      *
@@ -1078,6 +1078,23 @@ public interface FlagsProvider {
         return null;
     }
 
+    /**
+     * Returns the maximum length of each part of a {@code multipart/form-data} request which is received
+     * by an annotated service method with {@code @Param} parameters. The length of a part is checked while
+     * its content is streamed into a file or memory, so an oversized part is rejected with
+     * {@code 413 Request Entity Too Large} without buffering the whole part. Note that the maximum length of
+     * the whole request is still limited by {@link ServerBuilder#maxRequestLength(long)}.
+     *
+     * <p>The default value of this flag is {@value DefaultFlagsProvider#DEFAULT_MULTIPART_MAX_PART_LENGTH}.
+     * Specify the {@code -Dcom.linecorp.armeria.defaultMultipartMaxPartLength=<long>} to override
+     * the default value. {@code 0} disables the length limit.
+     */
+    @Nullable
+    @UnstableApi
+    default Long defaultMultipartMaxPartLength() {
+        return null;
+    }
+
     /**
      * Returns the {@link Sampler} that determines whether to trace the stack trace of request contexts leaks
      * and how frequently to keeps stack trace. A sampled exception will have the stack trace while the others
@@ -455,6 +455,11 @@ final class SystemPropertyFlagsProvider implements FlagsProvider {
         return getAndParse("defaultMultipartUploadsLocation", Paths::get);
     }
 
+    @Override
+    public Long defaultMultipartMaxPartLength() {
+        return getLong("defaultMultipartMaxPartLength");
+    }
+
     @Override
     public Sampler<? super RequestContext> requestContextLeakDetectionSampler() {
         final String spec = getNormalized("requestContextLeakDetectionSampler");
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.coalescing;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+
+import com.linecorp.armeria.common.ContentTooLargeException;
+import com.linecorp.armeria.common.Flags;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+
+import io.netty.util.AsciiString;
+
+/**
+ * A skeletal builder implementation for the request coalescing clients and services.
+ */
+@UnstableApi
+public abstract class AbstractRequestCoalescingBuilder {
+
+    private static final Set<HttpMethod> DEFAULT_METHODS = Sets.immutableEnumSet(HttpMethod.GET,
+                                                                                 HttpMethod.HEAD);
+    private static final List<AsciiString> DEFAULT_HEADER_NAMES =
+            ImmutableList.of(HttpHeaderNames.AUTHORIZATION, HttpHeaderNames.COOKIE, HttpHeaderNames.ACCEPT,
+                             HttpHeaderNames.ACCEPT_ENCODING, HttpHeaderNames.ACCEPT_LANGUAGE);
+
+    private Set<HttpMethod> methods = DEFAULT_METHODS;
+    private List<AsciiString> headerNames = DEFAULT_HEADER_NAMES;
+    private long maxResponseLength = Flags.defaultMaxResponseLength();
+
+    /**
+     * Sets the {@link HttpMethod}s of the requests to coalesce. Only the methods which are safe and
+     * idempotent and whose requests have no content should be specified.
+     * If not set, {@link HttpMethod#GET} and {@link HttpMethod#HEAD} are used.
+     */
+    public AbstractRequestCoalescingBuilder methods(HttpMethod... methods) {
+        return methods(ImmutableList.copyOf(requireNonNull(methods, "methods")));
+    }
+
+    /**
+     * Sets the {@link HttpMethod}s of the requests to coalesce. Only the methods which are safe and
+     * idempotent and whose requests have no content should be specified.
+     * If not set, {@link HttpMethod#GET} and {@link HttpMethod#HEAD} are used.
+     */
+    public AbstractRequestCoalescingBuilder methods(Iterable<HttpMethod> methods) {
+        requireNonNull(methods, "methods");
+        checkArgument(methods.iterator().hasNext(), "methods can't be empty.");
+        this.methods = Sets.immutableEnumSet(methods);
+        return this;
+    }
+
+    /**
+     * Returns the {@link HttpMethod}s of the requests to coalesce.
+     */
+    protected final Set<HttpMethod> methods() {
+        return methods;
+    }
+
+    /**
+     * Sets the names of the headers whose values are included in the key of a request.
+     * If not set, {@code "authorization"}, {@code "cookie"}, {@code "accept"}, {@code "accept-encoding"}
+     * and {@code "accept-language"} are used. This option is ignored if a custom key function is set.
+     */
+    public AbstractRequestCoalescingBuilder headers(CharSequence... headerNames) {
+        return headers(ImmutableList.copyOf(requireNonNull(headerNames, "headerNames")));
+    }
+
+    /**
+     * Sets the names of the headers whose values are included in the key of a request.
+     * If not set, {@code "authorization"}, {@code "cookie"}, {@code "accept"}, {@code "accept-encoding"}
+     * and {@code "accept-language"} are used. This option is ignored if a custom key function is set.
+     */
+    public AbstractRequestCoalescingBuilder headers(Iterable<? extends CharSequence> headerNames) {
+        requireNonNull(headerNames, "headerNames");
+        final ImmutableList.Builder<AsciiString> builder = ImmutableList.builder();
+        for (CharSequence name : headerNames) {
+            builder.add(HttpHeaderNames.of(name));
+        }
+        this.headerNames = builder.build();
+        return this;
+    }
+
+    /**
+     * Returns the names of the headers whose values are included in the key of a request.
+     */
+    protected final List<AsciiString> headerNames() {
+        return headerNames;
+    }
+
+    /**
+     * Sets the maximum number of bytes buffered when a response is shared by the coalesced requests.
+     * A response is buffered only if another request joined before the response headers are received,
+     * and only its content which has not been consumed by all the coalesced requests is buffered.
+     * If the buffered content exceeds the limit, e.g. because one of the requests consumes the response
+     * slowly, all the coalesced requests fail with a {@link ContentTooLargeException}.
+     * A response which is not shared is never buffered nor limited. {@code 0} disables the limit.
+     * If not set, {@link Flags#defaultMaxResponseLength()} is used.
+     */
+    public AbstractRequestCoalescingBuilder maxResponseLength(long maxResponseLength) {
+        checkArgument(maxResponseLength >= 0,
+                      "maxResponseLength: %s (expected: >= 0)", maxResponseLength);
+        this.maxResponseLength = maxResponseLength;
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of bytes buffered when a response is shared by the coalesced requests.
+     */
+    protected final long maxResponseLength() {
+        return maxResponseLength;
+    }
+}
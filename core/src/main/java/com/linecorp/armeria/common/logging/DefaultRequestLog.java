@@ -53,6 +53,7 @@ import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.util.EventLoopCheckingFuture;
 import com.linecorp.armeria.common.util.SystemInfo;
 import com.linecorp.armeria.common.util.UnmodifiableFuture;
+import com.linecorp.armeria.internal.common.logging.RequestResourceUsage;
 import com.linecorp.armeria.internal.common.util.ChannelUtil;
 import com.linecorp.armeria.internal.common.util.ReentrantShortLock;
 import com.linecorp.armeria.internal.common.util.TemporaryThreadLocals;
@@ -130,6 +131,9 @@ final class DefaultRequestLog implements RequestLog, RequestLogBuilder {
     @Nullable
     private Throwable responseCause;
 
+    private long cpuTimeNanos = -1;
+    private long allocatedBytes = -1;
+
     @Nullable
     private Channel channel;
     @Nullable
@@ -406,6 +410,10 @@ final class DefaultRequestLog implements RequestLog, RequestLogBuilder {
                 break;
             }
 
+            if (newFlags == FLAGS_ALL_COMPLETE) {
+                // Capture the resource usage before the completion becomes visible to other threads.
+                captureResourceUsage();
+            }
             if (flagsUpdater.compareAndSet(this, oldFlags, newFlags)) {
                 final RequestLogFuture[] satisfiedFutures;
                 lock.lock();
@@ -423,6 +431,14 @@ final class DefaultRequestLog implements RequestLog, RequestLogBuilder {
         }
     }
 
+    private void captureResourceUsage() {
+        final RequestResourceUsage usage = RequestResourceUsage.get(ctx);
+        if (usage != null) {
+            cpuTimeNanos = usage.cpuTimeNanos();
+            allocatedBytes = usage.allocatedBytes();
+        }
+    }
+
     private static void completeSatisfiedFutures(RequestLogFuture[] satisfiedFutures, RequestLog log,
                                                  RequestContext ctx) {
         if (!ctx.eventLoop().inEventLoop()) {
@@ -1371,6 +1387,18 @@ final class DefaultRequestLog implements RequestLog, RequestLogBuilder {
         updateFlags(RequestLogProperty.RESPONSE_TRAILERS);
     }
 
+    @Override
+    public long cpuTimeNanos() {
+        ensureComplete();
+        return cpuTimeNanos;
+    }
+
+    @Override
+    public long allocatedBytes() {
+        ensureComplete();
+        return allocatedBytes;
+    }
+
     @Override
     public void endResponse() {
         endResponse0(responseContent instanceof RpcResponse ? ((RpcResponse) responseContent).cause() : null);
@@ -1844,6 +1872,16 @@ final class DefaultRequestLog implements RequestLog, RequestLogBuilder {
             return responseTrailers;
         }
 
+        @Override
+        public long cpuTimeNanos() {
+            return cpuTimeNanos;
+        }
+
+        @Override
+        public long allocatedBytes() {
+            return allocatedBytes;
+        }
+
         @Override
         public String toString() {
             return DefaultRequestLog.this.toString();
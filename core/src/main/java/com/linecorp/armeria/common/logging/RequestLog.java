@@ -31,9 +31,12 @@ import com.linecorp.armeria.common.ResponseHeaders;
 import com.linecorp.armeria.common.RpcResponse;
 import com.linecorp.armeria.common.SerializationFormat;
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
 import com.linecorp.armeria.common.util.Functions;
+import com.linecorp.armeria.common.util.Sampler;
 import com.linecorp.armeria.server.Service;
 import com.linecorp.armeria.server.logging.ContentPreviewingService;
+import com.linecorp.armeria.server.metric.MetricCollectingServiceBuilder;
 
 /**
  * A set of informational properties collected while processing a {@link Request} and {@link Response}.
@@ -202,6 +205,29 @@ public interface RequestLog extends RequestOnlyLog {
      */
     HttpHeaders responseTrailers();
 
+    /**
+     * Returns the CPU time consumed by the threads while the {@link RequestContext} of this log was current,
+     * in nanoseconds. The accounting is enabled only for the requests sampled by
+     * {@link MetricCollectingServiceBuilder#resourceUsageSampler(Sampler)}.
+     *
+     * @return the CPU time, or {@code -1} if the accounting was not enabled for the request.
+     * @throws RequestLogAvailabilityException if this log is not complete yet.
+     */
+    @UnstableApi
+    long cpuTimeNanos();
+
+    /**
+     * Returns the number of bytes allocated by the threads while the {@link RequestContext} of this log
+     * was current. The accounting is enabled only for the requests sampled by
+     * {@link MetricCollectingServiceBuilder#resourceUsageSampler(Sampler)}.
+     *
+     * @return the number of allocated bytes, or {@code -1} if the accounting was not enabled for
+     *         the request.
+     * @throws RequestLogAvailabilityException if this log is not complete yet.
+     */
+    @UnstableApi
+    long allocatedBytes();
+
     /**
      * Returns the string representation of the {@link Response}, with no sanitization of headers or content.
      * This method is a shortcut for:
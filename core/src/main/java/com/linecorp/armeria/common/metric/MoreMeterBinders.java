@@ -30,6 +30,7 @@ import com.linecorp.armeria.internal.common.util.CertificateUtil;
 
 import io.micrometer.core.instrument.binder.MeterBinder;
 import io.netty.channel.EventLoopGroup;
+import io.netty.handler.ssl.SslContext;
 
 /**
  *  Provides useful {@link MeterBinder}s to monitor various Armeria components.
@@ -151,5 +152,38 @@ public final class MoreMeterBinders {
         return certificateMetrics(CertificateUtil.toX509Certificates(keyCertChainFile), meterIdPrefix);
     }
 
+    /**
+     * Returns a new {@link MeterBinder} to observe the TLS session resumption of the specified
+     * {@link SslContext}s. The stats of the specified {@link SslContext}s are summed up, and only
+     * the {@link SslContext}s which use OpenSSL are observed.
+     * The following stats are currently exported per registered {@link MeterIdPrefix}.
+     *
+     * <ul>
+     *   <li>"tls.session.cache.hits" (counter) - the number of the sessions resumed from the session
+     *       cache</li>
+     *   <li>"tls.session.cache.misses" (counter) - the number of the requested sessions which were not
+     *       found in the session cache</li>
+     *   <li>"tls.session.cache.timeouts" (counter) - the number of the requested sessions which were found
+     *       in the session cache but expired</li>
+     *   <li>"tls.session.ticket.resumptions" (counter) - the number of the sessions resumed from
+     *       a session ticket</li>
+     *   <li>"tls.session.ticket.renewals" (counter) - the number of the sessions resumed from a session
+     *       ticket encrypted with a non-primary key, i.e. a key which is being rotated out</li>
+     *   <li>"tls.session.ticket.failures" (counter) - the number of the session tickets which failed to be
+     *       decrypted, e.g. because they were encrypted with an unknown key</li>
+     *   <li>"tls.session.cache.size" (gauge) - the number of the sessions in the session cache</li>
+     * </ul>
+     *
+     * @param sslContexts the {@link SslContext}s to monitor
+     * @param meterIdPrefix the prefix to use for all metrics
+     */
+    @UnstableApi
+    public static MeterBinder tlsSessionMetrics(Iterable<? extends SslContext> sslContexts,
+                                                MeterIdPrefix meterIdPrefix) {
+        requireNonNull(sslContexts, "sslContexts");
+        requireNonNull(meterIdPrefix, "meterIdPrefix");
+        return new TlsSessionMetrics(sslContexts, meterIdPrefix);
+    }
+
     private MoreMeterBinders() {}
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.metric;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import com.google.common.collect.ImmutableList;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.netty.handler.ssl.OpenSslSessionContext;
+import io.netty.handler.ssl.OpenSslSessionStats;
+import io.netty.handler.ssl.SslContext;
+
+final class TlsSessionMetrics implements MeterBinder {
+
+    private final List<OpenSslSessionContext> sessionContexts;
+    private final MeterIdPrefix meterIdPrefix;
+
+    TlsSessionMetrics(Iterable<? extends SslContext> sslContexts, MeterIdPrefix meterIdPrefix) {
+        final ImmutableList.Builder<OpenSslSessionContext> builder = ImmutableList.builder();
+        for (SslContext sslContext : sslContexts) {
+            // Only OpenSSL exposes the session statistics.
+            if (sslContext.sessionContext() instanceof OpenSslSessionContext) {
+                builder.add((OpenSslSessionContext) sslContext.sessionContext());
+            }
+        }
+        sessionContexts = builder.build();
+        this.meterIdPrefix = meterIdPrefix;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (sessionContexts.isEmpty()) {
+            return;
+        }
+
+        counter(registry, "tls.session.cache.hits",
+                "the number of the sessions resumed from the session cache",
+                OpenSslSessionStats::hits);
+        counter(registry, "tls.session.cache.misses",
+                "the number of the requested sessions which were not found in the session cache",
+                OpenSslSessionStats::misses);
+        counter(registry, "tls.session.cache.timeouts",
+                "the number of the requested sessions which were found in the session cache but expired",
+                OpenSslSessionStats::timeouts);
+        counter(registry, "tls.session.ticket.resumptions",
+                "the number of the sessions resumed from a session ticket",
+                OpenSslSessionStats::ticketKeyResume);
+        counter(registry, "tls.session.ticket.renewals",
+                "the number of the sessions resumed from a session ticket encrypted with a non-primary key",
+                OpenSslSessionStats::ticketKeyRenew);
+        counter(registry, "tls.session.ticket.failures",
+                "the number of the session tickets which failed to be decrypted",
+                OpenSslSessionStats::ticketKeyFail);
+
+        // Capture 'this' in the functions so that the meters keep this binder alive.
+        Gauge.builder(meterIdPrefix.name("tls.session.cache.size"), this,
+                      unused -> sum(OpenSslSessionStats::number))
+             .description("the number of the sessions in the session cache")
+             .tags(meterIdPrefix.tags())
+             .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String name, String description,
+                         ToLongFunction<OpenSslSessionStats> function) {
+        FunctionCounter.builder(meterIdPrefix.name(name), this, unused -> sum(function))
+                       .description(description)
+                       .tags(meterIdPrefix.tags())
+                       .register(registry);
+    }
+
+    private long sum(ToLongFunction<OpenSslSessionStats> function) {
+        long sum = 0;
+        for (OpenSslSessionContext sessionContext : sessionContexts) {
+            sum += function.applyAsLong(sessionContext.stats());
+        }
+        return sum;
+    }
+}
@@ -32,7 +32,6 @@ package com.linecorp.armeria.common.multipart;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,6 +43,7 @@ import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.multipart.MultipartDecoder.BodyPartPublisher;
 import com.linecorp.armeria.common.stream.StreamDecoderInput;
 import com.linecorp.armeria.common.stream.StreamDecoderOutput;
+import com.linecorp.armeria.internal.common.stream.ByteBufsDecoderInput;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
@@ -74,14 +74,9 @@ final class MimeParser {
     private final int boundaryLength;
 
     /**
-     * BnM algorithm: Bad Character Shift table.
+     * Boyer-Moore-Horspool algorithm: Bad Character Shift table indexed by the unsigned value of a byte.
      */
-    private final int[] badCharacters = new int[128];
-
-    /**
-     * BnM algorithm: Good Suffix Shift table.
-     */
-    private final int[] goodSuffixes;
+    private final int[] badCharacterShifts;
 
     /**
      * The current parser state.
@@ -145,8 +140,7 @@ final class MimeParser {
         boundaryBytes = getBytes("--" + boundary);
         this.multipartDecoder = multipartDecoder;
         boundaryLength = boundaryBytes.length;
-        goodSuffixes = new int[boundaryLength];
-        compileBoundaryPattern();
+        badCharacterShifts = ByteBufsDecoderInput.badCharacterShifts(boundaryBytes);
     }
 
     /**
@@ -546,78 +540,36 @@ final class MimeParser {
     }
 
     /**
-     * Boyer-Moore search method.
-     * Copied from {@link Pattern}
-     *
-     * <p>Pre calculates arrays needed to generate the bad character shift and the
-     * good suffix shift. Only the last seven bits are used to see if chars
-     * match; This keeps the tables small and covers the heavily used ASCII
-     * range, but occasionally results in an aliased match for the bad character
-     * shift.
-     */
-    private void compileBoundaryPattern() {
-        int i;
-        int j;
-
-        // Precalculate part of the bad character shift
-        // It is a table for where in the pattern each
-        // lower 7-bit value occurs
-        for (i = 0; i < boundaryBytes.length; i++) {
-            badCharacters[boundaryBytes[i] & 0x7F] = i + 1;
-        }
-
-        // Precalculate the good suffix shift
-        // i is the shift amount being considered
-        NEXT:
-        for (i = boundaryBytes.length; i > 0; i--) {
-            // j is the beginning index of suffix being considered
-            for (j = boundaryBytes.length - 1; j >= i; j--) {
-                // Testing for good suffix
-                if (boundaryBytes[j] == boundaryBytes[j - i]) {
-                    // src[j..len] is a good suffix
-                    goodSuffixes[j - 1] = i;
-                } else {
-                    // No match. The array has already been
-                    // filled up with correct values before.
-                    continue NEXT;
-                }
-            }
-            // This fills up the remaining of optoSft
-            // any suffix can not have larger shift amount
-            // then its sub-suffix. Why???
-            while (j > 0) {
-                goodSuffixes[--j] = i;
-            }
-        }
-        // Set the guard value because of unicode compression
-        goodSuffixes[boundaryBytes.length - 1] = 1;
-    }
-
-    /**
-     * Finds the boundary in the given buffer using Boyer-Moore algorithm.
-     * Copied from {@link Pattern}
+     * Finds the boundary in the given buffer using Boyer-Moore-Horspool algorithm.
      *
      * @return -1 if there is no match or index where the match starts
      */
     private int match() {
-        final int last = in.readableBytes() - boundaryBytes.length;
+        if (in instanceof ByteBufsDecoderInput) {
+            // Scan the underlying buffers in place rather than looking up the buffer for each byte.
+            return ((ByteBufsDecoderInput) in).indexOf(boundaryBytes, badCharacterShifts);
+        }
+
+        final int last = boundaryLength - 1;
+        final int end = in.readableBytes() - last;
         int off = 0;
 
         // Loop over all possible match positions in text
         NEXT:
-        while (off <= last) {
-            // Loop over pattern from right to left
-            for (int j = boundaryBytes.length - 1; j >= 0; j--) {
-                final byte ch = in.getByte(off + j);
-                if (ch != boundaryBytes[j]) {
-                    // Shift search to the right by the maximum of the
-                    // bad character shift and the good suffix shift
-                    off += Math.max(j + 1 - badCharacters[ch & 0x7F], goodSuffixes[j]);
-                    continue NEXT;
+        while (off < end) {
+            final byte ch = in.getByte(off + last);
+            if (ch == boundaryBytes[last]) {
+                // Loop over the rest of pattern from right to left
+                for (int j = last - 1; j >= 0; j--) {
+                    if (in.getByte(off + j) != boundaryBytes[j]) {
+                        off += badCharacterShifts[ch & 0xFF];
+                        continue NEXT;
+                    }
                 }
+                // Entire pattern matched starting at off
+                return off;
             }
-            // Entire pattern matched starting at off
-            return off;
+            off += badCharacterShifts[ch & 0xFF];
         }
         return -1;
     }
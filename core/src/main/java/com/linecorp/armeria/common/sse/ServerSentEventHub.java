@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.sse;
+
+import static java.util.Objects.requireNonNull;
+
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpObject;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpResponseWriter;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.stream.BroadcastOverflowPolicy;
+import com.linecorp.armeria.common.util.SafeCloseable;
+import com.linecorp.armeria.internal.common.sse.ServerSentEventEncoder;
+import com.linecorp.armeria.internal.common.stream.StreamBroadcaster;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+
+/**
+ * Broadcasts {@link ServerSentEvent}s to many subscribers. Each published {@link ServerSentEvent} is encoded
+ * only once into a pooled buffer which is shared by all subscribers, so the cost of publishing doesn't
+ * depend on the size of the event multiplied by the number of the subscribers.
+ * <pre>{@code
+ * ServerSentEventHub hub = ServerSentEventHub.builder()
+ *                                            .overflowPolicy(BroadcastOverflowPolicy.COALESCE)
+ *                                            .heartbeatInterval(Duration.ofSeconds(15))
+ *                                            .build();
+ * Server.builder()
+ *       .service("/events", (ctx, req) -> {
+ *           ctx.clearRequestTimeout();
+ *           return hub.newResponse();
+ *       })
+ *       ...
+ * hub.publish(ServerSentEvent.ofData("hello"));
+ * }</pre>
+ *
+ * <p>A subscriber which doesn't consume the events as fast as they are published gets its own bounded queue.
+ * See {@link ServerSentEventHubBuilder#maxQueueSize(int)} and {@link BroadcastOverflowPolicy}.
+ */
+@UnstableApi
+public final class ServerSentEventHub implements SafeCloseable {
+
+    private static final ResponseHeaders defaultHttpHeaders =
+            ResponseHeaders.of(HttpStatus.OK, "content-type", MediaType.EVENT_STREAM);
+
+    // A comment line which is ignored by a client.
+    private static final HttpData HEARTBEAT = HttpData.ofUtf8(":\n");
+
+    /**
+     * Returns a new {@link ServerSentEventHub} with the default settings.
+     */
+    public static ServerSentEventHub of() {
+        return builder().build();
+    }
+
+    /**
+     * Returns a new {@link ServerSentEventHubBuilder}.
+     */
+    public static ServerSentEventHubBuilder builder() {
+        return new ServerSentEventHubBuilder();
+    }
+
+    private final StreamBroadcaster<HttpObject> broadcaster;
+
+    ServerSentEventHub(int maxQueueSize, BroadcastOverflowPolicy overflowPolicy,
+                       long heartbeatIntervalMillis) {
+        broadcaster = new StreamBroadcaster<>(maxQueueSize, overflowPolicy, heartbeatIntervalMillis,
+                                              HEARTBEAT);
+    }
+
+    /**
+     * Returns a new {@code text/event-stream} {@link HttpResponse} which receives the
+     * {@link ServerSentEvent}s published after this method is invoked. The response is removed from
+     * the subscribers when it's completed, e.g. the client disconnected.
+     */
+    public HttpResponse newResponse() {
+        final HttpResponseWriter writer = HttpResponse.streaming();
+        writer.write(defaultHttpHeaders);
+        broadcaster.subscribe(writer);
+        return writer;
+    }
+
+    /**
+     * Publishes the specified {@link ServerSentEvent} to all subscribers.
+     */
+    public void publish(ServerSentEvent sse) {
+        requireNonNull(sse, "sse");
+        final String encoded = ServerSentEventEncoder.encode(sse);
+        if (encoded.isEmpty()) {
+            return;
+        }
+        broadcaster.publish(ByteBufUtil.writeUtf8(ByteBufAllocator.DEFAULT, encoded), HttpData::wrap);
+    }
+
+    /**
+     * Returns the number of the current subscribers.
+     */
+    public int numSubscribers() {
+        return broadcaster.numSubscribers();
+    }
+
+    /**
+     * Returns the total number of the {@link ServerSentEvent}s which were not delivered to a subscriber
+     * because of its full queue.
+     */
+    public long numDroppedMessages() {
+        return broadcaster.numDroppedMessages();
+    }
+
+    /**
+     * Completes all subscribed responses after sending their queued {@link ServerSentEvent}s.
+     * A response created after this method is invoked is completed immediately.
+     */
+    @Override
+    public void close() {
+        broadcaster.close();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.sse;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.stream.BroadcastOverflowPolicy;
+
+/**
+ * A builder for creating a new {@link ServerSentEventHub}.
+ */
+@UnstableApi
+public final class ServerSentEventHubBuilder {
+
+    static final int DEFAULT_MAX_QUEUE_SIZE = 256;
+
+    private int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+    private BroadcastOverflowPolicy overflowPolicy = BroadcastOverflowPolicy.DROP_OLDEST;
+    private long heartbeatIntervalMillis;
+
+    ServerSentEventHubBuilder() {}
+
+    /**
+     * Sets the maximum number of messages queued for a subscriber which hasn't consumed the previously
+     * published messages yet. When the queue is full, the {@link BroadcastOverflowPolicy} specified with
+     * {@link #overflowPolicy(BroadcastOverflowPolicy)} is applied.
+     * If unspecified, {@value DEFAULT_MAX_QUEUE_SIZE} is used.
+     */
+    public ServerSentEventHubBuilder maxQueueSize(int maxQueueSize) {
+        checkArgument(maxQueueSize > 0, "maxQueueSize: %s (expected: > 0)", maxQueueSize);
+        this.maxQueueSize = maxQueueSize;
+        return this;
+    }
+
+    /**
+     * Sets the {@link BroadcastOverflowPolicy} applied when a message is published to a subscriber whose
+     * queue is full. If unspecified, {@link BroadcastOverflowPolicy#DROP_OLDEST} is used.
+     */
+    public ServerSentEventHubBuilder overflowPolicy(BroadcastOverflowPolicy overflowPolicy) {
+        this.overflowPolicy = requireNonNull(overflowPolicy, "overflowPolicy");
+        return this;
+    }
+
+    /**
+     * Sets the interval of the heartbeats sent to a subscriber which hasn't received any message for
+     * the interval, so that the idle connection isn't closed by an intermediary. {@link Duration#ZERO}
+     * disables heartbeats, which is the default.
+     */
+    public ServerSentEventHubBuilder heartbeatInterval(Duration heartbeatInterval) {
+        requireNonNull(heartbeatInterval, "heartbeatInterval");
+        checkArgument(!heartbeatInterval.isNegative(),
+                      "heartbeatInterval: %s (expected: >= 0)", heartbeatInterval);
+        return heartbeatIntervalMillis(heartbeatInterval.toMillis());
+    }
+
+    /**
+     * Sets the interval of the heartbeats sent to a subscriber which hasn't received any message for
+     * the interval, in milliseconds, so that the idle connection isn't closed by an intermediary.
+     * {@code 0} disables heartbeats, which is the default.
+     */
+    public ServerSentEventHubBuilder heartbeatIntervalMillis(long heartbeatIntervalMillis) {
+        checkArgument(heartbeatIntervalMillis >= 0,
+                      "heartbeatIntervalMillis: %s (expected: >= 0)", heartbeatIntervalMillis);
+        this.heartbeatIntervalMillis = heartbeatIntervalMillis;
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link ServerSentEventHub} based on the properties set so far.
+     */
+    public ServerSentEventHub build() {
+        return new ServerSentEventHub(maxQueueSize, overflowPolicy, heartbeatIntervalMillis);
+    }
+}
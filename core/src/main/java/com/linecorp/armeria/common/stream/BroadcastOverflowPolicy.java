@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.stream;
+
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.sse.ServerSentEventHub;
+import com.linecorp.armeria.common.websocket.WebSocketHub;
+
+/**
+ * Determines what a broadcast hub does when a message is published to a slow subscriber whose
+ * queue is full.
+ *
+ * @see ServerSentEventHub
+ * @see WebSocketHub
+ */
+@UnstableApi
+public enum BroadcastOverflowPolicy {
+
+    /**
+     * Discards the oldest queued message to make room for the new one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Discards the new message, keeping the queued ones.
+     */
+    DROP_NEWEST,
+
+    /**
+     * Discards all queued messages and keeps only the new one, so that a slow subscriber catches up with
+     * the latest state as soon as it consumes the queue. Useful when each message supersedes the previous
+     * ones, e.g. a price ticker or a presence status.
+     */
+    COALESCE,
+
+    /**
+     * Aborts the stream of the slow subscriber.
+     */
+    DISCONNECT
+}
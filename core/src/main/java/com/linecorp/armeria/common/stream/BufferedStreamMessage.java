@@ -0,0 +1,303 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.stream;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.google.common.math.LongMath;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.internal.common.stream.StreamMessageUtil;
+
+import io.netty.util.concurrent.EventExecutor;
+
+/**
+ * A {@link StreamMessage} which groups the elements of the source {@link StreamMessage} into {@link List}s
+ * of at most {@code maxSize} elements. A {@link List} is also emitted when {@code maxDelayNanos} has passed
+ * since the first element of the {@link List} was received.
+ */
+final class BufferedStreamMessage<T> implements StreamMessage<List<T>> {
+
+    private final StreamMessage<T> source;
+    private final int maxSize;
+    private final long maxDelayNanos;
+
+    @SuppressWarnings("unchecked")
+    BufferedStreamMessage(StreamMessage<? extends T> source, int maxSize, long maxDelayNanos) {
+        requireNonNull(source, "source");
+        this.source = (StreamMessage<T>) source;
+        this.maxSize = maxSize;
+        this.maxDelayNanos = maxDelayNanos;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return source.isOpen();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return source.isEmpty();
+    }
+
+    @Override
+    public long demand() {
+        return source.demand();
+    }
+
+    @Override
+    public CompletableFuture<Void> whenComplete() {
+        return source.whenComplete();
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super List<T>> subscriber, EventExecutor executor,
+                          SubscriptionOption... options) {
+        requireNonNull(subscriber, "subscriber");
+        requireNonNull(executor, "executor");
+        requireNonNull(options, "options");
+
+        source.subscribe(new BufferingSubscriber<>(subscriber, executor, maxSize, maxDelayNanos), executor,
+                         options);
+    }
+
+    @Override
+    public void abort() {
+        source.abort();
+    }
+
+    @Override
+    public void abort(Throwable cause) {
+        requireNonNull(cause, "cause");
+        source.abort(cause);
+    }
+
+    private static final class BufferingSubscriber<T> implements Subscriber<T>, Subscription {
+
+        private final Subscriber<? super List<T>> downstream;
+        private final EventExecutor executor;
+        private final int maxSize;
+        private final long maxDelayNanos;
+
+        @Nullable
+        private Subscription upstream;
+        private volatile boolean canceled;
+
+        @Nullable
+        private List<T> buffer;
+        @Nullable
+        private ScheduledFuture<?> flushFuture;
+        private long requestedByDownstream;
+        // The number of the elements requested from the upstream but not received yet.
+        // 'buffer.size() + requestedFromUpstream' never exceeds 'maxSize'.
+        private int requestedFromUpstream;
+        private boolean timedOut;
+        private boolean completed;
+
+        BufferingSubscriber(Subscriber<? super List<T>> downstream, EventExecutor executor,
+                            int maxSize, long maxDelayNanos) {
+            this.downstream = downstream;
+            this.executor = executor;
+            this.maxSize = maxSize;
+            this.maxDelayNanos = maxDelayNanos;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            requireNonNull(subscription, "subscription");
+            upstream = subscription;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T item) {
+            requireNonNull(item, "item");
+            if (canceled) {
+                StreamMessageUtil.closeOrAbort(item);
+                return;
+            }
+
+            requestedFromUpstream--;
+            List<T> buffer = this.buffer;
+            if (buffer == null) {
+                this.buffer = buffer = new ArrayList<>(Math.min(maxSize, 16));
+                if (maxDelayNanos > 0) {
+                    flushFuture = executor.schedule(this::onTimeout, maxDelayNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+            buffer.add(item);
+
+            if (buffer.size() >= maxSize && requestedByDownstream > 0) {
+                emit();
+            }
+            requestMore();
+        }
+
+        private void onTimeout() {
+            flushFuture = null;
+            if (canceled || buffer == null) {
+                return;
+            }
+            if (requestedByDownstream > 0) {
+                emit();
+                requestMore();
+            } else {
+                // Emit the partial buffer as soon as the downstream requests.
+                timedOut = true;
+            }
+        }
+
+        private void emit() {
+            final List<T> buffer = this.buffer;
+            assert buffer != null;
+            this.buffer = null;
+            timedOut = false;
+            if (flushFuture != null) {
+                flushFuture.cancel(false);
+                flushFuture = null;
+            }
+            if (requestedByDownstream != Long.MAX_VALUE) {
+                requestedByDownstream--;
+            }
+            downstream.onNext(buffer);
+        }
+
+        private void requestMore() {
+            if (canceled || completed || requestedByDownstream == 0) {
+                return;
+            }
+            final int buffered = buffer != null ? buffer.size() : 0;
+            final int toRequest = maxSize - buffered - requestedFromUpstream;
+            if (toRequest > 0) {
+                requestedFromUpstream += toRequest;
+                assert upstream != null;
+                upstream.request(toRequest);
+            }
+        }
+
+        @Override
+        public void onError(Throwable cause) {
+            requireNonNull(cause, "cause");
+            if (canceled) {
+                return;
+            }
+            canceled = true;
+            release(cause);
+            downstream.onError(cause);
+        }
+
+        @Override
+        public void onComplete() {
+            if (canceled) {
+                return;
+            }
+            completed = true;
+            maybeComplete();
+        }
+
+        private void maybeComplete() {
+            if (buffer != null) {
+                if (requestedByDownstream == 0) {
+                    // The last buffer and the completion are emitted when the downstream requests.
+                    return;
+                }
+                emit();
+            }
+            canceled = true;
+            downstream.onComplete();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                onError(new IllegalArgumentException(
+                        "n: " + n + " (expected: > 0, see Reactive Streams specification rule 3.9)"));
+                assert upstream != null;
+                upstream.cancel();
+                return;
+            }
+
+            if (canceled) {
+                return;
+            }
+
+            if (executor.inEventLoop()) {
+                handleRequest(n);
+            } else {
+                executor.execute(() -> handleRequest(n));
+            }
+        }
+
+        private void handleRequest(long n) {
+            if (canceled) {
+                return;
+            }
+            requestedByDownstream = LongMath.saturatedAdd(requestedByDownstream, n);
+            if (completed) {
+                maybeComplete();
+                return;
+            }
+            final List<T> buffer = this.buffer;
+            if (buffer != null && (buffer.size() >= maxSize || timedOut)) {
+                emit();
+            }
+            requestMore();
+        }
+
+        @Override
+        public void cancel() {
+            if (canceled) {
+                return;
+            }
+            canceled = true;
+            assert upstream != null;
+            upstream.cancel();
+            if (executor.inEventLoop()) {
+                release(null);
+            } else {
+                executor.execute(() -> release(null));
+            }
+        }
+
+        private void release(@Nullable Throwable cause) {
+            if (flushFuture != null) {
+                flushFuture.cancel(false);
+                flushFuture = null;
+            }
+            final List<T> buffer = this.buffer;
+            if (buffer != null) {
+                this.buffer = null;
+                for (T item : buffer) {
+                    if (cause != null) {
+                        StreamMessageUtil.closeOrAbort(item, cause);
+                    } else {
+                        StreamMessageUtil.closeOrAbort(item);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,440 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.stream;
+
+import static com.linecorp.armeria.internal.common.stream.InternalStreamMessageUtil.containsNotifyCancellation;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.google.common.math.LongMath;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.internal.common.stream.NoopSubscription;
+import com.linecorp.armeria.internal.common.stream.StreamMessageUtil;
+
+import io.netty.util.concurrent.EventExecutor;
+
+/**
+ * Maps each element of the source {@link StreamMessage} into a {@link Publisher} and relays the elements of
+ * at most {@code maxConcurrency} {@link Publisher}s concurrently, in the order they arrive.
+ *
+ * <p>All signals from the source and the inner {@link Publisher}s are handled on the {@link EventExecutor} of
+ * the {@link Subscriber}, so the state is never accessed concurrently and no lock is required.
+ * Each inner {@link Publisher} is requested at most {@value #PREFETCH} elements in advance, and the elements
+ * which can't be relayed because of the lack of demand are queued per inner {@link Publisher}.
+ */
+final class FlatMapStreamMessage<T, U> implements StreamMessage<U> {
+
+    static final int PREFETCH = 32;
+
+    // Request more elements from an inner Publisher when 3/4 of the prefetched elements were consumed.
+    private static final int REPLENISH_THRESHOLD = PREFETCH - (PREFETCH >> 2);
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<FlatMapStreamMessage, FlatMapSubscriber>
+            subscriberUpdater = AtomicReferenceFieldUpdater.newUpdater(
+            FlatMapStreamMessage.class, FlatMapSubscriber.class, "subscriber");
+
+    private final StreamMessage<T> source;
+    private final Function<T, Publisher<? extends U>> function;
+    private final int maxConcurrency;
+    private final CompletableFuture<Void> completionFuture = new CompletableFuture<>();
+
+    @Nullable
+    private volatile FlatMapSubscriber<T, U> subscriber;
+
+    @SuppressWarnings("unchecked")
+    FlatMapStreamMessage(StreamMessage<? extends T> source,
+                         Function<? super T, ? extends Publisher<? extends U>> function,
+                         int maxConcurrency) {
+        requireNonNull(source, "source");
+        requireNonNull(function, "function");
+        this.source = (StreamMessage<T>) source;
+        this.function = (Function<T, Publisher<? extends U>>) function;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !completionFuture.isDone();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        if (source.isEmpty()) {
+            return true;
+        }
+        final FlatMapSubscriber<T, U> subscriber = this.subscriber;
+        return !isOpen() && subscriber != null && !subscriber.emitted;
+    }
+
+    @Override
+    public long demand() {
+        final FlatMapSubscriber<T, U> subscriber = this.subscriber;
+        return subscriber != null ? subscriber.requested : 0;
+    }
+
+    @Override
+    public CompletableFuture<Void> whenComplete() {
+        return completionFuture;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super U> subscriber, EventExecutor executor,
+                          SubscriptionOption... options) {
+        requireNonNull(subscriber, "subscriber");
+        requireNonNull(executor, "executor");
+        requireNonNull(options, "options");
+
+        final FlatMapSubscriber<T, U> flatMapSubscriber =
+                new FlatMapSubscriber<>(subscriber, function, executor, maxConcurrency, options,
+                                        completionFuture);
+        if (subscriberUpdater.compareAndSet(this, null, flatMapSubscriber)) {
+            source.subscribe(flatMapSubscriber, executor, options);
+        } else {
+            subscriber.onSubscribe(NoopSubscription.get());
+            subscriber.onError(new IllegalStateException("subscribed by other subscriber already"));
+        }
+    }
+
+    @Override
+    public void abort() {
+        abort(AbortedStreamException.get());
+    }
+
+    @Override
+    public void abort(Throwable cause) {
+        requireNonNull(cause, "cause");
+        source.abort(cause);
+        final FlatMapSubscriber<T, U> subscriber = this.subscriber;
+        if (subscriber != null) {
+            subscriber.abort(cause);
+        } else {
+            completionFuture.completeExceptionally(cause);
+        }
+    }
+
+    private static final class FlatMapSubscriber<T, U> implements Subscriber<T>, Subscription {
+
+        private final Subscriber<? super U> downstream;
+        private final Function<T, Publisher<? extends U>> function;
+        private final EventExecutor executor;
+        private final int maxConcurrency;
+        private final SubscriptionOption[] options;
+        private final CompletableFuture<Void> completionFuture;
+
+        private final List<InnerSubscriber> inners = new ArrayList<>();
+        @Nullable
+        private Subscription upstream;
+
+        volatile long requested;
+        volatile boolean emitted;
+
+        private boolean sourceCompleted;
+        private boolean done;
+        private boolean draining;
+        private boolean missed;
+        // The index of the inner subscriber to start draining from, for fairness.
+        private int nextIndex;
+
+        FlatMapSubscriber(Subscriber<? super U> downstream, Function<T, Publisher<? extends U>> function,
+                          EventExecutor executor, int maxConcurrency, SubscriptionOption[] options,
+                          CompletableFuture<Void> completionFuture) {
+            this.downstream = downstream;
+            this.function = function;
+            this.executor = executor;
+            this.maxConcurrency = maxConcurrency;
+            this.options = options;
+            this.completionFuture = completionFuture;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            requireNonNull(subscription, "subscription");
+            upstream = subscription;
+            downstream.onSubscribe(this);
+            if (!done) {
+                subscription.request(maxConcurrency == Integer.MAX_VALUE ? Long.MAX_VALUE : maxConcurrency);
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            requireNonNull(item, "item");
+            if (done) {
+                StreamMessageUtil.closeOrAbort(item);
+                return;
+            }
+
+            final Publisher<? extends U> publisher;
+            try {
+                publisher = requireNonNull(function.apply(item), "function.apply() returned null");
+            } catch (Throwable ex) {
+                StreamMessageUtil.closeOrAbort(item, ex);
+                fail(ex);
+                return;
+            }
+
+            final InnerSubscriber inner = new InnerSubscriber(StreamMessage.of(publisher));
+            inners.add(inner);
+            inner.streamMessage.subscribe(inner, executor, options);
+        }
+
+        @Override
+        public void onError(Throwable cause) {
+            requireNonNull(cause, "cause");
+            fail(cause);
+        }
+
+        @Override
+        public void onComplete() {
+            sourceCompleted = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                abort(new IllegalArgumentException(
+                        "n: " + n + " (expected: > 0, see Reactive Streams specification rule 3.9)"));
+                return;
+            }
+            if (executor.inEventLoop()) {
+                handleRequest(n);
+            } else {
+                executor.execute(() -> handleRequest(n));
+            }
+        }
+
+        private void handleRequest(long n) {
+            if (done) {
+                return;
+            }
+            requested = LongMath.saturatedAdd(requested, n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (executor.inEventLoop()) {
+                cancel0();
+            } else {
+                executor.execute(this::cancel0);
+            }
+        }
+
+        private void cancel0() {
+            if (done) {
+                return;
+            }
+            final CancelledSubscriptionException cause = CancelledSubscriptionException.get();
+            if (containsNotifyCancellation(options)) {
+                fail(cause);
+            } else {
+                done = true;
+                cancelAll(cause);
+                completionFuture.completeExceptionally(cause);
+            }
+        }
+
+        void abort(Throwable cause) {
+            if (executor.inEventLoop()) {
+                fail(cause);
+            } else {
+                executor.execute(() -> fail(cause));
+            }
+        }
+
+        private void fail(Throwable cause) {
+            if (done) {
+                return;
+            }
+            done = true;
+            cancelAll(cause);
+            downstream.onError(cause);
+            completionFuture.completeExceptionally(cause);
+        }
+
+        private void cancelAll(Throwable cause) {
+            assert upstream != null;
+            upstream.cancel();
+            for (InnerSubscriber inner : inners) {
+                inner.cancel(cause);
+            }
+            inners.clear();
+        }
+
+        /**
+         * Relays the queued elements of the inner subscribers as much as the downstream requested.
+         * A reentrant call, e.g. {@link #request(long)} from {@link Subscriber#onNext(Object)}, only marks
+         * that the loop has to run once more.
+         */
+        private void drain() {
+            if (draining) {
+                missed = true;
+                return;
+            }
+            draining = true;
+            try {
+                do {
+                    missed = false;
+                    drainOnce();
+                } while (missed && !done);
+            } finally {
+                draining = false;
+            }
+        }
+
+        private void drainOnce() {
+            while (!done && requested > 0) {
+                boolean relayed = false;
+                final int size = inners.size();
+                for (int i = 0; i < size && requested > 0 && !done; i++) {
+                    final int index = (nextIndex + i) % size;
+                    final InnerSubscriber inner = inners.get(index);
+                    final U item = inner.queue.poll();
+                    if (item == null) {
+                        continue;
+                    }
+                    relayed = true;
+                    if (requested != Long.MAX_VALUE) {
+                        requested--;
+                    }
+                    emitted = true;
+                    downstream.onNext(item);
+                    inner.consumed();
+                    nextIndex = index + 1;
+                }
+                if (!relayed) {
+                    break;
+                }
+            }
+            if (done) {
+                return;
+            }
+
+            // Remove the completed inner subscribers and subscribe to the next sources.
+            int numCompleted = 0;
+            for (int i = inners.size() - 1; i >= 0; i--) {
+                final InnerSubscriber inner = inners.get(i);
+                if (inner.completed && inner.queue.isEmpty()) {
+                    inners.remove(i);
+                    numCompleted++;
+                }
+            }
+            if (sourceCompleted) {
+                if (inners.isEmpty()) {
+                    done = true;
+                    downstream.onComplete();
+                    completionFuture.complete(null);
+                }
+            } else if (numCompleted > 0 && maxConcurrency != Integer.MAX_VALUE) {
+                assert upstream != null;
+                upstream.request(numCompleted);
+            }
+        }
+
+        private final class InnerSubscriber implements Subscriber<U> {
+
+            final StreamMessage<? extends U> streamMessage;
+            final ArrayDeque<U> queue = new ArrayDeque<>();
+            @Nullable
+            private Subscription subscription;
+            private int consumed;
+            boolean completed;
+            private boolean cancelled;
+
+            InnerSubscriber(StreamMessage<? extends U> streamMessage) {
+                this.streamMessage = streamMessage;
+            }
+
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                requireNonNull(subscription, "subscription");
+                if (cancelled) {
+                    subscription.cancel();
+                    return;
+                }
+                this.subscription = subscription;
+                subscription.request(PREFETCH);
+            }
+
+            @Override
+            public void onNext(U item) {
+                requireNonNull(item, "item");
+                if (cancelled) {
+                    StreamMessageUtil.closeOrAbort(item);
+                    return;
+                }
+                queue.add(item);
+                drain();
+            }
+
+            @Override
+            public void onError(Throwable cause) {
+                requireNonNull(cause, "cause");
+                if (cancelled) {
+                    return;
+                }
+                completed = true;
+                fail(cause);
+            }
+
+            @Override
+            public void onComplete() {
+                if (cancelled) {
+                    return;
+                }
+                completed = true;
+                drain();
+            }
+
+            void consumed() {
+                if (completed) {
+                    return;
+                }
+                if (++consumed == REPLENISH_THRESHOLD) {
+                    consumed = 0;
+                    assert subscription != null;
+                    subscription.request(REPLENISH_THRESHOLD);
+                }
+            }
+
+            void cancel(Throwable cause) {
+                cancelled = true;
+                if (subscription != null) {
+                    subscription.cancel();
+                } else {
+                    streamMessage.abort(cause);
+                }
+                for (U item; (item = queue.poll()) != null;) {
+                    StreamMessageUtil.closeOrAbort(item, cause);
+                }
+            }
+        }
+    }
+}
@@ -28,6 +28,7 @@ import java.io.OutputStream;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
@@ -462,6 +463,45 @@ public interface StreamMessage<T> extends Publisher<T> {
         return new ConcatPublisherStreamMessage<>(of(publishers));
     }
 
+    /**
+     * Returns a merged {@link StreamMessage} which relays items of the specified array of {@link Publisher}s
+     * concurrently, in the order they are emitted by the {@link Publisher}s.
+     */
+    @UnstableApi
+    @SafeVarargs
+    static <T> StreamMessage<T> merge(Publisher<? extends T>... publishers) {
+        requireNonNull(publishers, "publishers");
+        return merge(ImmutableList.copyOf(publishers));
+    }
+
+    /**
+     * Returns a merged {@link StreamMessage} which relays items of the specified {@link Publisher}s
+     * concurrently, in the order they are emitted by the {@link Publisher}s.
+     */
+    @UnstableApi
+    @SuppressWarnings("unchecked")
+    static <T> StreamMessage<T> merge(Iterable<? extends Publisher<? extends T>> publishers) {
+        requireNonNull(publishers, "publishers");
+        final Publisher<? extends T>[] array = Iterables.toArray(publishers, Publisher.class);
+        if (array.length == 0) {
+            return of();
+        }
+        return merge(of(array), array.length);
+    }
+
+    /**
+     * Returns a merged {@link StreamMessage} which relays items of the {@link Publisher}s emitted by
+     * the specified {@link Publisher} concurrently, in the order they are emitted by the {@link Publisher}s.
+     * At most {@code maxConcurrency} {@link Publisher}s are subscribed at the same time.
+     */
+    @UnstableApi
+    static <T> StreamMessage<T> merge(Publisher<? extends Publisher<? extends T>> publishers,
+                                      int maxConcurrency) {
+        requireNonNull(publishers, "publishers");
+        checkArgument(maxConcurrency > 0, "maxConcurrency: %s (expected: > 0)", maxConcurrency);
+        return new FlatMapStreamMessage<>(of(publishers), Function.identity(), maxConcurrency);
+    }
+
     /**
      * Returns an aborted {@link StreamMessage} that terminates with the specified {@link Throwable}
      * via {@link Subscriber#onError(Throwable)} immediately after being subscribed to.
@@ -864,6 +904,100 @@ public interface StreamMessage<T> extends Publisher<T> {
         return new AsyncMapStreamMessage<>(this, function, maxConcurrency);
     }
 
+    /**
+     * Transforms each value emitted by this {@link StreamMessage} into a {@link Publisher} by applying
+     * the specified {@link Function}, and relays the values emitted by the {@link Publisher}s concurrently.
+     * The values are published in the order they are emitted by the {@link Publisher}s, so the order of
+     * the original stream is not necessarily preserved. All {@link Publisher}s are subscribed as soon as
+     * they are created. Use {@link #flatMap(Function, int)} to limit the number of concurrently subscribed
+     * {@link Publisher}s.
+     *
+     * <p>Example:<pre>{@code
+     * StreamMessage<String> userIds = StreamMessage.of("alice", "bob");
+     * StreamMessage<Order> orders = userIds.flatMap(userId -> orderClient.getOrders(userId));
+     * }</pre>
+     */
+    @UnstableApi
+    default <U> StreamMessage<U> flatMap(Function<? super T, ? extends Publisher<? extends U>> function) {
+        return flatMap(function, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Transforms each value emitted by this {@link StreamMessage} into a {@link Publisher} by applying
+     * the specified {@link Function}, and relays the values emitted by the {@link Publisher}s concurrently.
+     * The values are published in the order they are emitted by the {@link Publisher}s, so the order of
+     * the original stream is not necessarily preserved. At most {@code maxConcurrency} {@link Publisher}s
+     * are subscribed at the same time, and the next value of this {@link StreamMessage} is requested when
+     * one of them is completed.
+     *
+     * <p>All signals are handled in the {@link EventExecutor} of the {@link Subscriber}. If this
+     * {@link StreamMessage} or any of the {@link Publisher}s fails, the other {@link Publisher}s are
+     * cancelled and the error is propagated to the {@link Subscriber}.
+     *
+     * <p>Example:<pre>{@code
+     * StreamMessage<String> userIds = StreamMessage.of("alice", "bob", "charlie");
+     * // Fetch the orders of at most two users at the same time.
+     * StreamMessage<Order> orders = userIds.flatMap(userId -> orderClient.getOrders(userId), 2);
+     * }</pre>
+     */
+    @UnstableApi
+    default <U> StreamMessage<U> flatMap(Function<? super T, ? extends Publisher<? extends U>> function,
+                                         int maxConcurrency) {
+        requireNonNull(function, "function");
+        checkArgument(maxConcurrency > 0, "maxConcurrency: %s (expected: > 0)", maxConcurrency);
+        return new FlatMapStreamMessage<>(this, function, maxConcurrency);
+    }
+
+    /**
+     * Collects the elements emitted by this {@link StreamMessage} into {@link List}s of at most
+     * {@code maxSize} elements. The last {@link List} may have fewer elements when this {@link StreamMessage}
+     * is completed. This is useful when the elements have to be written to a sink which performs better with
+     * batches, such as a database or a message queue.
+     * At most {@code maxSize} elements are requested from this {@link StreamMessage} for each {@link List}
+     * requested by the {@link Subscriber}, so a slow {@link Subscriber} does not make the elements pile up.
+     *
+     * <p>Example:<pre>{@code
+     * StreamMessage<Integer> streamMessage = StreamMessage.of(1, 2, 3, 4, 5);
+     * StreamMessage<List<Integer>> buffered = streamMessage.buffer(2);
+     * // [[1, 2], [3, 4], [5]]
+     * }</pre>
+     */
+    @UnstableApi
+    default StreamMessage<List<T>> buffer(int maxSize) {
+        checkArgument(maxSize > 0, "maxSize: %s (expected: > 0)", maxSize);
+        return new BufferedStreamMessage<>(this, maxSize, 0);
+    }
+
+    /**
+     * Collects the elements emitted by this {@link StreamMessage} into {@link List}s of at most
+     * {@code maxSize} elements. A {@link List} is emitted when it's full or {@code maxDelay} has passed since
+     * its first element was received, whichever comes first, so that the elements are not delayed for too
+     * long when this {@link StreamMessage} emits them slowly. The delay is measured by a timer scheduled on
+     * the {@link EventExecutor} of the {@link Subscriber}.
+     * At most {@code maxSize} elements are requested from this {@link StreamMessage} for each {@link List}
+     * requested by the {@link Subscriber}, so a slow {@link Subscriber} does not make the elements pile up.
+     *
+     * <p>Example:<pre>{@code
+     * StreamMessage<Event> events = ...;
+     * events.buffer(500, Duration.ofMillis(100))
+     *       .subscribe(new Subscriber<List<Event>>() {
+     *           ...
+     *           public void onNext(List<Event> batch) {
+     *               // Insert up to 500 events at once.
+     *               database.insertAll(batch);
+     *           }
+     *       });
+     * }</pre>
+     */
+    @UnstableApi
+    default StreamMessage<List<T>> buffer(int maxSize, Duration maxDelay) {
+        checkArgument(maxSize > 0, "maxSize: %s (expected: > 0)", maxSize);
+        requireNonNull(maxDelay, "maxDelay");
+        checkArgument(!maxDelay.isNegative() && !maxDelay.isZero(),
+                      "maxDelay: %s (expected: > 0)", maxDelay);
+        return new BufferedStreamMessage<>(this, maxSize, maxDelay.toNanos());
+    }
+
     /**
      * Transforms an error emitted by this {@link StreamMessage} by applying the specified {@link Function}.
      * As per
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.websocket;
+
+import static java.util.Objects.requireNonNull;
+
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.stream.BroadcastOverflowPolicy;
+import com.linecorp.armeria.common.util.SafeCloseable;
+import com.linecorp.armeria.internal.common.stream.StreamBroadcaster;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Broadcasts messages to many {@link WebSocketWriter}s. Each published message is encoded only once into
+ * a buffer which is shared by the {@link WebSocketFrame}s written to all subscribers, so the cost of
+ * publishing doesn't depend on the size of the message multiplied by the number of the subscribers.
+ * <pre>{@code
+ * WebSocketHub hub = WebSocketHub.of();
+ * Server.builder()
+ *       .service("/chat", WebSocketService.of((ctx, in) -> {
+ *           WebSocketWriter out = WebSocket.streaming();
+ *           hub.subscribe(out);
+ *           return out;
+ *       }))
+ *       ...
+ * hub.publish("hello");
+ * }</pre>
+ *
+ * <p>A subscriber which doesn't consume the messages as fast as they are published gets its own bounded
+ * queue. See {@link WebSocketHubBuilder#maxQueueSize(int)} and {@link BroadcastOverflowPolicy}.
+ */
+@UnstableApi
+public final class WebSocketHub implements SafeCloseable {
+
+    /**
+     * Returns a new {@link WebSocketHub} with the default settings.
+     */
+    public static WebSocketHub of() {
+        return builder().build();
+    }
+
+    /**
+     * Returns a new {@link WebSocketHubBuilder}.
+     */
+    public static WebSocketHubBuilder builder() {
+        return new WebSocketHubBuilder();
+    }
+
+    private final StreamBroadcaster<WebSocketFrame> broadcaster;
+
+    WebSocketHub(int maxQueueSize, BroadcastOverflowPolicy overflowPolicy, long heartbeatIntervalMillis) {
+        broadcaster = new StreamBroadcaster<>(maxQueueSize, overflowPolicy, heartbeatIntervalMillis,
+                                              WebSocketFrame.ofPing());
+    }
+
+    /**
+     * Adds the specified {@link WebSocketWriter} to the subscribers of the messages published after
+     * this method is invoked. The {@link WebSocketWriter} is removed from the subscribers when it's
+     * completed. Note that the {@link WebSocketWriter} can be still used to send other frames, such as
+     * the replies to a specific client.
+     */
+    public void subscribe(WebSocketWriter writer) {
+        requireNonNull(writer, "writer");
+        broadcaster.subscribe(writer);
+    }
+
+    /**
+     * Publishes the specified text message to all subscribers.
+     */
+    public void publish(String text) {
+        requireNonNull(text, "text");
+        broadcaster.publish(ByteBufUtil.writeUtf8(ByteBufAllocator.DEFAULT, text),
+                            WebSocketFrame::ofPooledText);
+    }
+
+    /**
+     * Publishes the specified binary message to all subscribers. Note that the specified {@code data} is
+     * not copied, so it must not be modified after this method is invoked.
+     */
+    public void publish(byte[] data) {
+        requireNonNull(data, "data");
+        broadcaster.publish(Unpooled.wrappedBuffer(data), WebSocketFrame::ofPooledBinary);
+    }
+
+    /**
+     * Returns the number of the current subscribers.
+     */
+    public int numSubscribers() {
+        return broadcaster.numSubscribers();
+    }
+
+    /**
+     * Returns the total number of the messages which were not delivered to a subscriber because of its
+     * full queue.
+     */
+    public long numDroppedMessages() {
+        return broadcaster.numDroppedMessages();
+    }
+
+    /**
+     * Closes all subscribed {@link WebSocketWriter}s after sending their queued messages.
+     * A {@link WebSocketWriter} subscribed after this method is invoked is closed immediately.
+     */
+    @Override
+    public void close() {
+        broadcaster.close();
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.math.LongMath;
+
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpHeaders;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.RequestHeadersBuilder;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.common.ResponseHeadersBuilder;
+import com.linecorp.armeria.common.annotation.Nullable;
+
+import io.netty.util.AsciiString;
+
+/**
+ * An {@link AggregatedHttpResponse} stored in an {@link HttpResponseCache} with the metadata required to
+ * determine its freshness and to revalidate it.
+ */
+final class CachedHttpResponse {
+
+    private static final Splitter COMMA_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+    private static final AtomicIntegerFieldUpdater<CachedHttpResponse> revalidatingUpdater =
+            AtomicIntegerFieldUpdater.newUpdater(CachedHttpResponse.class, "revalidating");
+
+    /**
+     * Returns the names of the request headers listed in the {@code "vary"} header, or {@code null} if
+     * the response varies on every request, i.e. {@code "vary: *"}.
+     */
+    @Nullable
+    static List<AsciiString> varyHeaderNames(ResponseHeaders headers) {
+        final List<String> values = headers.getAll(HttpHeaderNames.VARY);
+        if (values.isEmpty()) {
+            return ImmutableList.of();
+        }
+        final ImmutableList.Builder<AsciiString> builder = ImmutableList.builder();
+        for (String value : values) {
+            for (String name : COMMA_SPLITTER.split(value)) {
+                if ("*".equals(name)) {
+                    return null;
+                }
+                builder.add(AsciiString.of(name).toLowerCase());
+            }
+        }
+        return builder.build();
+    }
+
+    private final AggregatedHttpResponse response;
+    private final List<Map.Entry<AsciiString, String>> varyingHeaders;
+    private final long storedAtNanos;
+    private final long initialAgeNanos;
+    private final long freshnessLifetimeNanos;
+    private final long staleWhileRevalidateNanos;
+    private final boolean noCache;
+    private final boolean mustRevalidate;
+    @Nullable
+    private final String etag;
+    @Nullable
+    private final String lastModified;
+
+    private volatile int revalidating;
+
+    CachedHttpResponse(AggregatedHttpResponse response, RequestHeaders requestHeaders,
+                       List<AsciiString> varyHeaderNames, ResponseCacheDirectives directives,
+                       long freshnessLifetimeNanos, long storedAtNanos) {
+        this.response = response;
+        final ImmutableList.Builder<Map.Entry<AsciiString, String>> varyingHeaders = ImmutableList.builder();
+        for (AsciiString name : varyHeaderNames) {
+            varyingHeaders.add(Maps.immutableEntry(name, joinedValues(requestHeaders, name)));
+        }
+        this.varyingHeaders = varyingHeaders.build();
+        this.storedAtNanos = storedAtNanos;
+        initialAgeNanos = TimeUnit.SECONDS.toNanos(
+                Math.max(0, response.headers().getLong(HttpHeaderNames.AGE, 0)));
+        this.freshnessLifetimeNanos = freshnessLifetimeNanos;
+        staleWhileRevalidateNanos = directives.staleWhileRevalidateSeconds > 0 ?
+                                    TimeUnit.SECONDS.toNanos(directives.staleWhileRevalidateSeconds) : 0;
+        noCache = directives.noCache;
+        mustRevalidate = directives.mustRevalidate || directives.proxyRevalidate;
+        etag = response.headers().get(HttpHeaderNames.ETAG);
+        lastModified = response.headers().get(HttpHeaderNames.LAST_MODIFIED);
+    }
+
+    AggregatedHttpResponse response() {
+        return response;
+    }
+
+    /**
+     * Returns whether the specified request selects this response according to the {@code "vary"} header.
+     */
+    boolean matches(RequestHeaders requestHeaders) {
+        for (Map.Entry<AsciiString, String> e : varyingHeaders) {
+            if (!Objects.equals(e.getValue(), joinedValues(requestHeaders, e.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long ageNanos(long nowNanos) {
+        return LongMath.saturatedAdd(initialAgeNanos, Math.max(0, nowNanos - storedAtNanos));
+    }
+
+    long freshnessLifetimeNanos() {
+        return freshnessLifetimeNanos;
+    }
+
+    long staleWhileRevalidateNanos() {
+        return staleWhileRevalidateNanos;
+    }
+
+    boolean noCache() {
+        return noCache;
+    }
+
+    boolean mustRevalidate() {
+        return mustRevalidate;
+    }
+
+    boolean hasValidator() {
+        return etag != null || lastModified != null;
+    }
+
+    /**
+     * Adds the validators of this response to the specified request headers,
+     * so that the origin can respond with {@code 304 Not Modified} if this response is still valid.
+     */
+    RequestHeaders toConditionalRequestHeaders(RequestHeaders headers) {
+        final RequestHeadersBuilder builder = headers.toBuilder();
+        builder.remove(HttpHeaderNames.IF_NONE_MATCH);
+        builder.remove(HttpHeaderNames.IF_MODIFIED_SINCE);
+        if (etag != null) {
+            builder.set(HttpHeaderNames.IF_NONE_MATCH, etag);
+        }
+        if (lastModified != null) {
+            builder.set(HttpHeaderNames.IF_MODIFIED_SINCE, lastModified);
+        }
+        return builder.build();
+    }
+
+    boolean tryStartRevalidation() {
+        return revalidatingUpdater.compareAndSet(this, 0, 1);
+    }
+
+    void endRevalidation() {
+        revalidating = 0;
+    }
+
+    /**
+     * Returns the stored response whose headers are updated with the headers of
+     * the specified {@code 304 Not Modified} response.
+     */
+    AggregatedHttpResponse mergeHeaders(ResponseHeaders notModifiedHeaders) {
+        final ResponseHeadersBuilder builder = response.headers().toBuilder();
+        for (AsciiString name : notModifiedHeaders.names()) {
+            if (!name.isEmpty() && name.charAt(0) != ':' && !HttpHeaderNames.CONTENT_LENGTH.equals(name)) {
+                builder.set(name, notModifiedHeaders.getAll(name));
+            }
+        }
+        return AggregatedHttpResponse.of(builder.build(), response.content(), response.trailers());
+    }
+
+    /**
+     * Converts this response into an {@link HttpResponse} for the specified request, which is
+     * {@code 304 Not Modified} if the request has the validators matching this response.
+     */
+    HttpResponse toHttpResponse(RequestHeaders requestHeaders, long nowNanos) {
+        final String age = Long.toString(TimeUnit.NANOSECONDS.toSeconds(ageNanos(nowNanos)));
+        if (isNotModified(requestHeaders)) {
+            final ResponseHeadersBuilder builder = ResponseHeaders.builder(HttpStatus.NOT_MODIFIED);
+            final ResponseHeaders headers = response.headers();
+            copyIfPresent(headers, builder, HttpHeaderNames.CACHE_CONTROL);
+            copyIfPresent(headers, builder, HttpHeaderNames.CONTENT_LOCATION);
+            copyIfPresent(headers, builder, HttpHeaderNames.DATE);
+            copyIfPresent(headers, builder, HttpHeaderNames.ETAG);
+            copyIfPresent(headers, builder, HttpHeaderNames.EXPIRES);
+            copyIfPresent(headers, builder, HttpHeaderNames.LAST_MODIFIED);
+            copyIfPresent(headers, builder, HttpHeaderNames.VARY);
+            return HttpResponse.of(builder.set(HttpHeaderNames.AGE, age).build());
+        }
+
+        final ResponseHeaders headers = response.headers().toBuilder()
+                                                .set(HttpHeaderNames.AGE, age)
+                                                .build();
+        return AggregatedHttpResponse.of(response.informationals(), headers,
+                                         response.content(), response.trailers())
+                                     .toHttpResponse();
+    }
+
+    private boolean isNotModified(RequestHeaders requestHeaders) {
+        final String ifNoneMatch = requestHeaders.get(HttpHeaderNames.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            if (etag == null) {
+                return false;
+            }
+            if ("*".equals(ifNoneMatch.trim())) {
+                return true;
+            }
+            final String opaqueTag = opaqueTag(etag);
+            for (String candidate : COMMA_SPLITTER.split(ifNoneMatch)) {
+                // Use the weak comparison as defined in RFC 9110, Section 8.8.3.2.
+                if (opaqueTag.equals(opaqueTag(candidate))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        if (lastModified == null) {
+            return false;
+        }
+        final Long ifModifiedSince = timeMillis(requestHeaders, HttpHeaderNames.IF_MODIFIED_SINCE);
+        final Long lastModifiedMillis = timeMillis(response.headers(), HttpHeaderNames.LAST_MODIFIED);
+        return ifModifiedSince != null && lastModifiedMillis != null && lastModifiedMillis <= ifModifiedSince;
+    }
+
+    @Nullable
+    private static Long timeMillis(HttpHeaders headers, AsciiString name) {
+        try {
+            return headers.getTimeMillis(name);
+        } catch (Exception ignored) {
+            // Malformed date.
+            return null;
+        }
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    @Nullable
+    private static String joinedValues(RequestHeaders headers, AsciiString name) {
+        final List<String> values = headers.getAll(name);
+        switch (values.size()) {
+            case 0:
+                return null;
+            case 1:
+                return values.get(0);
+            default:
+                return String.join(",", values);
+        }
+    }
+
+    private static void copyIfPresent(ResponseHeaders from, ResponseHeadersBuilder to, AsciiString name) {
+        final List<String> values = from.getAll(name);
+        if (!values.isEmpty()) {
+            to.set(name, values);
+        }
+    }
+}
@@ -0,0 +1,503 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common.cache;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.ImmutableSet;
+
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.ClientCacheControl;
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpHeaders;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpObject;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.common.SplitHttpResponse;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.stream.StreamMessage;
+import com.linecorp.armeria.common.util.Ticker;
+import com.linecorp.armeria.internal.common.stream.SurroundingPublisher;
+
+import io.netty.util.AsciiString;
+
+/**
+ * An HTTP response cache which follows the caching semantics defined in
+ * <a href="https://datatracker.ietf.org/doc/html/rfc9111">RFC 9111</a> and the
+ * {@code "stale-while-revalidate"} directive defined in
+ * <a href="https://datatracker.ietf.org/doc/html/rfc5861">RFC 5861</a>.
+ *
+ * <p>Only the responses of {@code GET} requests are cached. A response is streamed to the caller while its
+ * content is collected for the cache, only if its headers indicate that it can be cached and until its content
+ * exceeds the maximum entry size. The collected responses are stored in a Caffeine {@link Cache} bounded by
+ * the total size of the cached responses. The concurrent requests which
+ * miss the cache for the same key are collapsed into a single upstream request.
+ *
+ * <p>Only one variant of a response is stored per key. A request which is not selected by the stored
+ * response according to its {@code "vary"} header is forwarded to the upstream, and its response replaces
+ * the stored one. Therefore, a resource requested alternately with different values of a varying header is
+ * rarely served from the cache.
+ */
+public final class HttpResponseCache {
+
+    /**
+     * Sends a request to the upstream on behalf of the cache.
+     */
+    public interface Upstream {
+        /**
+         * Sends the specified request in the context of the current request.
+         */
+        HttpResponse execute(HttpRequest req);
+
+        /**
+         * Sends the specified revalidation request after the current request has been served
+         * with a stale response.
+         */
+        HttpResponse executeInBackground(HttpRequest req);
+
+        /**
+         * Returns the {@link Executor} which handles the upstream responses.
+         */
+        Executor executor();
+    }
+
+    // https://datatracker.ietf.org/doc/html/rfc9110#section-15.1
+    private static final ImmutableSet<HttpStatus> CACHEABLE_STATUSES =
+            ImmutableSet.of(HttpStatus.OK, HttpStatus.NON_AUTHORITATIVE_INFORMATION, HttpStatus.NO_CONTENT,
+                            HttpStatus.MULTIPLE_CHOICES, HttpStatus.MOVED_PERMANENTLY,
+                            HttpStatus.NOT_FOUND,
+                            HttpStatus.METHOD_NOT_ALLOWED, HttpStatus.GONE, HttpStatus.REQUEST_URI_TOO_LONG,
+                            HttpStatus.NOT_IMPLEMENTED);
+
+    private final Cache<String, CachedHttpResponse> cache;
+    private final ConcurrentMap<String, CompletableFuture<CachedHttpResponse>> inflightRequests =
+            new ConcurrentHashMap<>();
+    private final int maxEntrySizeBytes;
+    private final boolean shared;
+    private final Ticker ticker;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param maxSizeBytes the maximum total size of the cached responses
+     * @param maxEntrySizeBytes the maximum content size of a cached response
+     * @param shared whether the cache is shared by multiple users, e.g. a server-side cache, in which case
+     *               the {@code "private"} and {@code "s-maxage"} directives are honored.
+     */
+    public HttpResponseCache(long maxSizeBytes, int maxEntrySizeBytes, boolean shared, Ticker ticker) {
+        this.maxEntrySizeBytes = maxEntrySizeBytes;
+        this.shared = shared;
+        this.ticker = requireNonNull(ticker, "ticker");
+        cache = Caffeine.newBuilder()
+                        .maximumWeight(maxSizeBytes)
+                        .<String, CachedHttpResponse>weigher((key, value) -> weigh(key, value.response()))
+                        .recordStats()
+                        .build();
+    }
+
+    /**
+     * Returns the underlying {@link Cache}, which can be used to collect the cache statistics.
+     */
+    public Cache<?, ?> cache() {
+        return cache;
+    }
+
+    /**
+     * Serves the specified request from the cache, or from the {@link Upstream} if no fresh response
+     * is cached.
+     *
+     * @param key the primary cache key of the request, such as the method and the URI of the request.
+     */
+    public HttpResponse serve(String key, HttpRequest req, Upstream upstream) {
+        final RequestHeaders headers = req.headers();
+        if (headers.method() != HttpMethod.GET) {
+            return upstream.execute(req);
+        }
+        final ClientCacheControl reqCacheControl =
+                ClientCacheControl.parse(headers.getAll(HttpHeaderNames.CACHE_CONTROL));
+        if (reqCacheControl.noStore()) {
+            return upstream.execute(req);
+        }
+
+        CachedHttpResponse entry = cache.getIfPresent(key);
+        if (entry != null && !entry.matches(headers)) {
+            entry = null;
+        }
+
+        if (entry != null && !reqCacheControl.noCache() && !entry.noCache()) {
+            final long now = ticker.read();
+            final long ageNanos = entry.ageNanos(now);
+            long lifetimeNanos = entry.freshnessLifetimeNanos();
+            if (reqCacheControl.maxAgeSeconds() >= 0) {
+                lifetimeNanos = Math.min(lifetimeNanos,
+                                         TimeUnit.SECONDS.toNanos(reqCacheControl.maxAgeSeconds()));
+            }
+            final long minFreshNanos = TimeUnit.SECONDS.toNanos(Math.max(0, reqCacheControl.minFreshSeconds()));
+            if (ageNanos + minFreshNanos < lifetimeNanos) {
+                return entry.toHttpResponse(headers, now);
+            }
+
+            if (!entry.mustRevalidate()) {
+                final long stalenessNanos = ageNanos - entry.freshnessLifetimeNanos();
+                if (reqCacheControl.hasMaxStale()) {
+                    final long maxStaleSeconds = reqCacheControl.maxStaleSeconds();
+                    if (maxStaleSeconds < 0 || stalenessNanos <= TimeUnit.SECONDS.toNanos(maxStaleSeconds)) {
+                        return entry.toHttpResponse(headers, now);
+                    }
+                }
+                if (stalenessNanos < entry.staleWhileRevalidateNanos()) {
+                    revalidateInBackground(key, headers, entry, upstream);
+                    return entry.toHttpResponse(headers, now);
+                }
+            }
+        }
+
+        if (reqCacheControl.onlyIfCached()) {
+            return HttpResponse.of(HttpStatus.GATEWAY_TIMEOUT);
+        }
+        return fetch(key, req, entry, upstream);
+    }
+
+    private HttpResponse fetch(String key, HttpRequest req, @Nullable CachedHttpResponse stale,
+                               Upstream upstream) {
+        final RequestHeaders headers = req.headers();
+        final CompletableFuture<CachedHttpResponse> future = new CompletableFuture<>();
+        final CompletableFuture<CachedHttpResponse> inflight = inflightRequests.putIfAbsent(key, future);
+        if (inflight != null) {
+            // Wait for the response of the in-flight request and send our own request only if it turns out
+            // the response can't be shared.
+            return HttpResponse.of(inflight.handleAsync((entry, unused) -> {
+                if (entry != null && entry.matches(headers)) {
+                    return entry.toHttpResponse(headers, ticker.read());
+                }
+                return upstream.execute(req);
+            }, upstream.executor()));
+        }
+
+        final boolean conditional = stale != null && stale.hasValidator();
+        final HttpRequest upstreamReq =
+                conditional ? req.withHeaders(stale.toConditionalRequestHeaders(headers)) : req;
+        final HttpResponse res;
+        try {
+            res = upstream.execute(upstreamReq);
+        } catch (Throwable cause) {
+            complete(key, future, null);
+            throw cause;
+        }
+
+        final SplitHttpResponse split = res.split();
+        return HttpResponse.of(split.headers().handleAsync((resHeaders, cause) -> {
+            if (cause != null) {
+                complete(key, future, null);
+                return HttpResponse.ofFailure(cause);
+            }
+            if (conditional && resHeaders.status() == HttpStatus.NOT_MODIFIED) {
+                split.body().subscribe();
+                final long now = ticker.read();
+                final AggregatedHttpResponse merged = stale.mergeHeaders(resHeaders);
+                final CachedHttpResponse entry = store(key, headers, merged, now);
+                complete(key, future, entry);
+                return entry != null ? entry.toHttpResponse(headers, now) : merged.toHttpResponse();
+            }
+            if (!isCacheable(headers, resHeaders)) {
+                // Let the other requests send their own requests without waiting for this response.
+                cache.invalidate(key);
+                complete(key, future, null);
+                return toHttpResponse(res, split, resHeaders, split.body(), null);
+            }
+
+            // Stream the response while collecting a copy of its content for the cache.
+            final ContentCollector collector = new ContentCollector(maxEntrySizeBytes);
+            final HttpResponse streamed =
+                    toHttpResponse(res, split, resHeaders, split.body().peek(collector), trailers -> {
+                        CachedHttpResponse entry = null;
+                        try {
+                            final HttpData content = collector.content();
+                            if (content != null) {
+                                entry = store(key, headers,
+                                              AggregatedHttpResponse.of(resHeaders, content, trailers),
+                                              ticker.read());
+                            }
+                        } finally {
+                            complete(key, future, entry);
+                        }
+                    });
+            streamed.whenComplete().handle((unused, unused2) -> {
+                // No-op if completed already by the callback above.
+                complete(key, future, null);
+                return null;
+            });
+            return streamed;
+        }, upstream.executor()));
+    }
+
+    /**
+     * Returns a new {@link HttpResponse} which streams the specified body of the specified response.
+     *
+     * @param onSuccess the callback invoked with the trailers when the body ends successfully. It's
+     *                  invoked before the end of the stream is signaled, so that the subsequent requests
+     *                  can see the result of the callback.
+     */
+    private static HttpResponse toHttpResponse(HttpResponse res, SplitHttpResponse split,
+                                               ResponseHeaders headers, StreamMessage<HttpData> body,
+                                               @Nullable Consumer<HttpHeaders> onSuccess) {
+        // Use a SurroundingPublisher directly rather than HttpResponse.of(headers, publisher, trailersFunction)
+        // so that HttpResponse.whenComplete() is completed even if the response is aggregated.
+        final SurroundingPublisher<HttpObject> publisher = new SurroundingPublisher<>(headers, body, cause -> {
+            // The trailers are complete before the end of the body.
+            final HttpHeaders trailers = split.trailers().getNow(HttpHeaders.of());
+            if (cause == null && onSuccess != null) {
+                onSuccess.accept(trailers);
+            }
+            return trailers.isEmpty() ? null : trailers;
+        });
+        final HttpResponse newRes = HttpResponse.of(publisher);
+        newRes.whenComplete().exceptionally(cause -> {
+            // Abort the upstream response which may not have been subscribed at all.
+            res.abort(cause);
+            return null;
+        });
+        return newRes;
+    }
+
+    private void complete(String key, CompletableFuture<CachedHttpResponse> future,
+                          @Nullable CachedHttpResponse entry) {
+        inflightRequests.remove(key, future);
+        future.complete(entry);
+    }
+
+    private void revalidateInBackground(String key, RequestHeaders headers, CachedHttpResponse stale,
+                                        Upstream upstream) {
+        if (!stale.tryStartRevalidation()) {
+            // Being revalidated by another request already.
+            return;
+        }
+
+        final HttpResponse res;
+        try {
+            res = upstream.executeInBackground(HttpRequest.of(stale.toConditionalRequestHeaders(headers)));
+        } catch (Throwable cause) {
+            stale.endRevalidation();
+            return;
+        }
+
+        final SplitHttpResponse split = res.split();
+        split.headers().handleAsync((resHeaders, cause) -> {
+            if (cause != null) {
+                stale.endRevalidation();
+                return null;
+            }
+            if (resHeaders.status() == HttpStatus.NOT_MODIFIED) {
+                split.body().subscribe();
+                try {
+                    store(key, headers, stale.mergeHeaders(resHeaders), ticker.read());
+                } finally {
+                    stale.endRevalidation();
+                }
+                return null;
+            }
+            if (!isCacheable(headers, resHeaders)) {
+                res.abort();
+                cache.invalidate(key);
+                stale.endRevalidation();
+                return null;
+            }
+
+            final ContentCollector collector = new ContentCollector(maxEntrySizeBytes);
+            split.body().peek(data -> {
+                collector.accept(data);
+                if (collector.exceeded()) {
+                    // Nobody is waiting for the rest of the content.
+                    res.abort();
+                }
+            }).subscribe().handle((unused, bodyCause) -> {
+                try {
+                    final HttpData content = collector.content();
+                    if (bodyCause == null && content != null) {
+                        final HttpHeaders trailers = split.trailers().getNow(HttpHeaders.of());
+                        store(key, headers, AggregatedHttpResponse.of(resHeaders, content, trailers),
+                              ticker.read());
+                    } else if (collector.exceeded()) {
+                        cache.invalidate(key);
+                    }
+                } finally {
+                    stale.endRevalidation();
+                }
+                return null;
+            });
+            return null;
+        }, upstream.executor());
+    }
+
+    @Nullable
+    private CachedHttpResponse store(String key, RequestHeaders reqHeaders, AggregatedHttpResponse res,
+                                     long now) {
+        final CachedHttpResponse entry = newEntry(reqHeaders, res, now);
+        if (entry != null) {
+            cache.put(key, entry);
+        } else {
+            cache.invalidate(key);
+        }
+        return entry;
+    }
+
+    @Nullable
+    private CachedHttpResponse newEntry(RequestHeaders reqHeaders, AggregatedHttpResponse res, long now) {
+        final ResponseHeaders headers = res.headers();
+        if (res.content().length() > maxEntrySizeBytes || !isCacheable(reqHeaders, headers)) {
+            return null;
+        }
+
+        final ResponseCacheDirectives directives = ResponseCacheDirectives.parse(headers);
+        final List<AsciiString> varyHeaderNames = CachedHttpResponse.varyHeaderNames(headers);
+        assert varyHeaderNames != null;
+        return new CachedHttpResponse(res, reqHeaders, varyHeaderNames, directives,
+                                      Math.max(0, freshnessLifetimeNanos(headers, directives)), now);
+    }
+
+    /**
+     * Returns whether a response with the specified {@link ResponseHeaders} can be stored in the cache,
+     * so that the content of the response is collected only when it can be cached.
+     */
+    private boolean isCacheable(RequestHeaders reqHeaders, ResponseHeaders headers) {
+        if (!CACHEABLE_STATUSES.contains(headers.status()) || headers.contentLength() > maxEntrySizeBytes) {
+            return false;
+        }
+
+        final ResponseCacheDirectives directives = ResponseCacheDirectives.parse(headers);
+        if (directives.noStore) {
+            return false;
+        }
+        if (shared) {
+            if (directives.cachePrivate || headers.contains(HttpHeaderNames.SET_COOKIE)) {
+                return false;
+            }
+            if (reqHeaders.contains(HttpHeaderNames.AUTHORIZATION) &&
+                !directives.cachePublic && !directives.mustRevalidate && directives.sMaxAgeSeconds < 0) {
+                return false;
+            }
+        }
+
+        if (CachedHttpResponse.varyHeaderNames(headers) == null) {
+            return false;
+        }
+
+        // Neither fresh nor revalidatable if negative and not 'no-cache' with a validator.
+        return freshnessLifetimeNanos(headers, directives) >= 0 ||
+               directives.noCache && (headers.contains(HttpHeaderNames.ETAG) ||
+                                      headers.contains(HttpHeaderNames.LAST_MODIFIED));
+    }
+
+    private long freshnessLifetimeNanos(HttpHeaders headers, ResponseCacheDirectives directives) {
+        if (shared && directives.sMaxAgeSeconds >= 0) {
+            return TimeUnit.SECONDS.toNanos(directives.sMaxAgeSeconds);
+        }
+        if (directives.maxAgeSeconds >= 0) {
+            return TimeUnit.SECONDS.toNanos(directives.maxAgeSeconds);
+        }
+        if (!headers.contains(HttpHeaderNames.EXPIRES)) {
+            return -1;
+        }
+
+        final Long expires = timeMillis(headers, HttpHeaderNames.EXPIRES);
+        if (expires == null) {
+            // An invalid date such as "0" means "already expired".
+            return 0;
+        }
+        Long date = timeMillis(headers, HttpHeaderNames.DATE);
+        if (date == null) {
+            date = System.currentTimeMillis();
+        }
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expires - date));
+    }
+
+    @Nullable
+    private static Long timeMillis(HttpHeaders headers, AsciiString name) {
+        try {
+            return headers.getTimeMillis(name);
+        } catch (Exception ignored) {
+            return null;
+        }
+    }
+
+    private static int weigh(String key, AggregatedHttpResponse res) {
+        int weight = key.length() + res.content().length();
+        for (Map.Entry<AsciiString, String> e : res.headers()) {
+            weight += e.getKey().length() + e.getValue().length();
+        }
+        return weight;
+    }
+
+    /**
+     * Collects the content of a response being streamed, until the content exceeds the maximum size of
+     * a cache entry.
+     */
+    private static final class ContentCollector implements Consumer<HttpData> {
+
+        private final int maxLength;
+        @Nullable
+        private ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ContentCollector(int maxLength) {
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public void accept(HttpData data) {
+            final ByteArrayOutputStream out = this.out;
+            if (out == null) {
+                return;
+            }
+            if (out.size() + data.length() > maxLength) {
+                // Discard the collected content as early as possible.
+                this.out = null;
+                return;
+            }
+            out.write(data.array(), 0, data.length());
+        }
+
+        boolean exceeded() {
+            return out == null;
+        }
+
+        /**
+         * Returns the collected content, or {@code null} if the content exceeded the maximum size.
+         */
+        @Nullable
+        HttpData content() {
+            final ByteArrayOutputStream out = this.out;
+            return out != null ? HttpData.wrap(out.toByteArray()) : null;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common.cache;
+
+import static com.linecorp.armeria.internal.common.ArmeriaHttpUtil.parseDirectiveValueAsSeconds;
+import static com.linecorp.armeria.internal.common.ArmeriaHttpUtil.parseDirectives;
+
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpHeaders;
+
+/**
+ * The {@code "cache-control"} directives of a response which are relevant to an HTTP cache,
+ * including {@code "stale-while-revalidate"} which is not supported by
+ * {@link com.linecorp.armeria.common.ServerCacheControl}.
+ */
+final class ResponseCacheDirectives {
+
+    static ResponseCacheDirectives parse(HttpHeaders headers) {
+        final ResponseCacheDirectives directives = new ResponseCacheDirectives();
+        for (String value : headers.getAll(HttpHeaderNames.CACHE_CONTROL)) {
+            parseDirectives(value, (name, arg) -> {
+                switch (name) {
+                    case "no-store":
+                        directives.noStore = true;
+                        break;
+                    case "no-cache":
+                        directives.noCache = true;
+                        break;
+                    case "private":
+                        directives.cachePrivate = true;
+                        break;
+                    case "public":
+                        directives.cachePublic = true;
+                        break;
+                    case "must-revalidate":
+                        directives.mustRevalidate = true;
+                        break;
+                    case "proxy-revalidate":
+                        directives.proxyRevalidate = true;
+                        break;
+                    case "max-age":
+                        directives.maxAgeSeconds = parseDirectiveValueAsSeconds(arg);
+                        break;
+                    case "s-maxage":
+                        directives.sMaxAgeSeconds = parseDirectiveValueAsSeconds(arg);
+                        break;
+                    case "stale-while-revalidate":
+                        directives.staleWhileRevalidateSeconds = parseDirectiveValueAsSeconds(arg);
+                        break;
+                }
+            });
+        }
+        return directives;
+    }
+
+    boolean noStore;
+    boolean noCache;
+    boolean cachePrivate;
+    boolean cachePublic;
+    boolean mustRevalidate;
+    boolean proxyRevalidate;
+    long maxAgeSeconds = -1;
+    long sMaxAgeSeconds = -1;
+    long staleWhileRevalidateSeconds = -1;
+
+    private ResponseCacheDirectives() {}
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common.coalescing;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import com.google.common.math.IntMath;
+
+import com.linecorp.armeria.common.HttpHeaders;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpObject;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpResponseDuplicator;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.SplitHttpResponse;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.internal.common.stream.SurroundingPublisher;
+import com.linecorp.armeria.internal.common.util.ReentrantShortLock;
+import com.linecorp.armeria.internal.common.util.TemporaryThreadLocals;
+
+import io.netty.util.AsciiString;
+import io.netty.util.concurrent.EventExecutor;
+
+/**
+ * Deduplicates the concurrent in-flight requests which share the same key. The first request of a key
+ * becomes the leader which is sent to the upstream, and the requests which arrive before the headers of
+ * the leader's response are received become the followers which share the leader's response.
+ *
+ * <p>The leader's response is passed through unchanged if no follower joined, so that it's not buffered at
+ * all. Otherwise, it's shared with an {@link HttpResponseDuplicator} which buffers the content until all
+ * coalesced requests consume it. No follower joins after the headers are received, so the duplicator is
+ * closed as soon as it's created and only the content which has not been consumed by the slowest request is
+ * buffered.
+ *
+ * <p>The in-flight requests are registered in a fixed number of stripes, each of which is guarded by
+ * its own lock, so that the requests handled by different event loops rarely contend with each other.
+ */
+public final class RequestCoalescer {
+
+    private static final int DEFAULT_NUM_STRIPES =
+            IntMath.ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors() * 4);
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    /**
+     * Creates a new instance with the default number of stripes.
+     */
+    public RequestCoalescer() {
+        this(DEFAULT_NUM_STRIPES);
+    }
+
+    /**
+     * Creates a new instance with the specified number of stripes, which is rounded up to
+     * the nearest power of two.
+     */
+    public RequestCoalescer(int numStripes) {
+        final int n = IntMath.ceilingPowerOfTwo(Math.max(1, numStripes));
+        stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new Stripe();
+        }
+        stripeMask = n - 1;
+    }
+
+    /**
+     * Returns the {@link HttpResponse} for the request of the specified key. If there's an in-flight request
+     * of the same key whose response headers have not been received yet, the response of the in-flight
+     * request is shared. Otherwise, the response is obtained from the specified {@link Supplier}, which is
+     * invoked by the caller thread before this method returns.
+     *
+     * @param executor the {@link EventExecutor} which duplicates the leader's response
+     * @param maxResponseLength the maximum number of bytes buffered for the followers when the leader's
+     *                          response is shared. {@code 0} disables the limit.
+     */
+    public HttpResponse execute(String key, EventExecutor executor, long maxResponseLength,
+                                Supplier<? extends HttpResponse> upstream) {
+        final Stripe stripe = stripes[spread(key.hashCode()) & stripeMask];
+        final Flight flight;
+        stripe.lock.lock();
+        try {
+            final Flight inflight = stripe.flights.get(key);
+            if (inflight != null) {
+                return inflight.join();
+            }
+            flight = new Flight();
+            stripe.flights.put(key, flight);
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        HttpResponse res;
+        try {
+            res = requireNonNull(upstream.get(), "upstream.get() returned null.");
+        } catch (Throwable cause) {
+            res = HttpResponse.ofFailure(cause);
+        }
+
+        final SplitHttpResponse split = res.split(executor);
+        return HttpResponse.of(split.headers().handle((headers, cause) -> {
+            final List<CompletableFuture<HttpResponse>> waiters;
+            stripe.lock.lock();
+            try {
+                stripe.flights.remove(key, flight);
+                waiters = flight.waiters;
+            } finally {
+                stripe.lock.unlock();
+            }
+
+            // Complete the futures outside the lock because they may run arbitrary callbacks.
+            if (cause != null) {
+                if (waiters != null) {
+                    for (CompletableFuture<HttpResponse> waiter : waiters) {
+                        waiter.complete(HttpResponse.ofFailure(cause));
+                    }
+                }
+                return HttpResponse.ofFailure(cause);
+            }
+
+            final HttpResponse leaderResponse =
+                    HttpResponse.of(new SurroundingPublisher<HttpObject>(headers, split.body(), unused -> {
+                        // The trailers are complete before the end of the body.
+                        final HttpHeaders trailers = split.trailers().getNow(HttpHeaders.of());
+                        return trailers.isEmpty() ? null : trailers;
+                    }));
+            if (waiters == null) {
+                // Pass through the response because nobody shares it.
+                return leaderResponse;
+            }
+
+            final HttpResponseDuplicator duplicator = leaderResponse.toDuplicator(executor, maxResponseLength);
+            for (CompletableFuture<HttpResponse> waiter : waiters) {
+                waiter.complete(duplicator.duplicate());
+            }
+            final HttpResponse duplicate = duplicator.duplicate();
+            duplicator.close();
+            return duplicate;
+        }));
+    }
+
+    /**
+     * Returns the key of a request which consists of the specified method, request target and the values
+     * of the specified headers.
+     */
+    public static String key(HttpMethod method, String target, RequestHeaders headers,
+                             List<AsciiString> headerNames) {
+        try (TemporaryThreadLocals tempThreadLocals = TemporaryThreadLocals.acquire()) {
+            final StringBuilder buf = tempThreadLocals.stringBuilder();
+            buf.append(method.name()).append(' ').append(target);
+            for (AsciiString name : headerNames) {
+                // A header value never contains a newline.
+                for (String value : headers.getAll(name)) {
+                    buf.append('\n').append(name).append('=').append(value);
+                }
+            }
+            return buf.toString();
+        }
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Stripe {
+        final ReentrantShortLock lock = new ReentrantShortLock();
+        final Map<String, Flight> flights = new HashMap<>();
+    }
+
+    private static final class Flight {
+
+        // Guarded by the lock of the Stripe.
+        @Nullable
+        private List<CompletableFuture<HttpResponse>> waiters;
+
+        HttpResponse join() {
+            if (waiters == null) {
+                waiters = new ArrayList<>();
+            }
+            final CompletableFuture<HttpResponse> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            return HttpResponse.of(waiter);
+        }
+    }
+}
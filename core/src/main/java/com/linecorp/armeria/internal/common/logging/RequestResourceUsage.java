@@ -0,0 +1,239 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common.logging;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.linecorp.armeria.common.RequestContext;
+import com.linecorp.armeria.common.RequestContextStorage;
+import com.linecorp.armeria.common.RequestContextStorageWrapper;
+import com.linecorp.armeria.common.annotation.Nullable;
+
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.FastThreadLocal;
+
+/**
+ * Accumulates the CPU time and the allocated bytes of the threads while a {@link RequestContext} is current.
+ * The accounting follows the {@link RequestContext} wherever it is pushed, e.g. event loops and
+ * blocking task executors, by hooking into {@link RequestContextStorage}. While a client request context
+ * created during a server-side request is current, the resources are accounted to its root context.
+ */
+public final class RequestResourceUsage {
+
+    private static final AttributeKey<RequestResourceUsage> RESOURCE_USAGE =
+            AttributeKey.valueOf(RequestResourceUsage.class, "RESOURCE_USAGE");
+
+    private static final FastThreadLocal<Measurement> measurements = new FastThreadLocal<Measurement>() {
+        @Override
+        protected Measurement initialValue() {
+            return new Measurement();
+        }
+    };
+
+    private static final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private static final boolean cpuTimeEnabled;
+    @Nullable
+    private static final com.sun.management.ThreadMXBean allocationMXBean;
+
+    static {
+        cpuTimeEnabled = threadMXBean.isCurrentThreadCpuTimeSupported() &&
+                         threadMXBean.isThreadCpuTimeEnabled();
+        com.sun.management.ThreadMXBean allocationBean = null;
+        try {
+            if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+                final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadMXBean;
+                if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                    allocationBean = bean;
+                }
+            }
+        } catch (Throwable ignored) {
+            // com.sun.management is not available.
+        }
+        allocationMXBean = allocationBean;
+    }
+
+    /**
+     * Returns whether the current JVM can measure the CPU time or the allocated bytes of a thread.
+     */
+    public static boolean isAvailable() {
+        return cpuTimeEnabled || allocationMXBean != null;
+    }
+
+    /**
+     * Installs the {@link RequestContextStorage} hook that measures the resources used by the threads.
+     * This method must be invoked while the application starts up, e.g. when the accounting is configured,
+     * because {@link RequestContextStorage#hook(Function)} must not be invoked in the middle of request
+     * processing.
+     */
+    public static void install() {
+        StorageHook.initialize();
+    }
+
+    /**
+     * Starts to account the resources used while the specified {@link RequestContext} is current.
+     * If the {@link RequestContext} is current already, the accounting starts immediately.
+     */
+    public static void start(RequestContext ctx) {
+        requireNonNull(ctx, "ctx");
+        if (!isAvailable() || ctx.ownAttr(RESOURCE_USAGE) != null) {
+            return;
+        }
+        final RequestResourceUsage usage = new RequestResourceUsage();
+        ctx.setAttr(RESOURCE_USAGE, usage);
+        if (RequestContext.currentOrNull() == ctx) {
+            final Measurement measurement = measurements.get();
+            measurement.commit();
+            measurement.begin(usage);
+        }
+    }
+
+    /**
+     * Returns the {@link RequestResourceUsage} of the specified {@link RequestContext}, or {@code null}
+     * if the accounting was not started with {@link #start(RequestContext)}.
+     */
+    @Nullable
+    public static RequestResourceUsage get(RequestContext ctx) {
+        requireNonNull(ctx, "ctx");
+        return ctx.ownAttr(RESOURCE_USAGE);
+    }
+
+    private static long currentThreadCpuTime() {
+        return cpuTimeEnabled ? threadMXBean.getCurrentThreadCpuTime() : 0;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        return allocationMXBean != null ? allocationMXBean.getThreadAllocatedBytes(
+                Thread.currentThread().getId()) : 0;
+    }
+
+    private final LongAdder cpuTimeNanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    private RequestResourceUsage() {}
+
+    /**
+     * Returns the CPU time used so far, in nanoseconds, or {@code -1} if the CPU time is not measurable.
+     * The time used by the current thread is also included if the accounting is in progress.
+     */
+    public long cpuTimeNanos() {
+        if (!cpuTimeEnabled) {
+            return -1;
+        }
+        final Measurement measurement = measurements.getIfExists();
+        long value = cpuTimeNanos.sum();
+        if (measurement != null && measurement.usage == this) {
+            value += currentThreadCpuTime() - measurement.startCpuTimeNanos;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the number of bytes allocated so far, or {@code -1} if the allocation is not measurable.
+     * The bytes allocated by the current thread are also included if the accounting is in progress.
+     */
+    public long allocatedBytes() {
+        if (allocationMXBean == null) {
+            return -1;
+        }
+        final Measurement measurement = measurements.getIfExists();
+        long value = allocatedBytes.sum();
+        if (measurement != null && measurement.usage == this) {
+            value += currentThreadAllocatedBytes() - measurement.startAllocatedBytes;
+        }
+        return value;
+    }
+
+    /**
+     * The accounting in progress in a thread.
+     */
+    private static final class Measurement {
+
+        @Nullable
+        RequestResourceUsage usage;
+        long startCpuTimeNanos;
+        long startAllocatedBytes;
+
+        void begin(RequestResourceUsage usage) {
+            this.usage = usage;
+            startCpuTimeNanos = currentThreadCpuTime();
+            startAllocatedBytes = currentThreadAllocatedBytes();
+        }
+
+        void commit() {
+            final RequestResourceUsage usage = this.usage;
+            if (usage == null) {
+                return;
+            }
+            this.usage = null;
+            usage.cpuTimeNanos.add(currentThreadCpuTime() - startCpuTimeNanos);
+            usage.allocatedBytes.add(currentThreadAllocatedBytes() - startAllocatedBytes);
+        }
+    }
+
+    private static final class StorageHook {
+
+        static {
+            // Installed only once by the class initialization.
+            RequestContextStorage.hook(Storage::new);
+        }
+
+        static void initialize() {}
+    }
+
+    private static final class Storage extends RequestContextStorageWrapper {
+
+        Storage(RequestContextStorage delegate) {
+            super(delegate);
+        }
+
+        @Nullable
+        @Override
+        public <T extends RequestContext> T push(RequestContext toPush) {
+            final T oldCtx = super.push(toPush);
+            final RequestResourceUsage usage = toPush.attr(RESOURCE_USAGE);
+            final Measurement measurement = usage != null ? measurements.get() : measurements.getIfExists();
+            if (measurement != null && measurement.usage != usage) {
+                // Stop accounting to the outer context even if the pushed one is not accounted.
+                measurement.commit();
+                if (usage != null) {
+                    measurement.begin(usage);
+                }
+            }
+            return oldCtx;
+        }
+
+        @Override
+        public void pop(RequestContext current, @Nullable RequestContext toRestore) {
+            super.pop(current, toRestore);
+            final RequestResourceUsage usage = toRestore != null ? toRestore.attr(RESOURCE_USAGE) : null;
+            final Measurement measurement = usage != null ? measurements.get() : measurements.getIfExists();
+            if (measurement == null) {
+                return;
+            }
+            // Always commit the usage of the popped context, even if the restored one is not accounted.
+            measurement.commit();
+            if (usage != null) {
+                measurement.begin(usage);
+            }
+        }
+    }
+}
@@ -0,0 +1,465 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common.metric;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.util.ThreadFactories;
+import com.linecorp.armeria.common.util.Ticker;
+import com.linecorp.armeria.internal.common.util.ReentrantShortLock;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+
+/**
+ * Monitors Netty event loops by submitting a probe task to each event loop periodically from a dedicated
+ * thread. The time a probe task waits until it is run is the delay that any task submitted at the same
+ * moment would experience. An event loop whose probe task is not run within the threshold is considered
+ * to be blocked by a long task, and the stack trace of its thread is sampled so that the culprit can be
+ * found.
+ *
+ * <p>Unlike BlockHound, this does not instrument any code, so it is cheap enough to be always on.
+ */
+public final class EventLoopMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventLoopMonitor.class);
+
+    private static final long DEFAULT_PROBE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long DEFAULT_LONG_TASK_THRESHOLD_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long BUSY_RATIO_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int MAX_NUM_RECENT_LONG_TASKS = 32;
+
+    @Nullable
+    private static final ThreadMXBean threadMxBean;
+
+    static {
+        ThreadMXBean bean = null;
+        try {
+            bean = ManagementFactory.getThreadMXBean();
+            if (!bean.isThreadCpuTimeSupported() || !bean.isThreadCpuTimeEnabled()) {
+                bean = null;
+            }
+        } catch (Throwable ignored) {
+            // Not supported.
+        }
+        threadMxBean = bean;
+    }
+
+    private static final EventLoopMonitor INSTANCE =
+            new EventLoopMonitor(DEFAULT_PROBE_INTERVAL_NANOS, DEFAULT_LONG_TASK_THRESHOLD_NANOS,
+                                 Ticker.systemTicker());
+
+    /**
+     * Returns the singleton {@link EventLoopMonitor}.
+     */
+    public static EventLoopMonitor get() {
+        return INSTANCE;
+    }
+
+    /**
+     * A listener which is notified with the measurements of the event loops.
+     * The methods are invoked by an event loop or the monitor thread, so they must not block.
+     */
+    public interface Listener {
+        /**
+         * Invoked when a probe task is run with the time it waited in the task queue.
+         */
+        void onTaskQueueDelay(long delayNanos);
+
+        /**
+         * Invoked when an event loop is found to be blocked by a long task.
+         */
+        void onLongTask(LongTask longTask);
+    }
+
+    private final long probeIntervalNanos;
+    private final long longTaskThresholdNanos;
+    private final Ticker ticker;
+    private final ConcurrentHashMap<EventExecutor, EventLoopState> states = new ConcurrentHashMap<>();
+
+    private final ReentrantShortLock lock = new ReentrantShortLock();
+    private final ArrayDeque<LongTask> recentLongTasks = new ArrayDeque<>();
+    @Nullable
+    private ScheduledExecutorService executor;
+
+    @VisibleForTesting
+    EventLoopMonitor(long probeIntervalNanos, long longTaskThresholdNanos, Ticker ticker) {
+        this.probeIntervalNanos = probeIntervalNanos;
+        this.longTaskThresholdNanos = longTaskThresholdNanos;
+        this.ticker = ticker;
+    }
+
+    /**
+     * Starts to monitor the event loops of the specified {@link EventLoopGroup} and notifies the specified
+     * {@link Listener} with their measurements. The event loops are not monitored anymore once they are
+     * shut down or {@link #remove(EventLoopGroup, Listener)} is called for all their {@link Listener}s.
+     */
+    public void add(EventLoopGroup eventLoopGroup, Listener listener) {
+        requireNonNull(eventLoopGroup, "eventLoopGroup");
+        requireNonNull(listener, "listener");
+        for (EventExecutor eventLoop : eventLoopGroup) {
+            if (!(eventLoop instanceof SingleThreadEventExecutor) || eventLoop.isShuttingDown()) {
+                // Only the event loops backed by a single thread can be probed and sampled.
+                continue;
+            }
+            states.compute(eventLoop, (unused, state) -> {
+                if (state == null) {
+                    state = new EventLoopState(eventLoop);
+                }
+                state.listeners.add(listener);
+                return state;
+            });
+        }
+        startMonitorThread();
+    }
+
+    /**
+     * Stops notifying the specified {@link Listener} with the measurements of the event loops of
+     * the specified {@link EventLoopGroup}. An event loop is not monitored anymore if it has no
+     * {@link Listener}s, and the monitor thread is stopped if no event loops are monitored.
+     */
+    public void remove(EventLoopGroup eventLoopGroup, Listener listener) {
+        requireNonNull(eventLoopGroup, "eventLoopGroup");
+        requireNonNull(listener, "listener");
+        for (EventExecutor eventLoop : eventLoopGroup) {
+            states.computeIfPresent(eventLoop, (unused, state) -> {
+                state.listeners.remove(listener);
+                return state.listeners.isEmpty() ? null : state;
+            });
+        }
+        stopMonitorThreadIfIdle();
+    }
+
+    private void startMonitorThread() {
+        lock.lock();
+        try {
+            if (executor != null) {
+                return;
+            }
+            executor = Executors.newSingleThreadScheduledExecutor(
+                    ThreadFactories.newThreadFactory("armeria-event-loop-monitor", true));
+            executor.scheduleWithFixedDelay(this::probe, probeIntervalNanos, probeIntervalNanos,
+                                            TimeUnit.NANOSECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void stopMonitorThreadIfIdle() {
+        final ScheduledExecutorService executor;
+        lock.lock();
+        try {
+            // Checked under the lock so that the thread started by add() is not stopped.
+            if (!states.isEmpty() || this.executor == null) {
+                return;
+            }
+            executor = this.executor;
+            this.executor = null;
+        } finally {
+            lock.unlock();
+        }
+        executor.shutdown();
+    }
+
+    @VisibleForTesting
+    boolean isRunning() {
+        lock.lock();
+        try {
+            return executor != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the {@link EventLoopState}s of the monitored event loops.
+     */
+    public Collection<EventLoopState> eventLoopStates() {
+        return Collections.unmodifiableCollection(states.values());
+    }
+
+    /**
+     * Returns the {@link EventLoopState} of the specified event loop, or {@code null} if the event loop is
+     * not monitored.
+     */
+    @Nullable
+    public EventLoopState eventLoopState(EventExecutor eventLoop) {
+        return states.get(eventLoop);
+    }
+
+    /**
+     * Returns the most recently detected {@link LongTask}s, from the oldest to the latest.
+     */
+    public List<LongTask> recentLongTasks() {
+        lock.lock();
+        try {
+            return ImmutableList.copyOf(recentLongTasks);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void probe() {
+        try {
+            final long now = ticker.read();
+            for (EventLoopState state : states.values()) {
+                if (state.eventLoop.isShuttingDown()) {
+                    states.remove(state.eventLoop);
+                    continue;
+                }
+                state.updateBusyRatio(now);
+                if (state.probeInProgress) {
+                    detectLongTask(state, now);
+                    continue;
+                }
+                state.probeInProgress = true;
+                state.probeStartNanos = now;
+                try {
+                    state.eventLoop.execute(state.probe);
+                } catch (RejectedExecutionException e) {
+                    states.remove(state.eventLoop);
+                }
+            }
+        } catch (Throwable t) {
+            logger.warn("Unexpected exception while probing event loops:", t);
+        }
+        stopMonitorThreadIfIdle();
+    }
+
+    private void detectLongTask(EventLoopState state, long now) {
+        final long elapsedNanos = now - state.probeStartNanos;
+        if (elapsedNanos < longTaskThresholdNanos || state.currentLongTask != null) {
+            return;
+        }
+        final Thread thread = state.thread;
+        if (thread == null) {
+            // Can't sample until the first probe task reveals the event loop thread.
+            return;
+        }
+
+        final long startTimeMillis = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        final LongTask longTask = new LongTask(thread.getName(), startTimeMillis, elapsedNanos,
+                                               thread.getStackTrace());
+        state.currentLongTask = longTask;
+        state.numLongTasks.increment();
+        lock.lock();
+        try {
+            if (recentLongTasks.size() == MAX_NUM_RECENT_LONG_TASKS) {
+                recentLongTasks.removeFirst();
+            }
+            recentLongTasks.addLast(longTask);
+        } finally {
+            lock.unlock();
+        }
+        for (Listener listener : state.listeners) {
+            listener.onLongTask(longTask);
+        }
+
+        if (logger.isWarnEnabled()) {
+            final Throwable stackTrace = new Throwable("Stack trace of " + thread.getName());
+            stackTrace.setStackTrace(longTask.stackTrace());
+            logger.warn("An event loop has been blocked for more than {} ms: {}",
+                        TimeUnit.NANOSECONDS.toMillis(elapsedNanos), thread.getName(), stackTrace);
+        }
+    }
+
+    /**
+     * The state of a monitored event loop.
+     */
+    public final class EventLoopState {
+
+        private final EventExecutor eventLoop;
+        private final Set<Listener> listeners = new CopyOnWriteArraySet<>();
+        private final LongAdder numLongTasks = new LongAdder();
+        private final Runnable probe = this::onProbe;
+
+        @Nullable
+        private volatile Thread thread;
+        private volatile boolean probeInProgress;
+        private volatile long probeStartNanos;
+        private volatile long lastTaskQueueDelayNanos;
+        @Nullable
+        private volatile LongTask currentLongTask;
+        private volatile double busyRatio = Double.NaN;
+
+        // Accessed only by the monitor thread.
+        private long lastCpuTimeNanos = -1;
+        private long lastCpuTimeCheckNanos;
+
+        EventLoopState(EventExecutor eventLoop) {
+            this.eventLoop = eventLoop;
+        }
+
+        private void onProbe() {
+            final long delayNanos = ticker.read() - probeStartNanos;
+            thread = Thread.currentThread();
+            lastTaskQueueDelayNanos = delayNanos;
+            final LongTask longTask = currentLongTask;
+            if (longTask != null) {
+                longTask.durationNanos = delayNanos;
+                currentLongTask = null;
+            }
+            probeInProgress = false;
+            for (Listener listener : listeners) {
+                listener.onTaskQueueDelay(delayNanos);
+            }
+        }
+
+        private void updateBusyRatio(long now) {
+            final Thread thread = this.thread;
+            if (threadMxBean == null || thread == null) {
+                return;
+            }
+            if (lastCpuTimeNanos >= 0 && now - lastCpuTimeCheckNanos < BUSY_RATIO_WINDOW_NANOS) {
+                return;
+            }
+            final long cpuTimeNanos = threadMxBean.getThreadCpuTime(thread.getId());
+            if (cpuTimeNanos < 0) {
+                return;
+            }
+            if (lastCpuTimeNanos >= 0) {
+                busyRatio = Math.min(1.0, (double) (cpuTimeNanos - lastCpuTimeNanos) /
+                                          (now - lastCpuTimeCheckNanos));
+            }
+            lastCpuTimeNanos = cpuTimeNanos;
+            lastCpuTimeCheckNanos = now;
+        }
+
+        /**
+         * Returns the monitored event loop.
+         */
+        public EventExecutor eventLoop() {
+            return eventLoop;
+        }
+
+        /**
+         * Returns the name of the event loop thread, or {@code null} if not known yet.
+         */
+        @Nullable
+        public String threadName() {
+            final Thread thread = this.thread;
+            return thread != null ? thread.getName() : null;
+        }
+
+        /**
+         * Returns the time the last probe task waited in the task queue. If a probe task is still waiting,
+         * the time it has been waiting so far is returned if it is longer.
+         */
+        public long taskQueueDelayNanos() {
+            final long lastTaskQueueDelayNanos = this.lastTaskQueueDelayNanos;
+            if (!probeInProgress) {
+                return lastTaskQueueDelayNanos;
+            }
+            return Math.max(lastTaskQueueDelayNanos, ticker.read() - probeStartNanos);
+        }
+
+        /**
+         * Returns the ratio of the CPU time consumed by the event loop thread to the wall time during
+         * the last second, or {@link Double#NaN} if unknown. Note that the time spent on blocking calls
+         * other than polling for I/O events is not counted as busy.
+         */
+        public double busyRatio() {
+            return busyRatio;
+        }
+
+        /**
+         * Returns the number of the pending tasks of the event loop.
+         */
+        public int pendingTasks() {
+            return ((SingleThreadEventExecutor) eventLoop).pendingTasks();
+        }
+
+        /**
+         * Returns the number of the long tasks detected so far.
+         */
+        public long numLongTasks() {
+            return numLongTasks.sum();
+        }
+    }
+
+    /**
+     * A task which blocked an event loop for longer than the threshold.
+     */
+    public static final class LongTask {
+
+        private final String threadName;
+        private final long startTimeMillis;
+        private final StackTraceElement[] stackTrace;
+        private volatile long durationNanos;
+
+        LongTask(String threadName, long startTimeMillis, long durationNanos,
+                 StackTraceElement[] stackTrace) {
+            this.threadName = threadName;
+            this.startTimeMillis = startTimeMillis;
+            this.durationNanos = durationNanos;
+            this.stackTrace = stackTrace;
+        }
+
+        /**
+         * Returns the name of the blocked event loop thread.
+         */
+        public String threadName() {
+            return threadName;
+        }
+
+        /**
+         * Returns the approximate time when the event loop started to be blocked, in milliseconds since
+         * the epoch.
+         */
+        public long startTimeMillis() {
+            return startTimeMillis;
+        }
+
+        /**
+         * Returns how long the event loop was blocked. If the event loop is still blocked, the time it had
+         * been blocked when the stack trace was sampled is returned.
+         */
+        public long durationNanos() {
+            return durationNanos;
+        }
+
+        /**
+         * Returns the stack trace of the event loop thread sampled while it was blocked.
+         */
+        public StackTraceElement[] stackTrace() {
+            return stackTrace.clone();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common.metric;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multiset;
+
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.metric.MoreMeters;
+import com.linecorp.armeria.internal.common.metric.EventLoopMonitor.EventLoopState;
+import com.linecorp.armeria.internal.common.metric.EventLoopMonitor.LongTask;
+import com.linecorp.armeria.internal.common.util.ReentrantShortLock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+
+/**
+ * Exports the measurements of the {@link EventLoopMonitor} for the bound {@link EventLoopGroup}s:
+ * <ul>
+ *   <li>"event.loop.task.queue.delay" (timer)
+ *     - the time a task waits in the task queue until it is run, sampled periodically</li>
+ *   <li>"event.loop.busy.ratio" (gauge)
+ *     - the average ratio of the CPU time consumed by the event loop threads to the wall time</li>
+ *   <li>"event.loop.long.tasks" (counter)
+ *     - the number of the times an event loop was blocked by a long task. The stack traces sampled
+ *       while blocked are logged and available via {@code ManagementService}.</li>
+ * </ul>
+ *
+ * <p>The meters are shared by the {@link EventLoopGroup}s bound to the same {@link MeterRegistry} with
+ * the same {@link MeterIdPrefix}, and are removed from the {@link MeterRegistry} when all of them are
+ * {@linkplain #unbind(EventLoopGroup) unbound}.
+ */
+public final class EventLoopMonitorMetrics implements EventLoopMonitor.Listener {
+
+    /**
+     * Starts to monitor the specified {@link EventLoopGroup} and binds its meters to the specified
+     * {@link MeterRegistry}. {@link #unbind(EventLoopGroup)} must be called on the returned
+     * {@link EventLoopMonitorMetrics} when the {@link EventLoopGroup} is not used anymore.
+     */
+    public static EventLoopMonitorMetrics bind(EventLoopGroup eventLoopGroup, MeterRegistry registry,
+                                               MeterIdPrefix idPrefix) {
+        requireNonNull(eventLoopGroup, "eventLoopGroup");
+        requireNonNull(registry, "registry");
+        requireNonNull(idPrefix, "idPrefix");
+        for (;;) {
+            final EventLoopMonitorMetrics metrics =
+                    MicrometerUtil.register(registry, idPrefix, EventLoopMonitorMetrics.class,
+                                            EventLoopMonitorMetrics::new);
+            if (metrics.add(eventLoopGroup)) {
+                return metrics;
+            }
+            // All event loop groups were unbound concurrently and the meters were removed.
+            // Register new meters again.
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final MeterIdPrefix idPrefix;
+    private final Multiset<EventLoopGroup> eventLoopGroups = ConcurrentHashMultiset.create();
+    private final ReentrantShortLock lock = new ReentrantShortLock();
+    private final Timer taskQueueDelay;
+    private final Counter longTasks;
+    private final List<Meter> meters;
+    private boolean removed;
+
+    private EventLoopMonitorMetrics(MeterRegistry registry, MeterIdPrefix idPrefix) {
+        this.registry = registry;
+        this.idPrefix = idPrefix;
+        taskQueueDelay = MoreMeters.newTimer(registry, idPrefix.name("event.loop.task.queue.delay"),
+                                             idPrefix.tags());
+        longTasks = registry.counter(idPrefix.name("event.loop.long.tasks"), idPrefix.tags());
+        final Gauge busyRatio = Gauge.builder(idPrefix.name("event.loop.busy.ratio"), this,
+                                              EventLoopMonitorMetrics::busyRatio)
+                                     .tags(idPrefix.tags())
+                                     .register(registry);
+        meters = ImmutableList.of(taskQueueDelay, longTasks, busyRatio);
+    }
+
+    private boolean add(EventLoopGroup eventLoopGroup) {
+        lock.lock();
+        try {
+            if (removed) {
+                return false;
+            }
+            if (eventLoopGroups.add(eventLoopGroup, 1) == 0) {
+                EventLoopMonitor.get().add(eventLoopGroup, this);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops monitoring the specified {@link EventLoopGroup} unless it is bound more than once.
+     * The meters are removed from the {@link MeterRegistry} if no {@link EventLoopGroup}s are bound.
+     */
+    public void unbind(EventLoopGroup eventLoopGroup) {
+        requireNonNull(eventLoopGroup, "eventLoopGroup");
+        lock.lock();
+        try {
+            if (eventLoopGroups.remove(eventLoopGroup, 1) != 1) {
+                // Not bound or still bound by others.
+                return;
+            }
+            EventLoopMonitor.get().remove(eventLoopGroup, this);
+            if (!eventLoopGroups.isEmpty()) {
+                return;
+            }
+            removed = true;
+            MicrometerUtil.unregister(registry, idPrefix, this);
+            meters.forEach(registry::remove);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onTaskQueueDelay(long delayNanos) {
+        taskQueueDelay.record(delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onLongTask(LongTask longTask) {
+        longTasks.increment();
+    }
+
+    private double busyRatio() {
+        double sum = 0;
+        int count = 0;
+        for (EventLoopGroup group : eventLoopGroups.elementSet()) {
+            for (EventExecutor eventLoop : group) {
+                final EventLoopState state = EventLoopMonitor.get().eventLoopState(eventLoop);
+                if (state != null && !Double.isNaN(state.busyRatio())) {
+                    sum += state.busyRatio();
+                    count++;
+                }
+            }
+        }
+        return count != 0 ? sum / count : Double.NaN;
+    }
+}
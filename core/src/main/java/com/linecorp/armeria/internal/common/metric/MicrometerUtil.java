@@ -154,6 +154,21 @@ public final class MicrometerUtil {
         }
     }
 
+    /**
+     * Removes the association of the specified object with the specified {@link MeterIdPrefix}, so that
+     * {@link #register(MeterRegistry, MeterIdPrefix, Class, BiFunction)} creates a new object afterwards.
+     * This method does nothing if the specified object is not associated with the {@link MeterIdPrefix}.
+     */
+    public static void unregister(MeterRegistry registry, MeterIdPrefix idPrefix, Object object) {
+        requireNonNull(registry, "registry");
+        requireNonNull(idPrefix, "idPrefix");
+        requireNonNull(object, "object");
+        final ConcurrentMap<MeterIdPrefix, Object> objects = map.get(registry);
+        if (objects != null) {
+            objects.remove(idPrefix, object);
+        }
+    }
+
     /**
      * Clears the cached {@link MeterIdPrefix}s. This method is useful for tests that measure metrics after
      * {@linkplain MeterRegistry#clear() clearing} the {@link MeterRegistry}.
@@ -153,6 +153,15 @@ public final class RequestMetricSupport {
         metrics.responseLength().record(log.responseLength());
         metrics.totalDuration().record(log.totalDurationNanos(), TimeUnit.NANOSECONDS);
 
+        final long cpuTimeNanos = log.cpuTimeNanos();
+        if (cpuTimeNanos >= 0) {
+            metrics.cpuTime().record(cpuTimeNanos, TimeUnit.NANOSECONDS);
+        }
+        final long allocatedBytes = log.allocatedBytes();
+        if (allocatedBytes >= 0) {
+            metrics.allocatedBytes().record(allocatedBytes);
+        }
+
         if (isSuccess) {
             metrics.success().increment();
         } else {
@@ -189,6 +198,10 @@ public final class RequestMetricSupport {
         DistributionSummary responseLength();
 
         Timer totalDuration();
+
+        Timer cpuTime();
+
+        DistributionSummary allocatedBytes();
     }
 
     private interface ClientRequestMetrics extends RequestMetrics {
@@ -219,6 +232,9 @@ public final class RequestMetricSupport {
 
     private abstract static class AbstractRequestMetrics implements RequestMetrics {
 
+        private final MeterRegistry parent;
+        private final MeterIdPrefix idPrefix;
+
         private final Counter success;
         private final Counter failure;
         private final Timer requestDuration;
@@ -227,7 +243,15 @@ public final class RequestMetricSupport {
         private final DistributionSummary responseLength;
         private final Timer totalDuration;
 
+        // Created lazily because the resource usage is recorded only when the accounting is enabled.
+        @Nullable
+        private Timer cpuTime;
+        @Nullable
+        private DistributionSummary allocatedBytes;
+
         AbstractRequestMetrics(MeterRegistry parent, MeterIdPrefix idPrefix) {
+            this.parent = parent;
+            this.idPrefix = idPrefix;
             final String requests = idPrefix.name("requests");
             success = parent.counter(requests, idPrefix.tags("result", "success"));
             failure = parent.counter(requests, idPrefix.tags("result", "failure"));
@@ -273,6 +297,23 @@ public final class RequestMetricSupport {
         public Timer totalDuration() {
             return totalDuration;
         }
+
+        @Override
+        public Timer cpuTime() {
+            if (cpuTime != null) {
+                return cpuTime;
+            }
+            return cpuTime = newTimer(parent, idPrefix.name("cpu.time"), idPrefix.tags());
+        }
+
+        @Override
+        public DistributionSummary allocatedBytes() {
+            if (allocatedBytes != null) {
+                return allocatedBytes;
+            }
+            return allocatedBytes = newDistributionSummary(parent, idPrefix.name("allocated.bytes"),
+                                                           idPrefix.tags());
+        }
     }
 
     private static class DefaultClientRequestMetrics
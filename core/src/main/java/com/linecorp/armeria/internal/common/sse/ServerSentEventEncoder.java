@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common.sse;
+
+import java.time.Duration;
+
+import com.linecorp.armeria.common.sse.ServerSentEvent;
+
+/**
+ * Encodes a {@link ServerSentEvent} into the {@code text/event-stream} format.
+ */
+public final class ServerSentEventEncoder {
+
+    /**
+     * A line feed character which marks the end of a field in Server-Sent Events.
+     */
+    private static final char LINE_FEED = '\n';
+
+    /**
+     * Returns the {@code text/event-stream} representation of the specified {@link ServerSentEvent},
+     * or an empty {@link String} if the {@link ServerSentEvent} has no fields.
+     */
+    public static String encode(ServerSentEvent sse) {
+        final StringBuilder sb = new StringBuilder();
+
+        // Write a comment first because a user might want to explain his or her event at first line.
+        final String comment = sse.comment();
+        if (comment != null) {
+            appendField(sb, "", comment, false);
+        }
+
+        final String id = sse.id();
+        if (id != null) {
+            appendField(sb, "id", id, true);
+        }
+
+        final String event = sse.event();
+        if (event != null) {
+            appendField(sb, "event", event, true);
+        }
+
+        final String data = sse.data();
+        if (data != null) {
+            appendField(sb, "data", data, true);
+        }
+
+        final Duration retry = sse.retry();
+        if (retry != null) {
+            // Reconnection time, in milliseconds.
+            sb.append("retry:").append(retry.toMillis()).append(LINE_FEED);
+        }
+
+        return sb.length() == 0 ? "" : sb.append(LINE_FEED).toString();
+    }
+
+    private static void appendField(StringBuilder sb, String name, String value,
+                                    boolean emitFieldForEmptyValue) {
+        if (value.isEmpty()) {
+            if (emitFieldForEmptyValue) {
+                // Emit name only if the value is an empty string.
+                sb.append(name).append(LINE_FEED);
+            }
+        } else {
+            sb.append(name).append(':');
+
+            final String[] values = value.split("\n");
+            assert values.length > 0;
+            if (values.length == 1) {
+                sb.append(value);
+            } else {
+                final int len = values.length - 1;
+                for (int i = 0; i < len; i++) {
+                    sb.append(values[i]).append(LINE_FEED).append(name).append(':');
+                }
+                sb.append(values[len]);
+            }
+            sb.append(LINE_FEED);
+        }
+    }
+
+    private ServerSentEventEncoder() {}
+}
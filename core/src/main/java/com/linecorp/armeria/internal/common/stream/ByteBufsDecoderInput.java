@@ -19,6 +19,7 @@ package com.linecorp.armeria.internal.common.stream;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Queue;
 
@@ -306,6 +307,66 @@ public final class ByteBufsDecoderInput implements StreamDecoderInput {
         throw newEndOfInputException();
     }
 
+    /**
+     * Returns the index of the first occurrence of the specified {@code needle} in the readable bytes,
+     * or {@code -1} if there's no such occurrence. The readable bytes are scanned in place using
+     * the Boyer-Moore-Horspool algorithm, so an occurrence that spans across multiple buffers is found
+     * without copying them.
+     *
+     * @param shifts the bad character shift table of the {@code needle} which has 256 entries, indexed by
+     *               the unsigned value of a byte. See {@link #badCharacterShifts(byte[])}.
+     */
+    public int indexOf(byte[] needle, int[] shifts) {
+        final int last = needle.length - 1;
+        assert last >= 0;
+        final byte lastByte = needle[last];
+        // The index of the first byte of the current window.
+        int offset = 0;
+        // The index of the first readable byte of the current buffer.
+        int base = 0;
+        for (ByteBuf buf : queue) {
+            final int readerIndex = buf.readerIndex();
+            final int end = base + buf.readableBytes();
+            // Slide the window while its last byte is in the current buffer.
+            while (offset + last < end) {
+                final byte b = buf.getByte(readerIndex + offset + last - base);
+                if (b == lastByte && regionMatches(needle, offset, buf, readerIndex, base)) {
+                    return offset;
+                }
+                offset += shifts[b & 0xFF];
+            }
+            base = end;
+        }
+        return -1;
+    }
+
+    private boolean regionMatches(byte[] needle, int offset, ByteBuf buf, int readerIndex, int base) {
+        for (int i = needle.length - 2; i >= 0; i--) {
+            final int index = offset + i;
+            // Fall back to the slow path only when the window spans across the previous buffers.
+            final byte b = index >= base ? buf.getByte(readerIndex + index - base) : getByte(index);
+            if (b != needle[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the bad character shift table of the specified {@code needle} which is used by
+     * {@link #indexOf(byte[], int[])}.
+     */
+    public static int[] badCharacterShifts(byte[] needle) {
+        final int length = needle.length;
+        checkArgument(length > 0, "needle is empty.");
+        final int[] shifts = new int[256];
+        Arrays.fill(shifts, length);
+        for (int i = 0; i < length - 1; i++) {
+            shifts[needle[i] & 0xFF] = length - 1 - i;
+        }
+        return shifts;
+    }
+
     @Override
     public void skipBytes(int length) {
         if (length == 0) {
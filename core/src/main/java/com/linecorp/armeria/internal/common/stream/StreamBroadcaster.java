@@ -0,0 +1,346 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common.stream;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.stream.BroadcastOverflowPolicy;
+import com.linecorp.armeria.common.stream.StreamWriter;
+import com.linecorp.armeria.common.util.ThreadFactories;
+import com.linecorp.armeria.internal.common.util.ReentrantShortLock;
+import com.linecorp.armeria.unsafe.PooledObjects;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+
+/**
+ * Fans out messages to a set of {@link StreamWriter}s. A message is encoded only once into a
+ * {@link ByteBuf} by the caller, and every subscriber receives a retained slice of it, so that the cost of
+ * encoding and the memory footprint don't grow with the number of subscribers.
+ *
+ * <p>Each subscriber has a bounded queue. Only the messages in the queue are written to the
+ * {@link StreamWriter} at once, and the next batch is written when the previous one has been consumed,
+ * so that a slow subscriber can't make the server buffer an unbounded number of messages.
+ * When the queue is full, the {@link BroadcastOverflowPolicy} decides what to drop.
+ *
+ * <p>Heartbeats for idle subscribers are scheduled on a {@link HashedWheelTimer} shared by all broadcasters
+ * rather than on the event loops, so that a large number of idle connections doesn't flood the scheduled
+ * task queues of the event loops.
+ */
+public final class StreamBroadcaster<T> {
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final LongAdder numDroppedMessages = new LongAdder();
+    private final int maxQueueSize;
+    private final BroadcastOverflowPolicy overflowPolicy;
+    private final long heartbeatIntervalNanos;
+    @Nullable
+    private final T heartbeat;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param heartbeatIntervalMillis the interval of the heartbeats. {@code 0} disables heartbeats.
+     * @param heartbeat the object written to an idle subscriber.
+     *                  Must be non-{@code null} if heartbeats are enabled.
+     */
+    public StreamBroadcaster(int maxQueueSize, BroadcastOverflowPolicy overflowPolicy,
+                             long heartbeatIntervalMillis, @Nullable T heartbeat) {
+        this.maxQueueSize = maxQueueSize;
+        this.overflowPolicy = requireNonNull(overflowPolicy, "overflowPolicy");
+        heartbeatIntervalNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatIntervalMillis);
+        if (heartbeatIntervalMillis > 0) {
+            requireNonNull(heartbeat, "heartbeat");
+        }
+        this.heartbeat = heartbeat;
+    }
+
+    /**
+     * Adds the specified {@link StreamWriter} to the subscribers. The subscriber is removed automatically
+     * when the {@link StreamWriter} is completed.
+     */
+    public void subscribe(StreamWriter<T> writer) {
+        requireNonNull(writer, "writer");
+        if (closed) {
+            writer.close();
+            return;
+        }
+
+        final Subscriber subscriber = new Subscriber(writer);
+        subscribers.add(subscriber);
+        writer.whenComplete().handle((unused1, unused2) -> {
+            subscribers.remove(subscriber);
+            subscriber.cleanup();
+            return null;
+        });
+        if (closed) {
+            // Closed concurrently.
+            subscriber.close();
+            return;
+        }
+        subscriber.scheduleHeartbeat(heartbeatIntervalNanos);
+    }
+
+    /**
+     * Publishes the specified encoded message to all subscribers. {@code wrapper} is invoked for each
+     * subscriber with a retained slice of {@code encoded}. The ownership of {@code encoded} is transferred
+     * to this method.
+     */
+    public void publish(ByteBuf encoded, Function<ByteBuf, ? extends T> wrapper) {
+        try {
+            if (closed) {
+                return;
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(wrapper.apply(encoded.retainedSlice()));
+            }
+        } finally {
+            encoded.release();
+        }
+    }
+
+    /**
+     * Returns the number of the current subscribers.
+     */
+    public int numSubscribers() {
+        return subscribers.size();
+    }
+
+    /**
+     * Returns the total number of the messages dropped due to a full subscriber queue, including the
+     * messages discarded when a subscriber is disconnected.
+     */
+    public long numDroppedMessages() {
+        return numDroppedMessages.sum();
+    }
+
+    /**
+     * Returns whether {@link #close()} has been invoked.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes all subscribers after writing their queued messages, and rejects new subscribers.
+     */
+    public void close() {
+        closed = true;
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+    }
+
+    private final class Subscriber implements TimerTask {
+
+        private final ReentrantLock lock = new ReentrantShortLock();
+        private final ArrayDeque<T> queue = new ArrayDeque<>();
+        private final StreamWriter<T> writer;
+        private volatile long lastWriteNanos = System.nanoTime();
+        // Guarded by 'lock'.
+        private boolean writing;
+        private boolean closing;
+        private boolean done;
+        @Nullable
+        private Timeout heartbeatTimeout;
+
+        Subscriber(StreamWriter<T> writer) {
+            this.writer = writer;
+        }
+
+        void offer(T obj) {
+            lock.lock();
+            try {
+                if (done) {
+                    PooledObjects.close(obj);
+                    return;
+                }
+
+                if (queue.size() >= maxQueueSize) {
+                    switch (overflowPolicy) {
+                        case DROP_OLDEST:
+                            PooledObjects.close(queue.poll());
+                            numDroppedMessages.increment();
+                            break;
+                        case DROP_NEWEST:
+                            PooledObjects.close(obj);
+                            numDroppedMessages.increment();
+                            return;
+                        case COALESCE:
+                            for (T o; (o = queue.poll()) != null;) {
+                                PooledObjects.close(o);
+                                numDroppedMessages.increment();
+                            }
+                            break;
+                        case DISCONNECT:
+                            PooledObjects.close(obj);
+                            numDroppedMessages.increment();
+                            done = true;
+                            clearQueue();
+                            writer.abort();
+                            return;
+                    }
+                }
+
+                queue.add(obj);
+                if (writing) {
+                    return;
+                }
+                writing = true;
+            } finally {
+                lock.unlock();
+            }
+            drain();
+        }
+
+        /**
+         * Writes all queued messages and waits until they are consumed before writing the next batch.
+         */
+        private void drain() {
+            lock.lock();
+            try {
+                if (done) {
+                    return;
+                }
+                if (queue.isEmpty()) {
+                    writing = false;
+                    if (closing) {
+                        done = true;
+                        writer.close();
+                    }
+                    return;
+                }
+                for (T o; (o = queue.poll()) != null;) {
+                    if (!writer.tryWrite(o)) {
+                        // The writer has been closed. whenComplete() will remove this subscriber.
+                        PooledObjects.close(o);
+                        done = true;
+                        clearQueue();
+                        return;
+                    }
+                }
+                lastWriteNanos = System.nanoTime();
+            } finally {
+                lock.unlock();
+            }
+            writer.whenConsumed().thenRun(this::drain);
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                if (done || closing) {
+                    return;
+                }
+                closing = true;
+                if (writing) {
+                    // drain() will close the writer once the queue becomes empty.
+                    return;
+                }
+                done = true;
+            } finally {
+                lock.unlock();
+            }
+            writer.close();
+        }
+
+        void cleanup() {
+            lock.lock();
+            try {
+                done = true;
+                clearQueue();
+                if (heartbeatTimeout != null) {
+                    heartbeatTimeout.cancel();
+                    heartbeatTimeout = null;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void clearQueue() {
+            for (T o; (o = queue.poll()) != null;) {
+                PooledObjects.close(o);
+                numDroppedMessages.increment();
+            }
+        }
+
+        void scheduleHeartbeat(long delayNanos) {
+            if (heartbeatIntervalNanos <= 0) {
+                return;
+            }
+            lock.lock();
+            try {
+                if (!done) {
+                    heartbeatTimeout = HeartbeatTimerHolder.TIMER.newTimeout(this, delayNanos,
+                                                                             TimeUnit.NANOSECONDS);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void run(Timeout timeout) {
+            assert heartbeat != null;
+            // Rather than rescheduling on every write, check how long the subscriber has been idle when
+            // the timeout expires, and reschedule for the remaining time if it wasn't idle long enough.
+            final long idleNanos = System.nanoTime() - lastWriteNanos;
+            if (idleNanos < heartbeatIntervalNanos) {
+                scheduleHeartbeat(heartbeatIntervalNanos - idleNanos);
+                return;
+            }
+
+            lock.lock();
+            try {
+                // A subscriber with pending messages doesn't need a heartbeat.
+                if (!done && !writing) {
+                    if (writer.tryWrite(heartbeat)) {
+                        lastWriteNanos = System.nanoTime();
+                    } else {
+                        done = true;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            scheduleHeartbeat(heartbeatIntervalNanos);
+        }
+    }
+
+    /**
+     * Lazily creates the heartbeat timer when a heartbeat is scheduled for the first time.
+     */
+    private static final class HeartbeatTimerHolder {
+        static final Timer TIMER = new HashedWheelTimer(
+                ThreadFactories.newThreadFactory("armeria-broadcast-heartbeat", true),
+                100, TimeUnit.MILLISECONDS);
+    }
+}
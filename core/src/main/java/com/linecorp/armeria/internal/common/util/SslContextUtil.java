@@ -24,11 +24,13 @@ import java.security.cert.X509Certificate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLSessionContext;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +38,7 @@ import org.slf4j.LoggerFactory;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Ints;
 
 import com.linecorp.armeria.common.Flags;
 import com.linecorp.armeria.common.annotation.Nullable;
@@ -167,6 +170,26 @@ public final class SslContextUtil {
         });
     }
 
+    /**
+     * Configures the TLS session cache of the specified {@link SslContext}.
+     *
+     * @param sessionCacheSize the maximum number of the cached sessions, or {@code 0} to use the default
+     *                         of the TLS implementation
+     * @param sessionTimeoutMillis the lifetime of the cached sessions, or {@code 0} to use the default of
+     *                             the TLS implementation
+     */
+    public static void configureSessionCache(SslContext sslContext, int sessionCacheSize,
+                                             long sessionTimeoutMillis) {
+        final SSLSessionContext sessionContext = sslContext.sessionContext();
+        if (sessionCacheSize > 0) {
+            sessionContext.setSessionCacheSize(sessionCacheSize);
+        }
+        if (sessionTimeoutMillis > 0) {
+            sessionContext.setSessionTimeout(
+                    Ints.saturatedCast(Math.max(1, TimeUnit.MILLISECONDS.toSeconds(sessionTimeoutMillis))));
+        }
+    }
+
     private static void maybeCaptureKeyCertChain(SslContextBuilder sslContextBuilder,
                                                  @Nullable List<X509Certificate> keyCertChainCaptor) {
         if (keyCertChainCaptor == null) {
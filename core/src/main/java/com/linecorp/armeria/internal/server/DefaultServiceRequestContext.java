@@ -55,6 +55,7 @@ import com.linecorp.armeria.common.logging.RequestLog;
 import com.linecorp.armeria.common.logging.RequestLogAccess;
 import com.linecorp.armeria.common.logging.RequestLogBuilder;
 import com.linecorp.armeria.common.util.BlockingTaskExecutor;
+import com.linecorp.armeria.common.util.SystemInfo;
 import com.linecorp.armeria.common.util.TextFormatter;
 import com.linecorp.armeria.common.util.TimeoutMode;
 import com.linecorp.armeria.common.util.UnmodifiableFuture;
@@ -513,6 +514,33 @@ public final class DefaultServiceRequestContext
         return log;
     }
 
+    /**
+     * Returns a new {@link DefaultServiceRequestContext} which serves the specified {@link HttpRequest} with
+     * the same {@link ServiceConfig} and connection as this context, e.g. to revalidate a cached response
+     * in the background after this context's response has been sent. The returned context has a copy of
+     * the attributes of this context, and has its own {@link RequestLog} and request timeout.
+     * The caller is responsible for starting the {@link #requestCancellationScheduler()} in the
+     * {@link #eventLoop()} and completing the {@link RequestLog}.
+     */
+    public DefaultServiceRequestContext newDerivedContext(RequestId id, HttpRequest req) {
+        final CancellationScheduler requestCancellationScheduler =
+                CancellationScheduler.ofServer(TimeUnit.MILLISECONDS.toNanos(cfg.requestTimeoutMillis()));
+        requestCancellationScheduler.init(eventLoop);
+        final DefaultServiceRequestContext derivedCtx = new DefaultServiceRequestContext(
+                cfg, ch, eventLoop, meterRegistry(), sessionProtocol(), id, routingContext, routingResult,
+                exchangeType(), req, sslSession, proxiedAddresses, clientAddress, remoteAddress, localAddress,
+                requestCancellationScheduler, System.nanoTime(), SystemInfo.currentTimeMicros(),
+                HttpHeaders.of(), HttpHeaders.of(), cfg.contextHook());
+        for (final Iterator<Entry<AttributeKey<?>, Object>> i = attrs(); i.hasNext();) {
+            final Entry<AttributeKey<?>, Object> e = i.next();
+            @SuppressWarnings("unchecked")
+            final AttributeKey<Object> key = (AttributeKey<Object>) e.getKey();
+            derivedCtx.setAttr(key, e.getValue());
+        }
+        RouteDecoratingService.copyPendingDecorators(this, derivedCtx);
+        return derivedCtx;
+    }
+
     @Override
     public String toString() {
         if (strVal != null) {
@@ -25,20 +25,34 @@ import java.util.Map.Entry;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Maps;
 
+import com.linecorp.armeria.common.ContentTooLargeException;
+import com.linecorp.armeria.common.Flags;
 import com.linecorp.armeria.common.HttpData;
 import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.multipart.BodyPart;
 import com.linecorp.armeria.common.multipart.Multipart;
 import com.linecorp.armeria.common.multipart.MultipartFile;
+import com.linecorp.armeria.common.stream.StreamMessage;
+import com.linecorp.armeria.common.stream.StreamMessages;
+import com.linecorp.armeria.common.util.Exceptions;
 import com.linecorp.armeria.server.ServiceRequestContext;
 
 import io.netty.channel.EventLoop;
 
 public final class FileAggregatedMultipart {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileAggregatedMultipart.class);
+
     private final ListMultimap<String, String> params;
     private final ListMultimap<String, MultipartFile> files;
 
@@ -58,19 +72,33 @@ public final class FileAggregatedMultipart {
 
     public static CompletableFuture<FileAggregatedMultipart> aggregateMultipart(ServiceRequestContext ctx,
                                                                                 HttpRequest req) {
+        return aggregateMultipart(ctx, req, Flags.defaultMultipartMaxPartLength());
+    }
+
+    @VisibleForTesting
+    static CompletableFuture<FileAggregatedMultipart> aggregateMultipart(ServiceRequestContext ctx,
+                                                                         HttpRequest req,
+                                                                         long maxPartLength) {
         final Path destination = ctx.config().multipartUploadsLocation();
         return Multipart.from(req).collect(bodyPart -> {
             final String name = bodyPart.name();
             assert name != null;
             final String filename = bodyPart.filename();
             final EventLoop eventLoop = ctx.eventLoop();
+            // Check the length of the part as its content arrives, so that an oversized part is rejected
+            // before it's written to a file or aggregated in memory entirely.
+            final StreamMessage<HttpData> content =
+                    maxPartLength > 0 ? bodyPart.content().peek(new PartLengthLimiter(maxPartLength))
+                                      : bodyPart.content();
 
             if (filename != null) {
                 final Path incompleteDir = destination.resolve("incomplete");
                 final ScheduledExecutorService executor = ctx.blockingTaskExecutor().withoutContext();
 
                 return resolveTmpFile(incompleteDir, filename, executor).thenCompose(path -> {
-                    return bodyPart.writeTo(path, eventLoop, executor).thenCompose(ignore -> {
+                    // The content is written chunk by chunk and the next chunk is requested only after
+                    // the previous one is written, so the request is not read faster than the disk writes.
+                    return writeTo(content, path, eventLoop, executor).thenCompose(ignore -> {
                         final Path completeDir = destination.resolve("complete");
                         return moveFile(path, completeDir, executor);
                     }).thenApply(completePath -> MultipartFile.of(name, filename, completePath.toFile(),
@@ -78,7 +106,8 @@ public final class FileAggregatedMultipart {
                 });
             }
 
-            return bodyPart.aggregateWithPooledObjects(eventLoop, ctx.alloc()).thenApply(aggregatedBodyPart -> {
+            final BodyPart part = maxPartLength > 0 ? BodyPart.of(bodyPart.headers(), content) : bodyPart;
+            return part.aggregateWithPooledObjects(eventLoop, ctx.alloc()).thenApply(aggregatedBodyPart -> {
                 try (HttpData httpData = aggregatedBodyPart.content()) {
                     return Maps.<String, Object>immutableEntry(name, httpData.toStringUtf8());
                 }
@@ -101,6 +130,31 @@ public final class FileAggregatedMultipart {
         });
     }
 
+    /**
+     * Fails the stream of a part with a {@link ContentTooLargeException} as soon as the received content
+     * exceeds the maximum length.
+     */
+    private static final class PartLengthLimiter implements Consumer<HttpData> {
+
+        private final long maxPartLength;
+        private long transferred;
+
+        PartLengthLimiter(long maxPartLength) {
+            this.maxPartLength = maxPartLength;
+        }
+
+        @Override
+        public void accept(HttpData data) {
+            transferred += data.length();
+            if (transferred > maxPartLength) {
+                throw ContentTooLargeException.builder()
+                                              .maxContentLength(maxPartLength)
+                                              .transferred(transferred)
+                                              .build();
+            }
+        }
+    }
+
     private static CompletableFuture<Path> moveFile(Path file, Path targetDirectory,
                                                     ExecutorService blockingExecutorService) {
         return CompletableFuture.supplyAsync(() -> {
@@ -115,6 +169,29 @@ public final class FileAggregatedMultipart {
         }, blockingExecutorService);
     }
 
+    private static CompletableFuture<Void> writeTo(StreamMessage<HttpData> content, Path file,
+                                                   EventLoop eventLoop,
+                                                   ExecutorService blockingExecutorService) {
+        return StreamMessages.writeTo(content, file, eventLoop, blockingExecutorService)
+                             .handle((unused, cause) -> {
+                                 if (cause != null) {
+                                     deleteFile(file, blockingExecutorService);
+                                     return Exceptions.throwUnsafely(cause);
+                                 }
+                                 return null;
+                             });
+    }
+
+    private static void deleteFile(Path file, ExecutorService blockingExecutorService) {
+        blockingExecutorService.execute(() -> {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Failed to delete an incomplete multipart upload: {}", file, e);
+            }
+        });
+    }
+
     private static CompletableFuture<Path> resolveTmpFile(Path directory,
                                                           String filename,
                                                           ExecutorService blockingExecutorService) {
@@ -112,6 +112,18 @@ public final class RouteDecoratingService implements HttpService {
         return delegate.serve(ctx, req);
     }
 
+    /**
+     * Copies the decorators which have not been invoked yet for the specified {@code src} context to
+     * the specified {@code dst} context, so that the {@code dst} context can go through the rest of
+     * the decorators independently.
+     */
+    static void copyPendingDecorators(ServiceRequestContext src, ServiceRequestContext dst) {
+        final Queue<HttpService> delegates = src.attr(DECORATOR_KEY);
+        if (delegates != null) {
+            dst.setAttr(DECORATOR_KEY, new ArrayDeque<>(delegates));
+        }
+    }
+
     public Route route() {
         return route;
     }
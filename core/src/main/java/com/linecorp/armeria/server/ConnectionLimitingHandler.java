@@ -17,6 +17,7 @@
 package com.linecorp.armeria.server;
 
 import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -34,6 +35,7 @@ import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoop;
 
 /**
  * Limit the number of open connections to the configured value.
@@ -48,6 +50,7 @@ final class ConnectionLimitingHandler extends ChannelInboundHandlerAdapter {
     private final Set<Channel> unmodifiableChildChannels = Collections.unmodifiableSet(childChannels);
     private final int maxNumConnections;
     private final AtomicInteger numConnections = new AtomicInteger();
+    private final Map<EventLoop, AtomicInteger> numConnectionsPerEventLoop = new ConcurrentHashMap<>();
 
     private final AtomicBoolean loggingScheduled = new AtomicBoolean();
     private final LongAdder numDroppedConnections = new LongAdder();
@@ -107,6 +110,25 @@ final class ConnectionLimitingHandler extends ChannelInboundHandlerAdapter {
         return numConnections.get();
     }
 
+    /**
+     * Returns the number of open connections served by the specified {@link EventLoop}.
+     */
+    public int numConnections(EventLoop eventLoop) {
+        final AtomicInteger numConnections = numConnectionsPerEventLoop.get(eventLoop);
+        return numConnections != null ? numConnections.get() : 0;
+    }
+
+    /**
+     * Counts the specified child {@link Channel} as a connection served by its {@link EventLoop} until it is
+     * closed. This method must be invoked after the child {@link Channel} is registered.
+     */
+    void childRegistered(Channel child) {
+        final AtomicInteger numConnections =
+                numConnectionsPerEventLoop.computeIfAbsent(child.eventLoop(), unused -> new AtomicInteger());
+        numConnections.incrementAndGet();
+        child.closeFuture().addListener(future -> numConnections.decrementAndGet());
+    }
+
     /**
      * Returns the immutable set of child {@link Channel}s.
      */
@@ -17,6 +17,7 @@
 package com.linecorp.armeria.server;
 
 import static com.google.common.base.MoreObjects.firstNonNull;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static java.util.Objects.requireNonNull;
@@ -72,6 +73,8 @@ final class DefaultServerConfig implements ServerConfig {
     private final boolean shutdownWorkerGroupOnStop;
     private final Executor startStopExecutor;
     private final int maxNumConnections;
+    private final int acceptorsPerPort;
+    private final boolean enableEventLoopMetrics;
 
     private final long idleTimeoutMillis;
     private final boolean keepAliveOnPing;
@@ -116,6 +119,8 @@ final class DefaultServerConfig implements ServerConfig {
     private final Function<String, String> absoluteUriTransformer;
     private final long unhandledExceptionsReportIntervalMillis;
     private final List<ShutdownSupport> shutdownSupports;
+    @Nullable
+    private final TlsSessionTicketKeyUpdater tlsSessionTicketKeyUpdater;
 
     @Nullable
     private final Mapping<String, SslContext> sslContexts;
@@ -151,7 +156,9 @@ final class DefaultServerConfig implements ServerConfig {
             DependencyInjector dependencyInjector,
             Function<? super String, String> absoluteUriTransformer,
             long unhandledExceptionsReportIntervalMillis,
-            List<ShutdownSupport> shutdownSupports) {
+            List<ShutdownSupport> shutdownSupports,
+            @Nullable TlsSessionTicketKeyUpdater tlsSessionTicketKeyUpdater, int acceptorsPerPort,
+            boolean enableEventLoopMetrics) {
         requireNonNull(ports, "ports");
         requireNonNull(defaultVirtualHost, "defaultVirtualHost");
         requireNonNull(virtualHosts, "virtualHosts");
@@ -161,6 +168,9 @@ final class DefaultServerConfig implements ServerConfig {
         this.shutdownWorkerGroupOnStop = shutdownWorkerGroupOnStop;
         this.startStopExecutor = requireNonNull(startStopExecutor, "startStopExecutor");
         this.maxNumConnections = validateMaxNumConnections(maxNumConnections);
+        checkArgument(acceptorsPerPort > 0, "acceptorsPerPort: %s (expected: > 0)", acceptorsPerPort);
+        this.acceptorsPerPort = acceptorsPerPort;
+        this.enableEventLoopMetrics = enableEventLoopMetrics;
         this.idleTimeoutMillis = validateIdleTimeoutMillis(idleTimeoutMillis);
         this.keepAliveOnPing = keepAliveOnPing;
         this.pingIntervalMillis = validateNonNegative(pingIntervalMillis, "pingIntervalMillis");
@@ -271,6 +281,7 @@ final class DefaultServerConfig implements ServerConfig {
         this.absoluteUriTransformer = castAbsoluteUriTransformer;
         this.unhandledExceptionsReportIntervalMillis = unhandledExceptionsReportIntervalMillis;
         this.shutdownSupports = ImmutableList.copyOf(requireNonNull(shutdownSupports, "shutdownSupports"));
+        this.tlsSessionTicketKeyUpdater = tlsSessionTicketKeyUpdater;
     }
 
     private static Int2ObjectMap<Mapping<String, VirtualHost>> buildDomainAndPortMapping(
@@ -503,6 +514,11 @@ final class DefaultServerConfig implements ServerConfig {
         return maxNumConnections;
     }
 
+    @Override
+    public int acceptorsPerPort() {
+        return acceptorsPerPort;
+    }
+
     @Override
     public long idleTimeoutMillis() {
         return idleTimeoutMillis;
@@ -603,6 +619,11 @@ final class DefaultServerConfig implements ServerConfig {
         return meterRegistry;
     }
 
+    @Override
+    public boolean isEventLoopMetricsEnabled() {
+        return enableEventLoopMetrics;
+    }
+
     @Override
     public int proxyProtocolMaxTlvSize() {
         return proxyProtocolMaxTlvSize;
@@ -680,6 +701,11 @@ final class DefaultServerConfig implements ServerConfig {
         return shutdownSupports;
     }
 
+    @Nullable
+    TlsSessionTicketKeyUpdater tlsSessionTicketKeyUpdater() {
+        return tlsSessionTicketKeyUpdater;
+    }
+
     @Override
     public String toString() {
         String strVal = this.strVal;
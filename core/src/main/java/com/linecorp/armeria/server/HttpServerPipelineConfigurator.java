@@ -130,6 +130,7 @@ final class HttpServerPipelineConfigurator extends ChannelInitializer<Channel> {
     private final ServerPort port;
     private final UpdatableServerConfig config;
     private final GracefulShutdownSupport gracefulShutdownSupport;
+    private final ConnectionLimitingHandler connectionLimitingHandler;
     private final boolean hasWebSocketService;
 
     /**
@@ -137,10 +138,13 @@ final class HttpServerPipelineConfigurator extends ChannelInitializer<Channel> {
      */
     HttpServerPipelineConfigurator(UpdatableServerConfig config, ServerPort port,
                                    GracefulShutdownSupport gracefulShutdownSupport,
+                                   ConnectionLimitingHandler connectionLimitingHandler,
                                    boolean hasWebSocketService) {
         this.config = config;
         this.port = requireNonNull(port, "port");
         this.gracefulShutdownSupport = requireNonNull(gracefulShutdownSupport, "gracefulShutdownSupport");
+        this.connectionLimitingHandler =
+                requireNonNull(connectionLimitingHandler, "connectionLimitingHandler");
         this.hasWebSocketService = hasWebSocketService;
     }
 
@@ -152,6 +156,8 @@ final class HttpServerPipelineConfigurator extends ChannelInitializer<Channel> {
         // which caches the remote address once its underlying transport returns a non-null address.
         ch.remoteAddress();
 
+        connectionLimitingHandler.childRegistered(ch);
+
         // Disable the write buffer watermark notification because we manage backpressure by ourselves.
         ChannelUtil.disableWriterBufferWatermark(ch);
 
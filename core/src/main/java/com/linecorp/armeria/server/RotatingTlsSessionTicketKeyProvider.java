@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.util.Ticker;
+import com.linecorp.armeria.internal.common.util.ReentrantShortLock;
+
+final class RotatingTlsSessionTicketKeyProvider implements TlsSessionTicketKeyProvider {
+
+    private final long rotationIntervalNanos;
+    private final Ticker ticker;
+    private final ReentrantShortLock lock = new ReentrantShortLock();
+
+    @Nullable
+    private List<TlsSessionTicketKey> keys;
+    private long lastRotationNanos;
+
+    RotatingTlsSessionTicketKeyProvider(long rotationIntervalNanos, Ticker ticker) {
+        this.rotationIntervalNanos = rotationIntervalNanos;
+        this.ticker = ticker;
+    }
+
+    @Override
+    public List<TlsSessionTicketKey> keys() {
+        lock.lock();
+        try {
+            final long now = ticker.read();
+            if (keys == null) {
+                keys = ImmutableList.of(TlsSessionTicketKey.ofRandom());
+                lastRotationNanos = now;
+            } else if (now - lastRotationNanos >= rotationIntervalNanos) {
+                keys = ImmutableList.of(TlsSessionTicketKey.ofRandom(), keys.get(0));
+                lastRotationNanos = now;
+            }
+            return keys;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
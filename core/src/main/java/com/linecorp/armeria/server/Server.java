@@ -44,6 +44,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
@@ -76,6 +77,7 @@ import com.linecorp.armeria.common.util.StartStopSupport;
 import com.linecorp.armeria.common.util.TransportType;
 import com.linecorp.armeria.common.util.Version;
 import com.linecorp.armeria.internal.common.RequestTargetCache;
+import com.linecorp.armeria.internal.common.metric.EventLoopMonitorMetrics;
 import com.linecorp.armeria.internal.common.util.ChannelUtil;
 import com.linecorp.armeria.internal.common.util.ReentrantShortLock;
 import com.linecorp.armeria.server.websocket.WebSocketService;
@@ -88,11 +90,14 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPromise;
 import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.ServerChannel;
 import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.unix.UnixChannelOption;
 import io.netty.handler.ssl.SslContext;
+import io.netty.util.concurrent.EventExecutor;
 import io.netty.util.concurrent.FastThreadLocalThread;
 import io.netty.util.concurrent.Future;
 import io.netty.util.concurrent.ImmediateEventExecutor;
@@ -413,7 +418,7 @@ public final class Server implements ListenableAsyncCloseable {
     }
 
     /**
-     * Sets up gauge metric for each server certificate.
+     * Sets up gauge metric for each server certificate and the metrics of the TLS sessions.
      */
     private void setupTlsMetrics(SslContext sslContext, String hostnamePattern) {
         final MeterRegistry meterRegistry = config().meterRegistry();
@@ -421,6 +426,12 @@ public final class Server implements ListenableAsyncCloseable {
         final SSLSession sslSession = validateSslContext(sslContext);
         final MeterIdPrefix meterIdPrefix = new MeterIdPrefix("armeria.server",
                                                               "hostname.pattern", hostnamePattern);
+        try {
+            MoreMeterBinders.tlsSessionMetrics(ImmutableList.of(sslContext), meterIdPrefix)
+                            .bindTo(meterRegistry);
+        } catch (Exception ex) {
+            logger.warn("Failed to set up TLS session metrics for a host: {}", hostnamePattern, ex);
+        }
         for (Certificate certificate : sslSession.getLocalCertificates()) {
             if (!(certificate instanceof X509Certificate)) {
                 continue;
@@ -488,6 +499,8 @@ public final class Server implements ListenableAsyncCloseable {
 
         @Nullable
         private volatile GracefulShutdownSupport gracefulShutdownSupport;
+        @Nullable
+        private volatile EventLoopMonitorMetrics eventLoopMonitorMetrics;
 
         ServerStartStopSupport(Executor startStopExecutor) {
             super(startStopExecutor);
@@ -512,6 +525,11 @@ public final class Server implements ListenableAsyncCloseable {
 
             final ServerPort primary = it.next();
             try {
+                final TlsSessionTicketKeyUpdater tlsSessionTicketKeyUpdater =
+                        config.delegate().tlsSessionTicketKeyUpdater();
+                if (tlsSessionTicketKeyUpdater != null) {
+                    tlsSessionTicketKeyUpdater.start(config().blockingTaskExecutor());
+                }
                 doStart(primary).addListener(new ServerPortStartListener(primary))
                                 .addListener(new NextServerPortStartListener(this, it, future));
                 setupServerMetrics();
@@ -538,16 +556,9 @@ public final class Server implements ListenableAsyncCloseable {
                 }
             });
 
-            final EventLoopGroup bossGroup = EventLoopGroups.newEventLoopGroup(1, r -> {
-                final FastThreadLocalThread thread = new FastThreadLocalThread(r, bossThreadName(port));
-                thread.setDaemon(false);
-                return thread;
-            });
-
-            b.group(bossGroup, config.workerGroup());
             b.handler(connectionLimitingHandler);
             b.childHandler(new HttpServerPipelineConfigurator(config, port, gracefulShutdownSupport,
-                                                              hasWebSocketService));
+                                                              connectionLimitingHandler, hasWebSocketService));
 
             final SocketAddress localAddress;
             final Class<? extends ServerChannel> channelType;
@@ -568,7 +579,82 @@ public final class Server implements ListenableAsyncCloseable {
             }
 
             b.channel(channelType);
-            return b.bind(localAddress);
+
+            final int numAcceptors = numAcceptors(port);
+            if (numAcceptors == 1) {
+                final EventLoopGroup bossGroup = EventLoopGroups.newEventLoopGroup(1, r -> {
+                    final FastThreadLocalThread thread = new FastThreadLocalThread(r, bossThreadName(port));
+                    thread.setDaemon(false);
+                    return thread;
+                });
+                b.group(bossGroup, config.workerGroup());
+                return b.bind(localAddress);
+            }
+
+            // Bind the port multiple times with SO_REUSEPORT so that the kernel distributes the incoming
+            // connections across the sockets. Each socket is registered to a worker event loop which
+            // serves the connections it accepted by itself.
+            b.option(UnixChannelOption.SO_REUSEPORT, true);
+            final List<EventLoop> eventLoops = workerEventLoops();
+            final EventLoop firstEventLoop = eventLoops.get(0);
+            final ChannelFuture firstFuture = b.clone().group(firstEventLoop, firstEventLoop)
+                                               .bind(localAddress);
+            final ChannelPromise promise = firstFuture.channel().newPromise();
+            firstFuture.addListener((ChannelFutureListener) f -> {
+                if (!f.isSuccess()) {
+                    promise.setFailure(f.cause());
+                    return;
+                }
+
+                // Use the actual local address so that the ephemeral port is bound by all acceptors.
+                final SocketAddress boundAddress = f.channel().localAddress();
+                final AtomicInteger remaining = new AtomicInteger(numAcceptors - 1);
+                final Set<ServerChannel> boundChannels = new NonBlockingHashSet<>();
+                final AtomicReference<Throwable> bindFailure = new AtomicReference<>();
+                for (int i = 1; i < numAcceptors; i++) {
+                    final EventLoop eventLoop = eventLoops.get(i % eventLoops.size());
+                    b.clone().group(eventLoop, eventLoop).bind(boundAddress).addListener(
+                            (ChannelFutureListener) future -> {
+                                if (future.isSuccess()) {
+                                    boundChannels.add((ServerChannel) future.channel());
+                                } else {
+                                    bindFailure.compareAndSet(null, future.cause());
+                                }
+                                if (remaining.decrementAndGet() > 0) {
+                                    return;
+                                }
+
+                                final Throwable cause = bindFailure.get();
+                                if (cause == null) {
+                                    serverChannels.addAll(boundChannels);
+                                    promise.trySuccess();
+                                    return;
+                                }
+                                // Close the sockets bound so far so that the port is not left bound
+                                // after failing to start.
+                                boundChannels.add((ServerChannel) f.channel());
+                                ChannelUtil.close(boundChannels).handle((unused1, unused2) -> {
+                                    promise.tryFailure(cause);
+                                    return null;
+                                });
+                            });
+                }
+            });
+            return promise;
+        }
+
+        private int numAcceptors(ServerPort port) {
+            final int acceptorsPerPort = config.acceptorsPerPort();
+            if (acceptorsPerPort == 1 || port.isDomainSocket()) {
+                return 1;
+            }
+            final TransportType transportType = Flags.transportType();
+            if (transportType != TransportType.EPOLL && transportType != TransportType.IO_URING) {
+                logger.warn("SO_REUSEPORT is not supported by the current transport type: {}. " +
+                            "Binding {} with a single acceptor.", transportType, port);
+                return 1;
+            }
+            return acceptorsPerPort;
         }
 
         private void setupServerMetrics() {
@@ -580,6 +666,21 @@ public final class Server implements ListenableAsyncCloseable {
                                 GracefulShutdownSupport::pendingResponses);
             meterRegistry.gauge("armeria.server.connections", connectionLimitingHandler,
                                 ConnectionLimitingHandler::numConnections);
+
+            if (config.isEventLoopMetricsEnabled()) {
+                eventLoopMonitorMetrics = EventLoopMonitorMetrics.bind(
+                        config.workerGroup(), meterRegistry, new MeterIdPrefix("armeria.netty.server"));
+            }
+
+            final List<EventLoop> workerEventLoops = workerEventLoops();
+            for (int i = 0; i < workerEventLoops.size(); i++) {
+                final EventLoop eventLoop = workerEventLoops.get(i);
+                Gauge.builder("armeria.server.event.loop.connections", connectionLimitingHandler,
+                              handler -> handler.numConnections(eventLoop))
+                     .description("the number of open connections served by an event loop")
+                     .tag("event.loop", String.valueOf(i))
+                     .register(meterRegistry);
+            }
         }
 
         @Override
@@ -658,9 +759,13 @@ public final class Server implements ListenableAsyncCloseable {
                     }
 
                     workerShutdownFuture.addListener(unused5 -> {
+                        // Exclude the worker event loops which accepted the connections with SO_REUSEPORT.
+                        final Set<EventLoop> workerEventLoops = ImmutableSet.copyOf(workerEventLoops());
                         final Set<EventLoopGroup> bossGroups =
                                 Server.this.serverChannels.stream()
-                                                          .map(ch -> ch.eventLoop().parent())
+                                                          .map(Channel::eventLoop)
+                                                          .filter(loop -> !workerEventLoops.contains(loop))
+                                                          .map(EventLoop::parent)
                                                           .collect(toImmutableSet());
 
                         // If started to shutdown before initializing a boss group,
@@ -696,6 +801,18 @@ public final class Server implements ListenableAsyncCloseable {
         private void finishDoStop(CompletableFuture<Void> future) {
             serverChannels.clear();
 
+            final EventLoopMonitorMetrics eventLoopMonitorMetrics = this.eventLoopMonitorMetrics;
+            if (eventLoopMonitorMetrics != null) {
+                this.eventLoopMonitorMetrics = null;
+                eventLoopMonitorMetrics.unbind(config.workerGroup());
+            }
+
+            final TlsSessionTicketKeyUpdater tlsSessionTicketKeyUpdater =
+                    config.delegate().tlsSessionTicketKeyUpdater();
+            if (tlsSessionTicketKeyUpdater != null) {
+                tlsSessionTicketKeyUpdater.stop();
+            }
+
             final Builder<ShutdownSupport> builder = ImmutableList.builder();
             builder.addAll(config.delegate().shutdownSupports());
             for (VirtualHost virtualHost : config.virtualHosts()) {
@@ -792,8 +909,10 @@ public final class Server implements ListenableAsyncCloseable {
                     return;
                 }
 
-                // Update the boss thread so its name contains the actual port.
-                Thread.currentThread().setName(bossThreadName(actualPort));
+                if (!workerEventLoops().contains(ch.eventLoop())) {
+                    // Update the boss thread so its name contains the actual port.
+                    Thread.currentThread().setName(bossThreadName(actualPort));
+                }
 
                 lock.lock();
                 try {
@@ -882,6 +1001,14 @@ public final class Server implements ListenableAsyncCloseable {
         }
     }
 
+    private List<EventLoop> workerEventLoops() {
+        final ImmutableList.Builder<EventLoop> builder = ImmutableList.builder();
+        for (EventExecutor executor : config.workerGroup()) {
+            builder.add((EventLoop) executor);
+        }
+        return builder.build();
+    }
+
     private static String bossThreadName(ServerPort port) {
         // e.g. 'armeria-boss-http-*:8080'
         //      'armeria-boss-http-127.0.0.1:8443'
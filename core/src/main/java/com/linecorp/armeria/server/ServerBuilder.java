@@ -46,6 +46,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -90,10 +91,12 @@ import com.linecorp.armeria.common.util.DomainSocketAddress;
 import com.linecorp.armeria.common.util.EventLoopGroups;
 import com.linecorp.armeria.common.util.SystemInfo;
 import com.linecorp.armeria.common.util.ThreadFactories;
+import com.linecorp.armeria.common.util.TransportType;
 import com.linecorp.armeria.internal.common.BuiltInDependencyInjector;
 import com.linecorp.armeria.internal.common.ReflectiveDependencyInjector;
 import com.linecorp.armeria.internal.common.RequestContextUtil;
 import com.linecorp.armeria.internal.common.util.ChannelUtil;
+import com.linecorp.armeria.internal.common.util.SslContextUtil;
 import com.linecorp.armeria.internal.server.RouteDecoratingService;
 import com.linecorp.armeria.internal.server.annotation.AnnotatedServiceExtensions;
 import com.linecorp.armeria.server.annotation.ExceptionHandlerFunction;
@@ -106,6 +109,7 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
@@ -176,6 +180,7 @@ public final class ServerBuilder implements TlsSetters, ServiceConfigsBuilder {
     @VisibleForTesting
     static final long MIN_PING_INTERVAL_MILLIS = 1000L;
     private static final long MIN_MAX_CONNECTION_AGE_MILLIS = 1_000L;
+    private static final long DEFAULT_TICKET_KEY_REFRESH_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
     private static final ExecutorService START_STOP_EXECUTOR = Executors.newSingleThreadExecutor(
             ThreadFactories.newThreadFactory("startstop-support", true));
 
@@ -198,6 +203,7 @@ public final class ServerBuilder implements TlsSetters, ServiceConfigsBuilder {
     private Consumer<ChannelPipeline> childChannelPipelineCustomizer =
             DEFAULT_CHILD_CHANNEL_PIPELINE_CUSTOMIZER;
     private int maxNumConnections = Flags.maxNumConnections();
+    private int acceptorsPerPort = 1;
     private long idleTimeoutMillis = Flags.defaultServerIdleTimeoutMillis();
     private boolean keepAliveOnPing = Flags.defaultServerKeepAliveOnPing();
     private long pingIntervalMillis = Flags.defaultPingIntervalMillis();
@@ -216,6 +222,7 @@ public final class ServerBuilder implements TlsSetters, ServiceConfigsBuilder {
     private Duration gracefulShutdownQuietPeriod = DEFAULT_GRACEFUL_SHUTDOWN_QUIET_PERIOD;
     private Duration gracefulShutdownTimeout = DEFAULT_GRACEFUL_SHUTDOWN_TIMEOUT;
     private MeterRegistry meterRegistry = Flags.meterRegistry();
+    private boolean enableEventLoopMetrics;
     @Nullable
     private ServerErrorHandler errorHandler;
     private List<ClientAddressSource> clientAddressSources = ClientAddressSource.DEFAULT_SOURCES;
@@ -234,6 +241,11 @@ public final class ServerBuilder implements TlsSetters, ServiceConfigsBuilder {
     private final List<ShutdownSupport> shutdownSupports = new ArrayList<>();
     private int http2MaxResetFramesPerWindow = Flags.defaultServerHttp2MaxResetFramesPerMinute();
     private int http2MaxResetFramesWindowSeconds = 60;
+    private int tlsSessionCacheSize;
+    private long tlsSessionTimeoutMillis;
+    @Nullable
+    private TlsSessionTicketKeyProvider tlsSessionTicketKeyProvider;
+    private long tlsSessionTicketKeyRefreshIntervalMillis = DEFAULT_TICKET_KEY_REFRESH_INTERVAL_MILLIS;
 
     ServerBuilder() {
         // Set the default host-level properties.
@@ -587,6 +599,28 @@ public final class ServerBuilder implements TlsSetters, ServiceConfigsBuilder {
         return maxNumConnections;
     }
 
+    /**
+     * Sets the number of the acceptors of each TCP port. If greater than {@code 1}, each TCP port is bound
+     * as many times as the specified number with {@code SO_REUSEPORT}, so that the kernel distributes
+     * the incoming connections across the bound sockets instead of a single boss thread accepting all
+     * connections. The {@code n}-th socket is registered to the {@code n}-th {@link EventLoop} of
+     * the {@linkplain #workerGroup(EventLoopGroup, boolean) worker group}, which accepts the connections
+     * and serves them without handing them off to another {@link EventLoop}. Therefore, it is usually
+     * recommended to specify the number of the {@link EventLoop}s in the worker group.
+     *
+     * <p>This option is only effective with the {@link TransportType#EPOLL} and
+     * {@link TransportType#IO_URING} transports. Otherwise, or for Unix domain sockets, each port is bound
+     * only once. The number of the connections served by each {@link EventLoop} is exported as
+     * {@code "armeria.server.event.loop.connections"} so that the balance can be monitored.
+     * The default is {@code 1}.
+     */
+    @UnstableApi
+    public ServerBuilder acceptorsPerPort(int acceptorsPerPort) {
+        checkArgument(acceptorsPerPort > 0, "acceptorsPerPort: %s (expected: > 0)", acceptorsPerPort);
+        this.acceptorsPerPort = acceptorsPerPort;
+        return this;
+    }
+
     /**
      * Sets the idle timeout of a connection in milliseconds for keep-alive.
      *
@@ -1011,6 +1045,19 @@ public final class ServerBuilder implements TlsSetters, ServiceConfigsBuilder {
         return this;
     }
 
+    /**
+     * Sets whether to monitor the event loops of the {@linkplain #workerGroup(EventLoopGroup, boolean)
+     * worker group} and export their task queue delay, busy ratio and long tasks to the
+     * {@link #meterRegistry(MeterRegistry)} with the {@code "armeria.netty.server"} prefix. A probe task is
+     * submitted to each event loop periodically while the {@link Server} is running. The long tasks detected
+     * are also available via {@code ManagementService}. This option is disabled by default.
+     */
+    @UnstableApi
+    public ServerBuilder enableEventLoopMetrics(boolean enableEventLoopMetrics) {
+        this.enableEventLoopMetrics = enableEventLoopMetrics;
+        return this;
+    }
+
     /**
      * Sets a global naming rule for the name of services. This property can be overridden via
      * {@link VirtualHostBuilder#defaultServiceNaming(ServiceNaming)}. The overriding is also possible if
@@ -1177,6 +1224,80 @@ public final class ServerBuilder implements TlsSetters, ServiceConfigsBuilder {
         return this;
     }
 
+    /**
+     * Sets the maximum number of the TLS sessions cached by the {@link Server} for session resumption.
+     * This option applies to the TLS configuration of all virtual hosts. If not set, the default of
+     * the TLS implementation is used.
+     */
+    @UnstableApi
+    public ServerBuilder tlsSessionCacheSize(int tlsSessionCacheSize) {
+        checkArgument(tlsSessionCacheSize > 0, "tlsSessionCacheSize: %s (expected: > 0)",
+                      tlsSessionCacheSize);
+        this.tlsSessionCacheSize = tlsSessionCacheSize;
+        return this;
+    }
+
+    /**
+     * Sets the lifetime of the TLS sessions cached by the {@link Server}, which also limits the lifetime of
+     * the session tickets. This option applies to the TLS configuration of all virtual hosts. If not set,
+     * the default of the TLS implementation is used.
+     */
+    @UnstableApi
+    public ServerBuilder tlsSessionTimeout(Duration tlsSessionTimeout) {
+        return tlsSessionTimeoutMillis(requireNonNull(tlsSessionTimeout, "tlsSessionTimeout").toMillis());
+    }
+
+    /**
+     * Sets the lifetime of the TLS sessions cached by the {@link Server} in milliseconds, which also limits
+     * the lifetime of the session tickets. This option applies to the TLS configuration of all virtual
+     * hosts. If not set, the default of the TLS implementation is used.
+     */
+    @UnstableApi
+    public ServerBuilder tlsSessionTimeoutMillis(long tlsSessionTimeoutMillis) {
+        checkArgument(tlsSessionTimeoutMillis > 0, "tlsSessionTimeoutMillis: %s (expected: > 0)",
+                      tlsSessionTimeoutMillis);
+        this.tlsSessionTimeoutMillis = tlsSessionTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * Sets the {@link TlsSessionTicketKeyProvider} which provides the keys for encrypting and decrypting
+     * TLS session tickets. The keys are retrieved from the provider every minute while the {@link Server}
+     * is running. Use the same provider across a fleet of servers so that the clients can resume their
+     * sessions after being rerouted to another server. This option applies to the TLS configuration of all
+     * virtual hosts and requires OpenSSL. If not set, the keys are generated and rotated by the TLS
+     * implementation.
+     *
+     * @see TlsSessionTicketKeyProvider#ofRotating(Duration)
+     */
+    @UnstableApi
+    public ServerBuilder tlsSessionTicketKeyProvider(TlsSessionTicketKeyProvider tlsSessionTicketKeyProvider) {
+        return tlsSessionTicketKeyProvider(tlsSessionTicketKeyProvider,
+                                           Duration.ofMillis(DEFAULT_TICKET_KEY_REFRESH_INTERVAL_MILLIS));
+    }
+
+    /**
+     * Sets the {@link TlsSessionTicketKeyProvider} which provides the keys for encrypting and decrypting
+     * TLS session tickets. The keys are retrieved from the provider on every specified
+     * {@code refreshInterval} while the {@link Server} is running. Use the same provider across a fleet of
+     * servers so that the clients can resume their sessions after being rerouted to another server.
+     * This option applies to the TLS configuration of all virtual hosts and requires OpenSSL.
+     * If not set, the keys are generated and rotated by the TLS implementation.
+     *
+     * @see TlsSessionTicketKeyProvider#ofRotating(Duration)
+     */
+    @UnstableApi
+    public ServerBuilder tlsSessionTicketKeyProvider(TlsSessionTicketKeyProvider tlsSessionTicketKeyProvider,
+                                                     Duration refreshInterval) {
+        requireNonNull(tlsSessionTicketKeyProvider, "tlsSessionTicketKeyProvider");
+        requireNonNull(refreshInterval, "refreshInterval");
+        checkArgument(refreshInterval.toMillis() > 0, "refreshInterval: %s (expected: >= 1ms)",
+                      refreshInterval);
+        this.tlsSessionTicketKeyProvider = tlsSessionTicketKeyProvider;
+        tlsSessionTicketKeyRefreshIntervalMillis = refreshInterval.toMillis();
+        return this;
+    }
+
     /**
      * Returns a {@link ContextPathServicesBuilder} which binds {@link HttpService}s under the
      * specified context paths.
@@ -2211,6 +2332,26 @@ public final class ServerBuilder implements TlsSetters, ServiceConfigsBuilder {
             sslContexts = mappingBuilder.build();
         }
 
+        final Set<SslContext> distinctSslContexts = Sets.newIdentityHashSet();
+        for (VirtualHost h : virtualHosts) {
+            if (h.sslContext() != null) {
+                distinctSslContexts.add(h.sslContext());
+            }
+        }
+        if (defaultSslContext != null) {
+            distinctSslContexts.add(defaultSslContext);
+        }
+        for (SslContext sslContext : distinctSslContexts) {
+            SslContextUtil.configureSessionCache(sslContext, tlsSessionCacheSize, tlsSessionTimeoutMillis);
+        }
+        final TlsSessionTicketKeyUpdater tlsSessionTicketKeyUpdater;
+        if (tlsSessionTicketKeyProvider != null && !distinctSslContexts.isEmpty()) {
+            tlsSessionTicketKeyUpdater = new TlsSessionTicketKeyUpdater(
+                    tlsSessionTicketKeyProvider, tlsSessionTicketKeyRefreshIntervalMillis, distinctSslContexts);
+        } else {
+            tlsSessionTicketKeyUpdater = null;
+        }
+
         if (pingIntervalMillis > 0) {
             pingIntervalMillis = Math.max(pingIntervalMillis, MIN_PING_INTERVAL_MILLIS);
             if (idleTimeoutMillis > 0 && pingIntervalMillis >= idleTimeoutMillis) {
@@ -2247,7 +2388,8 @@ public final class ServerBuilder implements TlsSetters, ServiceConfigsBuilder {
                 clientAddressSources, clientAddressTrustedProxyFilter, clientAddressFilter, clientAddressMapper,
                 enableServerHeader, enableDateHeader, errorHandler, sslContexts,
                 http1HeaderNaming, dependencyInjector, absoluteUriTransformer,
-                unhandledExceptionsReportIntervalMillis, ImmutableList.copyOf(shutdownSupports));
+                unhandledExceptionsReportIntervalMillis, ImmutableList.copyOf(shutdownSupports),
+                tlsSessionTicketKeyUpdater, acceptorsPerPort, enableEventLoopMetrics);
     }
 
     /**
@@ -138,6 +138,16 @@ public interface ServerConfig {
      */
     int maxNumConnections();
 
+    /**
+     * Returns the number of the acceptors of each TCP port.
+     *
+     * @see ServerBuilder#acceptorsPerPort(int)
+     */
+    @UnstableApi
+    default int acceptorsPerPort() {
+        return 1;
+    }
+
     /**
      * Returns the idle timeout of a connection in milliseconds for keep-alive.
      */
@@ -264,6 +274,17 @@ public interface ServerConfig {
      */
     MeterRegistry meterRegistry();
 
+    /**
+     * Returns whether the event loops of the {@link #workerGroup()} are monitored and their metrics are
+     * exported to the {@link #meterRegistry()}.
+     *
+     * @see ServerBuilder#enableEventLoopMetrics(boolean)
+     */
+    @UnstableApi
+    default boolean isEventLoopMetricsEnabled() {
+        return false;
+    }
+
     /**
      * Returns the maximum size of additional data (TLV, Tag-Length-Value). It is only used when
      * PROXY protocol is enabled on the server port.
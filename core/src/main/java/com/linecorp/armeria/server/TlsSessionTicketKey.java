@@ -0,0 +1,165 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.io.BaseEncoding;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+
+import io.netty.handler.ssl.OpenSslSessionTicketKey;
+
+/**
+ * A key used for encrypting and decrypting
+ * <a href="https://datatracker.ietf.org/doc/html/rfc5077">TLS session tickets</a>. A key consists of
+ * a 16-byte name, a 16-byte HMAC secret and a 16-byte AES secret. The servers in a fleet can resume
+ * the sessions established by each other if they share the same keys.
+ *
+ * @see TlsSessionTicketKeyProvider
+ */
+@UnstableApi
+public final class TlsSessionTicketKey {
+
+    /**
+     * The length of the name of a key in bytes.
+     */
+    public static final int NAME_LENGTH = OpenSslSessionTicketKey.NAME_SIZE;
+
+    /**
+     * The length of the HMAC secret of a key in bytes.
+     */
+    public static final int HMAC_KEY_LENGTH = OpenSslSessionTicketKey.HMAC_KEY_SIZE;
+
+    /**
+     * The length of the AES secret of a key in bytes.
+     */
+    public static final int AES_KEY_LENGTH = OpenSslSessionTicketKey.AES_KEY_SIZE;
+
+    /**
+     * The total length of a key in bytes.
+     */
+    public static final int KEY_LENGTH = NAME_LENGTH + HMAC_KEY_LENGTH + AES_KEY_LENGTH;
+
+    private static final SecureRandom random = new SecureRandom();
+
+    /**
+     * Returns a new {@link TlsSessionTicketKey} from the specified 48-byte array which consists of
+     * the name, the HMAC secret and the AES secret in order.
+     */
+    public static TlsSessionTicketKey of(byte[] key) {
+        requireNonNull(key, "key");
+        checkArgument(key.length == KEY_LENGTH, "key.length: %s (expected: %s)", key.length, KEY_LENGTH);
+        return new TlsSessionTicketKey(Arrays.copyOfRange(key, 0, NAME_LENGTH),
+                                       Arrays.copyOfRange(key, NAME_LENGTH, NAME_LENGTH + HMAC_KEY_LENGTH),
+                                       Arrays.copyOfRange(key, NAME_LENGTH + HMAC_KEY_LENGTH, KEY_LENGTH));
+    }
+
+    /**
+     * Returns a new {@link TlsSessionTicketKey} from the specified name, HMAC secret and AES secret.
+     */
+    public static TlsSessionTicketKey of(byte[] name, byte[] hmacKey, byte[] aesKey) {
+        requireNonNull(name, "name");
+        requireNonNull(hmacKey, "hmacKey");
+        requireNonNull(aesKey, "aesKey");
+        checkArgument(name.length == NAME_LENGTH,
+                      "name.length: %s (expected: %s)", name.length, NAME_LENGTH);
+        checkArgument(hmacKey.length == HMAC_KEY_LENGTH,
+                      "hmacKey.length: %s (expected: %s)", hmacKey.length, HMAC_KEY_LENGTH);
+        checkArgument(aesKey.length == AES_KEY_LENGTH,
+                      "aesKey.length: %s (expected: %s)", aesKey.length, AES_KEY_LENGTH);
+        return new TlsSessionTicketKey(name.clone(), hmacKey.clone(), aesKey.clone());
+    }
+
+    /**
+     * Returns a new {@link TlsSessionTicketKey} generated with a cryptographically strong random number
+     * generator.
+     */
+    public static TlsSessionTicketKey ofRandom() {
+        final byte[] key = new byte[KEY_LENGTH];
+        random.nextBytes(key);
+        return of(key);
+    }
+
+    private final byte[] name;
+    private final byte[] hmacKey;
+    private final byte[] aesKey;
+
+    private TlsSessionTicketKey(byte[] name, byte[] hmacKey, byte[] aesKey) {
+        this.name = name;
+        this.hmacKey = hmacKey;
+        this.aesKey = aesKey;
+    }
+
+    /**
+     * Returns the name of this key.
+     */
+    public byte[] name() {
+        return name.clone();
+    }
+
+    /**
+     * Returns the HMAC secret of this key.
+     */
+    public byte[] hmacKey() {
+        return hmacKey.clone();
+    }
+
+    /**
+     * Returns the AES secret of this key.
+     */
+    public byte[] aesKey() {
+        return aesKey.clone();
+    }
+
+    OpenSslSessionTicketKey toOpenSslSessionTicketKey() {
+        return new OpenSslSessionTicketKey(name, hmacKey, aesKey);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TlsSessionTicketKey)) {
+            return false;
+        }
+        final TlsSessionTicketKey that = (TlsSessionTicketKey) o;
+        return Arrays.equals(name, that.name) &&
+               Arrays.equals(hmacKey, that.hmacKey) &&
+               Arrays.equals(aesKey, that.aesKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(name);
+    }
+
+    @Override
+    public String toString() {
+        // Do not expose the secrets.
+        return MoreObjects.toStringHelper(this)
+                          .add("name", BaseEncoding.base16().encode(name))
+                          .toString();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.util.BlockingTaskExecutor;
+import com.linecorp.armeria.common.util.Ticker;
+
+/**
+ * Provides the {@link TlsSessionTicketKey}s which encrypt and decrypt TLS session tickets.
+ * A {@link Server} retrieves the keys from this provider periodically, so an implementation may fetch
+ * the keys from a secret store shared by a fleet of servers in order to let the clients resume their
+ * sessions on any server after reconnection.
+ *
+ * <pre>{@code
+ * Server.builder()
+ *       .tls(...)
+ *       .tlsSessionTicketKeyProvider(() -> secretStore.fetchTicketKeys())
+ *       ...
+ * }</pre>
+ *
+ * @see ServerBuilder#tlsSessionTicketKeyProvider(TlsSessionTicketKeyProvider)
+ */
+@UnstableApi
+@FunctionalInterface
+public interface TlsSessionTicketKeyProvider {
+
+    /**
+     * Returns a {@link TlsSessionTicketKeyProvider} which always provides the specified keys.
+     */
+    static TlsSessionTicketKeyProvider of(TlsSessionTicketKey... keys) {
+        return of(ImmutableList.copyOf(requireNonNull(keys, "keys")));
+    }
+
+    /**
+     * Returns a {@link TlsSessionTicketKeyProvider} which always provides the specified keys.
+     */
+    static TlsSessionTicketKeyProvider of(Iterable<TlsSessionTicketKey> keys) {
+        final List<TlsSessionTicketKey> copy = ImmutableList.copyOf(requireNonNull(keys, "keys"));
+        checkArgument(!copy.isEmpty(), "keys can't be empty.");
+        return () -> copy;
+    }
+
+    /**
+     * Returns a {@link TlsSessionTicketKeyProvider} which generates a new random key on every specified
+     * {@code rotationInterval}. The previous key is kept for decryption for another interval, so that
+     * the tickets issued just before a rotation can still be used. Note that the generated keys are not
+     * shared with other servers.
+     */
+    static TlsSessionTicketKeyProvider ofRotating(Duration rotationInterval) {
+        requireNonNull(rotationInterval, "rotationInterval");
+        checkArgument(!rotationInterval.isNegative() && !rotationInterval.isZero(),
+                      "rotationInterval: %s (expected: > 0)", rotationInterval);
+        return new RotatingTlsSessionTicketKeyProvider(rotationInterval.toNanos(), Ticker.systemTicker());
+    }
+
+    /**
+     * Returns the current {@link TlsSessionTicketKey}s. The first key is used for encrypting new tickets
+     * and all keys are used for decrypting the tickets. This method is invoked from
+     * a {@link BlockingTaskExecutor}, so it may perform a blocking operation.
+     */
+    List<TlsSessionTicketKey> keys() throws Exception;
+}
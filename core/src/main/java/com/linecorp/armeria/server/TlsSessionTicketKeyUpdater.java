@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+
+import io.netty.handler.ssl.OpenSslSessionContext;
+import io.netty.handler.ssl.OpenSslSessionTicketKey;
+import io.netty.handler.ssl.SslContext;
+
+/**
+ * Retrieves the {@link TlsSessionTicketKey}s from a {@link TlsSessionTicketKeyProvider} periodically and
+ * applies them to the {@link SslContext}s of a {@link Server}.
+ */
+final class TlsSessionTicketKeyUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(TlsSessionTicketKeyUpdater.class);
+
+    private final TlsSessionTicketKeyProvider provider;
+    private final long refreshIntervalMillis;
+    private final List<OpenSslSessionContext> sessionContexts;
+
+    @Nullable
+    private List<TlsSessionTicketKey> currentKeys;
+    @Nullable
+    private ScheduledFuture<?> refreshFuture;
+
+    TlsSessionTicketKeyUpdater(TlsSessionTicketKeyProvider provider, long refreshIntervalMillis,
+                               Iterable<SslContext> sslContexts) {
+        this.provider = requireNonNull(provider, "provider");
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        final ImmutableList.Builder<OpenSslSessionContext> builder = ImmutableList.builder();
+        for (SslContext sslContext : sslContexts) {
+            checkState(sslContext.sessionContext() instanceof OpenSslSessionContext,
+                       "TLS session ticket keys can be set only when OpenSSL is used. sslContext: %s",
+                       sslContext);
+            builder.add((OpenSslSessionContext) sslContext.sessionContext());
+        }
+        sessionContexts = builder.build();
+    }
+
+    /**
+     * Applies the current keys and schedules the periodic update.
+     */
+    synchronized void start(ScheduledExecutorService executor) {
+        if (refreshFuture != null) {
+            return;
+        }
+        update();
+        refreshFuture = executor.scheduleWithFixedDelay(this::update, refreshIntervalMillis,
+                                                        refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void stop() {
+        if (refreshFuture != null) {
+            refreshFuture.cancel(false);
+            refreshFuture = null;
+        }
+    }
+
+    synchronized void update() {
+        final List<TlsSessionTicketKey> keys;
+        try {
+            keys = provider.keys();
+            checkState(keys != null && !keys.isEmpty(), "%s.keys() returned no keys.", provider);
+        } catch (Throwable cause) {
+            logger.warn("Failed to retrieve the TLS session ticket keys from {}. " +
+                        "Keeping the current keys.", provider, cause);
+            return;
+        }
+        if (keys.equals(currentKeys)) {
+            return;
+        }
+
+        final OpenSslSessionTicketKey[] openSslKeys = new OpenSslSessionTicketKey[keys.size()];
+        for (int i = 0; i < openSslKeys.length; i++) {
+            openSslKeys[i] = keys.get(i).toOpenSslSessionTicketKey();
+        }
+        for (OpenSslSessionContext sessionContext : sessionContexts) {
+            sessionContext.setTicketKeys(openSslKeys);
+        }
+        currentKeys = ImmutableList.copyOf(keys);
+    }
+}
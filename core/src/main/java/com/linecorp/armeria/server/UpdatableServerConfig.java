@@ -150,6 +150,11 @@ final class UpdatableServerConfig implements ServerConfig {
         return delegate.maxNumConnections();
     }
 
+    @Override
+    public int acceptorsPerPort() {
+        return delegate.acceptorsPerPort();
+    }
+
     @Override
     public long idleTimeoutMillis() {
         return delegate.idleTimeoutMillis();
@@ -250,6 +255,11 @@ final class UpdatableServerConfig implements ServerConfig {
         return delegate.meterRegistry();
     }
 
+    @Override
+    public boolean isEventLoopMetricsEnabled() {
+        return delegate.isEventLoopMetricsEnabled();
+    }
+
     @Override
     public int proxyProtocolMaxTlvSize() {
         return delegate.proxyProtocolMaxTlvSize();
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.cache;
+
+import static com.google.common.base.Strings.nullToEmpty;
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.RequestId;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.logging.RequestLogBuilder;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.util.SafeCloseable;
+import com.linecorp.armeria.internal.common.CancellationScheduler;
+import com.linecorp.armeria.internal.common.CancellationScheduler.CancellationTask;
+import com.linecorp.armeria.internal.common.RequestContextUtil;
+import com.linecorp.armeria.internal.common.cache.HttpResponseCache;
+import com.linecorp.armeria.internal.common.metric.CaffeineMetricSupport;
+import com.linecorp.armeria.internal.server.DefaultServiceRequestContext;
+import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.ServiceConfig;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.server.SimpleDecoratingHttpService;
+
+import io.netty.channel.EventLoop;
+
+/**
+ * A decorating service that caches the responses of {@code GET} requests according to the HTTP caching
+ * semantics defined in <a href="https://datatracker.ietf.org/doc/html/rfc9111">RFC 9111</a>.
+ *
+ * <p>A response is cached only if it has an explicit freshness lifetime specified with the
+ * {@code "s-maxage"} or {@code "max-age"} directive or the {@code "expires"} header, or if it has
+ * a validator ({@code "etag"} or {@code "last-modified"}) with the {@code "no-cache"} directive.
+ * Because the cache is shared by all clients, the responses with the {@code "private"} directive or
+ * a {@code "set-cookie"} header are never cached. The {@code "vary"} header is honored and a stale response
+ * within the {@code "stale-while-revalidate"} window is served while it is revalidated in the background.
+ * The concurrent requests that miss the cache for the same resource are collapsed into a single invocation
+ * of the decorated service.
+ *
+ * <p>A response is streamed to the client as it is produced. Its content is collected for the cache only
+ * if its headers indicate that it can be cached, and the collection stops once the content exceeds
+ * {@link CachingServiceBuilder#maxEntrySizeBytes(int)}.
+ *
+ * <pre>{@code
+ * ServerBuilder sb = Server.builder();
+ * sb.annotatedService(new MyService(), CachingService.newDecorator());
+ * }</pre>
+ */
+@UnstableApi
+public final class CachingService extends SimpleDecoratingHttpService {
+
+    /**
+     * Returns a new {@link HttpService} decorator with the default cache settings.
+     */
+    public static Function<? super HttpService, CachingService> newDecorator() {
+        return builder().newDecorator();
+    }
+
+    /**
+     * Returns a new {@link CachingServiceBuilder}.
+     */
+    public static CachingServiceBuilder builder() {
+        return new CachingServiceBuilder();
+    }
+
+    private final HttpResponseCache cache;
+    @Nullable
+    private final MeterIdPrefix meterIdPrefix;
+
+    CachingService(HttpService delegate, HttpResponseCache cache, @Nullable MeterIdPrefix meterIdPrefix) {
+        super(delegate);
+        this.cache = requireNonNull(cache, "cache");
+        this.meterIdPrefix = meterIdPrefix;
+    }
+
+    @Override
+    public void serviceAdded(ServiceConfig cfg) throws Exception {
+        super.serviceAdded(cfg);
+        MeterIdPrefix meterIdPrefix = this.meterIdPrefix;
+        if (meterIdPrefix == null) {
+            meterIdPrefix = new MeterIdPrefix("armeria.server.cache",
+                                              "hostname.pattern", cfg.virtualHost().hostnamePattern(),
+                                              "route", cfg.route().patternString());
+        }
+        CaffeineMetricSupport.setup(cfg.server().meterRegistry(), meterIdPrefix, cache.cache());
+    }
+
+    @Override
+    public HttpResponse serve(ServiceRequestContext ctx, HttpRequest req) throws Exception {
+        final String key = nullToEmpty(req.authority()) + req.path();
+        return cache.serve(key, req, new Upstream(ctx));
+    }
+
+    private final class Upstream implements HttpResponseCache.Upstream {
+
+        private final ServiceRequestContext ctx;
+
+        Upstream(ServiceRequestContext ctx) {
+            this.ctx = ctx;
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest req) {
+            try (SafeCloseable ignored = ctx.push()) {
+                return unwrap().serve(ctx, req);
+            } catch (Exception e) {
+                return HttpResponse.ofFailure(e);
+            }
+        }
+
+        @Override
+        public HttpResponse executeInBackground(HttpRequest req) {
+            final DefaultServiceRequestContext defaultCtx = ctx.as(DefaultServiceRequestContext.class);
+            if (defaultCtx == null) {
+                // A new context can't be created for an unknown implementation. The response produced here
+                // is only stored in the cache and never sent to the client.
+                return execute(req);
+            }
+
+            // Revalidate with a new context so that the revalidation doesn't affect the log, the timeout
+            // and the attributes of the current request which has been served already.
+            final DefaultServiceRequestContext derivedCtx = defaultCtx.newDerivedContext(RequestId.random(),
+                                                                                         req);
+            final RequestLogBuilder logBuilder = derivedCtx.logBuilder();
+            HttpResponse res;
+            try (SafeCloseable ignored = RequestContextUtil.pop();
+                 SafeCloseable ignored2 = derivedCtx.push()) {
+                res = unwrap().serve(derivedCtx, req);
+            } catch (Exception e) {
+                res = HttpResponse.ofFailure(e);
+            }
+            logBuilder.endRequest();
+
+            final HttpResponse revalidationRes = res.peekHeaders(logBuilder::responseHeaders);
+            final CancellationScheduler scheduler = derivedCtx.requestCancellationScheduler();
+            final CancellationTask cancellationTask = new CancellationTask() {
+                @Override
+                public boolean canSchedule() {
+                    return !revalidationRes.isComplete();
+                }
+
+                @Override
+                public void run(Throwable cause) {
+                    revalidationRes.abort(cause);
+                }
+            };
+            final EventLoop eventLoop = derivedCtx.eventLoop().withoutContext();
+            if (eventLoop.inEventLoop()) {
+                scheduler.start(cancellationTask);
+            } else {
+                eventLoop.execute(() -> scheduler.start(cancellationTask));
+            }
+            revalidationRes.whenComplete().handle((unused, cause) -> {
+                scheduler.clearTimeout(false);
+                if (cause != null) {
+                    logBuilder.endResponse(cause);
+                } else {
+                    logBuilder.endResponse();
+                }
+                return null;
+            });
+            return revalidationRes;
+        }
+
+        @Override
+        public Executor executor() {
+            return ctx.eventLoop();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.cache;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.function.Function;
+
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.util.Ticker;
+import com.linecorp.armeria.internal.common.cache.HttpResponseCache;
+import com.linecorp.armeria.server.HttpService;
+
+/**
+ * Builds a new {@link CachingService} or its decorator function.
+ */
+@UnstableApi
+public final class CachingServiceBuilder {
+
+    private static final long DEFAULT_MAX_SIZE_BYTES = 64 * 1024 * 1024;
+    private static final int DEFAULT_MAX_ENTRY_SIZE_BYTES = 1024 * 1024;
+
+    private long maxSizeBytes = DEFAULT_MAX_SIZE_BYTES;
+    private int maxEntrySizeBytes = DEFAULT_MAX_ENTRY_SIZE_BYTES;
+    @Nullable
+    private MeterIdPrefix meterIdPrefix;
+    private Ticker ticker = Ticker.systemTicker();
+
+    CachingServiceBuilder() {}
+
+    /**
+     * Sets the maximum total size of the cached responses in bytes. The least recently used responses
+     * are evicted when the total size exceeds the limit. If not set, 64 MiB is used.
+     */
+    public CachingServiceBuilder maxSizeBytes(long maxSizeBytes) {
+        checkArgument(maxSizeBytes > 0, "maxSizeBytes: %s (expected: > 0)", maxSizeBytes);
+        this.maxSizeBytes = maxSizeBytes;
+        return this;
+    }
+
+    /**
+     * Sets the maximum content length of a response that can be cached in bytes.
+     * If not set, 1 MiB is used.
+     */
+    public CachingServiceBuilder maxEntrySizeBytes(int maxEntrySizeBytes) {
+        checkArgument(maxEntrySizeBytes > 0, "maxEntrySizeBytes: %s (expected: > 0)", maxEntrySizeBytes);
+        this.maxEntrySizeBytes = maxEntrySizeBytes;
+        return this;
+    }
+
+    /**
+     * Sets the {@link MeterIdPrefix} of the cache metrics such as the hit and miss counts.
+     * If not set, {@code "armeria.server.cache"} tagged with the hostname pattern and the route of
+     * the decorated service is used.
+     */
+    public CachingServiceBuilder meterIdPrefix(MeterIdPrefix meterIdPrefix) {
+        this.meterIdPrefix = requireNonNull(meterIdPrefix, "meterIdPrefix");
+        return this;
+    }
+
+    CachingServiceBuilder ticker(Ticker ticker) {
+        this.ticker = requireNonNull(ticker, "ticker");
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link CachingService} based on the properties of this builder.
+     * Note that the returned {@link CachingService} has its own cache.
+     */
+    public CachingService build(HttpService delegate) {
+        requireNonNull(delegate, "delegate");
+        final HttpResponseCache cache = new HttpResponseCache(maxSizeBytes, maxEntrySizeBytes, true, ticker);
+        return new CachingService(delegate, cache, meterIdPrefix);
+    }
+
+    /**
+     * Returns a newly-created decorator that decorates an {@link HttpService} with a new
+     * {@link CachingService} based on the properties of this builder. Each decorated service has
+     * its own cache.
+     */
+    public Function<? super HttpService, CachingService> newDecorator() {
+        final long maxSizeBytes = this.maxSizeBytes;
+        final int maxEntrySizeBytes = this.maxEntrySizeBytes;
+        final MeterIdPrefix meterIdPrefix = this.meterIdPrefix;
+        final Ticker ticker = this.ticker;
+        return delegate -> new CachingService(
+                delegate, new HttpResponseCache(maxSizeBytes, maxEntrySizeBytes, true, ticker), meterIdPrefix);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.coalescing;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.internal.common.coalescing.RequestCoalescer;
+import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.server.SimpleDecoratingHttpService;
+
+/**
+ * A decorating service that deduplicates the concurrent requests which share the same key.
+ * While a request is being handled by the decorated service, the requests with the same key are not
+ * delegated to the decorated service but are served with the duplicates of the response of the first
+ * request. This is useful for protecting an expensive service or its backend from a burst of identical
+ * requests, e.g. when a cache in front of the service has expired.
+ *
+ * <p>By default, only {@code GET} and {@code HEAD} requests are coalesced and the key of a request consists
+ * of its method, authority, path, query and the values of the headers which usually affect
+ * the response, such as {@code "authorization"} and {@code "accept-encoding"}. A request joins the first
+ * request only until the headers of its response are received. The response is passed through as it is if
+ * no other request joined, or it's shared with the joined requests while buffering the content which has not
+ * been consumed by all of them, up to {@link RequestCoalescingServiceBuilder#maxResponseLength(long)}.
+ *
+ * <pre>{@code
+ * ServerBuilder sb = Server.builder();
+ * sb.service("/expensive", expensiveService.decorate(RequestCoalescingService.newDecorator()));
+ * }</pre>
+ */
+@UnstableApi
+public final class RequestCoalescingService extends SimpleDecoratingHttpService {
+
+    /**
+     * Returns a new {@link HttpService} decorator with the default settings.
+     */
+    public static Function<? super HttpService, RequestCoalescingService> newDecorator() {
+        return builder().newDecorator();
+    }
+
+    /**
+     * Returns a new {@link RequestCoalescingServiceBuilder}.
+     */
+    public static RequestCoalescingServiceBuilder builder() {
+        return new RequestCoalescingServiceBuilder();
+    }
+
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+    private final Set<HttpMethod> methods;
+    private final BiFunction<? super ServiceRequestContext, ? super HttpRequest,
+            ? extends @Nullable String> keyFunction;
+    private final long maxResponseLength;
+
+    RequestCoalescingService(HttpService delegate, Set<HttpMethod> methods,
+                             BiFunction<? super ServiceRequestContext, ? super HttpRequest,
+                                     ? extends @Nullable String> keyFunction,
+                             long maxResponseLength) {
+        super(delegate);
+        this.methods = requireNonNull(methods, "methods");
+        this.keyFunction = requireNonNull(keyFunction, "keyFunction");
+        this.maxResponseLength = maxResponseLength;
+    }
+
+    @Override
+    public HttpResponse serve(ServiceRequestContext ctx, HttpRequest req) throws Exception {
+        if (!methods.contains(req.method())) {
+            return unwrap().serve(ctx, req);
+        }
+        final String key = keyFunction.apply(ctx, req);
+        if (key == null) {
+            return unwrap().serve(ctx, req);
+        }
+        return coalescer.execute(key, ctx.eventLoop(), maxResponseLength, () -> {
+            try {
+                return unwrap().serve(ctx, req);
+            } catch (Exception e) {
+                return HttpResponse.ofFailure(e);
+            }
+        });
+    }
+}
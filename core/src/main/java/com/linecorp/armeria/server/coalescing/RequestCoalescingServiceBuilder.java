@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.coalescing;
+
+import static com.google.common.base.Strings.nullToEmpty;
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.coalescing.AbstractRequestCoalescingBuilder;
+import com.linecorp.armeria.internal.common.coalescing.RequestCoalescer;
+import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+import io.netty.util.AsciiString;
+
+/**
+ * Builds a new {@link RequestCoalescingService} or its decorator function.
+ */
+@UnstableApi
+public final class RequestCoalescingServiceBuilder extends AbstractRequestCoalescingBuilder {
+
+    @Nullable
+    private BiFunction<? super ServiceRequestContext, ? super HttpRequest,
+            ? extends @Nullable String> keyFunction;
+
+    RequestCoalescingServiceBuilder() {}
+
+    /**
+     * Sets the {@link BiFunction} that returns the key of a request. The requests which have the same key
+     * are coalesced. If the function returns {@code null}, the request is not coalesced.
+     * If not set, the method, authority, path, query and the values of the {@linkplain #headers(Iterable)
+     * specified headers} are used as the key.
+     */
+    public RequestCoalescingServiceBuilder keyFunction(
+            BiFunction<? super ServiceRequestContext, ? super HttpRequest,
+                    ? extends @Nullable String> keyFunction) {
+        this.keyFunction = requireNonNull(keyFunction, "keyFunction");
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link RequestCoalescingService} based on the properties of this builder.
+     */
+    public RequestCoalescingService build(HttpService delegate) {
+        requireNonNull(delegate, "delegate");
+        return new RequestCoalescingService(delegate, methods(), resolveKeyFunction(), maxResponseLength());
+    }
+
+    /**
+     * Returns a newly-created decorator that decorates an {@link HttpService} with a new
+     * {@link RequestCoalescingService} based on the properties of this builder.
+     */
+    public Function<? super HttpService, RequestCoalescingService> newDecorator() {
+        final Set<HttpMethod> methods = methods();
+        final BiFunction<? super ServiceRequestContext, ? super HttpRequest,
+                ? extends @Nullable String> keyFunction = resolveKeyFunction();
+        final long maxResponseLength = maxResponseLength();
+        return delegate -> new RequestCoalescingService(delegate, methods, keyFunction, maxResponseLength);
+    }
+
+    private BiFunction<? super ServiceRequestContext, ? super HttpRequest,
+            ? extends @Nullable String> resolveKeyFunction() {
+        if (keyFunction != null) {
+            return keyFunction;
+        }
+        final List<AsciiString> headerNames = headerNames();
+        return (ctx, req) -> RequestCoalescer.key(req.method(), nullToEmpty(req.authority()) + req.path(),
+                                                  req.headers(), headerNames);
+    }
+
+    // Override the return type of the chaining methods in the superclass.
+
+    @Override
+    public RequestCoalescingServiceBuilder methods(HttpMethod... methods) {
+        return (RequestCoalescingServiceBuilder) super.methods(methods);
+    }
+
+    @Override
+    public RequestCoalescingServiceBuilder methods(Iterable<HttpMethod> methods) {
+        return (RequestCoalescingServiceBuilder) super.methods(methods);
+    }
+
+    @Override
+    public RequestCoalescingServiceBuilder headers(CharSequence... headerNames) {
+        return (RequestCoalescingServiceBuilder) super.headers(headerNames);
+    }
+
+    @Override
+    public RequestCoalescingServiceBuilder headers(Iterable<? extends CharSequence> headerNames) {
+        return (RequestCoalescingServiceBuilder) super.headers(headerNames);
+    }
+
+    @Override
+    public RequestCoalescingServiceBuilder maxResponseLength(long maxResponseLength) {
+        return (RequestCoalescingServiceBuilder) super.maxResponseLength(maxResponseLength);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.management;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+import com.linecorp.armeria.common.ExchangeType;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.internal.common.metric.EventLoopMonitor;
+import com.linecorp.armeria.internal.common.metric.EventLoopMonitor.EventLoopState;
+import com.linecorp.armeria.internal.common.metric.EventLoopMonitor.LongTask;
+import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.RoutingContext;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+enum EventLoopService implements HttpService {
+
+    INSTANCE;
+
+    @Override
+    public HttpResponse serve(ServiceRequestContext ctx, HttpRequest req) throws Exception {
+        final boolean acceptJson = req.headers().accept().stream()
+                                      .anyMatch(MediaType.JSON::is);
+
+        final EventLoopMonitor monitor = EventLoopMonitor.get();
+        final List<EventLoopState> states =
+                monitor.eventLoopStates().stream()
+                       .filter(state -> state.threadName() != null)
+                       .sorted(Comparator.comparing(EventLoopState::threadName))
+                       .collect(ImmutableList.toImmutableList());
+        final List<LongTask> longTasks = Lists.reverse(monitor.recentLongTasks());
+
+        if (acceptJson) {
+            return HttpResponse.ofJson(ImmutableMap.of(
+                    "eventLoops", states.stream().map(EventLoopService::toMap)
+                                        .collect(ImmutableList.toImmutableList()),
+                    "longTasks", longTasks.stream().map(EventLoopService::toMap)
+                                          .collect(ImmutableList.toImmutableList())));
+        }
+
+        final StringBuilder buf = new StringBuilder();
+        buf.append("Event loops:\n");
+        for (EventLoopState state : states) {
+            buf.append("  \"").append(state.threadName()).append("\" taskQueueDelay=")
+               .append(TimeUnit.NANOSECONDS.toMicros(state.taskQueueDelayNanos())).append("us")
+               .append(" busyRatio=").append(String.format("%.3f", state.busyRatio()))
+               .append(" pendingTasks=").append(state.pendingTasks())
+               .append(" longTasks=").append(state.numLongTasks()).append('\n');
+        }
+        buf.append("\nRecent long tasks:\n");
+        for (LongTask longTask : longTasks) {
+            buf.append("\n\"").append(longTask.threadName()).append("\" blocked at ")
+               .append(Instant.ofEpochMilli(longTask.startTimeMillis()))
+               .append(" for ").append(TimeUnit.NANOSECONDS.toMillis(longTask.durationNanos()))
+               .append("ms\n");
+            for (StackTraceElement element : longTask.stackTrace()) {
+                buf.append("\tat ").append(element).append('\n');
+            }
+        }
+        return HttpResponse.of(HttpStatus.OK, MediaType.PLAIN_TEXT, buf.toString());
+    }
+
+    private static Map<String, Object> toMap(EventLoopState state) {
+        final String threadName = state.threadName();
+        assert threadName != null;
+        return ImmutableMap.of("threadName", threadName,
+                               "taskQueueDelayNanos", state.taskQueueDelayNanos(),
+                               "busyRatio", state.busyRatio(),
+                               "pendingTasks", state.pendingTasks(),
+                               "numLongTasks", state.numLongTasks());
+    }
+
+    private static Map<String, Object> toMap(LongTask longTask) {
+        return ImmutableMap.of("threadName", longTask.threadName(),
+                               "startTimeMillis", longTask.startTimeMillis(),
+                               "durationNanos", longTask.durationNanos(),
+                               "stackTrace", longTask.stackTrace());
+    }
+
+    @Override
+    public ExchangeType exchangeType(RoutingContext routingContext) {
+        return ExchangeType.UNARY;
+    }
+}
@@ -0,0 +1,436 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.management;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.lang.management.PlatformManagedObject;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableMap;
+
+import com.linecorp.armeria.common.ContentDisposition;
+import com.linecorp.armeria.common.ExchangeType;
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.QueryParams;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.stream.StreamMessage;
+import com.linecorp.armeria.common.util.SystemInfo;
+import com.linecorp.armeria.common.util.ThreadFactories;
+import com.linecorp.armeria.common.util.TimeoutMode;
+import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.RoutingContext;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+/**
+ * Records the JVM with JDK Flight Recorder. It supports:
+ * <ul>
+ *   <li>{@code GET /jvm/jfr} - Records for the specified duration and returns the recording.</li>
+ *   <li>{@code POST /jvm/jfr/continuous} - Starts a continuous recording which retains only the most recent
+ *       data up to the specified age and size.</li>
+ *   <li>{@code GET /jvm/jfr/continuous} - Returns the data of the continuous recording.</li>
+ *   <li>{@code DELETE /jvm/jfr/continuous} - Stops the continuous recording.</li>
+ * </ul>
+ */
+enum JfrService implements HttpService {
+
+    INSTANCE;
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrService.class);
+
+    static final String CONTINUOUS_PATH = "/jvm/jfr/continuous";
+
+    private static final Duration DEFAULT_DURATION = Duration.ofSeconds(30);
+    private static final Duration MAX_DURATION = Duration.ofHours(1);
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(10);
+    private static final long DEFAULT_MAX_SIZE = 64 * 1024 * 1024;
+    private static final String DEFAULT_SETTINGS = "profile";
+    private static final String DEFAULT_CONTINUOUS_SETTINGS = "default";
+
+    // A single thread makes sure the JFR operations and the state of the continuous recording
+    // are never accessed concurrently.
+    private static final ScheduledExecutorService jfrExecutor = Executors.newSingleThreadScheduledExecutor(
+            ThreadFactories.newThreadFactory("armeria-jfr-executor", true));
+
+    @Nullable
+    private volatile FlightRecorder flightRecorder;
+    @Nullable
+    private volatile Throwable unavailabilityCause;
+
+    // The state of the continuous recording. Accessed only by jfrExecutor.
+    private long continuousRecordingId = -1;
+    private boolean continuousHotRequests;
+
+    @Override
+    public HttpResponse serve(ServiceRequestContext ctx, HttpRequest req) throws Exception {
+        final Throwable unavailabilityCause = this.unavailabilityCause;
+        if (unavailabilityCause != null) {
+            return HttpResponse.ofFailure(unavailabilityCause);
+        }
+
+        final QueryParams params = QueryParams.fromQueryString(ctx.query());
+        final boolean continuous = CONTINUOUS_PATH.equals(ctx.mappedPath());
+        final HttpMethod method = ctx.method();
+        if (!continuous && method != HttpMethod.GET) {
+            return HttpResponse.of(HttpStatus.METHOD_NOT_ALLOWED);
+        }
+
+        final Duration duration;
+        final Duration maxAge;
+        final long maxSize;
+        try {
+            duration = parseDuration(params.get("duration"), DEFAULT_DURATION);
+            maxAge = parseDuration(params.get("maxAge"), DEFAULT_MAX_AGE);
+            maxSize = parseSize(params.get("maxSize"), DEFAULT_MAX_SIZE);
+            if (duration.isZero() || duration.compareTo(MAX_DURATION) > 0) {
+                throw new IllegalArgumentException(
+                        "duration: " + duration + " (expected: > 0 and <= " + MAX_DURATION + ')');
+            }
+        } catch (IllegalArgumentException e) {
+            return HttpResponse.of(HttpStatus.BAD_REQUEST, MediaType.PLAIN_TEXT, e.getMessage());
+        }
+        final boolean hotRequests = params.contains("hotRequests", "true");
+
+        final CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+        if (!continuous) {
+            // Make sure the request does not time out while recording.
+            ctx.setRequestTimeout(TimeoutMode.EXTEND, duration);
+        }
+        jfrExecutor.execute(() -> {
+            try {
+                final FlightRecorder flightRecorder = flightRecorder();
+                if (!continuous) {
+                    record(ctx, flightRecorder, params.get("settings", DEFAULT_SETTINGS),
+                           duration, hotRequests, future);
+                } else if (method == HttpMethod.POST) {
+                    future.complete(startContinuous(flightRecorder,
+                                                    params.get("settings", DEFAULT_CONTINUOUS_SETTINGS),
+                                                    maxAge, maxSize, hotRequests));
+                } else if (method == HttpMethod.GET) {
+                    future.complete(dumpContinuous(flightRecorder, ctx));
+                } else if (method == HttpMethod.DELETE) {
+                    future.complete(stopContinuous(flightRecorder));
+                } else {
+                    future.complete(HttpResponse.of(HttpStatus.METHOD_NOT_ALLOWED));
+                }
+            } catch (Throwable cause) {
+                future.complete(toErrorResponse(cause));
+            }
+        });
+        return HttpResponse.of(future);
+    }
+
+    private FlightRecorder flightRecorder() {
+        final FlightRecorder flightRecorder = this.flightRecorder;
+        if (flightRecorder != null) {
+            return flightRecorder;
+        }
+        try {
+            return this.flightRecorder = new FlightRecorder();
+        } catch (Throwable cause) {
+            unavailabilityCause = cause;
+            throw cause;
+        }
+    }
+
+    private static void record(ServiceRequestContext ctx, FlightRecorder flightRecorder, String settings,
+                               Duration duration, boolean hotRequests,
+                               CompletableFuture<HttpResponse> future) throws Throwable {
+        final long id = flightRecorder.newRecording("armeria-" + ctx.id().text(), settings,
+                                                    ImmutableMap.of());
+        if (hotRequests) {
+            RequestContextJfrEvents.enable();
+        }
+        try {
+            flightRecorder.startRecording(id);
+        } catch (Throwable cause) {
+            closeRecording(flightRecorder, id, hotRequests);
+            throw cause;
+        }
+
+        jfrExecutor.schedule(() -> {
+            try {
+                flightRecorder.stopRecording(id);
+                if (ctx.isCancelled()) {
+                    return;
+                }
+                future.complete(dump(flightRecorder, id));
+            } catch (Throwable cause) {
+                future.complete(toErrorResponse(cause));
+            } finally {
+                closeRecording(flightRecorder, id, hotRequests);
+            }
+        }, duration.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private HttpResponse startContinuous(FlightRecorder flightRecorder, String settings, Duration maxAge,
+                                         long maxSize, boolean hotRequests) throws Throwable {
+        if (continuousRecordingId >= 0) {
+            return HttpResponse.of(HttpStatus.CONFLICT, MediaType.PLAIN_TEXT,
+                                   "A continuous recording is in progress already.");
+        }
+        final long id = flightRecorder.newRecording(
+                "armeria-continuous", settings,
+                ImmutableMap.of("maxAge", maxAge.getSeconds() + " s",
+                                "maxSize", String.valueOf(maxSize),
+                                "disk", "true"));
+        if (hotRequests) {
+            RequestContextJfrEvents.enable();
+        }
+        try {
+            flightRecorder.startRecording(id);
+        } catch (Throwable cause) {
+            closeRecording(flightRecorder, id, hotRequests);
+            throw cause;
+        }
+        continuousRecordingId = id;
+        continuousHotRequests = hotRequests;
+        return HttpResponse.of(HttpStatus.OK);
+    }
+
+    private HttpResponse dumpContinuous(FlightRecorder flightRecorder, ServiceRequestContext ctx)
+            throws Throwable {
+        if (continuousRecordingId < 0) {
+            return HttpResponse.of(HttpStatus.NOT_FOUND, MediaType.PLAIN_TEXT,
+                                   "No continuous recording is in progress.");
+        }
+        if (ctx.isCancelled()) {
+            return HttpResponse.of(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        return dump(flightRecorder, continuousRecordingId);
+    }
+
+    private HttpResponse stopContinuous(FlightRecorder flightRecorder) {
+        if (continuousRecordingId < 0) {
+            return HttpResponse.of(HttpStatus.NOT_FOUND, MediaType.PLAIN_TEXT,
+                                   "No continuous recording is in progress.");
+        }
+        closeRecording(flightRecorder, continuousRecordingId, continuousHotRequests);
+        continuousRecordingId = -1;
+        continuousHotRequests = false;
+        return HttpResponse.of(HttpStatus.OK);
+    }
+
+    private static HttpResponse dump(FlightRecorder flightRecorder, long id) throws Throwable {
+        final String date = DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss").format(LocalDateTime.now());
+        final String fileName = "recording_pid" + SystemInfo.pid() + '_' + date;
+        final File tempFile = File.createTempFile(fileName, ".jfr");
+        final Path path = tempFile.toPath();
+        try {
+            // JFR refuses to overwrite an existing file.
+            Files.delete(path);
+            flightRecorder.copyTo(id, path);
+        } catch (Throwable cause) {
+            deleteTempFile(path);
+            throw cause;
+        }
+
+        final ResponseHeaders headers =
+                ResponseHeaders.builder(HttpStatus.OK)
+                               .contentType(MediaType.OCTET_STREAM)
+                               .contentDisposition(ContentDisposition.builder("attachment")
+                                                                     .filename(fileName + ".jfr")
+                                                                     .build())
+                               .build();
+        final StreamMessage<HttpData> body = StreamMessage.of(path);
+        body.whenComplete().handleAsync((unused1, unused2) -> {
+            deleteTempFile(path);
+            return null;
+        }, jfrExecutor);
+        return HttpResponse.of(headers, body);
+    }
+
+    private static void closeRecording(FlightRecorder flightRecorder, long id, boolean hotRequests) {
+        if (hotRequests) {
+            RequestContextJfrEvents.disable();
+        }
+        try {
+            flightRecorder.closeRecording(id);
+        } catch (Throwable cause) {
+            logger.warn("Failed to close a JFR recording: {}", id, cause);
+        }
+    }
+
+    private static HttpResponse toErrorResponse(Throwable cause) {
+        if (cause instanceof IllegalArgumentException) {
+            return HttpResponse.of(HttpStatus.BAD_REQUEST, MediaType.PLAIN_TEXT, String.valueOf(cause));
+        }
+        logger.warn("Unexpected exception while recording with JFR", cause);
+        return HttpResponse.ofFailure(cause);
+    }
+
+    private static void deleteTempFile(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            logger.warn("Failed to delete temporary JFR recording file '" + path + '\'', ex);
+        }
+    }
+
+    /**
+     * Parses a duration such as {@code "30s"}, {@code "500ms"}, {@code "10m"} and {@code "1h"}.
+     * A number without a unit is in seconds.
+     */
+    private static Duration parseDuration(@Nullable String value, Duration defaultValue) {
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        int i = 0;
+        while (i < value.length() && Character.isDigit(value.charAt(i))) {
+            i++;
+        }
+        final long amount;
+        try {
+            amount = Long.parseLong(value.substring(0, i));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid duration: " + value, e);
+        }
+        switch (value.substring(i)) {
+            case "ms":
+                return Duration.ofMillis(amount);
+            case "":
+            case "s":
+                return Duration.ofSeconds(amount);
+            case "m":
+                return Duration.ofMinutes(amount);
+            case "h":
+                return Duration.ofHours(amount);
+            default:
+                throw new IllegalArgumentException("invalid duration: " + value);
+        }
+    }
+
+    private static long parseSize(@Nullable String value, long defaultValue) {
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            final long size = Long.parseLong(value);
+            if (size > 0) {
+                return size;
+            }
+        } catch (NumberFormatException ignored) {
+            // Fall through.
+        }
+        throw new IllegalArgumentException("maxSize: " + value + " (expected: > 0)");
+    }
+
+    @Override
+    public ExchangeType exchangeType(RoutingContext routingContext) {
+        if (routingContext.headers().method() == HttpMethod.GET) {
+            return ExchangeType.RESPONSE_STREAMING;
+        } else {
+            return ExchangeType.BIDI_STREAMING;
+        }
+    }
+
+    /**
+     * A {@link FlightRecorder} that uses {@code jdk.management.jfr.FlightRecorderMXBean} available on
+     * Java 11 or later and Java 8u262 or later to control recordings.
+     */
+    private static final class FlightRecorder {
+
+        private final Object mxBean;
+        private final MethodHandle newRecording;
+        private final MethodHandle setPredefinedConfiguration;
+        private final MethodHandle setRecordingOptions;
+        private final MethodHandle startRecording;
+        private final MethodHandle stopRecording;
+        private final MethodHandle copyTo;
+        private final MethodHandle closeRecording;
+
+        FlightRecorder() {
+            try {
+                final Class<?> mxBeanClass = Class.forName("jdk.management.jfr.FlightRecorderMXBean");
+                //noinspection unchecked
+                mxBean = ManagementFactory.getPlatformMXBean((Class<PlatformManagedObject>) mxBeanClass);
+                final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+                newRecording = lookup.findVirtual(mxBeanClass, "newRecording",
+                                                  MethodType.methodType(long.class));
+                setPredefinedConfiguration = lookup.findVirtual(
+                        mxBeanClass, "setPredefinedConfiguration",
+                        MethodType.methodType(void.class, long.class, String.class));
+                setRecordingOptions = lookup.findVirtual(
+                        mxBeanClass, "setRecordingOptions",
+                        MethodType.methodType(void.class, long.class, Map.class));
+                startRecording = lookup.findVirtual(mxBeanClass, "startRecording",
+                                                    MethodType.methodType(void.class, long.class));
+                stopRecording = lookup.findVirtual(mxBeanClass, "stopRecording",
+                                                   MethodType.methodType(boolean.class, long.class));
+                copyTo = lookup.findVirtual(mxBeanClass, "copyTo",
+                                            MethodType.methodType(void.class, long.class, String.class));
+                closeRecording = lookup.findVirtual(mxBeanClass, "closeRecording",
+                                                    MethodType.methodType(void.class, long.class));
+            } catch (Throwable ex) {
+                throw new IllegalStateException("Unable to locate FlightRecorderMXBean", ex);
+            }
+        }
+
+        long newRecording(String name, String settings, Map<String, String> options) throws Throwable {
+            final long id = (long) newRecording.invoke(mxBean);
+            try {
+                setPredefinedConfiguration.invoke(mxBean, id, settings);
+                setRecordingOptions.invoke(mxBean, id, ImmutableMap.<String, String>builder()
+                                                                   .put("name", name)
+                                                                   .putAll(options)
+                                                                   .build());
+            } catch (Throwable cause) {
+                closeRecording(id);
+                throw cause;
+            }
+            return id;
+        }
+
+        void startRecording(long id) throws Throwable {
+            startRecording.invoke(mxBean, id);
+        }
+
+        void stopRecording(long id) throws Throwable {
+            stopRecording.invoke(mxBean, id);
+        }
+
+        void copyTo(long id, Path path) throws Throwable {
+            copyTo.invoke(mxBean, id, path.toString());
+        }
+
+        void closeRecording(long id) throws Throwable {
+            closeRecording.invoke(mxBean, id);
+        }
+    }
+}
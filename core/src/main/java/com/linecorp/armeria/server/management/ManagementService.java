@@ -24,6 +24,7 @@ import com.linecorp.armeria.common.MediaType;
 import com.linecorp.armeria.common.annotation.UnstableApi;
 import com.linecorp.armeria.server.AbstractHttpService;
 import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.ServiceConfig;
 import com.linecorp.armeria.server.ServiceRequestContext;
 
 /**
@@ -54,6 +55,32 @@ import com.linecorp.armeria.server.ServiceRequestContext;
  * // Dump only live objects that are reachable from others
  * curl -L http://my-service.com/internal/management/jvm/heapdump?live=true -o heapdump.hprof
  * }</pre>
+ *
+ * <h2>Event loops</h2>
+ * You can see the task queue delay, the busy ratio and the number of the long tasks of each Netty event loop
+ * observed by the metrics, and the stack traces sampled while an event loop was blocked by a long task, by
+ * accessing {@code "/netty/eventloops"}. If {@link MediaType#JSON} is specified in
+ * {@link HttpHeaderNames#ACCEPT}, the information will be converted to a JSON.
+ * <pre>{@code
+ * curl -L http://my-service.com/internal/management/netty/eventloops
+ * }</pre>
+ *
+ * <h2>JFR recording</h2>
+ * You can record the JVM with JDK Flight Recorder for a certain duration by accessing {@code "/jvm/jfr"}.
+ * The {@code duration} (default: {@code 30s}) and the {@code settings} (default: {@code profile}) can be
+ * specified. If {@code hotRequests=true} is specified, a JFR event is also emitted while a thread is
+ * handling a request, so that you can correlate the samples with the requests.
+ * <pre>{@code
+ * curl -L http://my-service.com/internal/management/jvm/jfr?duration=30s -o recording.jfr
+ * }</pre>
+ * You can also start a continuous recording which keeps only the most recent data up to {@code maxAge}
+ * (default: {@code 10m}) and {@code maxSize} (default: 64 MiB), dump it at any time and stop it,
+ * by accessing {@code "/jvm/jfr/continuous"} with {@code POST}, {@code GET} and {@code DELETE} respectively.
+ * <pre>{@code
+ * curl -L -X POST http://my-service.com/internal/management/jvm/jfr/continuous?maxAge=5m
+ * curl -L http://my-service.com/internal/management/jvm/jfr/continuous -o recording.jfr
+ * curl -L -X DELETE http://my-service.com/internal/management/jvm/jfr/continuous
+ * }</pre>
  */
 @UnstableApi
 public final class ManagementService extends AbstractHttpService {
@@ -69,6 +96,11 @@ public final class ManagementService extends AbstractHttpService {
 
     ManagementService() {}
 
+    @Override
+    public void serviceAdded(ServiceConfig cfg) throws Exception {
+        RequestContextJfrEvents.initialize();
+    }
+
     @Override
     public HttpResponse doGet(ServiceRequestContext ctx, HttpRequest req) throws Exception {
         final String path = ctx.mappedPath();
@@ -77,8 +109,31 @@ public final class ManagementService extends AbstractHttpService {
                 return ThreadDumpService.INSTANCE.serve(ctx, req);
             case "/jvm/heapdump":
                 return HeapDumpService.INSTANCE.serve(ctx, req);
+            case "/netty/eventloops":
+                return EventLoopService.INSTANCE.serve(ctx, req);
+            case "/jvm/jfr":
+            case JfrService.CONTINUOUS_PATH:
+                return JfrService.INSTANCE.serve(ctx, req);
             default:
                 return HttpResponse.of(HttpStatus.NOT_FOUND);
         }
     }
+
+    @Override
+    protected HttpResponse doPost(ServiceRequestContext ctx, HttpRequest req) throws Exception {
+        return serveJfrContinuous(ctx, req);
+    }
+
+    @Override
+    protected HttpResponse doDelete(ServiceRequestContext ctx, HttpRequest req) throws Exception {
+        return serveJfrContinuous(ctx, req);
+    }
+
+    private static HttpResponse serveJfrContinuous(ServiceRequestContext ctx, HttpRequest req)
+            throws Exception {
+        if (JfrService.CONTINUOUS_PATH.equals(ctx.mappedPath())) {
+            return JfrService.INSTANCE.serve(ctx, req);
+        }
+        return HttpResponse.of(HttpStatus.NOT_FOUND);
+    }
 }
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.management;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.common.RequestContext;
+import com.linecorp.armeria.common.RequestContextStorage;
+import com.linecorp.armeria.common.RequestContextStorageWrapper;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+import io.netty.util.concurrent.FastThreadLocal;
+
+/**
+ * Emits a JFR event for every period during which a {@link RequestContext} is current in a thread,
+ * so that the CPU samples and other events recorded in the same thread and period can be correlated with
+ * the request. The events are defined with {@code jdk.jfr.EventFactory} via reflection, because
+ * the JFR API is not available in Java 8.
+ */
+final class RequestContextJfrEvents {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestContextJfrEvents.class);
+
+    static final String EVENT_NAME = "com.linecorp.armeria.RequestContext";
+
+    private static final AtomicInteger numEnabled = new AtomicInteger();
+    private static final FastThreadLocal<Object> currentEvent = new FastThreadLocal<>();
+
+    @Nullable
+    private static final EventFactory eventFactory;
+    @Nullable
+    private static final Throwable unavailabilityCause;
+
+    static {
+        EventFactory factory = null;
+        Throwable cause = null;
+        try {
+            factory = new EventFactory();
+        } catch (Throwable t) {
+            cause = t;
+        }
+        eventFactory = factory;
+        unavailabilityCause = cause;
+
+        if (factory != null) {
+            // The storage only delegates to the underlying storage until a recording enables the events.
+            RequestContextStorage.hook(Storage::new);
+        }
+    }
+
+    /**
+     * Installs the {@link RequestContextStorage} hook which emits the events if JFR is available.
+     * This method must be invoked when a server starts up, because {@link RequestContextStorage#hook(Function)}
+     * must not be invoked in the middle of request processing.
+     */
+    static void initialize() {
+        // The hook is installed by the static initializer.
+    }
+
+    /**
+     * Starts to emit the events. The events are emitted until {@link #disable()} is invoked as many times
+     * as this method is invoked.
+     *
+     * @throws IllegalStateException if JFR events can't be defined in the current JVM
+     */
+    static void enable() {
+        if (eventFactory == null) {
+            throw new IllegalStateException("JFR events are not available", unavailabilityCause);
+        }
+        numEnabled.incrementAndGet();
+    }
+
+    /**
+     * Stops emitting the events if there's no other recording that requires them.
+     */
+    static void disable() {
+        numEnabled.decrementAndGet();
+    }
+
+    private static void begin(RequestContext ctx) {
+        assert eventFactory != null;
+        try {
+            currentEvent.set(eventFactory.begin(ctx));
+        } catch (Throwable t) {
+            logger.warn("Unexpected exception while beginning a JFR event:", t);
+        }
+    }
+
+    private static void commit() {
+        assert eventFactory != null;
+        final Object event = currentEvent.getIfExists();
+        if (event == null) {
+            return;
+        }
+        currentEvent.remove();
+        try {
+            eventFactory.commit(event);
+        } catch (Throwable t) {
+            logger.warn("Unexpected exception while committing a JFR event:", t);
+        }
+    }
+
+    private static final class Storage extends RequestContextStorageWrapper {
+
+        Storage(RequestContextStorage delegate) {
+            super(delegate);
+        }
+
+        @Nullable
+        @Override
+        public <T extends RequestContext> T push(RequestContext toPush) {
+            final T oldCtx = super.push(toPush);
+            if (numEnabled.get() > 0) {
+                commit();
+                begin(toPush);
+            }
+            return oldCtx;
+        }
+
+        @Override
+        public void pop(RequestContext current, @Nullable RequestContext toRestore) {
+            super.pop(current, toRestore);
+            if (numEnabled.get() > 0) {
+                commit();
+                if (toRestore != null) {
+                    begin(toRestore);
+                }
+            } else if (currentEvent.isSet()) {
+                // Disabled while the context was current.
+                currentEvent.remove();
+            }
+        }
+    }
+
+    /**
+     * Defines the event type with {@code jdk.jfr.EventFactory} and creates its instances.
+     */
+    private static final class EventFactory {
+
+        private static final int REQUEST_ID = 0;
+        private static final int KIND = 1;
+        private static final int METHOD = 2;
+        private static final int PATH = 3;
+
+        private final Object factory;
+        private final MethodHandle newEvent;
+        private final MethodHandle beginEvent;
+        private final MethodHandle setField;
+        private final MethodHandle commitEvent;
+
+        EventFactory() throws Throwable {
+            final ClassLoader classLoader = RequestContextJfrEvents.class.getClassLoader();
+            final Class<?> annotationElementType = Class.forName("jdk.jfr.AnnotationElement", true,
+                                                                 classLoader);
+            final Class<?> valueDescriptorType = Class.forName("jdk.jfr.ValueDescriptor", true, classLoader);
+            final Class<?> eventFactoryType = Class.forName("jdk.jfr.EventFactory", true, classLoader);
+            final Class<?> eventType = Class.forName("jdk.jfr.Event", true, classLoader);
+
+            final Constructor<?> annotationElementCtor =
+                    annotationElementType.getConstructor(Class.class, Object.class);
+            final List<Object> annotations = ImmutableList.of(
+                    annotationElementCtor.newInstance(annotation("jdk.jfr.Name", classLoader), EVENT_NAME),
+                    annotationElementCtor.newInstance(annotation("jdk.jfr.Label", classLoader),
+                                                      "Armeria Request Context"),
+                    annotationElementCtor.newInstance(annotation("jdk.jfr.Category", classLoader),
+                                                      new String[] { "Armeria" }),
+                    annotationElementCtor.newInstance(annotation("jdk.jfr.StackTrace", classLoader), false));
+
+            final Constructor<?> valueDescriptorCtor =
+                    valueDescriptorType.getConstructor(Class.class, String.class);
+            final List<Object> fields = ImmutableList.of(
+                    valueDescriptorCtor.newInstance(String.class, "requestId"),
+                    valueDescriptorCtor.newInstance(String.class, "kind"),
+                    valueDescriptorCtor.newInstance(String.class, "method"),
+                    valueDescriptorCtor.newInstance(String.class, "path"));
+
+            factory = eventFactoryType.getMethod("create", List.class, List.class)
+                                      .invoke(null, annotations, fields);
+
+            final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            newEvent = lookup.findVirtual(eventFactoryType, "newEvent", MethodType.methodType(eventType))
+                             .asType(MethodType.methodType(Object.class, Object.class));
+            beginEvent = lookup.findVirtual(eventType, "begin", MethodType.methodType(void.class))
+                               .asType(MethodType.methodType(void.class, Object.class));
+            setField = lookup.findVirtual(eventType, "set",
+                                          MethodType.methodType(void.class, int.class, Object.class))
+                             .asType(MethodType.methodType(void.class, Object.class, int.class,
+                                                           Object.class));
+            commitEvent = lookup.findVirtual(eventType, "commit", MethodType.methodType(void.class))
+                                .asType(MethodType.methodType(void.class, Object.class));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Class<? extends Annotation> annotation(String name, ClassLoader classLoader)
+                throws ClassNotFoundException {
+            return (Class<? extends Annotation>) Class.forName(name, true, classLoader);
+        }
+
+        Object begin(RequestContext ctx) throws Throwable {
+            final Object event = (Object) newEvent.invokeExact(factory);
+            setField.invokeExact(event, REQUEST_ID, (Object) ctx.id().text());
+            setField.invokeExact(event, KIND, (Object) (ctx instanceof ServiceRequestContext ? "server"
+                                                                                             : "client"));
+            setField.invokeExact(event, METHOD, (Object) ctx.method().name());
+            setField.invokeExact(event, PATH, (Object) ctx.path());
+            beginEvent.invokeExact(event);
+            return event;
+        }
+
+        void commit(Object event) throws Throwable {
+            commitEvent.invokeExact(event);
+        }
+    }
+
+    private RequestContextJfrEvents() {}
+}
@@ -28,6 +28,8 @@ import com.linecorp.armeria.common.RequestContext;
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.logging.RequestLog;
 import com.linecorp.armeria.common.metric.MeterIdPrefixFunction;
+import com.linecorp.armeria.common.util.Sampler;
+import com.linecorp.armeria.internal.common.logging.RequestResourceUsage;
 import com.linecorp.armeria.internal.common.metric.RequestMetricSupport;
 import com.linecorp.armeria.internal.server.RouteDecoratingService;
 import com.linecorp.armeria.server.HttpService;
@@ -83,14 +85,17 @@ public final class MetricCollectingService extends SimpleDecoratingHttpService {
     private final MeterIdPrefixFunction meterIdPrefixFunction;
     @Nullable
     private final BiPredicate<? super RequestContext, ? super RequestLog> successFunction;
+    private final Sampler<? super ServiceRequestContext> resourceUsageSampler;
     private final ConcurrentMap<Route, Boolean> routeCache = new ConcurrentHashMap<>();
 
     MetricCollectingService(HttpService delegate,
                             MeterIdPrefixFunction meterIdPrefixFunction,
-                            @Nullable BiPredicate<? super RequestContext, ? super RequestLog> successFunction) {
+                            @Nullable BiPredicate<? super RequestContext, ? super RequestLog> successFunction,
+                            Sampler<? super ServiceRequestContext> resourceUsageSampler) {
         super(delegate);
         this.meterIdPrefixFunction = requireNonNull(meterIdPrefixFunction, "meterIdPrefixFunction");
         this.successFunction = successFunction;
+        this.resourceUsageSampler = requireNonNull(resourceUsageSampler, "resourceUsageSampler");
     }
 
     @Override
@@ -99,6 +104,9 @@ public final class MetricCollectingService extends SimpleDecoratingHttpService {
             RequestMetricSupport.setup(ctx, REQUEST_METRICS_SET, meterIdPrefixFunction, true,
                                        successFunction != null ? successFunction::test
                                                                : ctx.config().successFunction());
+            if (resourceUsageSampler.isSampled(ctx)) {
+                RequestResourceUsage.start(ctx);
+            }
         }
         return unwrap().serve(ctx, req);
     }
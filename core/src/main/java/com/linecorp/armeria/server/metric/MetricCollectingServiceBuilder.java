@@ -21,20 +21,48 @@ import java.util.function.BiPredicate;
 import java.util.function.Function;
 
 import com.linecorp.armeria.common.RequestContext;
+import com.linecorp.armeria.common.annotation.UnstableApi;
 import com.linecorp.armeria.common.logging.RequestLog;
 import com.linecorp.armeria.common.metric.AbstractMetricCollectingBuilder;
 import com.linecorp.armeria.common.metric.MeterIdPrefixFunction;
+import com.linecorp.armeria.common.util.Sampler;
+import com.linecorp.armeria.internal.common.logging.RequestResourceUsage;
 import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.ServiceRequestContext;
 
 /**
  * Builds a {@link MetricCollectingService} instance.
  */
 public final class MetricCollectingServiceBuilder extends AbstractMetricCollectingBuilder {
 
+    private Sampler<? super ServiceRequestContext> resourceUsageSampler = Sampler.never();
+
     MetricCollectingServiceBuilder(MeterIdPrefixFunction meterIdPrefixFunction) {
         super(meterIdPrefixFunction);
     }
 
+    /**
+     * Sets the {@link Sampler} that determines which requests' CPU time and allocated bytes are accounted.
+     * The CPU time and the allocated bytes of the threads are measured whenever the
+     * {@link ServiceRequestContext} of a sampled request is pushed or popped, and exposed via
+     * {@link RequestLog#cpuTimeNanos()} and {@link RequestLog#allocatedBytes()}. They are also recorded
+     * into the {@code cpu.time} and {@code allocated.bytes} meters. The accounting is disabled by default.
+     *
+     * <p>Note that measuring the CPU time and the allocated bytes of a thread is not free. Consider using
+     * a {@link Sampler} that samples only a small portion of the requests, e.g.
+     * {@code Sampler.random(0.01)}.
+     */
+    @UnstableApi
+    public MetricCollectingServiceBuilder resourceUsageSampler(
+            Sampler<? super ServiceRequestContext> resourceUsageSampler) {
+        this.resourceUsageSampler = requireNonNull(resourceUsageSampler, "resourceUsageSampler");
+        if (resourceUsageSampler != Sampler.never()) {
+            // Install the hook while the service is being configured, not when a request is served.
+            RequestResourceUsage.install();
+        }
+        return this;
+    }
+
     @Override
     public MetricCollectingServiceBuilder successFunction(
             BiPredicate<? super RequestContext, ? super RequestLog> successFunction) {
@@ -47,7 +75,8 @@ public final class MetricCollectingServiceBuilder extends AbstractMetricCollecti
      */
     public MetricCollectingService build(HttpService delegate) {
         requireNonNull(delegate, "delegate");
-        return new MetricCollectingService(delegate, meterIdPrefixFunction(), successFunction());
+        return new MetricCollectingService(delegate, meterIdPrefixFunction(), successFunction(),
+                                           resourceUsageSampler);
     }
 
     /**
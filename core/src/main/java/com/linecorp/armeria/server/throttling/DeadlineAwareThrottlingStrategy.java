@@ -0,0 +1,316 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling;
+
+import java.time.Duration;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.linecorp.armeria.common.ExchangeType;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.Request;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.util.Ticker;
+import com.linecorp.armeria.common.util.UnmodifiableFuture;
+import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.RoutingContext;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.netty.util.AsciiString;
+
+/**
+ * A {@link ThrottlingStrategy} that rejects a request whose caller is likely to give up before
+ * the request is handled. The deadline of a request is read from the {@code grpc-timeout} header and
+ * an optional custom header, and is measured from the time when the request was received. Therefore,
+ * the time spent while decoding the request is taken into account.
+ * A request is rejected if its remaining time is less than the estimated service time, which is
+ * the exponentially weighted moving average of the time taken to handle the accepted requests.
+ * A request without a deadline is always accepted.
+ *
+ * <p>A service which uses the blocking task executor, e.g. an annotated service or a gRPC service with
+ * {@code useBlockingTaskExecutor(true)}, is invoked after this strategy accepts a request, so the request may
+ * wait in the queue of the executor until its deadline is too close. Therefore, the remaining time is
+ * checked again when the request is first handled outside of its event loop, and the request is
+ * {@linkplain ServiceRequestContext#timeoutNow() timed out} if it has become too short. The service is still
+ * invoked in that case, but its response is discarded, so it may check
+ * {@link ServiceRequestContext#isTimedOut()} to skip the unnecessary work.
+ *
+ * <p>Only the successful exchanges whose {@link ExchangeType} is {@link ExchangeType#UNARY} or
+ * {@link ExchangeType#REQUEST_STREAMING} are sampled, because the duration of a streaming response does not
+ * represent the service time. Note that {@link HttpService#exchangeType(RoutingContext)} returns
+ * {@link ExchangeType#BIDI_STREAMING} unless overridden. The samples and the estimated service time are
+ * capped by {@link DeadlineAwareThrottlingStrategyBuilder#maxServiceTime(Duration)}, and the estimated
+ * service time decays by half every second without new samples, so that the requests are accepted again
+ * even if all requests were rejected after a burst of slow responses.
+ *
+ * <pre>{@code
+ * ThrottlingStrategy<HttpRequest> strategy =
+ *     DeadlineAwareThrottlingStrategy.<HttpRequest>builder()
+ *                                    .timeoutHeader("x-timeout-millis")
+ *                                    .build();
+ * ServerBuilder sb = Server.builder();
+ * sb.decorator(ThrottlingService.builder(strategy)
+ *                               .onRejectedRequest((delegate, ctx, req, cause) -> {
+ *                                   return HttpResponse.of(HttpStatus.SERVICE_UNAVAILABLE);
+ *                               })
+ *                               .newDecorator());
+ * }</pre>
+ */
+@UnstableApi
+public final class DeadlineAwareThrottlingStrategy<T extends Request> extends ThrottlingStrategy<T> {
+
+    private static final AsciiString GRPC_TIMEOUT = AsciiString.cached("grpc-timeout");
+
+    // The weight of a new sample in the moving average of the service time.
+    private static final int SERVICE_TIME_WEIGHT_SHIFT = 3;
+
+    // The half-life of the estimated service time while no new samples are collected.
+    private static final double SERVICE_TIME_HALF_LIFE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final AutoCloseable NOOP_CLOSEABLE = () -> {};
+
+    /**
+     * Returns a new {@link DeadlineAwareThrottlingStrategyBuilder}.
+     */
+    public static <T extends Request> DeadlineAwareThrottlingStrategyBuilder<T> builder() {
+        return new DeadlineAwareThrottlingStrategyBuilder<>();
+    }
+
+    private final boolean useGrpcTimeoutHeader;
+    @Nullable
+    private final AsciiString timeoutHeader;
+    private final long minServiceTimeNanos;
+    private final long maxServiceTimeNanos;
+    private final Ticker ticker;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder noDeadline = new LongAdder();
+
+    // Updated without synchronization because an occasional lost update does not affect the accuracy of
+    // the moving average much.
+    private volatile ServiceTime serviceTime = ServiceTime.NONE;
+
+    DeadlineAwareThrottlingStrategy(boolean useGrpcTimeoutHeader, @Nullable AsciiString timeoutHeader,
+                                    long minServiceTimeNanos, long maxServiceTimeNanos, Ticker ticker,
+                                    @Nullable String name) {
+        super(name);
+        this.useGrpcTimeoutHeader = useGrpcTimeoutHeader;
+        this.timeoutHeader = timeoutHeader;
+        this.minServiceTimeNanos = minServiceTimeNanos;
+        this.maxServiceTimeNanos = maxServiceTimeNanos;
+        this.ticker = ticker;
+    }
+
+    @Override
+    public CompletionStage<Boolean> accept(ServiceRequestContext ctx, T request) {
+        final HttpRequest req = ctx.request();
+        final long timeoutNanos = req != null ? timeoutNanos(req.headers()) : -1;
+        final long now = System.nanoTime();
+        if (timeoutNanos < 0) {
+            noDeadline.increment();
+        } else {
+            final RequestLog log = ctx.log().partial();
+            final long deadlineNanos = log.requestStartTimeNanos() + timeoutNanos;
+            if (deadlineNanos - now < estimatedServiceTimeNanos()) {
+                rejected.increment();
+                return UnmodifiableFuture.completedFuture(false);
+            }
+            recheckOutsideEventLoop(ctx, deadlineNanos);
+        }
+
+        accepted.increment();
+        if (!ctx.exchangeType().isResponseStreaming()) {
+            ctx.log().whenComplete().thenAccept(log -> {
+                if (log.responseCause() == null && !log.responseHeaders().status().isServerError()) {
+                    updateServiceTime(log.responseEndTimeNanos() - now);
+                }
+            });
+        }
+        return UnmodifiableFuture.completedFuture(true);
+    }
+
+    /**
+     * Checks the remaining time again when the specified {@link ServiceRequestContext} is first pushed
+     * outside of its event loop, e.g. when the blocking task executor starts the service.
+     */
+    private void recheckOutsideEventLoop(ServiceRequestContext ctx, long deadlineNanos) {
+        final AtomicBoolean checked = new AtomicBoolean();
+        ctx.hook(() -> {
+            if (!checked.get() && !ctx.eventLoop().inEventLoop() && checked.compareAndSet(false, true) &&
+                deadlineNanos - System.nanoTime() < estimatedServiceTimeNanos()) {
+                accepted.decrement();
+                rejected.increment();
+                ctx.timeoutNow();
+            }
+            return NOOP_CLOSEABLE;
+        });
+    }
+
+    private long timeoutNanos(RequestHeaders headers) {
+        long timeoutNanos = -1;
+        if (useGrpcTimeoutHeader) {
+            final String value = headers.get(GRPC_TIMEOUT);
+            if (value != null) {
+                timeoutNanos = parseGrpcTimeoutNanos(value);
+            }
+        }
+        if (timeoutHeader != null) {
+            final String value = headers.get(timeoutHeader);
+            if (value != null) {
+                final long millis = parseTimeoutMillis(value);
+                if (millis >= 0) {
+                    final long nanos = TimeUnit.MILLISECONDS.toNanos(millis);
+                    timeoutNanos = timeoutNanos < 0 ? nanos : Math.min(timeoutNanos, nanos);
+                }
+            }
+        }
+        return timeoutNanos;
+    }
+
+    private void updateServiceTime(long serviceTimeNanos) {
+        if (serviceTimeNanos < 0) {
+            return;
+        }
+        serviceTimeNanos = Math.min(serviceTimeNanos, maxServiceTimeNanos);
+        final long now = ticker.read();
+        final ServiceTime serviceTime = this.serviceTime;
+        final long average;
+        if (serviceTime == ServiceTime.NONE) {
+            average = serviceTimeNanos;
+        } else {
+            final long decayed = serviceTime.decayedAverageNanos(now);
+            average = decayed + ((serviceTimeNanos - decayed) >> SERVICE_TIME_WEIGHT_SHIFT);
+        }
+        this.serviceTime = new ServiceTime(average, now);
+    }
+
+    /**
+     * Returns the estimated time taken to handle a request, in nanoseconds. A request whose remaining time
+     * is less than this value is rejected.
+     */
+    public long estimatedServiceTimeNanos() {
+        final long average = serviceTime.decayedAverageNanos(ticker.read());
+        return Math.max(minServiceTimeNanos, Math.min(average, maxServiceTimeNanos));
+    }
+
+    long numAccepted() {
+        return accepted.sum();
+    }
+
+    long numRejected() {
+        return rejected.sum();
+    }
+
+    long numNoDeadline() {
+        return noDeadline.sum();
+    }
+
+    /**
+     * Returns a newly-created {@link MeterBinder} which binds the stats about this
+     * {@link DeadlineAwareThrottlingStrategy} with the default meter names.
+     */
+    public MeterBinder newMeterBinder() {
+        return newMeterBinder(new MeterIdPrefix("armeria.server.throttling.deadline", "name", name()));
+    }
+
+    /**
+     * Returns a newly-created {@link MeterBinder} which binds the stats about this
+     * {@link DeadlineAwareThrottlingStrategy}.
+     */
+    public MeterBinder newMeterBinder(MeterIdPrefix idPrefix) {
+        return new DeadlineAwareThrottlingStrategyMetrics(this, idPrefix);
+    }
+
+    /**
+     * Parses the value of a {@code grpc-timeout} header, which consists of at most 8 digits followed by
+     * a unit, e.g. {@code 100m} and {@code 5S}. Returns {@code -1} if the value is malformed.
+     */
+    static long parseGrpcTimeoutNanos(String value) {
+        final int length = value.length();
+        if (length < 2 || length > 9) {
+            return -1;
+        }
+        long amount = 0;
+        for (int i = 0; i < length - 1; i++) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            amount = amount * 10 + (c - '0');
+        }
+        switch (value.charAt(length - 1)) {
+            case 'n':
+                return amount;
+            case 'u':
+                return TimeUnit.MICROSECONDS.toNanos(amount);
+            case 'm':
+                return TimeUnit.MILLISECONDS.toNanos(amount);
+            case 'S':
+                return TimeUnit.SECONDS.toNanos(amount);
+            case 'M':
+                return TimeUnit.MINUTES.toNanos(amount);
+            case 'H':
+                return TimeUnit.HOURS.toNanos(amount);
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * The moving average of the service time and the time when it was updated.
+     */
+    private static final class ServiceTime {
+
+        static final ServiceTime NONE = new ServiceTime(0, 0);
+
+        private final long averageNanos;
+        private final long updatedNanos;
+
+        ServiceTime(long averageNanos, long updatedNanos) {
+            this.averageNanos = averageNanos;
+            this.updatedNanos = updatedNanos;
+        }
+
+        long decayedAverageNanos(long now) {
+            if (averageNanos == 0) {
+                return 0;
+            }
+            final long elapsedNanos = now - updatedNanos;
+            if (elapsedNanos <= 0) {
+                return averageNanos;
+            }
+            return (long) (averageNanos * Math.pow(0.5, elapsedNanos / SERVICE_TIME_HALF_LIFE_NANOS));
+        }
+    }
+
+    private static long parseTimeoutMillis(String value) {
+        try {
+            final long millis = Long.parseLong(value);
+            return millis >= 0 ? millis : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
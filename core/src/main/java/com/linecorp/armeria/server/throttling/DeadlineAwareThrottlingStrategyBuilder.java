@@ -0,0 +1,123 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+import com.linecorp.armeria.common.Request;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.util.Ticker;
+
+import io.netty.util.AsciiString;
+
+/**
+ * Builds a {@link DeadlineAwareThrottlingStrategy}.
+ */
+@UnstableApi
+public final class DeadlineAwareThrottlingStrategyBuilder<T extends Request> {
+
+    private static final Duration DEFAULT_MAX_SERVICE_TIME = Duration.ofSeconds(10);
+
+    private boolean useGrpcTimeoutHeader = true;
+    @Nullable
+    private AsciiString timeoutHeader;
+    private Duration minServiceTime = Duration.ZERO;
+    private Duration maxServiceTime = DEFAULT_MAX_SERVICE_TIME;
+    private Ticker ticker = Ticker.systemTicker();
+    @Nullable
+    private String name;
+
+    DeadlineAwareThrottlingStrategyBuilder() {}
+
+    /**
+     * Sets whether the deadline is read from the {@code grpc-timeout} header. This option is enabled
+     * by default.
+     */
+    public DeadlineAwareThrottlingStrategyBuilder<T> useGrpcTimeoutHeader(boolean useGrpcTimeoutHeader) {
+        this.useGrpcTimeoutHeader = useGrpcTimeoutHeader;
+        return this;
+    }
+
+    /**
+     * Sets the name of the HTTP header that contains the timeout of a request in milliseconds,
+     * e.g. {@code x-timeout-millis: 500}. If both this header and the {@code grpc-timeout} header are
+     * present, the shorter one is used. The header is not read if not set.
+     */
+    public DeadlineAwareThrottlingStrategyBuilder<T> timeoutHeader(CharSequence timeoutHeader) {
+        requireNonNull(timeoutHeader, "timeoutHeader");
+        checkArgument(timeoutHeader.length() > 0, "timeoutHeader is empty.");
+        this.timeoutHeader = AsciiString.of(timeoutHeader).toLowerCase();
+        return this;
+    }
+
+    /**
+     * Sets the minimum estimated service time. A request whose remaining time is less than this value is
+     * always rejected, even if the requests have been handled faster than this value on average.
+     * If not set, {@link Duration#ZERO} is used, which means only the requests that are expected to miss
+     * their deadlines according to the observed service time are rejected.
+     */
+    public DeadlineAwareThrottlingStrategyBuilder<T> minServiceTime(Duration minServiceTime) {
+        requireNonNull(minServiceTime, "minServiceTime");
+        checkArgument(!minServiceTime.isNegative(), "minServiceTime: %s (expected: >= 0)", minServiceTime);
+        this.minServiceTime = minServiceTime;
+        return this;
+    }
+
+    /**
+     * Sets the maximum estimated service time. A sample longer than this value is counted as this value,
+     * so that a few extremely slow requests do not make the strategy reject most requests.
+     * If not set, 10 seconds is used.
+     */
+    public DeadlineAwareThrottlingStrategyBuilder<T> maxServiceTime(Duration maxServiceTime) {
+        requireNonNull(maxServiceTime, "maxServiceTime");
+        checkArgument(!maxServiceTime.isNegative() && !maxServiceTime.isZero(),
+                      "maxServiceTime: %s (expected: > 0)", maxServiceTime);
+        this.maxServiceTime = maxServiceTime;
+        return this;
+    }
+
+    DeadlineAwareThrottlingStrategyBuilder<T> ticker(Ticker ticker) {
+        this.ticker = requireNonNull(ticker, "ticker");
+        return this;
+    }
+
+    /**
+     * Sets the name of the strategy.
+     * By default, it will be assigned with a predefined name.
+     */
+    public DeadlineAwareThrottlingStrategyBuilder<T> name(String name) {
+        this.name = requireNonNull(name, "name");
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link DeadlineAwareThrottlingStrategy} based on the properties of
+     * this builder.
+     */
+    public DeadlineAwareThrottlingStrategy<T> build() {
+        checkState(minServiceTime.compareTo(maxServiceTime) <= 0,
+                   "minServiceTime: %s (expected: <= maxServiceTime: %s)", minServiceTime, maxServiceTime);
+        return new DeadlineAwareThrottlingStrategy<>(useGrpcTimeoutHeader, timeoutHeader,
+                                                     minServiceTime.toNanos(), maxServiceTime.toNanos(),
+                                                     ticker, name);
+    }
+}
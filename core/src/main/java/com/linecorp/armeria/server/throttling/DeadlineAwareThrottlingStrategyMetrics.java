@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.TimeUnit;
+
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * {@link MeterBinder} for a {@link DeadlineAwareThrottlingStrategy}.
+ */
+final class DeadlineAwareThrottlingStrategyMetrics implements MeterBinder {
+
+    private final DeadlineAwareThrottlingStrategy<?> strategy;
+    private final MeterIdPrefix idPrefix;
+
+    DeadlineAwareThrottlingStrategyMetrics(DeadlineAwareThrottlingStrategy<?> strategy,
+                                           MeterIdPrefix idPrefix) {
+        this.strategy = requireNonNull(strategy, "strategy");
+        this.idPrefix = requireNonNull(idPrefix, "idPrefix");
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TimeGauge.builder(idPrefix.name("estimated.service.time"), strategy, TimeUnit.NANOSECONDS,
+                          DeadlineAwareThrottlingStrategy::estimatedServiceTimeNanos)
+                 .description("The estimated time taken to handle a request")
+                 .tags(idPrefix.tags())
+                 .register(registry);
+
+        final String requests = idPrefix.name("requests");
+        FunctionCounter.builder(requests, strategy, DeadlineAwareThrottlingStrategy::numAccepted)
+                       .tags(idPrefix.tags("result", "accepted"))
+                       .register(registry);
+        FunctionCounter.builder(requests, strategy, DeadlineAwareThrottlingStrategy::numRejected)
+                       .description("The number of requests rejected because their deadlines were " +
+                                    "too close or expired already")
+                       .tags(idPrefix.tags("result", "rejected"))
+                       .register(registry);
+        FunctionCounter.builder(idPrefix.name("requests.without.deadline"), strategy,
+                                DeadlineAwareThrottlingStrategy::numNoDeadline)
+                       .tags(idPrefix.tags())
+                       .register(registry);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+
+import com.linecorp.armeria.internal.common.util.ReentrantShortLock;
+
+/**
+ * Tracks the approximate top-k most frequent keys using the Space-Saving algorithm with a fixed number of
+ * counters. An update is dropped instead of waiting when another thread is updating the tracker, so that
+ * a burst of rejections never contends on this lock.
+ */
+final class HotKeyTracker {
+
+    private final ReentrantShortLock lock = new ReentrantShortLock();
+    private final String[] keys;
+    private final long[] counts;
+    private int size;
+
+    HotKeyTracker(int maxKeys) {
+        keys = new String[maxKeys];
+        counts = new long[maxKeys];
+    }
+
+    void record(String key) {
+        if (keys.length == 0 || !lock.tryLock()) {
+            return;
+        }
+        try {
+            int min = 0;
+            for (int i = 0; i < size; i++) {
+                if (keys[i].equals(key)) {
+                    counts[i]++;
+                    return;
+                }
+                if (counts[i] < counts[min]) {
+                    min = i;
+                }
+            }
+            if (size < keys.length) {
+                keys[size] = key;
+                counts[size] = 1;
+                size++;
+            } else {
+                // Replace the least frequent key, inheriting its count as the error bound.
+                keys[min] = key;
+                counts[min]++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the tracked keys and their approximate counts in descending order of the counts.
+     */
+    Map<String, Long> snapshot() {
+        final List<Map.Entry<String, Long>> entries;
+        lock.lock();
+        try {
+            entries = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                entries.add(Maps.immutableEntry(keys[i], counts[i]));
+            }
+        } finally {
+            lock.unlock();
+        }
+        entries.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+        final Map<String, Long> snapshot = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> e : entries) {
+            snapshot.put(e.getKey(), e.getValue());
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+import com.linecorp.armeria.common.Request;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.util.UnmodifiableFuture;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * A {@link ThrottlingStrategy} that limits the rate of requests per key, such as a client IP address,
+ * an API key or a tenant ID. Each key has its own token bucket which is refilled lazily when the key is
+ * accessed. The buckets are kept in a bounded table backed by primitive arrays, so that millions of keys can
+ * be tracked without allocating an object per key. When the table is full, the least recently used bucket
+ * is evicted.
+ *
+ * <pre>{@code
+ * ThrottlingStrategy<HttpRequest> strategy =
+ *     KeyedRateLimitingThrottlingStrategy.<HttpRequest>builder(
+ *             10, (ctx, req) -> ctx.clientAddress().getHostAddress())
+ *         .maxKeys(1_000_000)
+ *         .build();
+ * ServerBuilder sb = Server.builder();
+ * sb.decorator(ThrottlingService.newDecorator(strategy));
+ * }</pre>
+ *
+ * @see ThrottlingStrategy#keyedRateLimiting(double, BiFunction)
+ */
+@UnstableApi
+public final class KeyedRateLimitingThrottlingStrategy<T extends Request> extends ThrottlingStrategy<T> {
+
+    /**
+     * Returns a new {@link KeyedRateLimitingThrottlingStrategyBuilder}.
+     *
+     * @param permitsPerSecond the number of requests per second accepted for each key
+     * @param keyFunction the {@link BiFunction} that extracts the key from a request. If the function
+     *                    returns {@code null}, the request is accepted without being rate-limited.
+     */
+    public static <T extends Request> KeyedRateLimitingThrottlingStrategyBuilder<T> builder(
+            double permitsPerSecond,
+            BiFunction<? super ServiceRequestContext, ? super T, ? extends @Nullable String> keyFunction) {
+        return new KeyedRateLimitingThrottlingStrategyBuilder<>(permitsPerSecond, keyFunction);
+    }
+
+    private final BiFunction<? super ServiceRequestContext, ? super T, ? extends @Nullable String> keyFunction;
+    private final KeyedTokenBuckets buckets;
+    private final HotKeyTracker hotKeyTracker;
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    KeyedRateLimitingThrottlingStrategy(
+            BiFunction<? super ServiceRequestContext, ? super T, ? extends @Nullable String> keyFunction,
+            KeyedTokenBuckets buckets, int maxHotKeys, @Nullable String name) {
+        super(name);
+        this.keyFunction = requireNonNull(keyFunction, "keyFunction");
+        this.buckets = requireNonNull(buckets, "buckets");
+        hotKeyTracker = new HotKeyTracker(maxHotKeys);
+    }
+
+    @Override
+    public CompletionStage<Boolean> accept(ServiceRequestContext ctx, T request) {
+        final String key = keyFunction.apply(ctx, request);
+        if (key == null) {
+            return UnmodifiableFuture.completedFuture(true);
+        }
+        if (buckets.tryAcquire(key)) {
+            accepted.increment();
+            return UnmodifiableFuture.completedFuture(true);
+        }
+        rejected.increment();
+        hotKeyTracker.record(key);
+        return UnmodifiableFuture.completedFuture(false);
+    }
+
+    /**
+     * Returns the approximate number of keys whose buckets are currently tracked.
+     */
+    public int numKeys() {
+        return buckets.size();
+    }
+
+    /**
+     * Returns the maximum number of keys whose buckets can be tracked at the same time.
+     */
+    public int maxKeys() {
+        return buckets.capacity();
+    }
+
+    /**
+     * Returns the number of buckets evicted to make room for new keys before they expired.
+     * A steadily increasing value means {@link KeyedRateLimitingThrottlingStrategyBuilder#maxKeys(int)}
+     * is too small for the number of active keys.
+     */
+    public long numEvictions() {
+        return buckets.evictions();
+    }
+
+    /**
+     * Returns the keys which were rejected most frequently with the approximate number of rejections,
+     * in descending order of the number of rejections.
+     */
+    public Map<String, Long> hotKeys() {
+        return hotKeyTracker.snapshot();
+    }
+
+    long numAccepted() {
+        return accepted.sum();
+    }
+
+    long numRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Returns a newly-created {@link MeterBinder} which binds the stats about this
+     * {@link KeyedRateLimitingThrottlingStrategy} with the default meter names.
+     */
+    public MeterBinder newMeterBinder() {
+        return newMeterBinder(new MeterIdPrefix("armeria.server.throttling.keyed", "name", name()));
+    }
+
+    /**
+     * Returns a newly-created {@link MeterBinder} which binds the stats about this
+     * {@link KeyedRateLimitingThrottlingStrategy}.
+     */
+    public MeterBinder newMeterBinder(MeterIdPrefix idPrefix) {
+        return new KeyedRateLimitingThrottlingStrategyMetrics(this, idPrefix);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.function.BiFunction;
+
+import com.linecorp.armeria.common.Request;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
+import com.linecorp.armeria.common.util.Ticker;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+/**
+ * Builds a {@link KeyedRateLimitingThrottlingStrategy}.
+ */
+@UnstableApi
+public final class KeyedRateLimitingThrottlingStrategyBuilder<T extends Request> {
+
+    private static final int DEFAULT_MAX_KEYS = 65536;
+    private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(1);
+    private static final int DEFAULT_MAX_HOT_KEYS = 10;
+    private static final int MAX_KEYS_LIMIT = 1 << 30;
+
+    private final double permitsPerSecond;
+    private final BiFunction<? super ServiceRequestContext, ? super T, ? extends @Nullable String> keyFunction;
+    private double burstCapacity;
+    private int maxKeys = DEFAULT_MAX_KEYS;
+    private Duration idleTimeout = DEFAULT_IDLE_TIMEOUT;
+    private int maxHotKeys = DEFAULT_MAX_HOT_KEYS;
+    private Ticker ticker = Ticker.systemTicker();
+    @Nullable
+    private String name;
+
+    KeyedRateLimitingThrottlingStrategyBuilder(
+            double permitsPerSecond,
+            BiFunction<? super ServiceRequestContext, ? super T, ? extends @Nullable String> keyFunction) {
+        checkArgument(permitsPerSecond > 0, "permitsPerSecond: %s (expected: > 0)", permitsPerSecond);
+        this.permitsPerSecond = permitsPerSecond;
+        this.keyFunction = requireNonNull(keyFunction, "keyFunction");
+        burstCapacity = Math.max(1, permitsPerSecond);
+    }
+
+    /**
+     * Sets the maximum number of requests that can be accepted at once for a key which has been idle.
+     * If not set, the number of permits per second, or {@code 1} if it is less than {@code 1}, is used.
+     */
+    public KeyedRateLimitingThrottlingStrategyBuilder<T> burstCapacity(double burstCapacity) {
+        checkArgument(burstCapacity >= 1, "burstCapacity: %s (expected: >= 1)", burstCapacity);
+        this.burstCapacity = burstCapacity;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of keys whose buckets are tracked at the same time. The actual limit is
+     * rounded up to a power of two. Each key consumes 24 bytes regardless of the size of the key.
+     * If not set, {@value #DEFAULT_MAX_KEYS} is used.
+     */
+    public KeyedRateLimitingThrottlingStrategyBuilder<T> maxKeys(int maxKeys) {
+        checkArgument(maxKeys > 0 && maxKeys <= MAX_KEYS_LIMIT,
+                      "maxKeys: %s (expected: 0 < maxKeys <= %s)", maxKeys, MAX_KEYS_LIMIT);
+        this.maxKeys = maxKeys;
+        return this;
+    }
+
+    /**
+     * Sets the {@link Duration} after which the bucket of a key which has not been accessed expires.
+     * An expired bucket is reused for another key before any live bucket is evicted.
+     * If not set, 1 minute is used.
+     */
+    public KeyedRateLimitingThrottlingStrategyBuilder<T> idleTimeout(Duration idleTimeout) {
+        requireNonNull(idleTimeout, "idleTimeout");
+        checkArgument(!idleTimeout.isNegative() && !idleTimeout.isZero(),
+                      "idleTimeout: %s (expected: > 0)", idleTimeout);
+        this.idleTimeout = idleTimeout;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of the most frequently rejected keys to be reported by
+     * {@link KeyedRateLimitingThrottlingStrategy#hotKeys()}. {@code 0} disables the hot key tracking.
+     * If not set, {@value #DEFAULT_MAX_HOT_KEYS} is used.
+     */
+    public KeyedRateLimitingThrottlingStrategyBuilder<T> maxHotKeys(int maxHotKeys) {
+        checkArgument(maxHotKeys >= 0, "maxHotKeys: %s (expected: >= 0)", maxHotKeys);
+        this.maxHotKeys = maxHotKeys;
+        return this;
+    }
+
+    /**
+     * Sets the name of the strategy.
+     * By default, it will be assigned with a predefined name.
+     */
+    public KeyedRateLimitingThrottlingStrategyBuilder<T> name(String name) {
+        this.name = requireNonNull(name, "name");
+        return this;
+    }
+
+    KeyedRateLimitingThrottlingStrategyBuilder<T> ticker(Ticker ticker) {
+        this.ticker = requireNonNull(ticker, "ticker");
+        return this;
+    }
+
+    /**
+     * Returns a newly-created {@link KeyedRateLimitingThrottlingStrategy} based on the properties of
+     * this builder.
+     */
+    public KeyedRateLimitingThrottlingStrategy<T> build() {
+        final KeyedTokenBuckets buckets = new KeyedTokenBuckets(maxKeys, permitsPerSecond, burstCapacity,
+                                                                idleTimeout.toNanos(), ticker);
+        return new KeyedRateLimitingThrottlingStrategy<>(keyFunction, buckets, maxHotKeys, name);
+    }
+}
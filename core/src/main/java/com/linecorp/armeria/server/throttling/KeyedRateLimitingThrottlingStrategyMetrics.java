@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling;
+
+import static java.util.Objects.requireNonNull;
+
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * {@link MeterBinder} for a {@link KeyedRateLimitingThrottlingStrategy}.
+ */
+final class KeyedRateLimitingThrottlingStrategyMetrics implements MeterBinder {
+
+    private final KeyedRateLimitingThrottlingStrategy<?> strategy;
+    private final MeterIdPrefix idPrefix;
+
+    KeyedRateLimitingThrottlingStrategyMetrics(KeyedRateLimitingThrottlingStrategy<?> strategy,
+                                               MeterIdPrefix idPrefix) {
+        this.strategy = requireNonNull(strategy, "strategy");
+        this.idPrefix = requireNonNull(idPrefix, "idPrefix");
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(idPrefix.name("keys"), strategy, KeyedRateLimitingThrottlingStrategy::numKeys)
+             .description("The approximate number of keys whose token buckets are tracked")
+             .tags(idPrefix.tags())
+             .register(registry);
+        Gauge.builder(idPrefix.name("max.keys"), strategy, KeyedRateLimitingThrottlingStrategy::maxKeys)
+             .description("The maximum number of keys whose token buckets can be tracked")
+             .tags(idPrefix.tags())
+             .register(registry);
+        FunctionCounter.builder(idPrefix.name("evictions"), strategy,
+                                KeyedRateLimitingThrottlingStrategy::numEvictions)
+                       .description("The number of token buckets evicted before they expired")
+                       .tags(idPrefix.tags())
+                       .register(registry);
+
+        final String requests = idPrefix.name("requests");
+        FunctionCounter.builder(requests, strategy, KeyedRateLimitingThrottlingStrategy::numAccepted)
+                       .tags(idPrefix.tags("result", "accepted"))
+                       .register(registry);
+        FunctionCounter.builder(requests, strategy, KeyedRateLimitingThrottlingStrategy::numRejected)
+                       .tags(idPrefix.tags("result", "rejected"))
+                       .register(registry);
+    }
+}
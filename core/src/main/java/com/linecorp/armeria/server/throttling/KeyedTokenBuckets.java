@@ -0,0 +1,197 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling;
+
+import static java.util.Objects.requireNonNull;
+
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.math.IntMath;
+
+import com.linecorp.armeria.common.util.Ticker;
+import com.linecorp.armeria.internal.common.util.ReentrantShortLock;
+
+/**
+ * A bounded set of token buckets indexed by the 64-bit hash of a key. The buckets are stored in primitive
+ * arrays organized as a set-associative table, so that no object is allocated per key. When all slots of
+ * a set are occupied, an expired slot or, if none, the least recently used slot of the set is evicted.
+ *
+ * <p>Tokens are refilled lazily when a bucket is accessed, so that idle buckets cost nothing but
+ * their slot.
+ */
+final class KeyedTokenBuckets {
+
+    private static final int WAYS = 8;
+    private static final int MAX_STRIPES = 256;
+
+    private final Ticker ticker;
+    private final double capacity;
+    private final double tokensPerNano;
+    private final long idleTimeoutNanos;
+
+    private final int setMask;
+    private final int stripeMask;
+    private final ReentrantShortLock[] locks;
+
+    // 0 means an empty slot.
+    private final long[] keyHashes;
+    private final long[] lastRefillNanos;
+    private final double[] tokens;
+
+    private final LongAdder evictions = new LongAdder();
+
+    KeyedTokenBuckets(int maxKeys, double permitsPerSecond, double capacity, long idleTimeoutNanos,
+                      Ticker ticker) {
+        this.ticker = requireNonNull(ticker, "ticker");
+        this.capacity = capacity;
+        tokensPerNano = permitsPerSecond / 1_000_000_000.0;
+        this.idleTimeoutNanos = idleTimeoutNanos;
+
+        final int numSets = IntMath.ceilingPowerOfTwo(IntMath.divide(maxKeys, WAYS, RoundingMode.CEILING));
+        setMask = numSets - 1;
+        final int numStripes = Math.min(numSets, MAX_STRIPES);
+        stripeMask = numStripes - 1;
+        locks = new ReentrantShortLock[numStripes];
+        for (int i = 0; i < numStripes; i++) {
+            locks[i] = new ReentrantShortLock();
+        }
+
+        final int numSlots = numSets * WAYS;
+        keyHashes = new long[numSlots];
+        lastRefillNanos = new long[numSlots];
+        tokens = new double[numSlots];
+    }
+
+    /**
+     * Returns the maximum number of buckets this table can hold.
+     */
+    int capacity() {
+        return keyHashes.length;
+    }
+
+    /**
+     * Acquires a permit from the bucket of the specified key, creating the bucket if absent.
+     *
+     * @return {@code true} if a permit was acquired, or {@code false} if the bucket is exhausted.
+     */
+    boolean tryAcquire(String key) {
+        final long keyHash = hash(key);
+        final int set = (int) (keyHash >>> 32) & setMask;
+        final int base = set * WAYS;
+        final long now = ticker.read();
+
+        final ReentrantShortLock lock = locks[set & stripeMask];
+        lock.lock();
+        try {
+            int free = -1;
+            int lru = base;
+            for (int i = base; i < base + WAYS; i++) {
+                final long h = keyHashes[i];
+                if (h == keyHash) {
+                    return acquire(i, now);
+                }
+                if (free < 0) {
+                    if (h == 0 || isExpired(lastRefillNanos[i], now)) {
+                        free = i;
+                    } else if (lastRefillNanos[i] - lastRefillNanos[lru] < 0) {
+                        lru = i;
+                    }
+                }
+            }
+
+            final int slot;
+            if (free >= 0) {
+                slot = free;
+            } else {
+                slot = lru;
+                evictions.increment();
+            }
+            keyHashes[slot] = keyHash;
+            lastRefillNanos[slot] = now;
+            tokens[slot] = capacity - 1;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean acquire(int slot, long now) {
+        final long lastRefill = lastRefillNanos[slot];
+        double available;
+        if (isExpired(lastRefill, now)) {
+            available = capacity;
+        } else {
+            available = Math.min(capacity, tokens[slot] + (now - lastRefill) * tokensPerNano);
+        }
+        lastRefillNanos[slot] = now;
+
+        final boolean acquired;
+        if (available >= 1) {
+            available -= 1;
+            acquired = true;
+        } else {
+            acquired = false;
+        }
+        tokens[slot] = available;
+        return acquired;
+    }
+
+    private boolean isExpired(long lastAccessNanos, long now) {
+        return now - lastAccessNanos >= idleTimeoutNanos;
+    }
+
+    /**
+     * Returns the number of buckets which were accessed within the idle timeout.
+     * The returned value is approximate because the table is scanned without locking.
+     */
+    int size() {
+        final long now = ticker.read();
+        int size = 0;
+        for (int i = 0; i < keyHashes.length; i++) {
+            if (keyHashes[i] != 0 && !isExpired(lastRefillNanos[i], now)) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of live buckets evicted to make room for other keys.
+     */
+    long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the 64-bit hash of the specified key, which is never {@code 0}.
+     */
+    static long hash(String key) {
+        // FNV-1a followed by the MurmurHash3 finalizer to spread the bits.
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h != 0 ? h : 1;
+    }
+}
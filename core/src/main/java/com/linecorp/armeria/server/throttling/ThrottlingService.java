@@ -17,9 +17,11 @@ package com.linecorp.armeria.server.throttling;
 
 import java.util.function.Function;
 
+import com.linecorp.armeria.common.ExchangeType;
 import com.linecorp.armeria.common.HttpRequest;
 import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.RoutingContext;
 
 /**
  * Decorates an {@link HttpService} to throttle incoming requests.
@@ -64,4 +66,9 @@ public final class ThrottlingService extends AbstractThrottlingService<HttpReque
                       ThrottlingRejectHandler<HttpRequest, HttpResponse> rejectHandler) {
         super(delegate, strategy, HttpResponse::of, acceptHandler, rejectHandler);
     }
+
+    @Override
+    public ExchangeType exchangeType(RoutingContext routingContext) {
+        return ((HttpService) unwrap()).exchangeType(routingContext);
+    }
 }
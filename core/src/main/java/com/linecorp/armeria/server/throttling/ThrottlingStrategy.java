@@ -21,6 +21,7 @@ import java.util.function.BiFunction;
 
 import com.linecorp.armeria.common.Request;
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
 import com.linecorp.armeria.common.util.UnmodifiableFuture;
 import com.linecorp.armeria.server.ServiceRequestContext;
 
@@ -113,6 +114,24 @@ public abstract class ThrottlingStrategy<T extends Request> {
         return new RateLimitingThrottlingStrategy<>(requestsPerSecond, name);
     }
 
+    /**
+     * Returns a new {@link ThrottlingStrategy} that limits the requests per second for each key extracted
+     * by the specified {@link BiFunction}, such as a client IP address or an API key.
+     * Use {@link KeyedRateLimitingThrottlingStrategy#builder(double, BiFunction)} to customize the
+     * burst capacity or the maximum number of tracked keys.
+     *
+     * @param requestsPerSecond the number of requests per one second this {@link ThrottlingStrategy} accepts
+     *                          for each key
+     * @param keyFunction the {@link BiFunction} that extracts the key from a request. If the function
+     *                    returns {@code null}, the request is accepted without being rate-limited.
+     */
+    @UnstableApi
+    public static <T extends Request> ThrottlingStrategy<T> keyedRateLimiting(
+            double requestsPerSecond,
+            BiFunction<? super ServiceRequestContext, ? super T, ? extends @Nullable String> keyFunction) {
+        return KeyedRateLimitingThrottlingStrategy.<T>builder(requestsPerSecond, keyFunction).build();
+    }
+
     private final String name;
 
     /**
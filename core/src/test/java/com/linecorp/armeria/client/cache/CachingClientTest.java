@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.client.BlockingWebClient;
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.ClientRequestContextCaptor;
+import com.linecorp.armeria.client.Clients;
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+class CachingClientTest {
+
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) {
+            sb.service("/private", (ctx, req) -> HttpResponse.of(
+                    ResponseHeaders.builder(HttpStatus.OK)
+                                   .set(HttpHeaderNames.CACHE_CONTROL, "private, max-age=60")
+                                   .build(),
+                    HttpData.ofUtf8(String.valueOf(counter.incrementAndGet()))));
+        }
+    };
+
+    @Test
+    void cachePrivateResponseInPrivateCache() {
+        counter.set(0);
+        final BlockingWebClient client = WebClient.builder(server.httpUri())
+                                                  .decorator(CachingClient.newDecorator())
+                                                  .build()
+                                                  .blocking();
+        assertThat(client.get("/private").contentUtf8()).isEqualTo("1");
+
+        final AggregatedHttpResponse cached;
+        final ClientRequestContext ctx;
+        try (ClientRequestContextCaptor captor = Clients.newContextCaptor()) {
+            cached = client.get("/private");
+            ctx = captor.get();
+        }
+        assertThat(cached.contentUtf8()).isEqualTo("1");
+        assertThat(cached.headers().contains(HttpHeaderNames.AGE)).isTrue();
+        assertThat(counter.get()).isOne();
+        // The log is completed even if the response was served from the cache.
+        assertThat(ctx.log().whenComplete().join().responseHeaders().status()).isSameAs(HttpStatus.OK);
+    }
+
+    @Test
+    void doNotCachePrivateResponseInSharedCache() {
+        counter.set(0);
+        final BlockingWebClient client = WebClient.builder(server.httpUri())
+                                                  .decorator(CachingClient.builder()
+                                                                          .shared(true)
+                                                                          .newDecorator())
+                                                  .build()
+                                                  .blocking();
+        assertThat(client.get("/private").contentUtf8()).isEqualTo("1");
+        assertThat(client.get("/private").contentUtf8()).isEqualTo("2");
+    }
+}
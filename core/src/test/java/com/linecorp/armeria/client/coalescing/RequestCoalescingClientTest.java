@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.coalescing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.ClientRequestContextCaptor;
+import com.linecorp.armeria.client.Clients;
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+class RequestCoalescingClientTest {
+
+    private static final AtomicInteger numRequests = new AtomicInteger();
+    private static final CompletableFuture<Void> gate = new CompletableFuture<>();
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) {
+            sb.service("/slow", (ctx, req) -> {
+                final int n = numRequests.incrementAndGet();
+                return HttpResponse.of(gate.thenApply(unused -> HttpResponse.of(
+                        HttpStatus.OK, MediaType.PLAIN_TEXT_UTF_8, String.valueOf(n))));
+            });
+        }
+    };
+
+    @Test
+    void coalesceConcurrentRequests() {
+        final AtomicInteger numArrivals = new AtomicInteger();
+        final WebClient client =
+                WebClient.builder(server.httpUri())
+                         .decorator(RequestCoalescingClient.newDecorator())
+                         // Counts the requests which have passed through RequestCoalescingClient.
+                         .decorator((delegate, ctx, req) -> {
+                             final HttpResponse res = delegate.execute(ctx, req);
+                             numArrivals.incrementAndGet();
+                             return res;
+                         })
+                         .build();
+
+        final CompletableFuture<AggregatedHttpResponse> res1 = client.get("/slow").aggregate();
+        final CompletableFuture<AggregatedHttpResponse> res2;
+        final ClientRequestContext ctx2;
+        try (ClientRequestContextCaptor captor = Clients.newContextCaptor()) {
+            res2 = client.get("/slow").aggregate();
+            ctx2 = captor.get();
+        }
+        await().untilAtomic(numArrivals, Matchers.is(2));
+        gate.complete(null);
+
+        assertThat(res1.join().contentUtf8()).isEqualTo("1");
+        assertThat(res2.join().contentUtf8()).isEqualTo("1");
+        assertThat(numRequests).hasValue(1);
+
+        // The log of the coalesced request is completed as well.
+        final RequestLog log = ctx2.log().whenComplete().join();
+        assertThat(log.responseHeaders().status()).isSameAs(HttpStatus.OK);
+        assertThat(log.responseCause()).isNull();
+    }
+}
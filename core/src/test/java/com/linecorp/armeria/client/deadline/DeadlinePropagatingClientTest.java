@@ -0,0 +1,199 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.deadline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.client.BlockingWebClient;
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.ClientRequestContextCaptor;
+import com.linecorp.armeria.client.Clients;
+import com.linecorp.armeria.client.ResponseTimeoutException;
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+class DeadlinePropagatingClientTest {
+
+    private static final BlockingQueue<RequestHeaders> downstreamHeaders = new LinkedBlockingQueue<>();
+    private static final BlockingQueue<ClientRequestContext> clientContexts = new LinkedBlockingQueue<>();
+    private static final BlockingQueue<HttpResponse> clientResponses = new LinkedBlockingQueue<>();
+    private static final BlockingQueue<ServiceRequestContext> serverContexts = new LinkedBlockingQueue<>();
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) {
+            sb.service("/downstream", (ctx, req) -> {
+                downstreamHeaders.add(req.headers());
+                return HttpResponse.delayed(HttpResponse.of(200), Duration.ofSeconds(10));
+            });
+            sb.service("/upstream", (ctx, req) -> {
+                ctx.setRequestTimeout(Duration.ofMillis(500));
+                return upstream();
+            });
+            sb.service("/upstream/cancel", (ctx, req) -> {
+                ctx.setRequestTimeout(Duration.ofSeconds(10));
+                ctx.eventLoop().schedule(() -> ctx.cancel(), 200, TimeUnit.MILLISECONDS);
+                return upstream();
+            });
+            sb.service("/upstream/no-timeout", (ctx, req) -> {
+                ctx.clearRequestTimeout();
+                return upstream();
+            });
+            sb.service("/upstream/expired", (ctx, req) -> {
+                ctx.setRequestTimeout(Duration.ofSeconds(5));
+                // The safety margin is longer than the remaining time.
+                final WebClient client =
+                        WebClient.builder(server.httpUri())
+                                 .decorator(DeadlinePropagatingClient.builder()
+                                                                     .safetyMargin(Duration.ofSeconds(10))
+                                                                     .newDecorator())
+                                 .build();
+                try (ClientRequestContextCaptor captor = Clients.newContextCaptor()) {
+                    clientResponses.add(client.get("/downstream"));
+                    clientContexts.add(captor.get());
+                }
+                return HttpResponse.of(200);
+            });
+            sb.service("/downstream/fast", (ctx, req) -> HttpResponse.of(200));
+            sb.service("/upstream/sequential", (ctx, req) -> HttpResponse.of(() -> {
+                ctx.setRequestTimeout(Duration.ofSeconds(10));
+                serverContexts.add(ctx);
+                final BlockingWebClient client = newClient().blocking();
+                for (int i = 0; i < 3; i++) {
+                    client.get("/downstream/fast");
+                }
+                return HttpResponse.of(200);
+            }, ctx.blockingTaskExecutor()));
+        }
+    };
+
+    private static WebClient newClient() {
+        return WebClient.builder(server.httpUri())
+                        .responseTimeout(Duration.ofSeconds(5))
+                        .decorator(DeadlinePropagatingClient.builder()
+                                                            .timeoutHeader("X-Timeout-Millis")
+                                                            .newDecorator())
+                        .build();
+    }
+
+    private static HttpResponse upstream() {
+        final WebClient client = newClient();
+        try (ClientRequestContextCaptor captor = Clients.newContextCaptor()) {
+            final HttpResponse res = client.get("/downstream");
+            clientContexts.add(captor.get());
+            return res;
+        }
+    }
+
+    @BeforeEach
+    void clear() {
+        downstreamHeaders.clear();
+        clientContexts.clear();
+        clientResponses.clear();
+        serverContexts.clear();
+    }
+
+    @Test
+    void propagateDeadline() throws Exception {
+        server.blockingWebClient().get("/upstream");
+
+        final RequestHeaders headers = downstreamHeaders.take();
+        final long timeoutMillis = Long.parseLong(headers.get("x-timeout-millis"));
+        assertThat(timeoutMillis).isPositive().isLessThanOrEqualTo(490);
+        final String grpcTimeout = headers.get("grpc-timeout");
+        assertThat(grpcTimeout).endsWith("u");
+        assertThat(Long.parseLong(grpcTimeout.substring(0, grpcTimeout.length() - 1)))
+                .isLessThanOrEqualTo(490_000);
+
+        final ClientRequestContext ctx = clientContexts.take();
+        assertThat(ctx.responseTimeoutMillis()).isLessThanOrEqualTo(490);
+        final RequestLog log = ctx.log().whenComplete().join();
+        assertThat(log.responseCause()).isInstanceOf(ResponseTimeoutException.class);
+    }
+
+    @Test
+    void propagateCancellation() throws Exception {
+        // The upstream request is reset by the server.
+        server.webClient().get("/upstream/cancel").aggregate();
+        downstreamHeaders.take();
+        final ClientRequestContext ctx = clientContexts.take();
+        await().untilAsserted(() -> assertThat(ctx.isCancelled()).isTrue());
+        // The response timeout was not shortened because the deadline was far enough.
+        assertThat(ctx.responseTimeoutMillis()).isEqualTo(5000);
+    }
+
+    @Test
+    void failWithoutSendingRequestIfDeadlineExceeded() throws Exception {
+        assertThat(server.blockingWebClient().get("/upstream/expired").status()).isEqualTo(HttpStatus.OK);
+        final HttpResponse res = clientResponses.take();
+        assertThatThrownBy(() -> res.aggregate().join())
+                .hasCauseInstanceOf(ResponseTimeoutException.class);
+        final RequestLog log = clientContexts.take().log().whenComplete().join();
+        assertThat(log.responseCause()).isInstanceOf(ResponseTimeoutException.class);
+        assertThat(downstreamHeaders).isEmpty();
+    }
+
+    @Test
+    void forgetCompletedRequests() throws Exception {
+        assertThat(server.blockingWebClient().get("/upstream/sequential").status())
+                .isEqualTo(HttpStatus.OK);
+        final ServiceRequestContext ctx = serverContexts.take();
+        final Set<ClientRequestContext> pending = ctx.ownAttr(DeadlinePropagatingClient.PENDING_REQUESTS);
+        assertThat(pending).isNotNull();
+        // The client requests are removed once completed.
+        await().untilAsserted(() -> assertThat(pending).isEmpty());
+    }
+
+    @Test
+    void noDeadline() throws Exception {
+        server.webClient().get("/upstream/no-timeout");
+        final RequestHeaders headers = downstreamHeaders.take();
+        assertThat(headers.contains("grpc-timeout")).isFalse();
+        assertThat(headers.contains("x-timeout-millis")).isFalse();
+        assertThat(clientContexts.take().responseTimeoutMillis()).isEqualTo(5000);
+    }
+
+    @Test
+    void grpcTimeoutFormat() {
+        assertThat(DeadlinePropagatingClient.toGrpcTimeout(99_999_999)).isEqualTo("99999999n");
+        assertThat(DeadlinePropagatingClient.toGrpcTimeout(100_000_000)).isEqualTo("100000u");
+        assertThat(DeadlinePropagatingClient.toGrpcTimeout(TimeUnit.SECONDS.toNanos(100_000)))
+                .isEqualTo("100000S");
+        assertThat(DeadlinePropagatingClient.toGrpcTimeout(TimeUnit.DAYS.toNanos(10000)))
+                .isEqualTo("14400000M");
+        assertThat(DeadlinePropagatingClient.toGrpcTimeout(Long.MAX_VALUE)).isEqualTo("2562047H");
+    }
+}
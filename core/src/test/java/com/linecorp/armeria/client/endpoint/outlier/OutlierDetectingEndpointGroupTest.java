@@ -0,0 +1,247 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.endpoint.outlier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.client.ResponseCancellationException;
+import com.linecorp.armeria.client.ResponseTimeoutException;
+import com.linecorp.armeria.client.endpoint.EndpointGroup;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.common.metric.MoreMeters;
+import com.linecorp.armeria.common.metric.PrometheusMeterRegistries;
+import com.linecorp.armeria.internal.testing.ImmediateEventLoop;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+class OutlierDetectingEndpointGroupTest {
+
+    private static final Endpoint a = Endpoint.of("a.com", 8080);
+    private static final Endpoint b = Endpoint.of("b.com", 8080);
+    private static final Endpoint c = Endpoint.of("c.com", 8080);
+    private static final Endpoint d = Endpoint.of("d.com", 8080);
+    private static final Endpoint e = Endpoint.of("e.com", 8080);
+
+    @Test
+    void ejectAndRestoreOnConsecutiveErrors() {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        try (OutlierDetectingEndpointGroup group =
+                     OutlierDetectingEndpointGroup.builder(EndpointGroup.of(a, b, c))
+                                                  .consecutiveErrors(3)
+                                                  .interval(Duration.ofMillis(100))
+                                                  .baseEjectionDuration(Duration.ofMillis(500))
+                                                  .listener(new OutlierEjectionListener() {
+                                                      @Override
+                                                      public void onEjected(Endpoint endpoint,
+                                                                            OutlierEjectionReason reason,
+                                                                            Duration ejectionDuration) {
+                                                          events.add("ejected " + endpoint.host() + ' ' +
+                                                                     reason + ' ' + ejectionDuration);
+                                                      }
+
+                                                      @Override
+                                                      public void onRestored(Endpoint endpoint) {
+                                                          events.add("restored " + endpoint.host());
+                                                      }
+                                                  })
+                                                  .build()) {
+            final MeterRegistry registry = PrometheusMeterRegistries.newRegistry();
+            group.newMeterBinder("foo").bindTo(registry);
+
+            respond(group, a, HttpStatus.INTERNAL_SERVER_ERROR);
+            respond(group, a, HttpStatus.INTERNAL_SERVER_ERROR);
+            // A success resets the number of consecutive errors.
+            respond(group, a, HttpStatus.OK);
+            respond(group, a, HttpStatus.INTERNAL_SERVER_ERROR);
+            respond(group, a, HttpStatus.SERVICE_UNAVAILABLE);
+            assertThat(group.endpoints()).containsExactly(a, b, c);
+
+            fail(group, a, ResponseTimeoutException.get());
+            assertThat(group.endpoints()).containsExactly(b, c);
+            assertThat(group.ejectedEndpoints()).containsExactly(a);
+            assertThat(events).containsExactly("ejected a.com CONSECUTIVE_ERRORS PT0.5S");
+            assertThat(MoreMeters.measureAll(registry))
+                    .containsEntry("armeria.client.endpoint.group.outlier.count#value{name=foo,state=active}",
+                                   2.0)
+                    .containsEntry("armeria.client.endpoint.group.outlier.count#value{name=foo,state=ejected}",
+                                   1.0)
+                    .containsEntry("armeria.client.endpoint.group.outlier.ejections#count" +
+                                   "{name=foo,reason=consecutive_errors}", 1.0);
+
+            await().untilAsserted(() -> assertThat(group.endpoints()).containsExactly(a, b, c));
+            assertThat(events).containsExactly("ejected a.com CONSECUTIVE_ERRORS PT0.5S", "restored a.com");
+
+            // The ejection duration grows if ejected again.
+            for (int i = 0; i < 3; i++) {
+                respond(group, a, HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+            assertThat(group.endpoints()).containsExactly(b, c);
+            assertThat(events).last().isEqualTo("ejected a.com CONSECUTIVE_ERRORS PT1S");
+        }
+    }
+
+    @Test
+    void ejectOnConsecutiveGatewayErrors() {
+        try (OutlierDetectingEndpointGroup group =
+                     OutlierDetectingEndpointGroup.builder(EndpointGroup.of(a, b, c))
+                                                  .consecutiveErrors(0)
+                                                  .consecutiveGatewayErrors(2)
+                                                  .build()) {
+            respond(group, a, HttpStatus.BAD_GATEWAY);
+            // A non-gateway error resets the number of consecutive gateway errors.
+            respond(group, a, HttpStatus.INTERNAL_SERVER_ERROR);
+            respond(group, a, HttpStatus.GATEWAY_TIMEOUT);
+            assertThat(group.endpoints()).containsExactly(a, b, c);
+
+            respond(group, a, HttpStatus.SERVICE_UNAVAILABLE);
+            assertThat(group.endpoints()).containsExactly(b, c);
+            assertThat(group.numEjections(OutlierEjectionReason.CONSECUTIVE_GATEWAY_ERRORS)).isOne();
+        }
+    }
+
+    @Test
+    void maxEjectionPercent() {
+        try (OutlierDetectingEndpointGroup group =
+                     OutlierDetectingEndpointGroup.builder(EndpointGroup.of(a, b, c))
+                                                  .consecutiveErrors(1)
+                                                  .build()) {
+            // At least one endpoint can be ejected even if 10% of the endpoints is less than one.
+            respond(group, a, HttpStatus.INTERNAL_SERVER_ERROR);
+            respond(group, b, HttpStatus.INTERNAL_SERVER_ERROR);
+            assertThat(group.endpoints()).containsExactly(b, c);
+        }
+
+        try (OutlierDetectingEndpointGroup group =
+                     OutlierDetectingEndpointGroup.builder(EndpointGroup.of(a))
+                                                  .consecutiveErrors(1)
+                                                  .build()) {
+            // The only endpoint is never ejected.
+            respond(group, a, HttpStatus.INTERNAL_SERVER_ERROR);
+            assertThat(group.endpoints()).containsExactly(a);
+        }
+    }
+
+    @Test
+    void ejectOnSuccessRate() {
+        try (OutlierDetectingEndpointGroup group =
+                     OutlierDetectingEndpointGroup.builder(EndpointGroup.of(a, b, c, d, e))
+                                                  .consecutiveErrors(0)
+                                                  .minimumRequests(10)
+                                                  .interval(Duration.ofMillis(200))
+                                                  .build()) {
+            for (int i = 0; i < 10; i++) {
+                respond(group, a, i % 2 == 0 ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR);
+                for (Endpoint endpoint : new Endpoint[] { b, c, d, e }) {
+                    respond(group, endpoint, HttpStatus.OK);
+                }
+            }
+            await().untilAsserted(() -> assertThat(group.ejectedEndpoints()).containsExactly(a));
+            assertThat(group.numEjections(OutlierEjectionReason.SUCCESS_RATE)).isOne();
+        }
+    }
+
+    @Test
+    void ejectOnLatency() {
+        try (OutlierDetectingEndpointGroup group =
+                     OutlierDetectingEndpointGroup.builder(EndpointGroup.of(a, b, c, d, e))
+                                                  .successRateStdevFactor(0)
+                                                  .latencyFactor(5)
+                                                  .minimumRequests(10)
+                                                  .interval(Duration.ofMillis(200))
+                                                  .build()) {
+            for (int i = 0; i < 10; i++) {
+                respond(group, a, HttpStatus.OK, TimeUnit.SECONDS.toNanos(1));
+                for (Endpoint endpoint : new Endpoint[] { b, c, d, e }) {
+                    respond(group, endpoint, HttpStatus.OK, TimeUnit.MILLISECONDS.toNanos(10));
+                }
+            }
+            await().untilAsserted(() -> assertThat(group.ejectedEndpoints()).containsExactly(a));
+            assertThat(group.numEjections(OutlierEjectionReason.LATENCY)).isOne();
+        }
+    }
+
+    @Test
+    void cancellationIsNotAnError() {
+        try (OutlierDetectingEndpointGroup group =
+                     OutlierDetectingEndpointGroup.builder(EndpointGroup.of(a, b))
+                                                  .consecutiveErrors(1)
+                                                  .build()) {
+            fail(group, a, ResponseCancellationException.get());
+            assertThat(group.endpoints()).containsExactly(a, b);
+        }
+    }
+
+    @Test
+    void watchSelectedEndpoints() {
+        try (OutlierDetectingEndpointGroup group =
+                     OutlierDetectingEndpointGroup.builder(EndpointGroup.of(a, b))
+                                                  .consecutiveErrors(1)
+                                                  .build()) {
+            final ClientRequestContext ctx = newContext(System.nanoTime());
+            final Endpoint selected = group.selectNow(ctx);
+            assertThat(selected).isNotNull();
+            complete(ctx, HttpStatus.INTERNAL_SERVER_ERROR);
+            assertThat(group.ejectedEndpoints()).containsExactly(selected);
+        }
+    }
+
+    private static void respond(OutlierDetectingEndpointGroup group, Endpoint endpoint, HttpStatus status) {
+        respond(group, endpoint, status, 0);
+    }
+
+    private static void respond(OutlierDetectingEndpointGroup group, Endpoint endpoint, HttpStatus status,
+                                long latencyNanos) {
+        final ClientRequestContext ctx = newContext(System.nanoTime() - latencyNanos);
+        group.watch(ctx, endpoint);
+        complete(ctx, status);
+    }
+
+    private static void fail(OutlierDetectingEndpointGroup group, Endpoint endpoint, Throwable cause) {
+        final ClientRequestContext ctx = newContext(System.nanoTime());
+        group.watch(ctx, endpoint);
+        ctx.logBuilder().endRequest();
+        ctx.logBuilder().endResponse(cause);
+    }
+
+    private static ClientRequestContext newContext(long requestStartTimeNanos) {
+        // Use ImmediateEventLoop to complete the RequestLog synchronously.
+        return ClientRequestContext.builder(HttpRequest.of(HttpMethod.GET, "/"))
+                                   .eventLoop(ImmediateEventLoop.INSTANCE)
+                                   .requestStartTime(requestStartTimeNanos,
+                                                     TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()))
+                                   .build();
+    }
+
+    private static void complete(ClientRequestContext ctx, HttpStatus status) {
+        ctx.logBuilder().endRequest();
+        ctx.logBuilder().responseHeaders(ResponseHeaders.of(status));
+        ctx.logBuilder().endResponse();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.sse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+class ServerSentEventHubTest {
+
+    private static final ServerSentEventHub hub = ServerSentEventHub.of();
+    private static final ServerSentEventHub heartbeatHub =
+            ServerSentEventHub.builder().heartbeatIntervalMillis(100).build();
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) {
+            sb.service("/events", (ctx, req) -> hub.newResponse());
+            sb.service("/heartbeat", (ctx, req) -> heartbeatHub.newResponse());
+        }
+    };
+
+    @Test
+    void broadcast() {
+        final WebClient client = server.webClient();
+        final CompletableFuture<AggregatedHttpResponse> res1 = client.get("/events").aggregate();
+        final CompletableFuture<AggregatedHttpResponse> res2 = client.get("/events").aggregate();
+        await().untilAsserted(() -> assertThat(hub.numSubscribers()).isEqualTo(2));
+
+        hub.publish(ServerSentEvent.ofData("foo"));
+        hub.publish(ServerSentEvent.empty());
+        hub.publish(ServerSentEvent.builder().id("1").event("add").data("bar\nbaz").build());
+        hub.close();
+
+        for (CompletableFuture<AggregatedHttpResponse> future : ImmutableList.of(res1, res2)) {
+            final AggregatedHttpResponse res = future.join();
+            assertThat(res.status()).isEqualTo(HttpStatus.OK);
+            assertThat(res.headers().contentType()).isEqualTo(MediaType.EVENT_STREAM);
+            assertThat(res.contentUtf8()).isEqualTo("data:foo\n\nid:1\nevent:add\ndata:bar\ndata:baz\n\n");
+        }
+        await().untilAsserted(() -> assertThat(hub.numSubscribers()).isZero());
+        assertThat(hub.numDroppedMessages()).isZero();
+
+        // A response created after close() is completed immediately.
+        assertThat(client.get("/events").aggregate().join().contentUtf8()).isEmpty();
+    }
+
+    @Test
+    void heartbeat() throws Exception {
+        final CompletableFuture<AggregatedHttpResponse> future =
+                server.webClient().get("/heartbeat").aggregate();
+        await().untilAsserted(() -> assertThat(heartbeatHub.numSubscribers()).isOne());
+        Thread.sleep(500);
+        heartbeatHub.close();
+        assertThat(future.join().contentUtf8()).startsWith(":\n:\n");
+    }
+}
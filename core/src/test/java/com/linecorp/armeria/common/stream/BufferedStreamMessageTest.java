@@ -0,0 +1,159 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.google.common.collect.ImmutableList;
+
+class BufferedStreamMessageTest {
+
+    @Test
+    void bufferBySize() {
+        final StreamMessage<List<Integer>> buffered = StreamMessage.of(1, 2, 3, 4, 5).buffer(2);
+        assertThat(buffered.collect().join()).containsExactly(ImmutableList.of(1, 2),
+                                                              ImmutableList.of(3, 4),
+                                                              ImmutableList.of(5));
+    }
+
+    @Test
+    void requestAtMostMaxSizeForEachBuffer() throws Exception {
+        final StreamWriter<Integer> writer = StreamMessage.streaming();
+        final BufferCollector collector = new BufferCollector(1);
+        writer.buffer(3).subscribe(collector);
+
+        await().untilAsserted(() -> assertThat(writer.demand()).isEqualTo(3));
+        for (int i = 0; i < 3; i++) {
+            writer.write(i);
+        }
+        assertThat(collector.buffers.poll(10, TimeUnit.SECONDS)).containsExactly(0, 1, 2);
+        // The subscriber didn't request more.
+        assertThat(writer.demand()).isZero();
+
+        collector.subscription().request(2);
+        await().untilAsserted(() -> assertThat(writer.demand()).isEqualTo(3));
+        for (int i = 3; i < 7; i++) {
+            writer.write(i);
+        }
+        writer.close();
+        assertThat(collector.buffers.poll(10, TimeUnit.SECONDS)).containsExactly(3, 4, 5);
+        assertThat(collector.buffers.poll(10, TimeUnit.SECONDS)).containsExactly(6);
+        writer.whenComplete().join();
+    }
+
+    @Test
+    void bufferByTime() throws Exception {
+        final StreamWriter<Integer> writer = StreamMessage.streaming();
+        final BufferCollector collector = new BufferCollector(Long.MAX_VALUE);
+        writer.buffer(100, Duration.ofMillis(200)).subscribe(collector);
+
+        writer.write(1);
+        writer.write(2);
+        final long startNanos = System.nanoTime();
+        assertThat(collector.buffers.poll(10, TimeUnit.SECONDS)).containsExactly(1, 2);
+        assertThat(System.nanoTime() - startNanos).isGreaterThanOrEqualTo(
+                TimeUnit.MILLISECONDS.toNanos(100));
+
+        writer.write(3);
+        writer.close();
+        assertThat(collector.buffers.poll(10, TimeUnit.SECONDS)).containsExactly(3);
+    }
+
+    @Test
+    void timedOutBufferIsEmittedOnRequest() throws Exception {
+        final StreamWriter<Integer> writer = StreamMessage.streaming();
+        final BufferCollector collector = new BufferCollector(1);
+        writer.buffer(3, Duration.ofMillis(100)).subscribe(collector);
+
+        writer.write(1);
+        assertThat(collector.buffers.poll(10, TimeUnit.SECONDS)).containsExactly(1);
+
+        // The remaining elements requested for the first buffer are buffered even if the subscriber
+        // didn't request, but they are not emitted until the subscriber requests.
+        writer.write(2);
+        Thread.sleep(300);
+        assertThat(collector.buffers).isEmpty();
+
+        collector.subscription().request(1);
+        assertThat(collector.buffers.poll(10, TimeUnit.SECONDS)).containsExactly(2);
+        writer.abort();
+    }
+
+    @Test
+    void abort() {
+        final StreamWriter<Integer> writer = StreamMessage.streaming();
+        writer.write(1);
+        final StreamMessage<List<Integer>> buffered = writer.buffer(10);
+        writer.abort(new IllegalStateException("foo"));
+        assertThatThrownBy(() -> buffered.collect().join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void invalidArguments() {
+        final StreamMessage<Integer> stream = StreamMessage.of(1);
+        assertThatThrownBy(() -> stream.buffer(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> stream.buffer(1, Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static final class BufferCollector implements Subscriber<List<Integer>> {
+
+        final BlockingQueue<List<Integer>> buffers = new LinkedBlockingQueue<>();
+        private final AtomicReference<Subscription> subscription = new AtomicReference<>();
+        private final long initialRequest;
+
+        BufferCollector(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        Subscription subscription() {
+            return subscription.get();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            subscription.set(s);
+            s.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(List<Integer> buffer) {
+            buffers.add(buffer);
+        }
+
+        @Override
+        public void onError(Throwable t) {}
+
+        @Override
+        public void onComplete() {}
+    }
+}
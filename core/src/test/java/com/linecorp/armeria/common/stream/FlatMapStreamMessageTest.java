@@ -0,0 +1,207 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.google.common.collect.ImmutableList;
+
+class FlatMapStreamMessageTest {
+
+    @Test
+    void flatMap() {
+        final StreamMessage<Integer> flattened =
+                StreamMessage.of(1, 2, 3).flatMap(x -> StreamMessage.of(x, x * 10));
+        assertThat(flattened.collect().join()).containsExactlyInAnyOrder(1, 10, 2, 20, 3, 30);
+        assertThat(flattened.whenComplete()).isCompleted();
+    }
+
+    @Test
+    void flatMapWithMaxConcurrency() {
+        final List<StreamWriter<Integer>> inners = new CopyOnWriteArrayList<>();
+        final StreamMessage<Integer> flattened = StreamMessage.of(1, 2, 3, 4).flatMap(x -> {
+            final StreamWriter<Integer> writer = StreamMessage.streaming();
+            inners.add(writer);
+            return writer;
+        }, 2);
+        final List<Integer> received = new CopyOnWriteArrayList<>();
+        flattened.subscribe(new RequestingSubscriber(received, Long.MAX_VALUE));
+
+        await().untilAsserted(() -> assertThat(inners).hasSize(2));
+        inners.get(1).write(2);
+        inners.get(0).write(1);
+        await().untilAsserted(() -> assertThat(received).containsExactly(2, 1));
+
+        // The third source is subscribed only after one of the inner streams is completed.
+        inners.get(1).close();
+        await().untilAsserted(() -> assertThat(inners).hasSize(3));
+        inners.get(0).close();
+        await().untilAsserted(() -> assertThat(inners).hasSize(4));
+        inners.get(2).close();
+        assertThat(flattened.whenComplete()).isNotDone();
+        inners.get(3).write(4);
+        inners.get(3).close();
+        flattened.whenComplete().join();
+        assertThat(received).containsExactly(2, 1, 4);
+    }
+
+    @Test
+    void merge() {
+        final StreamWriter<String> writer1 = StreamMessage.streaming();
+        final StreamWriter<String> writer2 = StreamMessage.streaming();
+        final StreamMessage<String> merged = StreamMessage.merge(writer1, writer2);
+        final List<String> received = new CopyOnWriteArrayList<>();
+        merged.subscribe(new RequestingSubscriber(received, Long.MAX_VALUE));
+
+        writer2.write("b1");
+        await().untilAsserted(() -> assertThat(received).containsExactly("b1"));
+        writer1.write("a1");
+        await().untilAsserted(() -> assertThat(received).containsExactly("b1", "a1"));
+        writer2.write("b2");
+        writer1.close();
+        writer2.close();
+        merged.whenComplete().join();
+        assertThat(received).containsExactly("b1", "a1", "b2");
+    }
+
+    @Test
+    void mergeRespectsDemand() {
+        final List<Integer> range1 = IntStream.range(0, 100).boxed().collect(ImmutableList.toImmutableList());
+        final List<Integer> range2 = IntStream.range(100, 200).boxed().collect(ImmutableList.toImmutableList());
+        final StreamMessage<Integer> merged =
+                StreamMessage.merge(StreamMessage.of(range1.toArray(new Integer[0])),
+                                    StreamMessage.of(range2.toArray(new Integer[0])));
+        final List<Integer> received = new CopyOnWriteArrayList<>();
+        final RequestingSubscriber subscriber = new RequestingSubscriber(received, 1);
+        merged.subscribe(subscriber);
+
+        await().untilAsserted(() -> assertThat(received).hasSize(1));
+        for (int i = 1; i < 200; i++) {
+            subscriber.subscription.request(1);
+            final int expectedSize = i + 1;
+            await().untilAsserted(() -> assertThat(received).hasSize(expectedSize));
+        }
+        merged.whenComplete().join();
+        assertThat(received).containsExactlyInAnyOrderElementsOf(
+                ImmutableList.<Integer>builder().addAll(range1).addAll(range2).build());
+    }
+
+    @Test
+    void mergeEmpty() {
+        assertThat(StreamMessage.merge(ImmutableList.of()).collect().join()).isEmpty();
+    }
+
+    @Test
+    void innerFailureCancelsOthers() {
+        final StreamWriter<String> writer1 = StreamMessage.streaming();
+        final StreamWriter<String> writer2 = StreamMessage.streaming();
+        final StreamMessage<String> merged = StreamMessage.merge(writer1, writer2);
+        final List<String> received = new CopyOnWriteArrayList<>();
+        merged.subscribe(new RequestingSubscriber(received, Long.MAX_VALUE));
+
+        writer1.abort(new IllegalStateException("foo"));
+        assertThatThrownBy(() -> merged.whenComplete().join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> writer2.whenComplete().join())
+                .isInstanceOf(CompletionException.class);
+    }
+
+    @Test
+    void functionFailure() {
+        final StreamMessage<Integer> flattened = StreamMessage.of(1, 2).flatMap(x -> {
+            throw new IllegalArgumentException("bar");
+        });
+        assertThatThrownBy(() -> flattened.collect().join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cancel() {
+        final StreamWriter<String> writer1 = StreamMessage.streaming();
+        final StreamWriter<String> writer2 = StreamMessage.streaming();
+        final StreamMessage<String> merged = StreamMessage.merge(writer1, writer2);
+        final RequestingSubscriber subscriber = new RequestingSubscriber(new CopyOnWriteArrayList<>(), 1);
+        merged.subscribe(subscriber);
+
+        await().untilAsserted(() -> assertThat(subscriber.subscription).isNotNull());
+        subscriber.subscription.cancel();
+        assertThatThrownBy(() -> writer1.whenComplete().join())
+                .hasCauseInstanceOf(CancelledSubscriptionException.class);
+        assertThatThrownBy(() -> writer2.whenComplete().join())
+                .hasCauseInstanceOf(CancelledSubscriptionException.class);
+    }
+
+    @Test
+    void abort() {
+        final StreamWriter<String> writer1 = StreamMessage.streaming();
+        final StreamWriter<String> writer2 = StreamMessage.streaming();
+        final StreamMessage<String> merged = StreamMessage.merge(writer1, writer2);
+        final List<String> received = new CopyOnWriteArrayList<>();
+        merged.subscribe(new RequestingSubscriber(received, Long.MAX_VALUE));
+        writer1.write("a");
+        await().untilAsserted(() -> assertThat(received).containsExactly("a"));
+
+        merged.abort();
+        assertThatThrownBy(() -> merged.whenComplete().join())
+                .hasCauseInstanceOf(AbortedStreamException.class);
+        assertThatThrownBy(() -> writer1.whenComplete().join()).isInstanceOf(CompletionException.class);
+        assertThatThrownBy(() -> writer2.whenComplete().join()).isInstanceOf(CompletionException.class);
+    }
+
+    private static final class RequestingSubscriber implements Subscriber<Object> {
+
+        private final List<? super Object> received;
+        private final long initialRequest;
+        volatile Subscription subscription;
+
+        @SuppressWarnings("unchecked")
+        RequestingSubscriber(List<?> received, long initialRequest) {
+            this.received = (List<? super Object>) received;
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            subscription = s;
+            s.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(Object o) {
+            received.add(o);
+        }
+
+        @Override
+        public void onError(Throwable t) {}
+
+        @Override
+        public void onComplete() {}
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.linecorp.armeria.common.stream.AbortedStreamException;
+import com.linecorp.armeria.common.stream.BroadcastOverflowPolicy;
+
+class WebSocketHubTest {
+
+    @Test
+    void broadcastToAllSubscribers() {
+        final WebSocketHub hub = WebSocketHub.of();
+        final WebSocketWriter writer1 = WebSocket.streaming();
+        final WebSocketWriter writer2 = WebSocket.streaming();
+        hub.subscribe(writer1);
+        hub.subscribe(writer2);
+        assertThat(hub.numSubscribers()).isEqualTo(2);
+
+        hub.publish("foo");
+        hub.publish(new byte[] { 1, 2, 3 });
+        hub.close();
+
+        for (WebSocketWriter writer : new WebSocketWriter[] { writer1, writer2 }) {
+            final List<WebSocketFrame> frames = writer.collect().join();
+            assertThat(frames).hasSize(3);
+            assertThat(frames.get(0).type()).isEqualTo(WebSocketFrameType.TEXT);
+            assertThat(frames.get(0).text()).isEqualTo("foo");
+            assertThat(frames.get(1).type()).isEqualTo(WebSocketFrameType.BINARY);
+            assertThat(frames.get(1).array()).containsExactly(1, 2, 3);
+            assertThat(frames.get(2).type()).isEqualTo(WebSocketFrameType.CLOSE);
+        }
+        assertThat(hub.numSubscribers()).isZero();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "DROP_OLDEST, 'm1,m4,m5'",
+            "DROP_NEWEST, 'm1,m2,m3'",
+            "COALESCE, 'm1,m4,m5'",
+    })
+    void overflowPolicy(BroadcastOverflowPolicy overflowPolicy, String expected) {
+        final WebSocketHub hub = WebSocketHub.builder()
+                                             .maxQueueSize(2)
+                                             .overflowPolicy(overflowPolicy)
+                                             .build();
+        final WebSocketWriter writer = WebSocket.streaming();
+        hub.subscribe(writer);
+
+        // 'm1' is written to the writer immediately, but the others are queued because nobody consumes it.
+        for (int i = 1; i <= 5; i++) {
+            hub.publish("m" + i);
+        }
+        assertThat(hub.numDroppedMessages()).isEqualTo(2);
+        hub.close();
+
+        final List<WebSocketFrame> frames = writer.collect().join();
+        assertThat(frames.stream()
+                         .filter(frame -> frame.type() == WebSocketFrameType.TEXT)
+                         .map(WebSocketFrame::text)
+                         .collect(Collectors.joining(",")))
+                .isEqualTo(expected);
+    }
+
+    @Test
+    void disconnectSlowSubscriber() {
+        final WebSocketHub hub = WebSocketHub.builder()
+                                             .maxQueueSize(2)
+                                             .overflowPolicy(BroadcastOverflowPolicy.DISCONNECT)
+                                             .build();
+        final WebSocketWriter slow = WebSocket.streaming();
+        hub.subscribe(slow);
+        for (int i = 1; i <= 4; i++) {
+            hub.publish("m" + i);
+        }
+        assertThatThrownBy(() -> slow.collect().join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(AbortedStreamException.class);
+        await().untilAsserted(() -> assertThat(hub.numSubscribers()).isZero());
+        assertThat(hub.numDroppedMessages()).isEqualTo(3);
+    }
+
+    @Test
+    void heartbeat() {
+        final WebSocketHub hub = WebSocketHub.builder().heartbeatIntervalMillis(100).build();
+        final WebSocketWriter writer = WebSocket.streaming();
+        final BlockingQueue<WebSocketFrame> received = new LinkedBlockingQueue<>();
+        writer.subscribe(new Subscriber<WebSocketFrame>() {
+            @Override
+            public void onSubscribe(Subscription s) {
+                s.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(WebSocketFrame frame) {
+                received.add(frame);
+            }
+
+            @Override
+            public void onError(Throwable t) {}
+
+            @Override
+            public void onComplete() {}
+        });
+        hub.subscribe(writer);
+
+        await().untilAsserted(() -> assertThat(received).hasSizeGreaterThanOrEqualTo(2));
+        assertThat(received).allMatch(frame -> frame.type() == WebSocketFrameType.PING);
+        hub.close();
+    }
+}
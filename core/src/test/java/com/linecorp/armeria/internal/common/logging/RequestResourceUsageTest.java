@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.util.SafeCloseable;
+
+class RequestResourceUsageTest {
+
+    private static final int ALLOCATION_SIZE = 1024 * 1024;
+
+    @SuppressWarnings("unused")
+    private static byte[] blackhole;
+
+    @BeforeAll
+    static void install() {
+        RequestResourceUsage.install();
+    }
+
+    @Test
+    void stopAccountingWhenRestoringContextWithoutUsage() {
+        final ClientRequestContext outer = ClientRequestContext.of(HttpRequest.of(HttpMethod.GET, "/outer"));
+        final ClientRequestContext inner = ClientRequestContext.of(HttpRequest.of(HttpMethod.GET, "/inner"));
+        RequestResourceUsage.start(inner);
+        final RequestResourceUsage usage = RequestResourceUsage.get(inner);
+        assumeThat(usage).isNotNull();
+        assumeThat(usage.allocatedBytes()).isNotNegative();
+
+        try (SafeCloseable ignored = outer.push()) {
+            try (SafeCloseable ignored2 = inner.push()) {
+                blackhole = new byte[ALLOCATION_SIZE];
+            }
+            final long allocatedBytes = usage.allocatedBytes();
+            assertThat(allocatedBytes).isGreaterThanOrEqualTo(ALLOCATION_SIZE);
+
+            // Allocated while the outer context without the usage is current.
+            blackhole = new byte[ALLOCATION_SIZE];
+            assertThat(usage.allocatedBytes()).isEqualTo(allocatedBytes);
+
+            try (SafeCloseable ignored2 = inner.push()) {
+                blackhole = new byte[ALLOCATION_SIZE];
+            }
+            assertThat(usage.allocatedBytes()).isGreaterThanOrEqualTo(allocatedBytes + ALLOCATION_SIZE);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common.metric;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.util.EventLoopGroups;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+
+class EventLoopMonitorMetricsTest {
+
+    @Test
+    void removeMetersWhenUnbound() throws Exception {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        final MeterIdPrefix idPrefix = new MeterIdPrefix("foo");
+        final EventLoopGroup group = EventLoopGroups.newEventLoopGroup(1);
+        final EventExecutor eventLoop = group.next();
+        try {
+            final EventLoopMonitorMetrics metrics1 = EventLoopMonitorMetrics.bind(group, registry, idPrefix);
+            final EventLoopMonitorMetrics metrics2 = EventLoopMonitorMetrics.bind(group, registry, idPrefix);
+            assertThat(metrics2).isSameAs(metrics1);
+            assertThat(registry.find("foo.event.loop.task.queue.delay").timer()).isNotNull();
+            assertThat(EventLoopMonitor.get().eventLoopState(eventLoop)).isNotNull();
+
+            // Still bound by the other.
+            metrics1.unbind(group);
+            assertThat(registry.find("foo.event.loop.task.queue.delay").timer()).isNotNull();
+            assertThat(EventLoopMonitor.get().eventLoopState(eventLoop)).isNotNull();
+
+            metrics2.unbind(group);
+            assertThat(registry.getMeters()).isEmpty();
+            assertThat(EventLoopMonitor.get().eventLoopState(eventLoop)).isNull();
+
+            // New meters are registered when bound again.
+            final EventLoopMonitorMetrics metrics3 = EventLoopMonitorMetrics.bind(group, registry, idPrefix);
+            assertThat(metrics3).isNotSameAs(metrics1);
+            assertThat(registry.find("foo.event.loop.task.queue.delay").timer()).isNotNull();
+            metrics3.unbind(group);
+            assertThat(registry.getMeters()).isEmpty();
+        } finally {
+            group.shutdownGracefully().sync();
+        }
+    }
+}
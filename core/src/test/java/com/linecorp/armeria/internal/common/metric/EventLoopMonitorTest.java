@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.common.metric;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.armeria.common.util.EventLoopGroups;
+import com.linecorp.armeria.common.util.Ticker;
+import com.linecorp.armeria.internal.common.metric.EventLoopMonitor.EventLoopState;
+import com.linecorp.armeria.internal.common.metric.EventLoopMonitor.LongTask;
+
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+
+class EventLoopMonitorTest {
+
+    @Test
+    void detectLongTask() throws Exception {
+        final EventLoopMonitor monitor = new EventLoopMonitor(TimeUnit.MILLISECONDS.toNanos(10),
+                                                              TimeUnit.MILLISECONDS.toNanos(200),
+                                                              Ticker.systemTicker());
+        final EventLoopGroup group = EventLoopGroups.newEventLoopGroup(1);
+        final AtomicInteger numProbes = new AtomicInteger();
+        final List<LongTask> longTasks = new CopyOnWriteArrayList<>();
+        try {
+            monitor.add(group, new EventLoopMonitor.Listener() {
+                @Override
+                public void onTaskQueueDelay(long delayNanos) {
+                    numProbes.incrementAndGet();
+                }
+
+                @Override
+                public void onLongTask(LongTask longTask) {
+                    longTasks.add(longTask);
+                }
+            });
+
+            final EventLoop eventLoop = group.next();
+            final EventLoopState state = monitor.eventLoopState(eventLoop);
+            assertThat(state).isNotNull();
+            await().until(() -> numProbes.get() > 1 && state.threadName() != null);
+
+            eventLoop.submit(EventLoopMonitorTest::blockEventLoop).sync();
+
+            assertThat(longTasks).hasSize(1);
+            final LongTask longTask = longTasks.get(0);
+            assertThat(longTask.threadName()).isEqualTo(state.threadName());
+            assertThat(Arrays.stream(longTask.stackTrace()).map(StackTraceElement::getMethodName))
+                    .contains("blockEventLoop");
+            assertThat(monitor.recentLongTasks()).containsExactly(longTask);
+            assertThat(state.numLongTasks()).isOne();
+
+            // The duration is updated when the event loop is unblocked.
+            await().untilAsserted(() -> assertThat(longTask.durationNanos())
+                    .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(500)));
+        } finally {
+            group.shutdownGracefully().sync();
+        }
+
+        // The event loops are not monitored anymore once shut down.
+        await().until(() -> monitor.eventLoopStates().isEmpty());
+    }
+
+    @Test
+    void stopMonitoringWhenListenersRemoved() throws Exception {
+        final EventLoopMonitor monitor = new EventLoopMonitor(TimeUnit.MILLISECONDS.toNanos(10),
+                                                              TimeUnit.MILLISECONDS.toNanos(200),
+                                                              Ticker.systemTicker());
+        final EventLoopGroup group = EventLoopGroups.newEventLoopGroup(2);
+        final EventLoopMonitor.Listener listener = new EventLoopMonitor.Listener() {
+            @Override
+            public void onTaskQueueDelay(long delayNanos) {}
+
+            @Override
+            public void onLongTask(LongTask longTask) {}
+        };
+        try {
+            monitor.add(group, listener);
+            assertThat(monitor.eventLoopStates()).hasSize(2);
+            assertThat(monitor.isRunning()).isTrue();
+
+            monitor.remove(group, listener);
+            assertThat(monitor.eventLoopStates()).isEmpty();
+            assertThat(monitor.isRunning()).isFalse();
+
+            // Can be monitored again.
+            monitor.add(group, listener);
+            assertThat(monitor.eventLoopStates()).hasSize(2);
+            assertThat(monitor.isRunning()).isTrue();
+        } finally {
+            group.shutdownGracefully().sync();
+        }
+
+        // The monitor thread stops once all event loops are shut down.
+        await().until(() -> !monitor.isRunning());
+    }
+
+    private static void blockEventLoop() {
+        try {
+            Thread.sleep(600);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
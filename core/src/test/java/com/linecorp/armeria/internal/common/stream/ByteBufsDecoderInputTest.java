@@ -294,6 +294,30 @@ class ByteBufsDecoderInputTest {
         assertThat(input.getByte(8)).isEqualTo((byte) 9);
     }
 
+    @Test
+    void indexOf() {
+        // fast
+        assertThat(indexOf(2, 3)).isEqualTo(1);
+        // across the buffers
+        assertThat(indexOf(4, 5, 6, 7, 8, 9)).isEqualTo(3);
+        assertThat(indexOf(9)).isEqualTo(8);
+        // not found
+        assertThat(indexOf(3, 5)).isEqualTo(-1);
+        assertThat(indexOf(8, 9, 10)).isEqualTo(-1);
+        assertThat(indexOf(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)).isEqualTo(-1);
+
+        // Nothing should be consumed.
+        assertThat(input.readableBytes()).isEqualTo(9);
+    }
+
+    private int indexOf(int... needle) {
+        final byte[] bytes = new byte[needle.length];
+        for (int i = 0; i < needle.length; i++) {
+            bytes[i] = (byte) needle[i];
+        }
+        return input.indexOf(bytes, ByteBufsDecoderInput.badCharacterShifts(bytes));
+    }
+
     @Test
     void addAfterClosing() {
         assertThat(input.readableBytes()).isEqualTo(9);
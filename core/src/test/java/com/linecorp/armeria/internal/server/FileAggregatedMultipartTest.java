@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.internal.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.common.base.Strings;
+
+import com.linecorp.armeria.common.ContentDisposition;
+import com.linecorp.armeria.common.ContentTooLargeException;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.multipart.BodyPart;
+import com.linecorp.armeria.common.multipart.Multipart;
+import com.linecorp.armeria.common.multipart.MultipartFile;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+class FileAggregatedMultipartTest {
+
+    @Test
+    void partsWithinLimit() throws Exception {
+        final HttpRequest req = Multipart.of(
+                BodyPart.of(ContentDisposition.of("form-data", "file1", "foo.txt"), "foo"),
+                BodyPart.of(ContentDisposition.of("form-data", "param1"), "bar")).toHttpRequest("/");
+        final ServiceRequestContext ctx = ServiceRequestContext.of(req);
+
+        final FileAggregatedMultipart multipart =
+                FileAggregatedMultipart.aggregateMultipart(ctx, req, 3).join();
+        final MultipartFile file = multipart.files().get("file1").get(0);
+        assertThat(Files.readAllBytes(file.path())).isEqualTo("foo".getBytes());
+        assertThat(multipart.params().get("param1")).containsExactly("bar");
+    }
+
+    @Test
+    void oversizedFilePart() {
+        final String filename = UUID.randomUUID() + ".txt";
+        final HttpRequest req = Multipart.of(
+                BodyPart.of(ContentDisposition.of("form-data", "file1", filename),
+                            Strings.repeat("a", 10000))).toHttpRequest("/");
+        final ServiceRequestContext ctx = ServiceRequestContext.of(req);
+
+        assertThatThrownBy(() -> FileAggregatedMultipart.aggregateMultipart(ctx, req, 1024).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(ContentTooLargeException.class);
+
+        // The incomplete file has to be removed.
+        final Path incompleteDir = ctx.config().multipartUploadsLocation().resolve("incomplete");
+        await().untilAsserted(() -> {
+            try (Stream<Path> files = Files.list(incompleteDir)) {
+                assertThat(files.filter(path -> path.toString().endsWith(filename))).isEmpty();
+            }
+        });
+    }
+
+    @Test
+    void oversizedParam() {
+        final HttpRequest req = Multipart.of(
+                BodyPart.of(ContentDisposition.of("form-data", "param1"), "armeria")).toHttpRequest("/");
+        final ServiceRequestContext ctx = ServiceRequestContext.of(req);
+
+        assertThatThrownBy(() -> FileAggregatedMultipart.aggregateMultipart(ctx, req, 3).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(ContentTooLargeException.class);
+    }
+}
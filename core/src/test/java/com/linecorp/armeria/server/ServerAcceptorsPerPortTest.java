@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.awaitility.Awaitility.await;
+
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.common.Flags;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.metric.MoreMeters;
+import com.linecorp.armeria.common.util.TransportType;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ServerAcceptorsPerPortTest {
+
+    private static final int NUM_EVENT_LOOPS = 4;
+
+    private static final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) {
+            sb.http(0);
+            sb.workerGroup(NUM_EVENT_LOOPS);
+            sb.acceptorsPerPort(NUM_EVENT_LOOPS);
+            sb.meterRegistry(meterRegistry);
+            sb.service("/", (ctx, req) -> HttpResponse.of(HttpStatus.OK));
+        }
+    };
+
+    @Test
+    void distributeConnectionsAcrossEventLoops() throws Exception {
+        final TransportType transportType = Flags.transportType();
+        assumeThat(transportType == TransportType.EPOLL || transportType == TransportType.IO_URING).isTrue();
+
+        assertThat(server.server().activePorts()).hasSize(1);
+
+        final int numConnections = 64;
+        final List<Socket> sockets = new ArrayList<>();
+        try {
+            for (int i = 0; i < numConnections; i++) {
+                sockets.add(new Socket("127.0.0.1", server.httpPort()));
+            }
+            await().until(() -> server.server().numConnections() == numConnections);
+
+            await().untilAsserted(() -> {
+                final Map<String, Double> meters = MoreMeters.measureAll(meterRegistry);
+                int sum = 0;
+                int numBusyEventLoops = 0;
+                for (int i = 0; i < NUM_EVENT_LOOPS; i++) {
+                    final Double value =
+                            meters.get("armeria.server.event.loop.connections#value{event.loop=" + i + '}');
+                    assertThat(value).isNotNull();
+                    sum += value.intValue();
+                    if (value > 0) {
+                        numBusyEventLoops++;
+                    }
+                }
+                assertThat(sum).isEqualTo(numConnections);
+                // The kernel distributes the connections across the sockets bound with SO_REUSEPORT.
+                assertThat(numBusyEventLoops).isGreaterThan(1);
+            });
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+        await().until(() -> server.server().numConnections() == 0);
+    }
+}
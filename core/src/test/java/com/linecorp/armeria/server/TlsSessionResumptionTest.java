@@ -0,0 +1,130 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.client.ClientFactory;
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.SessionProtocol;
+import com.linecorp.armeria.common.metric.MoreMeters;
+import com.linecorp.armeria.common.util.Ticker;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TlsSessionResumptionTest {
+
+    private static final MeterRegistry serverMeterRegistry = new SimpleMeterRegistry();
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) {
+            sb.https(0);
+            sb.tlsSelfSigned();
+            sb.meterRegistry(serverMeterRegistry);
+            sb.tlsSessionCacheSize(1024);
+            sb.tlsSessionTimeout(Duration.ofMinutes(10));
+            sb.tlsSessionTicketKeyProvider(TlsSessionTicketKeyProvider.of(TlsSessionTicketKey.ofRandom()));
+            sb.service("/", (ctx, req) -> HttpResponse.of(HttpStatus.OK));
+        }
+    };
+
+    @Test
+    void resumeSessionOnReconnection() {
+        final MeterRegistry clientMeterRegistry = new SimpleMeterRegistry();
+        try (ClientFactory factory = ClientFactory.builder()
+                                                  .tlsNoVerify()
+                                                  .tlsSessionCacheSize(16)
+                                                  .meterRegistry(clientMeterRegistry)
+                                                  .build()) {
+            final WebClient client = WebClient.builder(server.uri(SessionProtocol.H1))
+                                              .factory(factory)
+                                              .build();
+            for (int i = 0; i < 3; i++) {
+                // Close the connection after every request so that the next request reconnects.
+                assertThat(client.execute(RequestHeaders.of(HttpMethod.GET, "/",
+                                                            HttpHeaderNames.CONNECTION, "close"))
+                                 .aggregate().join().status()).isSameAs(HttpStatus.OK);
+            }
+
+            await().untilAsserted(() -> {
+                final Map<String, Double> meters = MoreMeters.measureAll(serverMeterRegistry);
+                assertThat(meters).containsKey(
+                        "armeria.server.tls.session.cache.size#value{hostname.pattern=*}");
+                assertThat(meters.get(
+                        "armeria.server.tls.session.ticket.resumptions#count{hostname.pattern=*}"))
+                        .isGreaterThanOrEqualTo(1.0);
+            });
+            assertThat(MoreMeters.measureAll(clientMeterRegistry))
+                    .containsKey("armeria.client.tls.session.ticket.resumptions#count");
+        }
+    }
+
+    @Test
+    void rotateTicketKeys() {
+        final AtomicLong now = new AtomicLong();
+        final Ticker ticker = now::get;
+        final RotatingTlsSessionTicketKeyProvider provider =
+                new RotatingTlsSessionTicketKeyProvider(TimeUnit.MINUTES.toNanos(1), ticker);
+
+        final List<TlsSessionTicketKey> initialKeys = provider.keys();
+        assertThat(initialKeys).hasSize(1);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        assertThat(provider.keys()).isSameAs(initialKeys);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        final List<TlsSessionTicketKey> rotatedKeys = provider.keys();
+        assertThat(rotatedKeys).hasSize(2);
+        assertThat(rotatedKeys.get(0)).isNotEqualTo(initialKeys.get(0));
+        // The previous key is kept to decrypt the tickets issued before the rotation.
+        assertThat(rotatedKeys.get(1)).isEqualTo(initialKeys.get(0));
+    }
+
+    @Test
+    void ticketKeyFromBytes() {
+        final TlsSessionTicketKey key = TlsSessionTicketKey.ofRandom();
+        final byte[] bytes = new byte[TlsSessionTicketKey.KEY_LENGTH];
+        System.arraycopy(key.name(), 0, bytes, 0, TlsSessionTicketKey.NAME_LENGTH);
+        System.arraycopy(key.hmacKey(), 0, bytes, TlsSessionTicketKey.NAME_LENGTH,
+                         TlsSessionTicketKey.HMAC_KEY_LENGTH);
+        System.arraycopy(key.aesKey(), 0, bytes,
+                         TlsSessionTicketKey.NAME_LENGTH + TlsSessionTicketKey.HMAC_KEY_LENGTH,
+                         TlsSessionTicketKey.AES_KEY_LENGTH);
+        assertThat(TlsSessionTicketKey.of(bytes)).isEqualTo(key);
+        assertThatThrownBy(() -> TlsSessionTicketKey.of(new byte[16]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.client.BlockingWebClient;
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpResponseWriter;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.common.ResponseHeadersBuilder;
+import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+class CachingServiceTest {
+
+    private static final AtomicInteger counter = new AtomicInteger();
+    private static final AtomicLong ticker = new AtomicLong();
+    private static final CompletableFuture<Void> slowResponseGate = new CompletableFuture<>();
+    private static final CompletableFuture<Void> streamingResponseGate = new CompletableFuture<>();
+    private static final int STREAMING_CHUNK_SIZE = 64 * 1024;
+    private static final int NUM_STREAMING_CHUNKS = 17;
+    private static final List<ServiceRequestContext> swrContexts = new CopyOnWriteArrayList<>();
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) {
+            sb.service("/max-age", (ctx, req) -> response("max-age=60", null));
+            sb.service("/no-store", (ctx, req) -> response("no-store", null));
+            sb.service("/private", (ctx, req) -> response("private, max-age=60", null));
+            sb.service("/vary", (ctx, req) -> {
+                final String language = req.headers().get(HttpHeaderNames.ACCEPT_LANGUAGE, "none");
+                return HttpResponse.of(ResponseHeaders.builder(HttpStatus.OK)
+                                                      .set(HttpHeaderNames.CACHE_CONTROL, "max-age=60")
+                                                      .set(HttpHeaderNames.VARY, "accept-language")
+                                                      .build(),
+                                       HttpData.ofUtf8(language + ':' + counter.incrementAndGet()));
+            });
+            sb.service("/etag", (ctx, req) -> {
+                if ("\"v1\"".equals(req.headers().get(HttpHeaderNames.IF_NONE_MATCH))) {
+                    counter.incrementAndGet();
+                    return HttpResponse.of(ResponseHeaders.builder(HttpStatus.NOT_MODIFIED)
+                                                          .set(HttpHeaderNames.ETAG, "\"v1\"")
+                                                          .set(HttpHeaderNames.CACHE_CONTROL, "max-age=10")
+                                                          .build());
+                }
+                return response("max-age=10", "\"v1\"");
+            });
+            sb.service("/swr", (ctx, req) -> {
+                swrContexts.add(ctx);
+                return response("max-age=10, stale-while-revalidate=30", null);
+            });
+            sb.service("/slow", (ctx, req) -> HttpResponse.of(
+                    slowResponseGate.thenApply(unused -> response("max-age=60", null))));
+            sb.service("/streaming", (ctx, req) -> {
+                counter.incrementAndGet();
+                // Larger than the default maximum entry size (1 MiB) and completed only when the gate opens.
+                final HttpResponseWriter res = HttpResponse.streaming();
+                res.write(ResponseHeaders.builder(HttpStatus.OK)
+                                         .set(HttpHeaderNames.CACHE_CONTROL, "max-age=60")
+                                         .build());
+                for (int i = 0; i < NUM_STREAMING_CHUNKS; i++) {
+                    res.write(HttpData.wrap(new byte[STREAMING_CHUNK_SIZE]));
+                }
+                streamingResponseGate.thenRun(res::close);
+                return res;
+            });
+            sb.decorator(CachingService.builder().ticker(ticker::get).newDecorator());
+        }
+    };
+
+    private static HttpResponse response(String cacheControl, @Nullable String etag) {
+        final ResponseHeadersBuilder headers =
+                ResponseHeaders.builder(HttpStatus.OK)
+                               .set(HttpHeaderNames.CACHE_CONTROL, cacheControl);
+        if (etag != null) {
+            headers.set(HttpHeaderNames.ETAG, etag);
+        }
+        return HttpResponse.of(headers.build(), HttpData.ofUtf8(String.valueOf(counter.incrementAndGet())));
+    }
+
+    @BeforeEach
+    void setUp() {
+        counter.set(0);
+    }
+
+    @Test
+    void cacheFreshResponse() {
+        final BlockingWebClient client = server.blockingWebClient();
+        assertThat(client.get("/max-age").contentUtf8()).isEqualTo("1");
+        final AggregatedHttpResponse cached = client.get("/max-age");
+        assertThat(cached.contentUtf8()).isEqualTo("1");
+        assertThat(cached.headers().get(HttpHeaderNames.AGE)).isEqualTo("0");
+
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        assertThat(client.get("/max-age").contentUtf8()).isEqualTo("2");
+    }
+
+    @Test
+    void doNotCacheNoStoreOrPrivate() {
+        final BlockingWebClient client = server.blockingWebClient();
+        assertThat(client.get("/no-store").contentUtf8()).isEqualTo("1");
+        assertThat(client.get("/no-store").contentUtf8()).isEqualTo("2");
+        assertThat(client.get("/private").contentUtf8()).isEqualTo("3");
+        assertThat(client.get("/private").contentUtf8()).isEqualTo("4");
+    }
+
+    @Test
+    void requestNoCache() {
+        final BlockingWebClient client = server.blockingWebClient();
+        final String cached = client.get("/max-age").contentUtf8();
+        assertThat(client.get("/max-age").contentUtf8()).isEqualTo(cached);
+        final AggregatedHttpResponse res = client.execute(
+                RequestHeaders.builder(HttpMethod.GET, "/max-age")
+                              .set(HttpHeaderNames.CACHE_CONTROL, "no-cache")
+                              .build());
+        assertThat(res.contentUtf8()).isNotEqualTo(cached);
+    }
+
+    @Test
+    void vary() {
+        final BlockingWebClient client = server.blockingWebClient();
+        assertThat(getWithLanguage(client, "en").contentUtf8()).isEqualTo("en:1");
+        assertThat(getWithLanguage(client, "en").contentUtf8()).isEqualTo("en:1");
+        // A different variant replaces the cached one.
+        assertThat(getWithLanguage(client, "ko").contentUtf8()).isEqualTo("ko:2");
+        assertThat(getWithLanguage(client, "ko").contentUtf8()).isEqualTo("ko:2");
+    }
+
+    @Test
+    void revalidateWithETag() {
+        final BlockingWebClient client = server.blockingWebClient();
+        assertThat(client.get("/etag").contentUtf8()).isEqualTo("1");
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        // Revalidated with a conditional request which returns 304.
+        final AggregatedHttpResponse res = client.get("/etag");
+        assertThat(res.status()).isSameAs(HttpStatus.OK);
+        assertThat(res.contentUtf8()).isEqualTo("1");
+        assertThat(counter.get()).isEqualTo(2);
+
+        // The conditional request from the client is answered by the cache.
+        final AggregatedHttpResponse notModified = client.execute(
+                RequestHeaders.builder(HttpMethod.GET, "/etag")
+                              .set(HttpHeaderNames.IF_NONE_MATCH, "W/\"v1\"")
+                              .build());
+        assertThat(notModified.status()).isSameAs(HttpStatus.NOT_MODIFIED);
+        assertThat(counter.get()).isEqualTo(2);
+    }
+
+    @Test
+    void staleWhileRevalidate() {
+        final BlockingWebClient client = server.blockingWebClient();
+        assertThat(client.get("/swr").contentUtf8()).isEqualTo("1");
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(20));
+        // Served stale while being revalidated in the background.
+        assertThat(client.get("/swr").contentUtf8()).isEqualTo("1");
+        await().untilAsserted(() -> assertThat(client.get("/swr").contentUtf8()).isEqualTo("2"));
+    }
+
+    @Test
+    void revalidateWithNewContext() throws Exception {
+        swrContexts.clear();
+        server.requestContextCaptor().clear();
+        final BlockingWebClient client = server.blockingWebClient();
+        // Use a different cache key from staleWhileRevalidate().
+        assertThat(client.get("/swr?new-context").contentUtf8()).isEqualTo("1");
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(20));
+        assertThat(client.get("/swr?new-context").contentUtf8()).isEqualTo("1");
+        await().untilAsserted(() -> assertThat(swrContexts).hasSize(2));
+
+        server.requestContextCaptor().take();
+        final ServiceRequestContext staleCtx = server.requestContextCaptor().take();
+        final ServiceRequestContext revalidationCtx = swrContexts.get(1);
+        assertThat(revalidationCtx).isNotSameAs(staleCtx);
+        assertThat(revalidationCtx.id()).isNotEqualTo(staleCtx.id());
+        // The log of the revalidation is completed independently.
+        assertThat(revalidationCtx.log().whenComplete().join().responseHeaders().status())
+                .isSameAs(HttpStatus.OK);
+    }
+
+    @Test
+    void streamLargeResponseWithoutBuffering() {
+        final WebClient client = server.webClient();
+        final AtomicLong received = new AtomicLong();
+        final CompletableFuture<Void> future =
+                client.get("/streaming").peekData(data -> received.addAndGet(data.length())).subscribe();
+
+        // The whole content is received before the response is completed.
+        await().untilAsserted(() -> assertThat(received.get())
+                .isEqualTo((long) STREAMING_CHUNK_SIZE * NUM_STREAMING_CHUNKS));
+        assertThat(future).isNotDone();
+        streamingResponseGate.complete(null);
+        future.join();
+
+        // Not cached because it's larger than the maximum entry size.
+        client.get("/streaming").aggregate().join();
+        assertThat(counter.get()).isEqualTo(2);
+    }
+
+    @Test
+    void collapseConcurrentMisses() {
+        final WebClient client = server.webClient();
+        final CompletableFuture<AggregatedHttpResponse> res1 = client.get("/slow").aggregate();
+        final CompletableFuture<AggregatedHttpResponse> res2 = client.get("/slow").aggregate();
+        final CompletableFuture<AggregatedHttpResponse> res3 = client.get("/slow").aggregate();
+        await().untilAsserted(() -> assertThat(server.requestContextCaptor().size()).isEqualTo(3));
+        slowResponseGate.complete(null);
+
+        assertThat(res1.join().contentUtf8()).isEqualTo("1");
+        assertThat(res2.join().contentUtf8()).isEqualTo("1");
+        assertThat(res3.join().contentUtf8()).isEqualTo("1");
+        assertThat(counter.get()).isOne();
+    }
+
+    private static AggregatedHttpResponse getWithLanguage(BlockingWebClient client, String language) {
+        return client.execute(RequestHeaders.builder(HttpMethod.GET, "/vary")
+                                            .set(HttpHeaderNames.ACCEPT_LANGUAGE, language)
+                                            .build());
+    }
+}
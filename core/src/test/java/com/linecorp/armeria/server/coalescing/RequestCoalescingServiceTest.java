@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.coalescing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+class RequestCoalescingServiceTest {
+
+    private static final AtomicInteger numInvocations = new AtomicInteger();
+    private static final AtomicInteger numArrivals = new AtomicInteger();
+    private static volatile CompletableFuture<Void> gate = new CompletableFuture<>();
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) {
+            sb.service("/slow", (ctx, req) -> {
+                final int n = numInvocations.incrementAndGet();
+                final String language = req.headers().get(HttpHeaderNames.ACCEPT_LANGUAGE, "none");
+                return HttpResponse.of(gate.thenApply(unused -> HttpResponse.of(
+                        HttpStatus.OK, MediaType.PLAIN_TEXT_UTF_8, language + ':' + n)));
+            });
+            sb.decorator("/slow", RequestCoalescingService.newDecorator());
+            sb.service("/large", (ctx, req) -> HttpResponse.of(HttpStatus.OK, MediaType.OCTET_STREAM,
+                                                               new byte[64 * 1024]));
+            sb.decorator("/large", RequestCoalescingService.builder()
+                                                           .maxResponseLength(1024)
+                                                           .newDecorator());
+            // Counts the requests which have passed through RequestCoalescingService.
+            sb.decorator("/slow", (delegate, ctx, req) -> {
+                final HttpResponse res = delegate.serve(ctx, req);
+                numArrivals.incrementAndGet();
+                return res;
+            });
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        numInvocations.set(0);
+        numArrivals.set(0);
+        gate = new CompletableFuture<>();
+    }
+
+    @Test
+    void coalesceConcurrentRequests() {
+        final WebClient client = server.webClient();
+        final CompletableFuture<AggregatedHttpResponse> res1 = client.get("/slow").aggregate();
+        final CompletableFuture<AggregatedHttpResponse> res2 = client.get("/slow").aggregate();
+        final CompletableFuture<AggregatedHttpResponse> res3 = client.get("/slow").aggregate();
+        await().untilAtomic(numArrivals, Matchers.is(3));
+        gate.complete(null);
+
+        assertThat(res1.join().contentUtf8()).isEqualTo("none:1");
+        assertThat(res2.join().contentUtf8()).isEqualTo("none:1");
+        assertThat(res3.join().contentUtf8()).isEqualTo("none:1");
+        assertThat(numInvocations).hasValue(1);
+
+        // The next request is not coalesced because the previous one is complete.
+        assertThat(server.blockingWebClient().get("/slow").contentUtf8()).isEqualTo("none:2");
+    }
+
+    @Test
+    void doNotCoalesceDifferentKeysOrMethods() {
+        final WebClient client = server.webClient();
+        final CompletableFuture<AggregatedHttpResponse> en = get(client, "en");
+        final CompletableFuture<AggregatedHttpResponse> ko = get(client, "ko");
+        final CompletableFuture<AggregatedHttpResponse> post1 = client.post("/slow", "").aggregate();
+        final CompletableFuture<AggregatedHttpResponse> post2 = client.post("/slow", "").aggregate();
+        await().untilAtomic(numArrivals, Matchers.is(4));
+        gate.complete(null);
+
+        assertThat(en.join().contentUtf8()).startsWith("en:");
+        assertThat(ko.join().contentUtf8()).startsWith("ko:");
+        assertThat(post1.join().contentUtf8()).isNotEqualTo(post2.join().contentUtf8());
+        assertThat(numInvocations).hasValue(4);
+    }
+
+    @Test
+    void passThroughResponseWithoutFollowers() {
+        // Not limited by maxResponseLength because the response is not shared.
+        final AggregatedHttpResponse res = server.blockingWebClient().get("/large");
+        assertThat(res.status()).isSameAs(HttpStatus.OK);
+        assertThat(res.content().length()).isEqualTo(64 * 1024);
+    }
+
+    private static CompletableFuture<AggregatedHttpResponse> get(WebClient client, String language) {
+        return client.execute(RequestHeaders.builder(HttpMethod.GET, "/slow")
+                                            .set(HttpHeaderNames.ACCEPT_LANGUAGE, language)
+                                            .build())
+                     .aggregate();
+    }
+}
@@ -17,6 +17,7 @@
 package com.linecorp.armeria.server.management;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
@@ -25,8 +26,10 @@ import java.util.Arrays;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import com.linecorp.armeria.client.BlockingWebClient;
 import com.linecorp.armeria.client.WebClient;
 import com.linecorp.armeria.common.AggregatedHttpResponse;
 import com.linecorp.armeria.common.ContentDisposition;
@@ -34,6 +37,7 @@ import com.linecorp.armeria.common.HttpHeaderNames;
 import com.linecorp.armeria.common.HttpMethod;
 import com.linecorp.armeria.common.HttpRequest;
 import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
 import com.linecorp.armeria.common.MediaType;
 import com.linecorp.armeria.common.ResponseHeaders;
 import com.linecorp.armeria.common.SplitHttpResponse;
@@ -50,6 +54,7 @@ class ManagementServiceTest {
         protected void configure(ServerBuilder sb) {
             sb.requestTimeout(Duration.ofSeconds(45)); // Heap dump can take time.
             sb.serviceUnder("/internal/management", ManagementService.of());
+            sb.enableEventLoopMetrics(true);
         }
     };
 
@@ -103,4 +108,64 @@ class ManagementServiceTest {
         // Make sure that the returned file has a valid hprof format
         assertThat(Arrays.copyOf(actual, fileHeader.length)).isEqualTo(fileHeader);
     }
+
+    @Test
+    void eventLoops() throws Exception {
+        final WebClient client = WebClient.of(server.httpUri());
+        await().untilAsserted(() -> {
+            final AggregatedHttpResponse response =
+                    client.prepare()
+                          .get("/internal/management/netty/eventloops")
+                          .header(HttpHeaderNames.ACCEPT, MediaType.JSON)
+                          .execute()
+                          .aggregate()
+                          .join();
+            assertThat(response.contentType()).isEqualTo(MediaType.JSON);
+            final JsonNode eventLoops = mapper.readTree(response.contentUtf8()).get("eventLoops");
+            assertThat(eventLoops).isNotEmpty();
+            assertThat(eventLoops.get(0).get("threadName").asText()).contains("armeria-common-worker");
+        });
+
+        final String text = client.blocking().get("/internal/management/netty/eventloops").contentUtf8();
+        assertThat(text).contains("armeria-common-worker", "taskQueueDelay=", "Recent long tasks:");
+    }
+
+    @Test
+    void jfr() {
+        final WebClient client = WebClient.of(server.httpUri());
+        final AggregatedHttpResponse response =
+                client.get("/internal/management/jvm/jfr?duration=1s&hotRequests=true").aggregate().join();
+        assertThat(response.status()).isEqualTo(HttpStatus.OK);
+        final ContentDisposition disposition = response.headers().contentDisposition();
+        assertThat(disposition).isNotNull();
+        assertThat(disposition.filename()).startsWith("recording_pid").endsWith(".jfr");
+        assertJfrFile(response.content().array());
+
+        assertThat(client.get("/internal/management/jvm/jfr?duration=foo").aggregate().join().status())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void continuousJfr() {
+        final BlockingWebClient client = WebClient.of(server.httpUri()).blocking();
+        final String path = "/internal/management/jvm/jfr/continuous";
+        assertThat(client.get(path).status()).isEqualTo(HttpStatus.NOT_FOUND);
+
+        assertThat(client.post(path + "?maxAge=1m", "").status()).isEqualTo(HttpStatus.OK);
+        try {
+            assertThat(client.post(path, "").status()).isEqualTo(HttpStatus.CONFLICT);
+            final AggregatedHttpResponse response = client.get(path);
+            assertThat(response.status()).isEqualTo(HttpStatus.OK);
+            assertJfrFile(response.content().array());
+        } finally {
+            assertThat(client.delete(path).status()).isEqualTo(HttpStatus.OK);
+        }
+        assertThat(client.delete(path).status()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private static void assertJfrFile(byte[] content) {
+        // Make sure that the returned file has a valid JFR format
+        final byte[] fileHeader = { 'F', 'L', 'R', 0 };
+        assertThat(Arrays.copyOf(content, fileHeader.length)).isEqualTo(fileHeader);
+    }
 }
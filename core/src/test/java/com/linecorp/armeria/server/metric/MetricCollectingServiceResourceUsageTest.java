@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.metric;
+
+import static com.linecorp.armeria.common.metric.MoreMeters.measureAll;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.metric.MeterIdPrefixFunction;
+import com.linecorp.armeria.common.util.Sampler;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MetricCollectingServiceResourceUsageTest {
+
+    private static final int ALLOCATION_SIZE = 8 * 1024 * 1024;
+
+    private static final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            sb.meterRegistry(registry);
+            sb.route().path("/sampled").defaultServiceName("sampled")
+              .decorator(MetricCollectingService.builder(MeterIdPrefixFunction.ofDefault("foo"))
+                                                .resourceUsageSampler(Sampler.always())
+                                                .newDecorator())
+              .build((ctx, req) -> HttpResponse.of(allocate(ctx)));
+            sb.route().path("/unsampled").defaultServiceName("unsampled")
+              .decorator(MetricCollectingService.newDecorator(MeterIdPrefixFunction.ofDefault("foo")))
+              .build((ctx, req) -> HttpResponse.of(allocate(ctx)));
+        }
+    };
+
+    private static CompletableFuture<HttpResponse> allocate(ServiceRequestContext ctx) {
+        return CompletableFuture.supplyAsync(() -> {
+            final byte[] data = new byte[ALLOCATION_SIZE];
+            data[data.length - 1] = 1;
+            return HttpResponse.of(String.valueOf(data.length));
+        }, ctx.blockingTaskExecutor());
+    }
+
+    @Test
+    void accountResourceUsageAcrossThreads() throws Exception {
+        assertThat(server.blockingWebClient().get("/sampled").contentUtf8())
+                .isEqualTo(String.valueOf(ALLOCATION_SIZE));
+        final RequestLog log = server.requestContextCaptor().take().log().whenComplete().join();
+        assertThat(log.cpuTimeNanos()).isPositive();
+        // The array has been allocated in a blocking task executor.
+        assertThat(log.allocatedBytes()).isGreaterThanOrEqualTo(ALLOCATION_SIZE);
+
+        await().untilAsserted(() -> {
+            final Map<String, Double> measurements = measureAll(registry);
+            assertThat(measurements)
+                    .containsEntry("foo.cpu.time#count{hostname.pattern=*,http.status=200,method=GET," +
+                                   "service=sampled}", 1.0)
+                    .containsEntry("foo.allocated.bytes#count{hostname.pattern=*,http.status=200," +
+                                   "method=GET,service=sampled}", 1.0);
+        });
+    }
+
+    @Test
+    void notSampled() throws Exception {
+        server.blockingWebClient().get("/unsampled");
+        final RequestLog log = server.requestContextCaptor().take().log().whenComplete().join();
+        assertThat(log.cpuTimeNanos()).isEqualTo(-1);
+        assertThat(log.allocatedBytes()).isEqualTo(-1);
+        assertThat(measureAll(registry)).noneSatisfy((name, value) -> {
+            assertThat(name).contains("service=unsampled").contains("cpu.time");
+        });
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling;
+
+import static com.linecorp.armeria.common.metric.MoreMeters.measureAll;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.client.BlockingWebClient;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.ExchangeType;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.server.HttpService;
+import com.linecorp.armeria.server.RoutingContext;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.server.annotation.Get;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DeadlineAwareThrottlingStrategyTest {
+
+    private static final DeadlineAwareThrottlingStrategy<HttpRequest> strategy =
+            DeadlineAwareThrottlingStrategy.<HttpRequest>builder()
+                                           .timeoutHeader("X-Timeout-Millis")
+                                           .minServiceTime(Duration.ofMillis(50))
+                                           .build();
+
+    private static final AtomicInteger sleeping = new AtomicInteger();
+
+    private static final AtomicLong ticker = new AtomicLong();
+
+    private static final DeadlineAwareThrottlingStrategy<HttpRequest> recoveringStrategy =
+            DeadlineAwareThrottlingStrategy.<HttpRequest>builder()
+                                           .useGrpcTimeoutHeader(false)
+                                           .timeoutHeader("X-Recover-Timeout-Millis")
+                                           .ticker(ticker::get)
+                                           .build();
+
+    private static final DeadlineAwareThrottlingStrategy<HttpRequest> excludingStrategy =
+            DeadlineAwareThrottlingStrategy.<HttpRequest>builder().build();
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) {
+            sb.blockingTaskExecutor(1);
+            sb.annotatedService()
+              .useBlockingTaskExecutor(true)
+              .build(new Object() {
+                  @Get("/")
+                  public HttpResponse get() {
+                      return HttpResponse.of(200);
+                  }
+
+                  // Occupies the blocking task executor for a while.
+                  @Get("/sleep")
+                  public HttpResponse sleep() throws InterruptedException {
+                      sleeping.incrementAndGet();
+                      TimeUnit.MILLISECONDS.sleep(500);
+                      return HttpResponse.of(200);
+                  }
+              });
+            sb.route().path("/recover/slow")
+              .decorator(ThrottlingService.newDecorator(recoveringStrategy))
+              .build(new UnaryService(400));
+            sb.route().path("/recover/fast")
+              .decorator(ThrottlingService.newDecorator(recoveringStrategy))
+              .build(new UnaryService(0));
+            sb.route().path("/exclude/streaming")
+              .decorator(ThrottlingService.newDecorator(excludingStrategy))
+              .build((ctx, req) -> {
+                  TimeUnit.MILLISECONDS.sleep(400);
+                  return HttpResponse.of(200);
+              });
+            sb.route().path("/exclude/failure")
+              .decorator(ThrottlingService.newDecorator(excludingStrategy))
+              .build(new UnaryService(400, HttpStatus.INTERNAL_SERVER_ERROR));
+            sb.route().path("/exclude/fast")
+              .decorator(ThrottlingService.newDecorator(excludingStrategy))
+              .build(new UnaryService(0));
+            sb.decorator(ThrottlingService.newDecorator(strategy));
+        }
+    };
+
+    @Test
+    void acceptRequestWithoutDeadline() {
+        assertThat(server.blockingWebClient().get("/").status()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void rejectRequestWithShortDeadline() {
+        final BlockingWebClient client = server.blockingWebClient();
+        assertThat(client.execute(request("grpc-timeout", "10m")).status())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(client.execute(request("x-timeout-millis", "10")).status())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(client.execute(request("grpc-timeout", "10S")).status()).isEqualTo(HttpStatus.OK);
+        assertThat(client.execute(request("x-timeout-millis", "10000")).status()).isEqualTo(HttpStatus.OK);
+        // The shorter one wins.
+        assertThat(client.execute(RequestHeaders.builder(HttpMethod.GET, "/")
+                                                .add("grpc-timeout", "10S")
+                                                .add("x-timeout-millis", "10")
+                                                .build()).status())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        // A malformed header is ignored.
+        assertThat(client.execute(request("grpc-timeout", "10x")).status()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void rejectRequestExpiredInQueue() {
+        final long numAccepted = strategy.numAccepted();
+        final long numRejected = strategy.numRejected();
+        final int numSleeping = sleeping.get();
+        final CompletableFuture<AggregatedHttpResponse> slow = server.webClient().get("/sleep").aggregate();
+        // Wait until the slow request occupies the blocking task executor.
+        while (sleeping.get() == numSleeping) {
+            Thread.yield();
+        }
+        // The request has enough time when it's accepted but waits for the slow request in the queue of
+        // the blocking task executor, so it's timed out when the executor starts the service.
+        final AggregatedHttpResponse res = server.blockingWebClient().execute(request("x-timeout-millis",
+                                                                                      "200"));
+        assertThat(res.status()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(slow.join().status()).isEqualTo(HttpStatus.OK);
+        assertThat(strategy.numAccepted()).isEqualTo(numAccepted + 1);
+        assertThat(strategy.numRejected()).isEqualTo(numRejected + 1);
+    }
+
+    @Test
+    void recoverAfterSlowResponses() {
+        final BlockingWebClient client = server.blockingWebClient();
+        final long numAccepted = recoveringStrategy.numAccepted();
+        for (int i = 0; i < 3; i++) {
+            assertThat(client.get("/recover/slow").status()).isEqualTo(HttpStatus.OK);
+        }
+        await().untilAsserted(() -> assertThat(recoveringStrategy.estimatedServiceTimeNanos())
+                .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(300)));
+
+        // Rejected because the service has been slow.
+        final RequestHeaders fast = RequestHeaders.builder(HttpMethod.GET, "/recover/fast")
+                                                  .add("x-recover-timeout-millis", "200")
+                                                  .build();
+        assertThat(client.execute(fast).status()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(client.execute(fast).status()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+
+        // The estimate decays without new samples, so the requests are accepted again.
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertThat(recoveringStrategy.estimatedServiceTimeNanos())
+                .isLessThan(TimeUnit.MILLISECONDS.toNanos(200));
+        assertThat(client.execute(fast).status()).isEqualTo(HttpStatus.OK);
+        assertThat(recoveringStrategy.numAccepted()).isEqualTo(numAccepted + 4);
+    }
+
+    @Test
+    void excludeStreamingAndFailedExchanges() {
+        final BlockingWebClient client = server.blockingWebClient();
+        assertThat(client.get("/exclude/streaming").status()).isEqualTo(HttpStatus.OK);
+        assertThat(client.get("/exclude/failure").status()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(client.get("/exclude/fast").status()).isEqualTo(HttpStatus.OK);
+
+        // Only the fast exchange is sampled.
+        await().until(() -> excludingStrategy.estimatedServiceTimeNanos() > 0);
+        assertThat(excludingStrategy.estimatedServiceTimeNanos())
+                .isLessThan(TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    void maxServiceTime() {
+        assertThatThrownBy(() -> DeadlineAwareThrottlingStrategy.builder()
+                                                                .minServiceTime(Duration.ofSeconds(2))
+                                                                .maxServiceTime(Duration.ofSeconds(1))
+                                                                .build())
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void parseGrpcTimeout() {
+        assertThat(DeadlineAwareThrottlingStrategy.parseGrpcTimeoutNanos("100n")).isEqualTo(100);
+        assertThat(DeadlineAwareThrottlingStrategy.parseGrpcTimeoutNanos("100u")).isEqualTo(100_000);
+        assertThat(DeadlineAwareThrottlingStrategy.parseGrpcTimeoutNanos("100m")).isEqualTo(100_000_000);
+        assertThat(DeadlineAwareThrottlingStrategy.parseGrpcTimeoutNanos("1S"))
+                .isEqualTo(TimeUnit.SECONDS.toNanos(1));
+        assertThat(DeadlineAwareThrottlingStrategy.parseGrpcTimeoutNanos("1M"))
+                .isEqualTo(TimeUnit.MINUTES.toNanos(1));
+        assertThat(DeadlineAwareThrottlingStrategy.parseGrpcTimeoutNanos("99999999H"))
+                .isEqualTo(TimeUnit.HOURS.toNanos(99999999));
+        assertThat(DeadlineAwareThrottlingStrategy.parseGrpcTimeoutNanos("100")).isEqualTo(-1);
+        assertThat(DeadlineAwareThrottlingStrategy.parseGrpcTimeoutNanos("S")).isEqualTo(-1);
+        assertThat(DeadlineAwareThrottlingStrategy.parseGrpcTimeoutNanos("123456789S")).isEqualTo(-1);
+        assertThat(DeadlineAwareThrottlingStrategy.parseGrpcTimeoutNanos("-1S")).isEqualTo(-1);
+    }
+
+    @Test
+    void meterBinder() {
+        final DeadlineAwareThrottlingStrategy<HttpRequest> strategy =
+                DeadlineAwareThrottlingStrategy.<HttpRequest>builder()
+                                               .minServiceTime(Duration.ofSeconds(1))
+                                               .build();
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        strategy.newMeterBinder(new MeterIdPrefix("foo")).bindTo(registry);
+        assertThat(measureAll(registry))
+                .containsEntry("foo.requests#count{result=accepted}", 0.0)
+                .containsEntry("foo.requests#count{result=rejected}", 0.0)
+                .containsEntry("foo.requests.without.deadline#count", 0.0)
+                .containsEntry("foo.estimated.service.time#value", 1.0);
+    }
+
+    private static RequestHeaders request(String name, String value) {
+        return RequestHeaders.builder(HttpMethod.GET, "/").add(name, value).build();
+    }
+
+    private static final class UnaryService implements HttpService {
+
+        private final long sleepMillis;
+        private final HttpStatus status;
+
+        UnaryService(long sleepMillis) {
+            this(sleepMillis, HttpStatus.OK);
+        }
+
+        UnaryService(long sleepMillis, HttpStatus status) {
+            this.sleepMillis = sleepMillis;
+            this.status = status;
+        }
+
+        @Override
+        public HttpResponse serve(ServiceRequestContext ctx, HttpRequest req) throws Exception {
+            TimeUnit.MILLISECONDS.sleep(sleepMillis);
+            return HttpResponse.of(status);
+        }
+
+        @Override
+        public ExchangeType exchangeType(RoutingContext routingContext) {
+            return ExchangeType.UNARY;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.throttling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.metric.MeterIdPrefix;
+import com.linecorp.armeria.common.metric.MoreMeters;
+import com.linecorp.armeria.server.ServiceRequestContext;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class KeyedRateLimitingThrottlingStrategyTest {
+
+    private final AtomicLong ticker = new AtomicLong();
+
+    @Test
+    void limitPerKey() {
+        final KeyedRateLimitingThrottlingStrategy<HttpRequest> strategy =
+                KeyedRateLimitingThrottlingStrategy.<HttpRequest>builder(
+                        2, (ctx, req) -> req.headers().get("x-api-key"))
+                                                   .ticker(ticker::get)
+                                                   .build();
+
+        assertThat(accept(strategy, "a")).isTrue();
+        assertThat(accept(strategy, "a")).isTrue();
+        assertThat(accept(strategy, "a")).isFalse();
+        // Other keys have their own buckets.
+        assertThat(accept(strategy, "b")).isTrue();
+        assertThat(accept(strategy, "b")).isTrue();
+        assertThat(accept(strategy, "b")).isFalse();
+        // A request without a key is not rate-limited.
+        assertThat(accept(strategy, null)).isTrue();
+
+        // Refilled lazily.
+        ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(accept(strategy, "a")).isTrue();
+        assertThat(accept(strategy, "a")).isFalse();
+
+        assertThat(strategy.numKeys()).isEqualTo(2);
+        assertThat(strategy.hotKeys()).containsExactly(entry("a", 2L), entry("b", 1L));
+    }
+
+    @Test
+    void burstCapacity() {
+        final KeyedRateLimitingThrottlingStrategy<HttpRequest> strategy =
+                KeyedRateLimitingThrottlingStrategy.<HttpRequest>builder(
+                        1, (ctx, req) -> req.headers().get("x-api-key"))
+                                                   .burstCapacity(3)
+                                                   .ticker(ticker::get)
+                                                   .build();
+        for (int i = 0; i < 3; i++) {
+            assertThat(accept(strategy, "a")).isTrue();
+        }
+        assertThat(accept(strategy, "a")).isFalse();
+
+        // Does not refill more than the burst capacity.
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        for (int i = 0; i < 3; i++) {
+            assertThat(accept(strategy, "a")).isTrue();
+        }
+        assertThat(accept(strategy, "a")).isFalse();
+    }
+
+    @Test
+    void expireAndEvict() {
+        final KeyedRateLimitingThrottlingStrategy<HttpRequest> strategy =
+                KeyedRateLimitingThrottlingStrategy.<HttpRequest>builder(
+                        1, (ctx, req) -> req.headers().get("x-api-key"))
+                                                   .maxKeys(8)
+                                                   .idleTimeout(Duration.ofSeconds(5))
+                                                   .ticker(ticker::get)
+                                                   .build();
+        assertThat(strategy.maxKeys()).isEqualTo(8);
+        for (int i = 0; i < 8; i++) {
+            assertThat(accept(strategy, "key-" + i)).isTrue();
+            ticker.addAndGet(1);
+        }
+        assertThat(strategy.numKeys()).isEqualTo(8);
+        assertThat(strategy.numEvictions()).isZero();
+
+        // 'key-0' is the least recently used one.
+        assertThat(accept(strategy, "key-8")).isTrue();
+        assertThat(strategy.numKeys()).isEqualTo(8);
+        assertThat(strategy.numEvictions()).isOne();
+        // 'key-0' gets a new bucket because its bucket was evicted.
+        assertThat(accept(strategy, "key-0")).isTrue();
+        assertThat(strategy.numEvictions()).isEqualTo(2);
+
+        // Expired buckets are reused without eviction.
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertThat(strategy.numKeys()).isZero();
+        assertThat(accept(strategy, "key-9")).isTrue();
+        assertThat(strategy.numKeys()).isOne();
+        assertThat(strategy.numEvictions()).isEqualTo(2);
+    }
+
+    @Test
+    void meterBinder() {
+        final KeyedRateLimitingThrottlingStrategy<HttpRequest> strategy =
+                KeyedRateLimitingThrottlingStrategy.<HttpRequest>builder(
+                        1, (ctx, req) -> req.headers().get("x-api-key"))
+                                                   .name("foo")
+                                                   .ticker(ticker::get)
+                                                   .build();
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        strategy.newMeterBinder(new MeterIdPrefix("throttling")).bindTo(registry);
+
+        assertThat(accept(strategy, "a")).isTrue();
+        assertThat(accept(strategy, "a")).isFalse();
+        assertThat(MoreMeters.measureAll(registry))
+                .containsEntry("throttling.keys#value", 1.0)
+                .containsEntry("throttling.max.keys#value", 65536.0)
+                .containsEntry("throttling.evictions#count", 0.0)
+                .containsEntry("throttling.requests#count{result=accepted}", 1.0)
+                .containsEntry("throttling.requests#count{result=rejected}", 1.0);
+    }
+
+    private static boolean accept(ThrottlingStrategy<HttpRequest> strategy, String apiKey) {
+        final HttpRequest req;
+        if (apiKey != null) {
+            req = HttpRequest.builder().get("/").header("x-api-key", apiKey).build();
+        } else {
+            req = HttpRequest.of(HttpMethod.GET, "/");
+        }
+        final ServiceRequestContext ctx = ServiceRequestContext.of(req);
+        return strategy.accept(ctx, req).toCompletableFuture().join();
+    }
+}
@@ -21,7 +21,6 @@ import static java.util.Objects.requireNonNull;
 import java.io.IOException;
 import java.net.URI;
 import java.util.List;
-import java.util.Set;
 import java.util.StringJoiner;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
@@ -45,9 +44,12 @@ import com.linecorp.armeria.client.WebClient;
 import com.linecorp.armeria.client.endpoint.DynamicEndpointGroup;
 import com.linecorp.armeria.client.endpoint.EndpointGroup;
 import com.linecorp.armeria.client.endpoint.EndpointSelectionStrategy;
+import com.linecorp.armeria.client.eureka.EurekaRegistry.Instance;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
 import com.linecorp.armeria.common.AggregationOptions;
 import com.linecorp.armeria.common.CommonPools;
 import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpHeaderNames;
 import com.linecorp.armeria.common.HttpMethod;
 import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.common.HttpStatus;
@@ -58,7 +60,6 @@ import com.linecorp.armeria.common.RequestHeadersBuilder;
 import com.linecorp.armeria.common.SessionProtocol;
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.internal.common.eureka.Application;
-import com.linecorp.armeria.internal.common.eureka.Applications;
 import com.linecorp.armeria.internal.common.eureka.InstanceInfo;
 import com.linecorp.armeria.internal.common.eureka.InstanceInfo.InstanceStatus;
 import com.linecorp.armeria.internal.common.eureka.InstanceInfo.PortWrapper;
@@ -81,12 +82,13 @@ public final class EurekaEndpointGroup extends DynamicEndpointGroup {
             new ObjectMapper().enable(DeserializationFeature.UNWRAP_ROOT_VALUE)
                               .setSerializationInclusion(Include.NON_NULL);
 
-    private static final Predicate<InstanceInfo> allInstances = instanceInfo -> true;
+    private static final Predicate<Instance> allInstances = instance -> true;
 
     private static final String APPS = "/apps";
     private static final String VIPS = "/vips/";
     private static final String SVIPS = "/svips/";
     private static final String INSTANCES = "/instances/";
+    private static final String DELTA = "/delta";
 
     /**
      * Returns a new {@link EurekaEndpointGroup} that retrieves the {@link Endpoint} list from the specified
@@ -159,15 +161,25 @@ public final class EurekaEndpointGroup extends DynamicEndpointGroup {
 
     private final RequestHeaders requestHeaders;
     private final Function<byte[], List<Endpoint>> responseConverter;
+    @Nullable
+    private final RequestHeaders deltaRequestHeaders;
+    @Nullable
+    private final EurekaRegistry registry;
     private final WebClient webClient;
     @Nullable
     private volatile ScheduledFuture<?> scheduledFuture;
     private volatile boolean closed;
 
+    // The following fields are accessed sequentially by the chain of fetchRegistry() invocations.
+    private boolean fetchDelta;
+    @Nullable
+    private String etag;
+
     EurekaEndpointGroup(EndpointSelectionStrategy selectionStrategy, boolean allowEmptyEndpoints,
                         long selectionTimeoutMillis, WebClient webClient, long registryFetchIntervalMillis,
                         @Nullable String appName, @Nullable String instanceId, @Nullable String vipAddress,
-                        @Nullable String secureVipAddress, @Nullable List<String> regions) {
+                        @Nullable String secureVipAddress, @Nullable List<String> regions,
+                        boolean useDeltaFetch) {
         super(selectionStrategy, allowEmptyEndpoints, selectionTimeoutMillis);
         this.webClient = webClient;
         this.registryFetchIntervalMillis = registryFetchIntervalMillis;
@@ -175,8 +187,21 @@ public final class EurekaEndpointGroup extends DynamicEndpointGroup {
         final RequestHeadersBuilder headersBuilder = RequestHeaders.builder();
         headersBuilder.method(HttpMethod.GET);
         headersBuilder.accept(MediaType.JSON_UTF_8);
-        responseConverter = responseConverter(headersBuilder, appName, instanceId,
-                                              vipAddress, secureVipAddress, regions);
+        if (useDeltaFetch) {
+            // The delta is always calculated against the whole registry, so we fetch the whole registry
+            // and filter what we need.
+            final String query = regionsQuery(regions);
+            registry = new EurekaRegistry(filter(appName, instanceId, vipAddress, secureVipAddress),
+                                          secureVipAddress != null);
+            responseConverter = new RegistryConverter(registry);
+            deltaRequestHeaders = headersBuilder.path(APPS + DELTA + query).build();
+            headersBuilder.path(APPS + query);
+        } else {
+            registry = null;
+            deltaRequestHeaders = null;
+            responseConverter = responseConverter(headersBuilder, appName, instanceId,
+                                                  vipAddress, secureVipAddress, regions);
+        }
         requestHeaders = headersBuilder.build();
 
         webClient.options().factory().whenClosed().thenRun(this::closeAsync);
@@ -187,6 +212,8 @@ public final class EurekaEndpointGroup extends DynamicEndpointGroup {
         if (closed) {
             return;
         }
+        final boolean delta = fetchDelta;
+        final RequestHeaders requestHeaders = requestHeaders(delta);
         final HttpResponse response;
         final ClientRequestContext ctx;
         try {
@@ -206,40 +233,94 @@ public final class EurekaEndpointGroup extends DynamicEndpointGroup {
                         if (cause != null) {
                             logger.warn("Unexpected exception while fetching the registry from: {}." +
                                         " (requestHeaders: {})", webClient.uri(), requestHeaders, cause);
+                            // Fetch the full registry next time because we may have missed some deltas.
+                            etag = null;
+                            fetchDelta = false;
                         } else {
                             try (HttpData content = aggregatedRes.content()) {
-                                final HttpStatus status = aggregatedRes.status();
-                                if (!status.isSuccess()) {
-                                    logger.warn("Unexpected response from: {}. (status: {}, content: {}, " +
-                                                "requestHeaders: {})", webClient.uri(), status,
-                                                aggregatedRes.contentUtf8(), requestHeaders);
-                                } else {
-                                    try {
-                                        final List<Endpoint> endpoints = responseConverter.apply(
-                                                content.array());
-                                        setEndpoints(endpoints);
-                                    } catch (Exception e) {
-                                        logger.warn("Unexpected exception while parsing a response from: {}. " +
-                                                    "(content: {}, responseConverter: {}, requestHeaders: {})",
-                                                    webClient.uri(), content.toStringUtf8(),
-                                                    responseConverter, requestHeaders, e);
-                                    }
-                                }
+                                handleResponse(aggregatedRes, content, delta, requestHeaders);
                             }
                         }
-                        scheduleNextFetch(eventLoop);
+                        if (delta && !fetchDelta) {
+                            // The replica is not consistent with the registry anymore.
+                            scheduleNextFetch(eventLoop, 0);
+                        } else {
+                            scheduleNextFetch(eventLoop, registryFetchIntervalMillis);
+                        }
                         return null;
                     });
         } catch (Exception e) {
             logger.warn("Unexpected exception while fetching the registry from: {}." +
                         " (requestHeaders: {})", webClient.uri(), requestHeaders, e);
-            scheduleNextFetch(CommonPools.workerGroup().next());
+            etag = null;
+            fetchDelta = false;
+            scheduleNextFetch(CommonPools.workerGroup().next(), registryFetchIntervalMillis);
         }
     }
 
-    private void scheduleNextFetch(EventLoop executorService) {
-        scheduledFuture = executorService.schedule(this::fetchRegistry,
-                                                   registryFetchIntervalMillis, TimeUnit.MILLISECONDS);
+    private RequestHeaders requestHeaders(boolean delta) {
+        final RequestHeaders requestHeaders;
+        if (delta) {
+            assert deltaRequestHeaders != null;
+            requestHeaders = deltaRequestHeaders;
+        } else {
+            requestHeaders = this.requestHeaders;
+        }
+        final String etag = this.etag;
+        if (etag == null) {
+            return requestHeaders;
+        }
+        return requestHeaders.toBuilder().set(HttpHeaderNames.IF_NONE_MATCH, etag).build();
+    }
+
+    private void handleResponse(AggregatedHttpResponse res, HttpData content, boolean delta,
+                                RequestHeaders requestHeaders) {
+        final HttpStatus status = res.status();
+        if (status == HttpStatus.NOT_MODIFIED) {
+            // Nothing has been changed since the last fetch.
+            return;
+        }
+
+        final String etag = res.headers().get(HttpHeaderNames.ETAG);
+        if (!status.isSuccess()) {
+            logger.warn("Unexpected response from: {}. (status: {}, content: {}, " +
+                        "requestHeaders: {})", webClient.uri(), status,
+                        res.contentUtf8(), requestHeaders);
+            this.etag = null;
+            fetchDelta = false;
+            return;
+        }
+
+        try {
+            if (delta) {
+                assert registry != null;
+                if (!registry.applyDelta(content.array())) {
+                    logger.debug("The registry replica is inconsistent with the registry of: {}. " +
+                                 "Fetching the full registry.", webClient.uri());
+                    this.etag = null;
+                    fetchDelta = false;
+                    return;
+                }
+                setEndpoints(registry.endpoints());
+            } else {
+                setEndpoints(responseConverter.apply(content.array()));
+                fetchDelta = registry != null;
+            }
+            // An ETag is valid only for the same resource, so we don't keep it when switching from
+            // the full registry to the delta.
+            this.etag = delta == fetchDelta ? etag : null;
+        } catch (Exception e) {
+            logger.warn("Unexpected exception while parsing a response from: {}. " +
+                        "(content: {}, responseConverter: {}, requestHeaders: {})",
+                        webClient.uri(), content.toStringUtf8(),
+                        responseConverter, requestHeaders, e);
+            this.etag = null;
+            fetchDelta = false;
+        }
+    }
+
+    private void scheduleNextFetch(EventLoop executorService, long delayMillis) {
+        scheduledFuture = executorService.schedule(this::fetchRegistry, delayMillis, TimeUnit.MILLISECONDS);
     }
 
     @VisibleForTesting
@@ -262,36 +343,19 @@ public final class EurekaEndpointGroup extends DynamicEndpointGroup {
             RequestHeadersBuilder builder, @Nullable String appName, @Nullable String instanceId,
             @Nullable String vipAddress, @Nullable String secureVipAddress, @Nullable List<String> regions) {
         if (regions != null) {
-            final Predicate<InstanceInfo> filter;
             final String path;
-            boolean secureVip = false;
             if (vipAddress != null) {
                 path = VIPS + vipAddress;
-                filter = instanceInfo -> vipAddress.equals(instanceInfo.getVipAddress());
             } else if (secureVipAddress != null) {
-                secureVip = true;
                 path = SVIPS + secureVipAddress;
-                filter = instanceInfo -> secureVipAddress.equals(instanceInfo.getSecureVipAddress());
             } else {
                 // If regions is specified, we fetch all registry information and filter what we need because
                 // some of the REST endpoints do not support regions query parameter.
                 path = APPS;
-                if (appName == null && instanceId == null) {
-                    filter = allInstances;
-                } else if (appName != null && instanceId != null) {
-                    filter = instanceInfo -> appName.equals(instanceInfo.getAppName()) &&
-                                             instanceId.equals(instanceInfo.getInstanceId());
-                } else if (appName != null) {
-                    filter = instanceInfo -> appName.equals(instanceInfo.getAppName());
-                } else {
-                    filter = instanceInfo -> instanceId.equals(instanceInfo.getInstanceId());
-                }
             }
-            final StringJoiner joiner = new StringJoiner(",");
-            regions.forEach(joiner::add);
-            final QueryParams queryParams = QueryParams.of("regions", joiner.toString());
-            builder.path(path + '?' + queryParams.toQueryString());
-            return new ApplicationsConverter(filter, secureVip);
+            builder.path(path + regionsQuery(regions));
+            return new ApplicationsConverter(filter(appName, instanceId, vipAddress, secureVipAddress),
+                                             secureVipAddress != null);
         }
 
         if (vipAddress != null) {
@@ -324,16 +388,46 @@ public final class EurekaEndpointGroup extends DynamicEndpointGroup {
         return new InstanceInfoConverter();
     }
 
+    private static String regionsQuery(@Nullable List<String> regions) {
+        if (regions == null) {
+            return "";
+        }
+        final StringJoiner joiner = new StringJoiner(",");
+        regions.forEach(joiner::add);
+        return '?' + QueryParams.of("regions", joiner.toString()).toQueryString();
+    }
+
+    private static Predicate<Instance> filter(@Nullable String appName, @Nullable String instanceId,
+                                              @Nullable String vipAddress, @Nullable String secureVipAddress) {
+        if (vipAddress != null) {
+            return instance -> vipAddress.equals(instance.vipAddress());
+        }
+        if (secureVipAddress != null) {
+            return instance -> secureVipAddress.equals(instance.secureVipAddress());
+        }
+        if (appName == null && instanceId == null) {
+            return allInstances;
+        }
+        if (appName != null && instanceId != null) {
+            return instance -> appName.equals(instance.appName()) &&
+                               instanceId.equals(instance.instanceId());
+        }
+        if (appName != null) {
+            return instance -> appName.equals(instance.appName());
+        }
+        return instance -> instanceId.equals(instance.instanceId());
+    }
+
     private static class ApplicationsConverter implements Function<byte[], List<Endpoint>> {
 
-        private final Predicate<InstanceInfo> filter;
+        private final Predicate<Instance> filter;
         private final boolean secureVip;
 
         ApplicationsConverter() {
             this(allInstances, false);
         }
 
-        ApplicationsConverter(Predicate<InstanceInfo> filter, boolean secureVip) {
+        ApplicationsConverter(Predicate<Instance> filter, boolean secureVip) {
             this.filter = filter;
             this.secureVip = secureVip;
         }
@@ -341,45 +435,42 @@ public final class EurekaEndpointGroup extends DynamicEndpointGroup {
         @Override
         public List<Endpoint> apply(byte[] content) {
             try {
-                final Set<Application> applications =
-                        mapper.readValue(content, Applications.class).applications();
-                return applications.stream()
-                                   .map(application -> endpoints(application, filter, secureVip))
-                                   .flatMap(List::stream)
-                                   .collect(toImmutableList());
+                return EurekaRegistry.parseEndpoints(content, filter, secureVip);
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
         }
     }
 
-    private static List<Endpoint> endpoints(Application application, Predicate<InstanceInfo> filter,
-                                            boolean secureVip) {
-        final Set<InstanceInfo> instances = application.instances();
-        return instances.stream()
-                        .filter(filter)
-                        .filter(instanceInfo -> instanceInfo.getStatus() == InstanceStatus.UP)
-                        .map(instanceInfo -> endpoint(instanceInfo, secureVip))
-                        .collect(toImmutableList());
-    }
+    private static final class RegistryConverter implements Function<byte[], List<Endpoint>> {
 
-    private static class ApplicationConverter implements Function<byte[], List<Endpoint>> {
-
-        private final Predicate<InstanceInfo> filter;
+        private final EurekaRegistry registry;
 
-        ApplicationConverter() {
-            this(allInstances);
+        RegistryConverter(EurekaRegistry registry) {
+            this.registry = registry;
         }
 
-        ApplicationConverter(Predicate<InstanceInfo> filter) {
-            this.filter = filter;
+        @Override
+        public List<Endpoint> apply(byte[] content) {
+            try {
+                registry.reset(content);
+                return registry.endpoints();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
         }
+    }
+
+    private static class ApplicationConverter implements Function<byte[], List<Endpoint>> {
 
         @Override
         public List<Endpoint> apply(byte[] content) {
             try {
                 final Application application = mapper.readValue(content, Application.class);
-                return endpoints(application, filter, false);
+                return application.instances().stream()
+                                  .filter(instanceInfo -> instanceInfo.getStatus() == InstanceStatus.UP)
+                                  .map(instanceInfo -> endpoint(instanceInfo, false))
+                                  .collect(toImmutableList());
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
@@ -409,8 +500,11 @@ public final class EurekaEndpointGroup extends DynamicEndpointGroup {
         }
 
         assert hostname != null;
+        return endpoint(hostname, instanceInfo.getIpAddr(), port);
+    }
+
+    static Endpoint endpoint(String hostname, @Nullable String ipAddr, int port) {
         Endpoint endpoint = Endpoint.of(hostname, port);
-        final String ipAddr = instanceInfo.getIpAddr();
         if (ipAddr != null && hostname != ipAddr) {
             endpoint = endpoint.withIpAddr(ipAddr);
         }
@@ -56,6 +56,7 @@ import com.linecorp.armeria.common.RequestId;
 import com.linecorp.armeria.common.SessionProtocol;
 import com.linecorp.armeria.common.SuccessFunction;
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.annotation.UnstableApi;
 import com.linecorp.armeria.common.auth.AuthToken;
 import com.linecorp.armeria.common.auth.BasicToken;
 import com.linecorp.armeria.common.auth.OAuth1aToken;
@@ -89,6 +90,8 @@ public final class EurekaEndpointGroupBuilder extends AbstractWebClientBuilder
     @Nullable
     private List<String> regions;
 
+    private boolean useDeltaFetch;
+
     /**
      * Creates a new instance.
      */
@@ -240,6 +243,27 @@ public final class EurekaEndpointGroupBuilder extends AbstractWebClientBuilder
         return this;
     }
 
+    /**
+     * Sets whether to retrieve only the changes of the registry from {@code /apps/delta} once the full
+     * registry is retrieved. The changes are applied to the local replica of the registry, which is
+     * reconciled with the {@code apps__hashcode} of the registry after every update. The full registry is
+     * retrieved again if the replica turns out to be inconsistent. This option is disabled by default.
+     *
+     * <p>Note that the delta is always calculated against the whole registry, so the whole registry is
+     * retrieved from {@code /apps} and filtered by {@link #appName(String)}, {@link #instanceId(String)},
+     * {@link #vipAddress(String)} and {@link #secureVipAddress(String)} on the client side when this option
+     * is enabled. Enable this option when the registry is large and updated infrequently, so that
+     * retrieving the delta is cheaper than retrieving the registry information of the target every
+     * {@linkplain #registryFetchIntervalMillis(long) interval}. See
+     * <a href="https://github.com/Netflix/eureka/wiki/Understanding-eureka-client-server-communication#fetch-registry">
+     * fetch-registry</a>.
+     */
+    @UnstableApi
+    public EurekaEndpointGroupBuilder useDeltaFetch(boolean useDeltaFetch) {
+        this.useDeltaFetch = useDeltaFetch;
+        return this;
+    }
+
     /**
      * Returns a newly-created {@link EurekaEndpointGroup} based on the properties set so far. Note that
      * if {@link RetryingClient} was not set using {@link #decorator(DecoratingHttpClientFunction)},
@@ -262,7 +286,8 @@ public final class EurekaEndpointGroupBuilder extends AbstractWebClientBuilder
         final long selectionTimeoutMillis = dynamicEndpointGroupBuilder.selectionTimeoutMillis();
         return new EurekaEndpointGroup(selectionStrategy, allowEmptyEndpoints, selectionTimeoutMillis,
                                        client, registryFetchIntervalMillis, appName,
-                                       instanceId, vipAddress, secureVipAddress, regions);
+                                       instanceId, vipAddress, secureVipAddress, regions,
+                                       useDeltaFetch);
     }
 
     // Override the return type of the chaining methods in the superclass.
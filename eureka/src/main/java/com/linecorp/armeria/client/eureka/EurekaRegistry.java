@@ -0,0 +1,383 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.eureka;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.annotation.Nullable;
+
+/**
+ * A local replica of a Eureka registry which is built from the full registry retrieved from {@code /apps}
+ * and then kept up to date with the deltas retrieved from {@code /apps/delta}. Only the status of every
+ * instance is retained for reconciling the replica with the {@code apps__hashcode} of the registry, and
+ * {@link Endpoint}s are retained only for the instances which are selected by the filter.
+ *
+ * <p>The responses are parsed in a streaming manner so that the whole {@code applications} tree is never
+ * materialized. The properties of an instance which are not needed for building an {@link Endpoint},
+ * such as {@code metadata} and {@code leaseInfo}, are skipped without being parsed.
+ *
+ * <p>This class is not thread-safe. {@link EurekaEndpointGroup} accesses it sequentially.
+ */
+final class EurekaRegistry {
+
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private static final String UP = "UP";
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private static final String ADDED = "ADDED";
+    private static final String DELETED = "DELETED";
+
+    private final Predicate<Instance> filter;
+    private final boolean secureVip;
+
+    // Keyed by the application name and the instance ID.
+    private final Map<String, String> statuses = new HashMap<>();
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    EurekaRegistry(Predicate<Instance> filter, boolean secureVip) {
+        this.filter = filter;
+        this.secureVip = secureVip;
+    }
+
+    /**
+     * Parses the specified {@code applications} and returns the {@link Endpoint}s of the {@code UP}
+     * instances selected by the specified {@code filter}, without building a replica.
+     */
+    static List<Endpoint> parseEndpoints(byte[] applications, Predicate<Instance> filter,
+                                         boolean secureVip) throws IOException {
+        final ImmutableList.Builder<Endpoint> builder = ImmutableList.builder();
+        parse(applications, instance -> {
+            if (instance.isUp() && filter.test(instance)) {
+                final Endpoint endpoint = instance.toEndpoint(secureVip);
+                if (endpoint != null) {
+                    builder.add(endpoint);
+                }
+            }
+        });
+        return builder.build();
+    }
+
+    /**
+     * Replaces the replica with the specified full {@code applications}.
+     */
+    void reset(byte[] applications) throws IOException {
+        statuses.clear();
+        endpoints.clear();
+        parse(applications, this::put);
+    }
+
+    /**
+     * Applies the specified {@code delta} to the replica.
+     *
+     * @return {@code true} if the replica is consistent with the registry after applying the delta.
+     *         {@code false} if the {@code apps__hashcode} in the {@code delta} does not match
+     *         {@link #reconcileHashCode()}, which means the full registry has to be fetched again.
+     */
+    boolean applyDelta(byte[] delta) throws IOException {
+        final String appsHashCode = parse(delta, instance -> {
+            if (DELETED.equals(instance.actionType)) {
+                final String key = instance.key();
+                statuses.remove(key);
+                endpoints.remove(key);
+            } else {
+                // ADDED and MODIFIED are handled in the same way, just like Eureka client does.
+                put(instance);
+            }
+        });
+        return reconcileHashCode().equals(appsHashCode);
+    }
+
+    private void put(Instance instance) {
+        final String key = instance.key();
+        statuses.put(key, instance.status);
+        if (instance.isUp() && filter.test(instance)) {
+            final Endpoint endpoint = instance.toEndpoint(secureVip);
+            if (endpoint != null) {
+                endpoints.put(key, endpoint);
+                return;
+            }
+        }
+        endpoints.remove(key);
+    }
+
+    /**
+     * Returns the {@link Endpoint}s of the {@code UP} instances selected by the filter.
+     */
+    List<Endpoint> endpoints() {
+        return ImmutableList.copyOf(endpoints.values());
+    }
+
+    /**
+     * Returns the hash code of the replica, which is calculated in the same way with Eureka, e.g.
+     * {@code DOWN_1_UP_5_}.
+     */
+    String reconcileHashCode() {
+        final Map<String, Integer> counts = new TreeMap<>();
+        for (String status : statuses.values()) {
+            counts.merge(status, 1, Integer::sum);
+        }
+        final StringBuilder buf = new StringBuilder(counts.size() * 16);
+        counts.forEach((status, count) -> buf.append(status).append('_').append(count).append('_'));
+        return buf.toString();
+    }
+
+    /**
+     * Parses the specified {@code content} and invokes the {@code consumer} for each instance.
+     *
+     * @return the {@code apps__hashcode} of the {@code content}
+     */
+    @Nullable
+    private static String parse(byte[] content, Consumer<Instance> consumer) throws IOException {
+        String appsHashCode = null;
+        try (JsonParser p = jsonFactory.createParser(content)) {
+            if (p.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("applications must be an object: " + p.currentToken());
+            }
+            while (p.nextToken() == JsonToken.FIELD_NAME) {
+                final String fieldName = p.getCurrentName();
+                if (p.nextToken() == JsonToken.START_OBJECT && "applications".equals(fieldName)) {
+                    appsHashCode = parseApplications(p, consumer);
+                } else {
+                    p.skipChildren();
+                }
+            }
+        }
+        return appsHashCode;
+    }
+
+    @Nullable
+    private static String parseApplications(JsonParser p, Consumer<Instance> consumer) throws IOException {
+        String appsHashCode = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = p.getCurrentName();
+            final JsonToken token = p.nextToken();
+            switch (fieldName) {
+                case "apps__hashcode":
+                case "apps_hashcode":
+                    appsHashCode = p.getValueAsString();
+                    break;
+                case "application":
+                    if (token == JsonToken.START_ARRAY) {
+                        while (p.nextToken() == JsonToken.START_OBJECT) {
+                            parseApplication(p, consumer);
+                        }
+                    } else if (token == JsonToken.START_OBJECT) {
+                        parseApplication(p, consumer);
+                    } else {
+                        p.skipChildren();
+                    }
+                    break;
+                default:
+                    p.skipChildren();
+            }
+        }
+        return appsHashCode;
+    }
+
+    private static void parseApplication(JsonParser p, Consumer<Instance> consumer) throws IOException {
+        String name = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = p.getCurrentName();
+            final JsonToken token = p.nextToken();
+            if ("name".equals(fieldName)) {
+                name = p.getValueAsString();
+            } else if ("instance".equals(fieldName)) {
+                if (token == JsonToken.START_ARRAY) {
+                    while (p.nextToken() == JsonToken.START_OBJECT) {
+                        consumer.accept(parseInstance(p, name));
+                    }
+                } else if (token == JsonToken.START_OBJECT) {
+                    consumer.accept(parseInstance(p, name));
+                } else {
+                    p.skipChildren();
+                }
+            } else {
+                p.skipChildren();
+            }
+        }
+    }
+
+    private static Instance parseInstance(JsonParser p, @Nullable String defaultAppName) throws IOException {
+        String instanceId = null;
+        String appName = defaultAppName;
+        String hostName = null;
+        String ipAddr = null;
+        String vipAddress = null;
+        String secureVipAddress = null;
+        String status = UNKNOWN;
+        String actionType = null;
+        int port = 0;
+        boolean portEnabled = false;
+        int securePort = 0;
+
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = p.getCurrentName();
+            final JsonToken token = p.nextToken();
+            switch (fieldName) {
+                case "instanceId":
+                    instanceId = p.getValueAsString();
+                    break;
+                case "app":
+                    appName = p.getValueAsString(appName);
+                    break;
+                case "hostName":
+                    hostName = p.getValueAsString();
+                    break;
+                case "ipAddr":
+                    ipAddr = p.getValueAsString();
+                    break;
+                case "vipAddress":
+                    vipAddress = p.getValueAsString();
+                    break;
+                case "secureVipAddress":
+                    secureVipAddress = p.getValueAsString();
+                    break;
+                case "status":
+                    status = p.getValueAsString(UNKNOWN);
+                    break;
+                case "actionType":
+                    actionType = p.getValueAsString();
+                    break;
+                case "port":
+                    if (token == JsonToken.START_OBJECT) {
+                        while (p.nextToken() == JsonToken.FIELD_NAME) {
+                            final String portFieldName = p.getCurrentName();
+                            p.nextToken();
+                            if ("$".equals(portFieldName)) {
+                                port = p.getValueAsInt();
+                            } else if ("@enabled".equals(portFieldName)) {
+                                portEnabled = p.getValueAsBoolean();
+                            } else {
+                                p.skipChildren();
+                            }
+                        }
+                    }
+                    break;
+                case "securePort":
+                    if (token == JsonToken.START_OBJECT) {
+                        while (p.nextToken() == JsonToken.FIELD_NAME) {
+                            final String portFieldName = p.getCurrentName();
+                            p.nextToken();
+                            if ("$".equals(portFieldName)) {
+                                securePort = p.getValueAsInt();
+                            } else {
+                                p.skipChildren();
+                            }
+                        }
+                    }
+                    break;
+                default:
+                    // Skip the properties we don't need, e.g. metadata, leaseInfo and dataCenterInfo.
+                    p.skipChildren();
+            }
+        }
+        return new Instance(instanceId, appName, hostName, ipAddr, vipAddress, secureVipAddress, status,
+                            actionType, port, portEnabled, securePort);
+    }
+
+    /**
+     * The properties of an instance which are required for building an {@link Endpoint}.
+     */
+    static final class Instance {
+
+        @Nullable
+        private final String instanceId;
+        @Nullable
+        private final String appName;
+        @Nullable
+        private final String hostName;
+        @Nullable
+        private final String ipAddr;
+        @Nullable
+        private final String vipAddress;
+        @Nullable
+        private final String secureVipAddress;
+        private final String status;
+        @Nullable
+        private final String actionType;
+        private final int port;
+        private final boolean portEnabled;
+        private final int securePort;
+
+        Instance(@Nullable String instanceId, @Nullable String appName, @Nullable String hostName,
+                 @Nullable String ipAddr, @Nullable String vipAddress, @Nullable String secureVipAddress,
+                 String status, @Nullable String actionType, int port, boolean portEnabled, int securePort) {
+            this.instanceId = instanceId;
+            this.appName = appName;
+            this.hostName = hostName;
+            this.ipAddr = ipAddr;
+            this.vipAddress = vipAddress;
+            this.secureVipAddress = secureVipAddress;
+            this.status = status;
+            this.actionType = actionType;
+            this.port = port;
+            this.portEnabled = portEnabled;
+            this.securePort = securePort;
+        }
+
+        @Nullable
+        String instanceId() {
+            return instanceId;
+        }
+
+        @Nullable
+        String appName() {
+            return appName;
+        }
+
+        @Nullable
+        String vipAddress() {
+            return vipAddress;
+        }
+
+        @Nullable
+        String secureVipAddress() {
+            return secureVipAddress;
+        }
+
+        boolean isUp() {
+            return UP.equals(status);
+        }
+
+        private String key() {
+            return appName + '/' + instanceId;
+        }
+
+        @Nullable
+        private Endpoint toEndpoint(boolean secureVip) {
+            if (hostName == null) {
+                return null;
+            }
+            return EurekaEndpointGroup.endpoint(hostName, ipAddr,
+                                                secureVip || !portEnabled ? securePort : port);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.eureka;
+
+import static com.linecorp.armeria.client.eureka.EurekaRegistryTest.application;
+import static com.linecorp.armeria.client.eureka.EurekaRegistryTest.applications;
+import static com.linecorp.armeria.client.eureka.EurekaRegistryTest.instance;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.HttpData;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.ResponseHeaders;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+class EurekaEndpointGroupDeltaTest {
+
+    private static final AtomicInteger numFullFetches = new AtomicInteger();
+    private static final AtomicInteger numNotModified = new AtomicInteger();
+    private static final BlockingQueue<String> deltas = new LinkedBlockingQueue<>();
+    private static volatile String appsHashCode = "UP_2_";
+
+    private static final String FULL = applications(
+            "UP_2_",
+            application("FOO", instance("FOO", "foo1", "UP", 8080)),
+            application("BAR", instance("BAR", "bar1", "UP", 9090)));
+
+    @RegisterExtension
+    static final ServerExtension eurekaServer = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            sb.service("/apps", (ctx, req) -> {
+                numFullFetches.incrementAndGet();
+                if ("v1".equals(req.headers().get(HttpHeaderNames.IF_NONE_MATCH))) {
+                    numNotModified.incrementAndGet();
+                    return HttpResponse.of(HttpStatus.NOT_MODIFIED);
+                }
+                return HttpResponse.of(ResponseHeaders.builder(HttpStatus.OK)
+                                                      .contentType(MediaType.JSON_UTF_8)
+                                                      .set(HttpHeaderNames.ETAG, "v1")
+                                                      .build(),
+                                       HttpData.ofUtf8(FULL));
+            });
+            sb.service("/apps/delta", (ctx, req) -> {
+                final String delta = deltas.poll();
+                if (delta == null) {
+                    return HttpResponse.of(HttpStatus.OK, MediaType.JSON_UTF_8, applications(appsHashCode));
+                }
+                return HttpResponse.of(HttpStatus.OK, MediaType.JSON_UTF_8, delta);
+            });
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        numFullFetches.set(0);
+        numNotModified.set(0);
+        deltas.clear();
+        appsHashCode = "UP_2_";
+    }
+
+    @Test
+    void appliesDeltaAndFallsBackToFullFetch() {
+        deltas.add(applications("UP_3_", application("FOO", instance("FOO", "foo2", "UP", 8081, "ADDED"))));
+        appsHashCode = "UP_3_";
+        try (EurekaEndpointGroup group = EurekaEndpointGroup.builder(eurekaServer.httpUri())
+                                                            .appName("FOO")
+                                                            .useDeltaFetch(true)
+                                                            .registryFetchIntervalMillis(100)
+                                                            .build()) {
+            final List<Endpoint> endpoints = group.whenReady().join();
+            assertThat(endpoints).containsExactly(Endpoint.of("foo1.example.com", 8080)
+                                                          .withIpAddr("127.0.0.1"));
+            await().untilAsserted(() -> assertThat(group.endpoints()).containsExactlyInAnyOrder(
+                    Endpoint.of("foo1.example.com", 8080).withIpAddr("127.0.0.1"),
+                    Endpoint.of("foo2.example.com", 8081).withIpAddr("127.0.0.1")));
+            assertThat(numFullFetches).hasValue(1);
+
+            // A delta which does not match the hash code makes the group fetch the full registry again.
+            deltas.add(applications("UP_5_", application("BAR", instance("BAR", "bar2", "UP", 9091, "ADDED"))));
+            appsHashCode = "UP_2_";
+            await().untilAsserted(() -> assertThat(group.endpoints()).containsExactly(
+                    Endpoint.of("foo1.example.com", 8080).withIpAddr("127.0.0.1")));
+            assertThat(numFullFetches).hasValue(2);
+        }
+    }
+
+    @Test
+    void notModified() {
+        try (EurekaEndpointGroup group = EurekaEndpointGroup.builder(eurekaServer.httpUri())
+                                                            .registryFetchIntervalMillis(100)
+                                                            .build()) {
+            assertThat(group.whenReady().join()).hasSize(2);
+            await().untilAsserted(() -> assertThat(numNotModified).hasValueGreaterThan(1));
+            assertThat(group.endpoints()).hasSize(2);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.client.eureka;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.linecorp.armeria.client.Endpoint;
+
+class EurekaRegistryTest {
+
+    static String instance(String app, String id, String status, int port) {
+        return instance(app, id, status, port, null);
+    }
+
+    static String instance(String app, String id, String status, int port, String actionType) {
+        return "{\"instanceId\":\"" + id + "\",\"app\":\"" + app + "\",\"hostName\":\"" + id +
+               ".example.com\",\"ipAddr\":\"127.0.0.1\",\"vipAddress\":\"" + app.toLowerCase() +
+               "\",\"status\":\"" + status + "\",\"port\":{\"$\":" + port + ",\"@enabled\":\"true\"}," +
+               "\"securePort\":{\"$\":443,\"@enabled\":\"false\"}," +
+               "\"dataCenterInfo\":{\"@class\":\"com.netflix.appinfo.MyDataCenterInfo\",\"name\":\"MyOwn\"}," +
+               "\"leaseInfo\":{\"renewalIntervalInSecs\":30,\"durationInSecs\":90}," +
+               "\"metadata\":{\"foo\":\"bar\",\"nested\":[1,2,{\"a\":\"b\"}]}" +
+               (actionType != null ? ",\"actionType\":\"" + actionType + '"' : "") + '}';
+    }
+
+    static String applications(String appsHashCode, String... apps) {
+        return "{\"applications\":{\"versions__delta\":\"1\",\"apps__hashcode\":\"" + appsHashCode +
+               "\",\"application\":[" + String.join(",", apps) + "]}}";
+    }
+
+    static String application(String name, String... instances) {
+        return "{\"name\":\"" + name + "\",\"instance\":[" + String.join(",", instances) + "]}";
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(UTF_8);
+    }
+
+    @Test
+    void resetAndApplyDelta() throws Exception {
+        final EurekaRegistry registry = new EurekaRegistry(instance -> "FOO".equals(instance.appName()),
+                                                           false);
+        registry.reset(bytes(applications(
+                "DOWN_1_UP_3_",
+                application("FOO", instance("FOO", "foo1", "UP", 8080),
+                            instance("FOO", "foo2", "DOWN", 8081)),
+                application("BAR", instance("BAR", "bar1", "UP", 9090),
+                            instance("BAR", "bar2", "UP", 9091)))));
+
+        assertThat(registry.reconcileHashCode()).isEqualTo("DOWN_1_UP_3_");
+        assertThat(registry.endpoints()).containsExactly(
+                Endpoint.of("foo1.example.com", 8080).withIpAddr("127.0.0.1"));
+
+        // foo2 is up, foo3 is added, foo1 and bar1 are deleted.
+        assertThat(registry.applyDelta(bytes(applications(
+                "UP_3_",
+                application("FOO", instance("FOO", "foo1", "UP", 8080, "DELETED"),
+                            instance("FOO", "foo2", "UP", 8081, "MODIFIED"),
+                            instance("FOO", "foo3", "UP", 8082, "ADDED")),
+                application("BAR", instance("BAR", "bar1", "UP", 9090, "DELETED")))))).isTrue();
+
+        assertThat(registry.reconcileHashCode()).isEqualTo("UP_3_");
+        assertThat(registry.endpoints()).containsExactlyInAnyOrder(
+                Endpoint.of("foo2.example.com", 8081).withIpAddr("127.0.0.1"),
+                Endpoint.of("foo3.example.com", 8082).withIpAddr("127.0.0.1"));
+    }
+
+    @Test
+    void inconsistentDelta() throws Exception {
+        final EurekaRegistry registry = new EurekaRegistry(instance -> true, false);
+        registry.reset(bytes(applications("UP_1_", application("FOO", instance("FOO", "foo1", "UP", 8080)))));
+
+        // The delta misses the addition of another instance.
+        assertThat(registry.applyDelta(bytes(applications(
+                "DOWN_1_UP_1_",
+                application("FOO", instance("FOO", "foo1", "DOWN", 8080, "MODIFIED")))))).isFalse();
+        assertThat(registry.reconcileHashCode()).isEqualTo("DOWN_1_");
+        assertThat(registry.endpoints()).isEmpty();
+
+        // A delta without the hash code can't be reconciled.
+        assertThat(registry.applyDelta(bytes("{\"applications\":{\"application\":[]}}"))).isFalse();
+    }
+
+    @Test
+    void singleApplicationAndInstance() throws Exception {
+        // Eureka omits the array brackets when there's only one element.
+        final String json = "{\"applications\":{\"apps__hashcode\":\"UP_1_\",\"application\":" +
+                            "{\"name\":\"FOO\",\"instance\":" + instance("FOO", "foo1", "UP", 8080) + "}}}";
+        assertThat(EurekaRegistry.parseEndpoints(bytes(json), instance -> true, true))
+                .containsExactly(Endpoint.of("foo1.example.com", 443).withIpAddr("127.0.0.1"));
+    }
+}
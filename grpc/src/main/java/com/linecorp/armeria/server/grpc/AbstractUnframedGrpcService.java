@@ -18,6 +18,7 @@ package com.linecorp.armeria.server.grpc;
 
 import static java.util.Objects.requireNonNull;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -41,14 +42,17 @@ import com.linecorp.armeria.common.HttpRequest;
 import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.common.MediaType;
 import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.ResponseHeaders;
 import com.linecorp.armeria.common.ResponseHeadersBuilder;
 import com.linecorp.armeria.common.SerializationFormat;
+import com.linecorp.armeria.common.SplitHttpResponse;
 import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.grpc.GrpcSerializationFormats;
 import com.linecorp.armeria.common.grpc.protocol.ArmeriaMessageDeframer;
 import com.linecorp.armeria.common.grpc.protocol.ArmeriaMessageFramer;
 import com.linecorp.armeria.common.grpc.protocol.DeframedMessage;
 import com.linecorp.armeria.common.grpc.protocol.GrpcHeaderNames;
+import com.linecorp.armeria.common.stream.StreamMessage;
 import com.linecorp.armeria.common.stream.SubscriptionOption;
 import com.linecorp.armeria.common.util.SafeCloseable;
 import com.linecorp.armeria.server.HttpService;
@@ -63,7 +67,10 @@ import io.grpc.ServerMethodDefinition;
 import io.grpc.ServerServiceDefinition;
 import io.grpc.Status;
 import io.grpc.Status.Code;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.netty.buffer.ByteBuf;
 import io.netty.util.AttributeKey;
+import io.netty.util.ByteProcessor;
 
 /**
  * Common part of the {@link UnframedGrpcService} and {@link HttpJsonTranscodingService}.
@@ -71,6 +78,7 @@ import io.netty.util.AttributeKey;
 abstract class AbstractUnframedGrpcService extends SimpleDecoratingHttpService implements GrpcService {
 
     private static final Logger logger = LoggerFactory.getLogger(AbstractUnframedGrpcService.class);
+    private static final byte[] EVENT_STREAM_DATA_FIELD = "data:".getBytes(StandardCharsets.US_ASCII);
     static final AttributeKey<Boolean> IS_UNFRAMED_GRPC =
             AttributeKey.valueOf(AbstractUnframedGrpcService.class, "IS_UNFRAMED_GRPC");
 
@@ -104,7 +112,14 @@ abstract class AbstractUnframedGrpcService extends SimpleDecoratingHttpService i
             }
         }
 
-        if (contentType.is(MediaType.PROTOBUF) || contentType.is(MediaType.JSON_UTF_8)) {
+        if (contentType.is(MediaType.PROTOBUF)) {
+            return ExchangeType.UNARY;
+        }
+        if (contentType.is(MediaType.JSON_UTF_8)) {
+            // The response of a server-streaming method is sent as a JSON sequence.
+            if (((HttpService) unwrap()).exchangeType(routingContext) == ExchangeType.RESPONSE_STREAMING) {
+                return ExchangeType.RESPONSE_STREAMING;
+            }
             return ExchangeType.UNARY;
         }
         // Unsupported Content-Type
@@ -144,6 +159,97 @@ abstract class AbstractUnframedGrpcService extends SimpleDecoratingHttpService i
             CompletableFuture<HttpResponse> res,
             @Nullable Function<HttpData, HttpData> responseBodyConverter,
             MediaType responseContentType) {
+        final HttpResponse grpcResponse = serveFramed(delegate, ctx, grpcHeaders, content, res);
+        if (grpcResponse == null) {
+            return;
+        }
+
+        grpcResponse.aggregate(AggregationOptions.usePooledObjects(ctx.alloc(), ctx.eventLoop()))
+                    .handle(
+                            (framedResponse, t) -> {
+                                try (SafeCloseable ignore = ctx.push()) {
+                                    if (t != null) {
+                                        res.completeExceptionally(t);
+                                    } else {
+                                        deframeAndRespond(ctx, framedResponse, res, unframedGrpcErrorHandler,
+                                                          responseBodyConverter, responseContentType);
+                                    }
+                                }
+                                return null;
+                            });
+    }
+
+    /**
+     * Serves a server-streaming call without aggregating its response. Each response message is sent as
+     * soon as it's produced, either as a line of {@link MediaType#JSON_LINES} or as the data of
+     * a {@link MediaType#EVENT_STREAM} event. Because the messages are produced as the client consumes them,
+     * the backpressure is propagated to the {@link ServerCallStreamObserver} of the method.
+     *
+     * <p>The response headers are sent before the gRPC status is known, so the {@code grpc-status} of a call
+     * which fails after sending a message is only sent in the trailers.
+     */
+    protected void frameAndServeStreaming(
+            Service<HttpRequest, HttpResponse> delegate,
+            ServiceRequestContext ctx,
+            RequestHeaders grpcHeaders,
+            HttpData content,
+            CompletableFuture<HttpResponse> res,
+            @Nullable Function<HttpData, HttpData> responseBodyConverter,
+            MediaType responseContentType) {
+        final HttpResponse grpcResponse = serveFramed(delegate, ctx, grpcHeaders, content, res);
+        if (grpcResponse == null) {
+            return;
+        }
+
+        final SplitHttpResponse splitResponse = grpcResponse.split(ctx.eventLoop());
+        splitResponse.headers().handle((headers, t) -> {
+            try (SafeCloseable ignore = ctx.push()) {
+                if (t != null) {
+                    res.completeExceptionally(t);
+                    return null;
+                }
+                if (headers.contains(GrpcHeaderNames.GRPC_STATUS)) {
+                    // A trailers-only response which has no messages.
+                    splitResponse.body().abort();
+                    deframeAndRespond(ctx, AggregatedHttpResponse.of(headers), res, unframedGrpcErrorHandler,
+                                      responseBodyConverter, responseContentType);
+                    return null;
+                }
+
+                final ResponseHeaders unframedHeaders = headers.toBuilder()
+                                                               .contentType(responseContentType)
+                                                               .build();
+                final boolean eventStream = responseContentType.is(MediaType.EVENT_STREAM);
+                final ArmeriaMessageDeframer deframer = new ArmeriaMessageDeframer(
+                        // Max outbound message size is handled by the GrpcService, so we don't need to set it.
+                        Integer.MAX_VALUE);
+                final StreamMessage<HttpData> body =
+                        splitResponse.body()
+                                     .decode(deframer, ctx.alloc())
+                                     .map(message -> toJsonSequenceElement(ctx, message, responseBodyConverter,
+                                                                           eventStream));
+                res.complete(HttpResponse.of(unframedHeaders, body, cause -> {
+                    if (cause != null) {
+                        // Abort the response with the cause.
+                        return null;
+                    }
+                    return splitResponse.trailers().getNow(HttpHeaders.of());
+                }));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Frames the {@code content} and serves it with the {@code delegate}. Returns {@code null} if
+     * the {@code delegate} failed to serve it, after completing the {@code res} exceptionally.
+     */
+    @Nullable
+    private static HttpResponse serveFramed(Service<HttpRequest, HttpResponse> delegate,
+                                            ServiceRequestContext ctx,
+                                            RequestHeaders grpcHeaders,
+                                            HttpData content,
+                                            CompletableFuture<HttpResponse> res) {
         final HttpRequest grpcRequest;
         ctx.setAttr(IS_UNFRAMED_GRPC, true);
         try (ArmeriaMessageFramer framer = new ArmeriaMessageFramer(
@@ -161,27 +267,64 @@ abstract class AbstractUnframedGrpcService extends SimpleDecoratingHttpService i
             grpcRequest = HttpRequest.of(grpcHeaders, frame);
         }
 
-        final HttpResponse grpcResponse;
         try {
-            grpcResponse = delegate.serve(ctx, grpcRequest);
+            return delegate.serve(ctx, grpcRequest);
         } catch (Exception e) {
             res.completeExceptionally(e);
-            return;
+            return null;
         }
+    }
 
-        grpcResponse.aggregate(AggregationOptions.usePooledObjects(ctx.alloc(), ctx.eventLoop()))
-                    .handle(
-                            (framedResponse, t) -> {
-                                try (SafeCloseable ignore = ctx.push()) {
-                                    if (t != null) {
-                                        res.completeExceptionally(t);
-                                    } else {
-                                        deframeAndRespond(ctx, framedResponse, res, unframedGrpcErrorHandler,
-                                                          responseBodyConverter, responseContentType);
-                                    }
-                                }
-                                return null;
-                            });
+    /**
+     * Returns {@link MediaType#EVENT_STREAM} if the client prefers Server-Sent Events to JSON Lines.
+     * Otherwise, returns {@link MediaType#JSON_LINES}.
+     */
+    static MediaType jsonSequenceMediaType(RequestHeaders headers) {
+        for (MediaType accept : headers.accept()) {
+            if (accept.is(MediaType.EVENT_STREAM)) {
+                return MediaType.EVENT_STREAM;
+            }
+            if (accept.is(MediaType.JSON_LINES)) {
+                break;
+            }
+        }
+        return MediaType.JSON_LINES;
+    }
+
+    private static HttpData toJsonSequenceElement(ServiceRequestContext ctx, DeframedMessage message,
+                                                  @Nullable Function<HttpData, HttpData> responseBodyConverter,
+                                                  boolean eventStream) {
+        // We know that we don't support compression, so this is always a ByteBuf.
+        HttpData json = HttpData.wrap(message.buf());
+        if (responseBodyConverter != null) {
+            json = responseBodyConverter.apply(json);
+        }
+        try (HttpData data = json) {
+            final ByteBuf buf = data.byteBuf();
+            final int length = buf.readableBytes();
+            final ByteBuf element = ctx.alloc().buffer(
+                    length + (eventStream ? EVENT_STREAM_DATA_FIELD.length + 2 : 1));
+            if (eventStream) {
+                element.writeBytes(EVENT_STREAM_DATA_FIELD);
+            }
+            final int start = element.writerIndex();
+            element.writeBytes(buf, buf.readerIndex(), length);
+            // A line break can only be an insignificant whitespace in JSON because it has to be escaped in
+            // a string. Replace it with a space so that a message doesn't span multiple lines.
+            for (int i = start; i < start + length;) {
+                final int lineBreak = element.forEachByte(i, start + length - i, ByteProcessor.FIND_CRLF);
+                if (lineBreak < 0) {
+                    break;
+                }
+                element.setByte(lineBreak, ' ');
+                i = lineBreak + 1;
+            }
+            element.writeByte('\n');
+            if (eventStream) {
+                element.writeByte('\n');
+            }
+            return HttpData.wrap(element);
+        }
     }
 
     @VisibleForTesting
@@ -71,10 +71,12 @@ import com.linecorp.armeria.server.Route;
 import com.linecorp.armeria.server.RoutingContext;
 import com.linecorp.armeria.server.ServiceConfig;
 import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.unsafe.grpc.GrpcUnsafeBufferUtil;
 
 import io.grpc.Codec.Identity;
 import io.grpc.CompressorRegistry;
 import io.grpc.DecompressorRegistry;
+import io.grpc.ForwardingServerCallListener.SimpleForwardingServerCallListener;
 import io.grpc.Metadata;
 import io.grpc.MethodDescriptor;
 import io.grpc.MethodDescriptor.MethodType;
@@ -132,6 +134,7 @@ final class FramedGrpcService extends AbstractHttpService implements GrpcService
     private final int maxResponseMessageLength;
     private final boolean useBlockingTaskExecutor;
     private final boolean unsafeWrapRequestBuffers;
+    private final boolean autoReleaseRequestBuffers;
     private final boolean useClientTimeoutHeader;
     private final String advertisedEncodingsHeader;
     private final Map<SerializationFormat, ResponseHeaders> defaultHeaders;
@@ -151,6 +154,7 @@ final class FramedGrpcService extends AbstractHttpService implements GrpcService
                       int maxRequestMessageLength, int maxResponseMessageLength,
                       boolean useBlockingTaskExecutor,
                       boolean unsafeWrapRequestBuffers,
+                      boolean autoReleaseRequestBuffers,
                       boolean useClientTimeoutHeader,
                       boolean lookupMethodFromAttribute,
                       @Nullable GrpcHealthCheckService grpcHealthCheckService,
@@ -171,6 +175,7 @@ final class FramedGrpcService extends AbstractHttpService implements GrpcService
         this.maxResponseMessageLength = maxResponseMessageLength;
         this.useBlockingTaskExecutor = useBlockingTaskExecutor;
         this.unsafeWrapRequestBuffers = unsafeWrapRequestBuffers;
+        this.autoReleaseRequestBuffers = autoReleaseRequestBuffers;
         this.lookupMethodFromAttribute = lookupMethodFromAttribute;
         this.autoCompression = autoCompression;
 
@@ -317,7 +322,11 @@ final class FramedGrpcService extends AbstractHttpService implements GrpcService
                     "startCall() returned a null listener for method " + methodDescriptor.getFullMethodName());
         }
 
-        call.setListener(listener);
+        if (unsafeWrapRequestBuffers && autoReleaseRequestBuffers) {
+            call.setListener(new BufferReleasingListener<>(listener, ctx));
+        } else {
+            call.setListener(listener);
+        }
         call.startDeframing();
         ctx.whenRequestCancelling().handle((cancellationCause, unused) -> {
             Status status = Status.CANCELLED.withCause(cancellationCause);
@@ -522,4 +531,39 @@ final class FramedGrpcService extends AbstractHttpService implements GrpcService
     }
 
     private static class EmptyListener<T> extends ServerCall.Listener<T> {}
+
+    /**
+     * Releases the request buffers after {@link Listener#onComplete()} or {@link Listener#onCancel()}
+     * returns. One of them is the last callback of a call and is invoked after the other callbacks return,
+     * in the event loop or in the sequential blocking task executor of the call, so no callback which may
+     * access the request messages is running at that time, even if the call was cancelled or its deadline
+     * was exceeded.
+     */
+    private static final class BufferReleasingListener<T> extends SimpleForwardingServerCallListener<T> {
+
+        private final ServiceRequestContext ctx;
+
+        BufferReleasingListener(Listener<T> delegate, ServiceRequestContext ctx) {
+            super(delegate);
+            this.ctx = ctx;
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                super.onComplete();
+            } finally {
+                GrpcUnsafeBufferUtil.releaseAllBuffers(ctx);
+            }
+        }
+
+        @Override
+        public void onCancel() {
+            try {
+                super.onCancel();
+            } finally {
+                GrpcUnsafeBufferUtil.releaseAllBuffers(ctx);
+            }
+        }
+    }
 }
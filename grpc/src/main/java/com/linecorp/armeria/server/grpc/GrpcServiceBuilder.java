@@ -66,6 +66,7 @@ import io.grpc.CompressorRegistry;
 import io.grpc.DecompressorRegistry;
 import io.grpc.Metadata;
 import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
 import io.grpc.ServerInterceptor;
 import io.grpc.ServerInterceptors;
 import io.grpc.ServerServiceDefinition;
@@ -145,6 +146,8 @@ public final class GrpcServiceBuilder {
 
     private boolean unsafeWrapRequestBuffers;
 
+    private boolean autoReleaseRequestBuffers;
+
     private boolean useClientTimeoutHeader = true;
 
     private boolean enableHealthCheckService;
@@ -605,7 +608,10 @@ public final class GrpcServiceBuilder {
      *
      * <p>Limitations:
      * <ul>
-     *     <li>Only unary methods (single request, single response) are supported.</li>
+     *     <li>Only unary methods (single request, single response) are supported, except that
+     *         server-streaming methods can be called with a JSON request. Their responses are sent as
+     *         <a href="https://jsonlines.org/">JSON Lines</a>, or as Server-Sent Events if
+     *         the {@code accept} header prefers {@code text/event-stream}.</li>
      *     <li>
      *         Message compression is not supported.
      *         {@link EncodingService} should be used instead for
@@ -635,7 +641,10 @@ public final class GrpcServiceBuilder {
      *
      * <p><b>Limitations:</b>
      * <ul>
-     *     <li>Only unary methods (single request, single response) are supported.</li>
+     *     <li>Only unary methods (single request, single response) and server-streaming methods are
+     *         supported. The responses of server-streaming methods are sent as
+     *         <a href="https://jsonlines.org/">JSON Lines</a>, or as Server-Sent Events if
+     *         the {@code accept} header prefers {@code text/event-stream}.</li>
      *     <li>
      *         Message compression is not supported.
      *         {@link EncodingService} should be used instead for
@@ -679,7 +688,10 @@ public final class GrpcServiceBuilder {
      *
      * <p>Limitations:
      * <ul>
-     *     <li>Only unary methods (single request, single response) are supported.</li>
+     *     <li>Only unary methods (single request, single response) and server-streaming methods are
+     *         supported. The responses of server-streaming methods are sent as
+     *         <a href="https://jsonlines.org/">JSON Lines</a>, or as Server-Sent Events if
+     *         the {@code accept} header prefers {@code text/event-stream}.</li>
      *     <li>
      *         Message compression is not supported.
      *         {@link EncodingService} should be used instead for
@@ -743,7 +755,7 @@ public final class GrpcServiceBuilder {
      * with the message and the request's context to release the buffer. The message must be the same
      * reference as what was passed to the service stub - a message with the same contents will not
      * work. If {@link GrpcUnsafeBufferUtil#releaseBuffer(Object, RequestContext)} is not called, the memory
-     * will be leaked.
+     * will be leaked unless {@link #autoReleaseRequestBuffers(boolean)} is enabled.
      *
      * <p>Note that this isn't working if the payloads are compressed or the {@link SerializationFormat} is
      * {@link GrpcSerializationFormats#PROTO_WEB_TEXT}.
@@ -753,6 +765,23 @@ public final class GrpcServiceBuilder {
         return this;
     }
 
+    /**
+     * Sets whether to release the request buffers retained by {@link #unsafeWrapRequestBuffers(boolean)}
+     * automatically after the call is closed and {@link ServerCall.Listener#onComplete()} or
+     * {@link ServerCall.Listener#onCancel()} returns, i.e. after all the callbacks of the service which
+     * receive the request messages have returned, even if the call was cancelled. A buffer can still be
+     * released earlier with {@link GrpcUnsafeBufferUtil#releaseBuffer(Object, RequestContext)}. This option is
+     * disabled by default and has no effect if {@link #unsafeWrapRequestBuffers(boolean)} is disabled.
+     *
+     * <p>When enabled, a request message and the {@link ByteString}s in it must not be accessed after
+     * the call is closed, e.g. from a task which the service scheduled to run in another thread.
+     */
+    @UnstableApi
+    public GrpcServiceBuilder autoReleaseRequestBuffers(boolean autoReleaseRequestBuffers) {
+        this.autoReleaseRequestBuffers = autoReleaseRequestBuffers;
+        return this;
+    }
+
     /**
      * Sets the factory that creates a {@link GrpcJsonMarshaller} that serializes and deserializes request or
      * response messages to and from JSON depending on the {@link SerializationFormat}. The returned
@@ -1013,6 +1042,7 @@ public final class GrpcServiceBuilder {
                 maxRequestMessageLength, maxResponseMessageLength,
                 useBlockingTaskExecutor,
                 unsafeWrapRequestBuffers,
+                autoReleaseRequestBuffers,
                 useClientTimeoutHeader,
                 enableHttpJsonTranscoding, // The method definition might be set when transcoding is enabled.
                 grpcHealthCheckService,
@@ -78,6 +78,7 @@ import com.google.protobuf.UInt64Value;
 import com.google.protobuf.Value;
 
 import com.linecorp.armeria.common.AggregatedHttpRequest;
+import com.linecorp.armeria.common.ExchangeType;
 import com.linecorp.armeria.common.HttpData;
 import com.linecorp.armeria.common.HttpMethod;
 import com.linecorp.armeria.common.HttpRequest;
@@ -100,6 +101,7 @@ import com.linecorp.armeria.internal.server.grpc.HttpEndpointSupport;
 import com.linecorp.armeria.server.HttpStatusException;
 import com.linecorp.armeria.server.Route;
 import com.linecorp.armeria.server.RouteBuilder;
+import com.linecorp.armeria.server.RoutingContext;
 import com.linecorp.armeria.server.ServiceRequestContext;
 import com.linecorp.armeria.server.grpc.HttpJsonTranscodingPathParser.PathSegment;
 import com.linecorp.armeria.server.grpc.HttpJsonTranscodingPathParser.PathSegment.PathMappingType;
@@ -152,9 +154,10 @@ final class HttpJsonTranscodingService extends AbstractUnframedGrpcService
 
                 final HttpRule httpRule = methodOptions.getExtension(AnnotationsProto.http);
 
-                checkArgument(methodDefinition.getMethodDescriptor().getType() == MethodType.UNARY,
-                              "Only unary methods can be configured with an HTTP/JSON endpoint: " +
-                              "method=%s, httpRule=%s",
+                final MethodType methodType = methodDefinition.getMethodDescriptor().getType();
+                checkArgument(methodType == MethodType.UNARY || methodType == MethodType.SERVER_STREAMING,
+                              "Only unary and server-streaming methods can be configured with " +
+                              "an HTTP/JSON endpoint: method=%s, httpRule=%s",
                               methodDefinition.getMethodDescriptor().getFullMethodName(), httpRule);
 
                 @Nullable
@@ -531,6 +534,15 @@ final class HttpJsonTranscodingService extends AbstractUnframedGrpcService
         return routes;
     }
 
+    @Override
+    public ExchangeType exchangeType(RoutingContext routingContext) {
+        final TranscodingSpec spec = routeAndSpecs.get(routingContext.result().value().mappedRoute());
+        if (spec != null && spec.serverStreaming) {
+            return ExchangeType.RESPONSE_STREAMING;
+        }
+        return super.exchangeType(routingContext);
+    }
+
     @Override
     public ServerMethodDefinition<?, ?> methodDefinition(ServiceRequestContext ctx) {
         final TranscodingSpec spec = routeAndSpecs.get(ctx.config().mappedRoute());
@@ -576,10 +588,17 @@ final class HttpJsonTranscodingService extends AbstractUnframedGrpcService
                 } else {
                     try {
                         ctx.setAttr(FramedGrpcService.RESOLVED_GRPC_METHOD, spec.method);
-                        // Set JSON media type (https://www.envoyproxy.io/docs/envoy/latest/configuration/http/http_filters/grpc_json_transcoder_filter#sending-arbitrary-content)
-                        frameAndServe(unwrap(), ctx, grpcHeaders.build(),
-                                      convertToJson(ctx, clientRequest, spec), responseFuture,
-                                      generateResponseBodyConverter(spec), MediaType.JSON_UTF_8);
+                        if (spec.serverStreaming) {
+                            frameAndServeStreaming(unwrap(), ctx, grpcHeaders.build(),
+                                                   convertToJson(ctx, clientRequest, spec), responseFuture,
+                                                   generateResponseBodyConverter(spec),
+                                                   jsonSequenceMediaType(clientHeaders));
+                        } else {
+                            // Set JSON media type (https://www.envoyproxy.io/docs/envoy/latest/configuration/http/http_filters/grpc_json_transcoder_filter#sending-arbitrary-content)
+                            frameAndServe(unwrap(), ctx, grpcHeaders.build(),
+                                          convertToJson(ctx, clientRequest, spec), responseFuture,
+                                          generateResponseBodyConverter(spec), MediaType.JSON_UTF_8);
+                        }
                     } catch (IllegalArgumentException iae) {
                         responseFuture.completeExceptionally(
                                 HttpStatusException.of(HttpStatus.BAD_REQUEST, iae));
@@ -824,6 +843,7 @@ final class HttpJsonTranscodingService extends AbstractUnframedGrpcService
         private final List<PathVariable> pathVariables;
         @Nullable
         private final String responseBody;
+        private final boolean serverStreaming;
 
         private TranscodingSpec(int order,
                                 HttpRule httpRule,
@@ -843,6 +863,7 @@ final class HttpJsonTranscodingService extends AbstractUnframedGrpcService
             this.camelCaseFields = camelCaseFields;
             this.pathVariables = pathVariables;
             this.responseBody = responseBody;
+            serverStreaming = method.getMethodDescriptor().getType() == MethodType.SERVER_STREAMING;
         }
     }
 
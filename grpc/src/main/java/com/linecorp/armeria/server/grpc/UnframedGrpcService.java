@@ -49,7 +49,9 @@ import io.grpc.ServerMethodDefinition;
  *
  * <p>Limitations:
  * <ul>
- *     <li>Only unary methods (single request, single response) are supported.</li>
+ *     <li>Only unary methods (single request, single response) are supported, except that
+ *         server-streaming methods can be called with a JSON request. Their responses are sent as
+ *         JSON Lines or Server-Sent Events.</li>
  *     <li>
  *         Message compression is not supported.
  *         {@link EncodingService} should be used instead for
@@ -111,10 +113,14 @@ final class UnframedGrpcService extends AbstractUnframedGrpcService {
             return unwrap().serve(ctx, req);
         }
 
-        if (method.getMethodDescriptor().getType() != MethodType.UNARY) {
+        final MethodType methodType = method.getMethodDescriptor().getType();
+        final boolean serverStreaming =
+                methodType == MethodType.SERVER_STREAMING && contentType.is(MediaType.JSON);
+        if (methodType != MethodType.UNARY && !serverStreaming) {
             return HttpResponse.of(HttpStatus.BAD_REQUEST,
                                    MediaType.PLAIN_TEXT_UTF_8,
-                                   "Only unary methods can be used with non-framed requests.");
+                                   "Only unary methods and server-streaming methods with JSON requests " +
+                                   "can be used with non-framed requests.");
         }
 
         final RequestHeadersBuilder grpcHeaders = clientHeaders.toBuilder();
@@ -152,6 +158,9 @@ final class UnframedGrpcService extends AbstractUnframedGrpcService {
                try (SafeCloseable ignore = ctx.push()) {
                    if (t != null) {
                        responseFuture.completeExceptionally(t);
+                   } else if (serverStreaming) {
+                       frameAndServeStreaming(unwrap(), ctx, grpcHeaders.build(), clientRequest.content(),
+                                              responseFuture, null, jsonSequenceMediaType(clientHeaders));
                    } else {
                        frameAndServe(unwrap(), ctx, grpcHeaders.build(), clientRequest.content(),
                                      responseFuture, null, contentType);
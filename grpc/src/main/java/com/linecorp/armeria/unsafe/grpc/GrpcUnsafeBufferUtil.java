@@ -16,7 +16,9 @@
 
 package com.linecorp.armeria.unsafe.grpc;
 
+import java.util.ArrayList;
 import java.util.IdentityHashMap;
+import java.util.List;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.protobuf.Message;
@@ -34,7 +36,9 @@ import io.netty.util.AttributeKey;
 public final class GrpcUnsafeBufferUtil {
 
     /**
-     * An {@link AttributeKey} for storing the {@link ByteBuf}s backing {@link Message}s.
+     * An {@link AttributeKey} for storing the {@link ByteBuf}s backing {@link Message}s. The map is guarded
+     * by itself because a buffer may be released from a thread other than the one which stored it, e.g.
+     * the blocking task executor.
      */
     @VisibleForTesting
     public static final AttributeKey<IdentityHashMap<Object, ByteBuf>> BUFFERS = AttributeKey.valueOf(
@@ -50,7 +54,9 @@ public final class GrpcUnsafeBufferUtil {
             buffers = new IdentityHashMap<>();
             ctx.setAttr(BUFFERS, buffers);
         }
-        buffers.put(message, buf);
+        synchronized (buffers) {
+            buffers.put(message, buf);
+        }
     }
 
     /**
@@ -61,7 +67,10 @@ public final class GrpcUnsafeBufferUtil {
         if (buffers == null) {
             return;
         }
-        final ByteBuf removed = buffers.remove(message);
+        final ByteBuf removed;
+        synchronized (buffers) {
+            removed = buffers.remove(message);
+        }
         if (removed == null) {
             return;
         }
@@ -69,5 +78,27 @@ public final class GrpcUnsafeBufferUtil {
         removed.release();
     }
 
+    /**
+     * Releases all the {@link ByteBuf}s stored in the specified {@link RequestContext} which have not been
+     * released yet using {@link #releaseBuffer(Object, RequestContext)}.
+     */
+    public static void releaseAllBuffers(RequestContext ctx) {
+        final IdentityHashMap<Object, ByteBuf> buffers = ctx.attr(BUFFERS);
+        if (buffers == null) {
+            return;
+        }
+        final List<ByteBuf> removed;
+        synchronized (buffers) {
+            if (buffers.isEmpty()) {
+                return;
+            }
+            removed = new ArrayList<>(buffers.values());
+            buffers.clear();
+        }
+        for (ByteBuf buf : removed) {
+            buf.release();
+        }
+    }
+
     private GrpcUnsafeBufferUtil() {}
 }
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.it.grpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.google.common.base.Strings;
+
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpObject;
+import com.linecorp.armeria.common.HttpResponse;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.grpc.protocol.GrpcHeaderNames;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.server.grpc.GrpcService;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import testing.grpc.HttpJsonTranscodingStreamingTestServiceGrpc.HttpJsonTranscodingStreamingTestServiceImplBase;
+import testing.grpc.Transcoding.EchoResponseBodyResponse;
+import testing.grpc.Transcoding.Message;
+import testing.grpc.Transcoding.StreamMessagesRequest;
+
+class HttpJsonTranscodingServerStreamingTest {
+
+    private static final String LARGE_TEXT = Strings.repeat("a", 8192);
+
+    private static final AtomicInteger numSentMessages = new AtomicInteger();
+    private static final AtomicReference<ServerCallStreamObserver<Message>> flowControlledObserver =
+            new AtomicReference<>();
+
+    private static final class StreamingService extends HttpJsonTranscodingStreamingTestServiceImplBase {
+
+        @Override
+        public void streamMessages(StreamMessagesRequest request, StreamObserver<Message> responseObserver) {
+            if (request.getFlowControlled()) {
+                streamWithFlowControl(request, (ServerCallStreamObserver<Message>) responseObserver);
+                return;
+            }
+            for (int i = 0; i < request.getCount(); i++) {
+                responseObserver.onNext(Message.newBuilder().setText("text" + i).build());
+            }
+            close(request, responseObserver);
+        }
+
+        @Override
+        public void streamResponseBodyValues(StreamMessagesRequest request,
+                                             StreamObserver<EchoResponseBodyResponse> responseObserver) {
+            for (int i = 0; i < request.getCount(); i++) {
+                responseObserver.onNext(EchoResponseBodyResponse.newBuilder()
+                                                                .setValue("value" + i)
+                                                                .addArrayField("ignored")
+                                                                .build());
+            }
+            close(request, responseObserver);
+        }
+
+        private static void streamWithFlowControl(StreamMessagesRequest request,
+                                                  ServerCallStreamObserver<Message> responseObserver) {
+            flowControlledObserver.set(responseObserver);
+            final AtomicBoolean completed = new AtomicBoolean();
+            responseObserver.setOnReadyHandler(() -> {
+                while (responseObserver.isReady() && numSentMessages.get() < request.getCount()) {
+                    responseObserver.onNext(Message.newBuilder().setText(LARGE_TEXT).build());
+                    numSentMessages.incrementAndGet();
+                }
+                if (numSentMessages.get() == request.getCount() && completed.compareAndSet(false, true)) {
+                    responseObserver.onCompleted();
+                }
+            });
+        }
+
+        private static void close(StreamMessagesRequest request, StreamObserver<?> responseObserver) {
+            if (request.getStatusCode() == 0) {
+                responseObserver.onCompleted();
+            } else {
+                responseObserver.onError(Status.fromCodeValue(request.getStatusCode()).asRuntimeException());
+            }
+        }
+    }
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            sb.service(GrpcService.builder()
+                                  .addService(new StreamingService())
+                                  .enableHttpJsonTranscoding(true)
+                                  .build());
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        numSentMessages.set(0);
+        flowControlledObserver.set(null);
+    }
+
+    @Test
+    void jsonLines() {
+        final AggregatedHttpResponse res = server.blockingWebClient().get("/v1/stream/messages?count=3");
+        assertThat(res.status()).isEqualTo(HttpStatus.OK);
+        assertThat(res.contentType()).isEqualTo(MediaType.JSON_LINES);
+        assertThat(res.contentUtf8()).isEqualTo("{\"text\":\"text0\"}\n" +
+                                                "{\"text\":\"text1\"}\n" +
+                                                "{\"text\":\"text2\"}\n");
+        assertThat(res.trailers().get(GrpcHeaderNames.GRPC_STATUS)).isEqualTo("0");
+    }
+
+    @Test
+    void eventStream() {
+        final AggregatedHttpResponse res =
+                server.blockingWebClient()
+                      .execute(RequestHeaders.builder(HttpMethod.GET, "/v1/stream/messages?count=2")
+                                             .add(HttpHeaderNames.ACCEPT, "text/event-stream")
+                                             .build());
+        assertThat(res.status()).isEqualTo(HttpStatus.OK);
+        assertThat(res.contentType()).isEqualTo(MediaType.EVENT_STREAM);
+        assertThat(res.contentUtf8()).isEqualTo("data:{\"text\":\"text0\"}\n\n" +
+                                                "data:{\"text\":\"text1\"}\n\n");
+    }
+
+    @Test
+    void responseBody() {
+        final AggregatedHttpResponse res =
+                server.blockingWebClient().get("/v1/stream/response_body/value?count=2");
+        assertThat(res.status()).isEqualTo(HttpStatus.OK);
+        assertThat(res.contentType()).isEqualTo(MediaType.JSON_LINES);
+        // Only the 'value' field of each message is sent.
+        assertThat(res.contentUtf8()).isEqualTo("\"value0\"\n" +
+                                                "\"value1\"\n");
+    }
+
+    @Test
+    void statusAfterFirstMessage() {
+        final AggregatedHttpResponse res =
+                server.blockingWebClient().get("/v1/stream/messages?count=2&status_code=5");
+        // The headers have been sent already, so the status is sent in the trailers.
+        assertThat(res.status()).isEqualTo(HttpStatus.OK);
+        assertThat(res.contentUtf8()).isEqualTo("{\"text\":\"text0\"}\n" +
+                                                "{\"text\":\"text1\"}\n");
+        assertThat(res.trailers().get(GrpcHeaderNames.GRPC_STATUS))
+                .isEqualTo(String.valueOf(Status.Code.NOT_FOUND.value()));
+    }
+
+    @Test
+    void statusBeforeFirstMessage() {
+        final AggregatedHttpResponse res =
+                server.blockingWebClient().get("/v1/stream/messages?count=0&status_code=5");
+        assertThat(res.status()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(res.contentUtf8()).contains("\"grpc-code\":\"NOT_FOUND\"");
+    }
+
+    @Test
+    void backpressure() {
+        final int count = 1000;
+        final HttpResponse res =
+                server.webClient().get("/v1/stream/messages?count=" + count + "&flow_controlled=true");
+        final AtomicReference<Subscription> subscriptionRef = new AtomicReference<>();
+        final CompletableFuture<Void> completionFuture = new CompletableFuture<>();
+        res.subscribe(new Subscriber<HttpObject>() {
+            @Override
+            public void onSubscribe(Subscription subscription) {
+                subscriptionRef.set(subscription);
+                // Receive only the headers.
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(HttpObject httpObject) {}
+
+            @Override
+            public void onError(Throwable t) {
+                completionFuture.completeExceptionally(t);
+            }
+
+            @Override
+            public void onComplete() {
+                completionFuture.complete(null);
+            }
+        });
+
+        await().until(() -> flowControlledObserver.get() != null && numSentMessages.get() > 0);
+        // The client doesn't read the messages, so the call becomes not ready and stops sending messages.
+        await().pollDelay(Duration.ofSeconds(1)).untilAsserted(() -> {
+            assertThat(flowControlledObserver.get().isReady()).isFalse();
+            assertThat(numSentMessages.get()).isLessThan(count);
+        });
+        assertThat(completionFuture).isNotDone();
+
+        // The call becomes ready again once the client reads the messages.
+        subscriptionRef.get().request(Long.MAX_VALUE);
+        completionFuture.join();
+        assertThat(numSentMessages.get()).isEqualTo(count);
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.grpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.util.IdentityHashMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.google.protobuf.ByteString;
+
+import com.linecorp.armeria.client.grpc.GrpcClients;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.server.ServiceRequestContext;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+import com.linecorp.armeria.unsafe.grpc.GrpcUnsafeBufferUtil;
+
+import io.grpc.Status.Code;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.netty.buffer.ByteBuf;
+import testing.grpc.Messages.Payload;
+import testing.grpc.Messages.SimpleRequest;
+import testing.grpc.Messages.SimpleResponse;
+import testing.grpc.TestServiceGrpc.TestServiceBlockingStub;
+import testing.grpc.TestServiceGrpc.TestServiceImplBase;
+
+class GrpcServiceAutoReleaseRequestBuffersTest {
+
+    private static final SimpleRequest REQUEST =
+            SimpleRequest.newBuilder()
+                         .setPayload(Payload.newBuilder()
+                                            .setBody(ByteString.copyFromUtf8("armeria")))
+                         .build();
+
+    private static final BlockingQueue<ByteBuf> requestBuffers = new LinkedBlockingQueue<>();
+
+    // The reference counts of the request buffers when the slow service accessed the requests.
+    private static final BlockingQueue<Integer> refCntsInService = new LinkedBlockingQueue<>();
+
+    private static volatile CountDownLatch slowServiceLatch = new CountDownLatch(0);
+
+    private static final class TestService extends TestServiceImplBase {
+
+        @Override
+        public void unaryCall(SimpleRequest request, StreamObserver<SimpleResponse> responseObserver) {
+            final IdentityHashMap<Object, ByteBuf> buffers =
+                    ServiceRequestContext.current().attr(GrpcUnsafeBufferUtil.BUFFERS);
+            synchronized (buffers) {
+                requestBuffers.addAll(buffers.values());
+            }
+            responseObserver.onNext(SimpleResponse.newBuilder()
+                                                  .setUsername(request.getPayload().getBody().toStringUtf8())
+                                                  .build());
+            responseObserver.onCompleted();
+        }
+    }
+
+    private static final class SlowTestService extends TestServiceImplBase {
+
+        @Override
+        public void unaryCall(SimpleRequest request, StreamObserver<SimpleResponse> responseObserver) {
+            final IdentityHashMap<Object, ByteBuf> buffers =
+                    ServiceRequestContext.current().attr(GrpcUnsafeBufferUtil.BUFFERS);
+            final ByteBuf buf;
+            synchronized (buffers) {
+                buf = buffers.get(request);
+            }
+            requestBuffers.add(buf);
+            try {
+                slowServiceLatch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // Access the request after the call has been cancelled.
+            refCntsInService.add(buf.refCnt());
+            final String username = request.getPayload().getBody().toStringUtf8();
+            if (!((ServerCallStreamObserver<SimpleResponse>) responseObserver).isCancelled()) {
+                responseObserver.onNext(SimpleResponse.newBuilder().setUsername(username).build());
+                responseObserver.onCompleted();
+            }
+        }
+    }
+
+    @RegisterExtension
+    static final ServerExtension autoReleaseServer = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            sb.service(GrpcService.builder()
+                                  .addService(new TestService())
+                                  .unsafeWrapRequestBuffers(true)
+                                  .autoReleaseRequestBuffers(true)
+                                  .build());
+        }
+    };
+
+    @RegisterExtension
+    static final ServerExtension blockingAutoReleaseServer = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            sb.service(GrpcService.builder()
+                                  .addService(new SlowTestService())
+                                  .useBlockingTaskExecutor(true)
+                                  .unsafeWrapRequestBuffers(true)
+                                  .autoReleaseRequestBuffers(true)
+                                  .build());
+        }
+    };
+
+    @RegisterExtension
+    static final ServerExtension manualReleaseServer = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            sb.service(GrpcService.builder()
+                                  .addService(new TestService())
+                                  .unsafeWrapRequestBuffers(true)
+                                  .build());
+        }
+    };
+
+    @Test
+    void releasedWhenRequestIsComplete() throws Exception {
+        final SimpleResponse response = GrpcClients.newClient(autoReleaseServer.httpUri(),
+                                                              TestServiceBlockingStub.class)
+                                                   .unaryCall(REQUEST);
+        assertThat(response.getUsername()).isEqualTo("armeria");
+
+        final ServiceRequestContext ctx = autoReleaseServer.requestContextCaptor().take();
+        final ByteBuf buf = requestBuffers.take();
+        ctx.log().whenComplete().join();
+        await().untilAsserted(() -> assertThat(buf.refCnt()).isZero());
+        assertThat(ctx.attr(GrpcUnsafeBufferUtil.BUFFERS)).isEmpty();
+    }
+
+    @Test
+    void releasedInBlockingTaskExecutor() throws Exception {
+        final SimpleResponse response = GrpcClients.newClient(blockingAutoReleaseServer.httpUri(),
+                                                              TestServiceBlockingStub.class)
+                                                   .unaryCall(REQUEST);
+        assertThat(response.getUsername()).isEqualTo("armeria");
+
+        final ServiceRequestContext ctx = blockingAutoReleaseServer.requestContextCaptor().take();
+        final ByteBuf buf = requestBuffers.take();
+        assertThat(refCntsInService.take()).isOne();
+        await().untilAsserted(() -> assertThat(buf.refCnt()).isZero());
+        assertThat(ctx.attr(GrpcUnsafeBufferUtil.BUFFERS)).isEmpty();
+    }
+
+    @Test
+    void retainedUntilServiceReturnsAfterDeadlineExceeded() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        slowServiceLatch = latch;
+        try {
+            final TestServiceBlockingStub client =
+                    GrpcClients.newClient(blockingAutoReleaseServer.httpUri(), TestServiceBlockingStub.class)
+                               .withDeadlineAfter(500, TimeUnit.MILLISECONDS);
+            assertThatThrownBy(() -> client.unaryCall(REQUEST))
+                    .isInstanceOfSatisfying(StatusRuntimeException.class, e -> {
+                        assertThat(e.getStatus().getCode()).isEqualTo(Code.DEADLINE_EXCEEDED);
+                    });
+
+            final ServiceRequestContext ctx = blockingAutoReleaseServer.requestContextCaptor().take();
+            final ByteBuf buf = requestBuffers.take();
+            // The request is complete while the service is still running in the blocking task executor.
+            ctx.log().whenComplete().join();
+            assertThat(buf.refCnt()).isOne();
+
+            latch.countDown();
+            assertThat(refCntsInService.take()).isOne();
+            await().untilAsserted(() -> assertThat(buf.refCnt()).isZero());
+            assertThat(ctx.attr(GrpcUnsafeBufferUtil.BUFFERS)).isEmpty();
+        } finally {
+            latch.countDown();
+            slowServiceLatch = new CountDownLatch(0);
+        }
+    }
+
+    @Test
+    void retainedUntilReleasedManually() throws Exception {
+        final SimpleResponse response = GrpcClients.newClient(manualReleaseServer.httpUri(),
+                                                              TestServiceBlockingStub.class)
+                                                   .unaryCall(REQUEST);
+        assertThat(response.getUsername()).isEqualTo("armeria");
+
+        final ServiceRequestContext ctx = manualReleaseServer.requestContextCaptor().take();
+        final ByteBuf buf = requestBuffers.take();
+        ctx.log().whenComplete().join();
+        assertThat(buf.refCnt()).isOne();
+        GrpcUnsafeBufferUtil.releaseAllBuffers(ctx);
+        assertThat(buf.refCnt()).isZero();
+        assertThat(ctx.attr(GrpcUnsafeBufferUtil.BUFFERS)).isEmpty();
+    }
+}
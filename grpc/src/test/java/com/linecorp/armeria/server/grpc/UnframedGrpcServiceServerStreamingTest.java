@@ -0,0 +1,139 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.server.grpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.linecorp.armeria.client.BlockingWebClient;
+import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.HttpHeaderNames;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpStatus;
+import com.linecorp.armeria.common.MediaType;
+import com.linecorp.armeria.common.RequestHeaders;
+import com.linecorp.armeria.common.grpc.protocol.GrpcHeaderNames;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import testing.grpc.Messages.SimpleRequest;
+import testing.grpc.Messages.SimpleResponse;
+import testing.grpc.UnitTestServiceGrpc.UnitTestServiceImplBase;
+
+class UnframedGrpcServiceServerStreamingTest {
+
+    private static final String PATH = "/armeria.grpc.testing.UnitTestService/StaticStreamedOutputCall";
+
+    private static final class TestService extends UnitTestServiceImplBase {
+
+        @Override
+        public void staticStreamedOutputCall(SimpleRequest request,
+                                             StreamObserver<SimpleResponse> responseObserver) {
+            if (request.getResponseSize() < 0) {
+                responseObserver.onError(Status.NOT_FOUND.asRuntimeException());
+                return;
+            }
+            for (int i = 0; i < request.getResponseSize(); i++) {
+                responseObserver.onNext(SimpleResponse.newBuilder().setUsername("user" + i).build());
+            }
+            responseObserver.onCompleted();
+        }
+    }
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            sb.service(GrpcService.builder()
+                                  .addService(new TestService())
+                                  .enableUnframedRequests(true)
+                                  .build());
+        }
+    };
+
+    @Test
+    void jsonLines() {
+        final AggregatedHttpResponse res =
+                server.blockingWebClient()
+                      .prepare()
+                      .post(PATH)
+                      .content(MediaType.JSON_UTF_8, "{\"responseSize\": 3}")
+                      .execute();
+        assertThat(res.status()).isEqualTo(HttpStatus.OK);
+        assertThat(res.contentType()).isEqualTo(MediaType.JSON_LINES);
+        assertThat(res.contentUtf8()).isEqualTo("{\"username\":\"user0\"}\n" +
+                                                "{\"username\":\"user1\"}\n" +
+                                                "{\"username\":\"user2\"}\n");
+        assertThat(res.trailers().get(GrpcHeaderNames.GRPC_STATUS)).isEqualTo("0");
+    }
+
+    @Test
+    void eventStream() {
+        final BlockingWebClient client = server.blockingWebClient();
+        final AggregatedHttpResponse res =
+                client.execute(RequestHeaders.builder(HttpMethod.POST, PATH)
+                                             .contentType(MediaType.JSON_UTF_8)
+                                             .add(HttpHeaderNames.ACCEPT, "text/event-stream")
+                                             .build(),
+                               "{\"responseSize\": 2}");
+        assertThat(res.status()).isEqualTo(HttpStatus.OK);
+        assertThat(res.contentType()).isEqualTo(MediaType.EVENT_STREAM);
+        assertThat(res.contentUtf8()).isEqualTo("data:{\"username\":\"user0\"}\n\n" +
+                                                "data:{\"username\":\"user1\"}\n\n");
+    }
+
+    @Test
+    void noMessages() {
+        final AggregatedHttpResponse res =
+                server.blockingWebClient()
+                      .prepare()
+                      .post(PATH)
+                      .content(MediaType.JSON_UTF_8, "{}")
+                      .execute();
+        assertThat(res.status()).isEqualTo(HttpStatus.OK);
+        assertThat(res.contentType()).isEqualTo(MediaType.JSON_LINES);
+        assertThat(res.contentUtf8()).isEmpty();
+    }
+
+    @Test
+    void trailersOnlyError() {
+        final AggregatedHttpResponse res =
+                server.blockingWebClient()
+                      .prepare()
+                      .post(PATH)
+                      .content(MediaType.JSON_UTF_8, "{\"responseSize\": -1}")
+                      .execute();
+        assertThat(res.status()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(res.contentType().is(MediaType.JSON)).isTrue();
+        assertThat(res.contentUtf8()).contains("\"grpc-code\":\"NOT_FOUND\"");
+    }
+
+    @Test
+    void protobufRequestIsRejected() {
+        final AggregatedHttpResponse res =
+                server.blockingWebClient()
+                      .prepare()
+                      .post(PATH)
+                      .content(MediaType.PROTOBUF, new byte[0])
+                      .execute();
+        assertThat(res.status()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+}
@@ -31,11 +31,11 @@
 
 package com.linecorp.armeria.common.thrift.text;
 
+import java.io.IOException;
+
 import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TField;
 
-import com.fasterxml.jackson.databind.JsonNode;
-
 import com.linecorp.armeria.common.annotation.Nullable;
 
 /**
@@ -60,9 +60,15 @@ class BaseContext {
     }
 
     /**
-     * Called before we read an item.
+     * Called before we read an item. Moves the {@link #reader()} to the token of the item.
+     */
+    protected void read() throws IOException {
+    }
+
+    /**
+     * Called after we read all items. Moves the {@link #reader()} to the token which closes this context.
      */
-    protected void read() {
+    protected void readEnd() throws IOException {
     }
 
     /**
@@ -91,17 +97,17 @@ class BaseContext {
     }
 
     /**
-     * Return the json element that should be processed next. Used for
-     * Contexts that have child JsonElements, e.g. Sequences, Maps, etc.
+     * Return the reader whose current token is the json element that should be
+     * processed next. Used for Contexts that have child JsonElements, e.g. Sequences, Maps, etc.
      */
-    protected JsonNode getCurrentChild() {
+    protected JsonStreamReader reader() {
         return unsupportedOperation();
     }
 
     /**
      * Returns whether there are more child elements to process.
      */
-    protected boolean hasMoreChildren() {
+    protected boolean hasMoreChildren() throws IOException {
         return unsupportedOperation();
     }
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.common.thrift.text;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+
+/**
+ * Reads the JSON tokens in a {@link ByteBuf} with a streaming {@link JsonParser}, so that a Thrift message
+ * is decoded without building a tree of the whole input. The generated Thrift code needs the number of
+ * the elements of a list, set or map before reading them, so {@link #countChildren()} scans the container
+ * with another parser, skipping the nested containers. Only the current nesting depth is kept in memory,
+ * at the cost of scanning a nested container once more for each of its enclosing containers which are
+ * counted, i.e. O(input size &times; depth) time in total.
+ */
+final class JsonStreamReader {
+
+    private final JsonFactory factory;
+    private final ByteBuf buf;
+    // The offset of the first token of this reader from the reader index of the buffer.
+    private final int baseOffset;
+    private final JsonParser parser;
+
+    JsonStreamReader(JsonFactory factory, ByteBuf buf) throws IOException {
+        this(factory, buf, 0);
+    }
+
+    private JsonStreamReader(JsonFactory factory, ByteBuf buf, int baseOffset) throws IOException {
+        this.factory = factory;
+        this.buf = buf;
+        this.baseOffset = baseOffset;
+        parser = newParser(0);
+    }
+
+    /**
+     * Returns the underlying {@link JsonParser}.
+     */
+    JsonParser parser() {
+        return parser;
+    }
+
+    /**
+     * Moves to the next token and returns it, or {@code null} if there are no more tokens.
+     */
+    JsonToken nextToken() throws IOException {
+        return parser.nextToken();
+    }
+
+    /**
+     * Returns the current token.
+     */
+    JsonToken currentToken() {
+        return parser.currentToken();
+    }
+
+    /**
+     * Returns a new {@link JsonStreamReader} which starts to read from the current token.
+     */
+    JsonStreamReader fork() throws IOException {
+        return new JsonStreamReader(factory, buf, baseOffset + tokenOffset(parser));
+    }
+
+    /**
+     * Returns the number of the elements of the JSON array or the entries of the JSON object which starts
+     * at the current token, without moving the current token.
+     */
+    int countChildren() throws IOException {
+        try (JsonParser parser = newParser(tokenOffset(this.parser))) {
+            final JsonToken start = parser.nextToken();
+            if (start != JsonToken.START_ARRAY && start != JsonToken.START_OBJECT) {
+                throw new IOException("Unexpected token: " + start +
+                                      " (expected: START_ARRAY or START_OBJECT)");
+            }
+            int count = 0;
+            for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                if (token == JsonToken.END_ARRAY || token == JsonToken.END_OBJECT) {
+                    return count;
+                }
+                if (token == JsonToken.FIELD_NAME) {
+                    continue;
+                }
+                count++;
+                parser.skipChildren();
+            }
+            throw new IOException("Unexpected end of input");
+        }
+    }
+
+    void close() throws IOException {
+        parser.close();
+    }
+
+    private static int tokenOffset(JsonParser parser) throws IOException {
+        final long offset = parser.getTokenLocation().getByteOffset();
+        if (offset < 0) {
+            // A parser for the non-UTF-8 input doesn't track the byte offset.
+            throw new IOException("Unsupported character encoding (expected: UTF-8)");
+        }
+        return (int) offset;
+    }
+
+    /**
+     * Returns a new {@link JsonParser} which starts at the specified offset from the first token of this
+     * reader.
+     */
+    private JsonParser newParser(int offset) throws IOException {
+        final int index = buf.readerIndex() + baseOffset + offset;
+        final int length = buf.writerIndex() - index;
+        if (buf.hasArray()) {
+            return factory.createParser(buf.array(), buf.arrayOffset() + index, length);
+        }
+        final InputStream in = new ByteBufInputStream(buf.slice(index, length));
+        return factory.createParser(in);
+    }
+}
@@ -30,8 +30,6 @@
 // =================================================================================================
 package com.linecorp.armeria.common.thrift.text;
 
-import com.fasterxml.jackson.databind.JsonNode;
-
 import com.linecorp.armeria.common.annotation.Nullable;
 
 /**
@@ -43,8 +41,8 @@ import com.linecorp.armeria.common.annotation.Nullable;
  */
 final class MapContext extends PairContext {
 
-    MapContext(@Nullable JsonNode json) {
-        super(json);
+    MapContext(@Nullable JsonStreamReader reader) {
+        super(reader);
     }
 
     @Override
@@ -30,11 +30,9 @@
 // =================================================================================================
 package com.linecorp.armeria.common.thrift.text;
 
-import java.util.Iterator;
-import java.util.Map;
+import java.io.IOException;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.TextNode;
+import com.fasterxml.jackson.core.JsonToken;
 
 import com.linecorp.armeria.common.annotation.Nullable;
 
@@ -48,24 +46,26 @@ import com.linecorp.armeria.common.annotation.Nullable;
  * "2" : 2,
  * }
  * Note the required quotes on the lhs.
- * We maintain an iterator over all of our child name/value pairs, and
- * a pointer to the current one being parsed.
+ * We move the reader to the name of a child name/value pair on the lhs,
+ * and to its value on the rhs.
  *
  * @author Alex Roetter
  */
 class PairContext extends BaseContext {
 
     @Nullable
-    private final Iterator<Map.Entry<String, JsonNode>> children;
+    private final JsonStreamReader reader;
     private boolean lhs;
-    @Nullable
-    private Map.Entry<String, JsonNode> currentChild;
+    // Whether hasMoreChildren() has already moved the reader to the next name.
+    private boolean nextNameRead;
+    private boolean ended;
 
     /**
-     * Creates an iterator over this object's children.
+     * Creates a context which reads this object's children from the reader.
+     * May be constructed with a null reader if we only use it for writing.
      */
-    protected PairContext(@Nullable JsonNode json) {
-        children = null != json ? json.fields() : null;
+    protected PairContext(@Nullable JsonStreamReader reader) {
+        this.reader = reader;
     }
 
     @Override
@@ -74,33 +74,56 @@ class PairContext extends BaseContext {
     }
 
     @Override
-    protected final void read() {
+    protected final void read() throws IOException {
+        assert reader != null;
         lhs = !lhs;
-        // every other time, do a read, since the read gets the name & value
-        // at once.
-        if (isLhs()) {
-            assert children != null;
-            if (!children.hasNext()) {
-                throw new RuntimeException(
-                        "Called PairContext.read() too many times!");
-            }
-            currentChild = children.next();
+        if (!isLhs()) {
+            reader.nextToken();
+            return;
+        }
+        if (nextNameRead) {
+            nextNameRead = false;
+            return;
+        }
+        if (ended || reader.nextToken() != JsonToken.FIELD_NAME) {
+            throw new RuntimeException(
+                    "Called PairContext.read() too many times!");
         }
     }
 
     @Override
-    protected final JsonNode getCurrentChild() {
-        assert currentChild != null;
-        if (lhs) {
-            return new TextNode(currentChild.getKey());
+    protected final void readEnd() throws IOException {
+        assert reader != null;
+        if (ended) {
+            return;
+        }
+        if (nextNameRead || reader.nextToken() != JsonToken.END_OBJECT) {
+            throw new RuntimeException(
+                    "Called PairContext.readEnd() before reading all children!");
         }
-        return currentChild.getValue();
+        ended = true;
     }
 
     @Override
-    protected final boolean hasMoreChildren() {
-        assert children != null;
-        return children.hasNext();
+    protected final JsonStreamReader reader() {
+        assert reader != null;
+        return reader;
+    }
+
+    @Override
+    protected final boolean hasMoreChildren() throws IOException {
+        assert reader != null;
+        if (ended) {
+            return false;
+        }
+        if (!nextNameRead) {
+            if (reader.nextToken() == JsonToken.END_OBJECT) {
+                ended = true;
+                return false;
+            }
+            nextNameRead = true;
+        }
+        return true;
     }
 
     protected final boolean isLhs() {
@@ -30,52 +30,52 @@
 // =================================================================================================
 package com.linecorp.armeria.common.thrift.text;
 
-import java.util.Iterator;
+import java.io.IOException;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonToken;
 
 import com.linecorp.armeria.common.annotation.Nullable;
 
 /**
- * A parsing context used for Sequences (lists & sets). Maintains its
- * child elements, and a pointer to the current one being parsed.
+ * A parsing context used for Sequences (lists & sets). Moves the reader
+ * to the child element being parsed.
  *
  * @author Alex Roetter
  */
 final class SequenceContext extends BaseContext {
 
     @Nullable
-    private final Iterator<JsonNode> children;
-    @Nullable
-    private JsonNode currentChild;
+    private final JsonStreamReader reader;
 
     /**
-     * Create an iterator over the children. May be constructed with a null
-     * JsonArray if we only use it for writing.
+     * Create a context which reads the children from the reader. May be
+     * constructed with a null reader if we only use it for writing.
      */
-    SequenceContext(@Nullable JsonNode json) {
-        children = null != json ? json.elements() : null;
+    SequenceContext(@Nullable JsonStreamReader reader) {
+        this.reader = reader;
     }
 
     @Override
-    protected void read() {
-        assert children != null;
-        if (!children.hasNext()) {
+    protected void read() throws IOException {
+        assert reader != null;
+        if (reader.nextToken() == JsonToken.END_ARRAY) {
             throw new RuntimeException(
                     "Called SequenceContext.read() too many times!");
         }
-        currentChild = children.next();
     }
 
     @Override
-    protected JsonNode getCurrentChild() {
-        assert currentChild != null;
-        return currentChild;
+    protected void readEnd() throws IOException {
+        assert reader != null;
+        if (reader.nextToken() != JsonToken.END_ARRAY) {
+            throw new RuntimeException(
+                    "Called SequenceContext.readEnd() before reading all children!");
+        }
     }
 
     @Override
-    protected boolean hasMoreChildren() {
-        assert children != null;
-        return children.hasNext();
+    protected JsonStreamReader reader() {
+        assert reader != null;
+        return reader;
     }
 }
@@ -53,7 +53,6 @@ import org.apache.thrift.protocol.TType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.collect.MapMaker;
 
 import com.linecorp.armeria.common.annotation.Nullable;
@@ -94,12 +93,12 @@ final class StructContext extends PairContext {
     /**
      * Build the name -> TField map.
      */
-    StructContext(@Nullable JsonNode json) {
-        this(json, getCurrentThriftMessageClass());
+    StructContext(@Nullable JsonStreamReader reader) {
+        this(reader, getCurrentThriftMessageClass());
     }
 
-    StructContext(@Nullable JsonNode json, Class<?> clazz) {
-        super(json);
+    StructContext(@Nullable JsonStreamReader reader, Class<?> clazz) {
+        super(reader);
         classMap = new HashMap<>();
         fieldNameMap = computeFieldNameMap(clazz);
     }
@@ -35,6 +35,7 @@ import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Stack;
 import java.util.UUID;
 
@@ -58,14 +59,20 @@ import org.apache.thrift.transport.TTransportException;
 
 import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonParser.Feature;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.primitives.Ints;
 
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.internal.common.thrift.TByteBufTransport;
 import com.linecorp.armeria.internal.common.util.TemporaryThreadLocals;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
 /**
  * A simple text format for serializing/deserializing Thrift
  * messages. This format is inefficient in space.
@@ -132,7 +139,8 @@ final class TTextProtocol extends TProtocol {
     private final Stack<String> currentFieldName;
     private final boolean useNamedEnums;
     @Nullable
-    private JsonNode root;
+    private JsonStreamReader root;
+    private boolean argsInPlace;
 
     /**
      * Create a parser which can read from {@code trans},
@@ -165,7 +173,7 @@ final class TTextProtocol extends TProtocol {
 
     @Override
     public void reset() {
-        root = null;
+        closeRoot();
 
         writers.clear();
         pushWriter(new TTransportOutputStream());
@@ -436,109 +444,138 @@ final class TTextProtocol extends TProtocol {
     /////////////////////////////////////////
     @Override
     public TMessage readMessageBegin() throws TException {
-        root = null;
+        closeRoot();
         try {
             readRoot();
         } catch (IOException e) {
             throw new TException("Could not parse input, is it valid json?", e);
         }
-        if (!root.isObject()) {
+        assert root != null;
+        if (root.currentToken() != JsonToken.START_OBJECT) {
             throw new TException("The top level of the input must be a json object with method and args!");
         }
 
-        if (!root.has("method")) {
+        String methodName = null;
+        Byte messageType = null;
+        Integer sequenceId = null;
+        boolean hasArgs = false;
+        JsonStreamReader args = null;
+        try {
+            final JsonParser parser = root.parser();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String fieldName = parser.getCurrentName();
+                final JsonToken token = parser.nextToken();
+                if ("method".equals(fieldName)) {
+                    methodName = TypedParser.STRING.readFromParser(parser);
+                } else if ("type".equals(fieldName)) {
+                    messageType = TypedParser.TMESSAGE_TYPE.readFromParser(parser);
+                } else if ("seqid".equals(fieldName)) {
+                    sequenceId = parser.getValueAsInt();
+                } else if ("args".equals(fieldName)) {
+                    hasArgs = token == JsonToken.START_OBJECT;
+                    if (hasArgs && methodName != null && messageType != null && sequenceId != null) {
+                        // Read args in place, which is the common case because we write args last.
+                        break;
+                    }
+                    // Remember where args starts and read it again once the other fields are known.
+                    args = hasArgs ? root.fork() : null;
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            throw new TException("Could not parse input, is it valid json?", e);
+        }
+
+        if (methodName == null) {
             throw new TException("Object must have field 'method' with the rpc method name!");
         }
-        final String methodName = root.get("method").asText();
 
-        if (!root.has("type")) {
+        if (messageType == null) {
             throw new TException(
                     "Object must have field 'type' with the message type (CALL, REPLY, EXCEPTION, ONEWAY)!");
         }
-        final Byte messageType = TypedParser.TMESSAGE_TYPE.readFromJsonElement(root.get("type"));
 
-        if (!root.has("args") || !root.get("args").isObject()) {
+        if (!hasArgs) {
             throw new TException("Object must have field 'args' with the rpc method args!");
         }
 
-        final int sequenceId = root.has("seqid") ? root.get("seqid").asInt() : 0;
-
         // Override the root with the content of args - thrift's rpc reading will
         // proceed to read it as a message object.
-        root = root.get("args");
-
-        return new TMessage(methodName, messageType, sequenceId);
-    }
-
-    @Override
-    public void readMessageEnd() throws TException {
-        // We've already finished parsing the top level struct in
-        // readMessageBegin, so nothing to do here.
-        root = null;
-    }
-
-    @Override
-    public TStruct readStructBegin() throws TException {
-        readCurrentContext();
-
-        JsonNode structElem;
-        // Reading a new top level struct if the only item on the stack
-        // is the BaseContext
-        if (1 == contextStack.size()) {
+        argsInPlace = root.currentToken() == JsonToken.START_OBJECT;
+        if (!argsInPlace) {
+            assert args != null;
+            closeRoot();
+            root = args;
             try {
-                readRoot();
+                root.nextToken();
             } catch (IOException e) {
                 throw new TException("Could not parse input, is it valid json?", e);
             }
-            if (root == null) {
-                throw new TException("parser.next() has nothing to parse!");
-            }
-            structElem = root;
-        } else {
-            structElem = getCurrentContext().getCurrentChild();
         }
 
-        if (getCurrentContext().isMapKey()) {
+        return new TMessage(methodName, messageType, sequenceId != null ? sequenceId : 0);
+    }
+
+    @Override
+    public void readMessageEnd() throws TException {
+        // We've already finished parsing the top level struct, so there's
+        // nothing to do here unless the fields after args remain unread.
+        if (root != null && argsInPlace) {
             try {
-                structElem = OBJECT_MAPPER.readTree(structElem.asText());
+                final JsonParser parser = root.parser();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    parser.nextToken();
+                    parser.skipChildren();
+                }
             } catch (IOException e) {
-                throw new TException("Could not parse map key, is it valid json?", e);
+                throw new TException("Could not parse input, is it valid json?", e);
             }
         }
+        closeRoot();
+    }
 
-        if (!structElem.isObject()) {
-            throw new TException("Expected Json Object!");
-        }
+    @Override
+    public TStruct readStructBegin() throws TException {
+        readCurrentContext();
 
+        final JsonStreamReader reader = readJsonObjectBegin();
         final Class<?> fieldClass = getCurrentFieldClassIfIs(TBase.class);
         if (fieldClass != null) {
-            pushContext(new StructContext(structElem, fieldClass));
+            pushContext(new StructContext(reader, fieldClass));
         } else {
-            pushContext(new StructContext(structElem));
+            pushContext(new StructContext(reader));
         }
         return ANONYMOUS_STRUCT;
     }
 
     @Override
     public void readStructEnd() throws TException {
-        popContext();
+        readJsonObjectEnd();
     }
 
     @Override
     public TField readFieldBegin() throws TException {
-        if (!getCurrentContext().hasMoreChildren()) {
-            return new TField("", UNUSED_TYPE, (short) 0);
+        try {
+            if (!getCurrentContext().hasMoreChildren()) {
+                return new TField("", UNUSED_TYPE, (short) 0);
+            }
+        } catch (IOException e) {
+            throw new TException("Could not parse input, is it valid json?", e);
         }
 
         readCurrentContext();
 
-        final JsonNode jsonName = getCurrentContext().getCurrentChild();
-
-        if (!jsonName.isTextual()) {
+        final JsonParser parser = getCurrentContext().reader().parser();
+        if (parser.currentToken() != JsonToken.FIELD_NAME) {
             throw new RuntimeException("Expected String for a field name");
         }
 
-        final String fieldName = jsonName.asText();
+        final String fieldName;
+        try {
+            fieldName = parser.getCurrentName();
+        } catch (IOException e) {
+            throw new TException("Could not parse input, is it valid json?", e);
+        }
         currentFieldContext.push(getCurrentContext());
         currentFieldName.push(fieldName);
 
@@ -556,29 +593,71 @@ final class TTextProtocol extends TProtocol {
         readCurrentContext();
         currentFieldName.push(currentFieldName.peek());
 
-        JsonNode curElem = getCurrentContext().getCurrentChild();
+        final JsonStreamReader reader = readJsonObjectBegin();
+        final int size = countChildren(reader);
+        pushContext(new MapContext(reader));
 
-        if (getCurrentContext().isMapKey()) {
+        return new TMap(UNUSED_TYPE, UNUSED_TYPE, size);
+    }
+
+    @Override
+    public void readMapEnd() throws TException {
+        readJsonObjectEnd();
+        currentFieldName.pop();
+    }
+
+    /**
+     * Helper shared by read{Struct/Map}Begin. Returns the reader whose current
+     * token is the beginning of the JsonObject of either a struct or a map.
+     */
+    private JsonStreamReader readJsonObjectBegin() throws TException {
+        final JsonStreamReader reader;
+        // Reading a new top level struct if the only item on the stack
+        // is the BaseContext
+        if (1 == contextStack.size()) {
+            try {
+                readRoot();
+            } catch (IOException e) {
+                throw new TException("Could not parse input, is it valid json?", e);
+            }
+            reader = root;
+            if (reader == null || reader.currentToken() == null) {
+                throw new TException("parser.next() has nothing to parse!");
+            }
+        } else if (getCurrentContext().isMapKey()) {
+            // A struct or a map as a map key is written as a JSON string.
             try {
-                curElem = OBJECT_MAPPER.readTree(curElem.asText());
+                final String key = getCurrentContext().reader().parser().getCurrentName();
+                reader = new JsonStreamReader(OBJECT_MAPPER.getFactory(),
+                                              Unpooled.wrappedBuffer(key.getBytes(StandardCharsets.UTF_8)));
+                reader.nextToken();
             } catch (IOException e) {
                 throw new TException("Could not parse map key, is it valid json?", e);
             }
+        } else {
+            reader = getCurrentContext().reader();
         }
 
-        if (!curElem.isObject()) {
+        if (reader.currentToken() != JsonToken.START_OBJECT) {
             throw new TException("Expected JSON Object!");
         }
-
-        pushContext(new MapContext(curElem));
-
-        return new TMap(UNUSED_TYPE, UNUSED_TYPE, curElem.size());
+        return reader;
     }
 
-    @Override
-    public void readMapEnd() throws TException {
-        popContext();
-        currentFieldName.pop();
+    /**
+     * Helper shared by read{Struct/Map}End.
+     */
+    private void readJsonObjectEnd() throws TException {
+        final BaseContext context = getCurrentContext();
+        try {
+            context.readEnd();
+            popContext();
+            if (getCurrentContext().isMapKey()) {
+                context.reader().close();
+            }
+        } catch (IOException e) {
+            throw new TException("Could not parse input, is it valid json?", e);
+        }
     }
 
     @Override
@@ -612,22 +691,36 @@ final class TTextProtocol extends TProtocol {
             throw new TException(SEQUENCE_AS_KEY_ILLEGAL);
         }
 
-        final JsonNode curElem = getCurrentContext().getCurrentChild();
-        if (!curElem.isArray()) {
+        final JsonStreamReader reader = getCurrentContext().reader();
+        if (reader.currentToken() != JsonToken.START_ARRAY) {
             throw new TException("Expected JSON Array!");
         }
 
-        pushContext(new SequenceContext(curElem));
-        return curElem.size();
+        final int size = countChildren(reader);
+        pushContext(new SequenceContext(reader));
+        return size;
     }
 
     /**
      * Helper shared by read{List/Set}End.
      */
-    private void readSequenceEnd() {
+    private void readSequenceEnd() throws TException {
+        try {
+            getCurrentContext().readEnd();
+        } catch (IOException e) {
+            throw new TException("Could not parse input, is it valid json?", e);
+        }
         popContext();
     }
 
+    private static int countChildren(JsonStreamReader reader) throws TException {
+        try {
+            return reader.countChildren();
+        } catch (IOException e) {
+            throw new TException("Could not parse input, is it valid json?", e);
+        }
+    }
+
     @Override
     public boolean readBool() throws TException {
         readCurrentContext();
@@ -653,18 +746,27 @@ final class TTextProtocol extends TProtocol {
         final Class<?> fieldClass = getCurrentFieldClassIfIs(TEnum.class);
         if (fieldClass != null) {
             // Enum fields may be set by string, even though they represent integers.
-            final JsonNode elem = getCurrentContext().getCurrentChild();
-            if (elem.isInt() || Ints.tryParse(elem.asText()) != null) {
-                return TypedParser.INTEGER.readFromJsonElement(elem);
-            } else if (elem.isTextual()) {
-                // All TEnum are enums
-                @SuppressWarnings({ "unchecked", "rawtypes" })
-                final TEnum tEnum = (TEnum) Enum.valueOf((Class<Enum>) fieldClass,
-                                                         TypedParser.STRING.readFromJsonElement(elem));
-                return tEnum.getValue();
-            } else {
-                throw new TTransportException("invalid value type for enum field: " + elem.getNodeType() +
-                                              " (" + elem + ')');
+            final JsonParser parser = getCurrentContext().reader().parser();
+            final JsonToken token = parser.currentToken();
+            try {
+                if (token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == NumberType.INT) {
+                    return parser.getIntValue();
+                }
+                final String text = parser.getText();
+                final Integer value = Ints.tryParse(text);
+                if (value != null) {
+                    return value;
+                } else if (token == JsonToken.VALUE_STRING || token == JsonToken.FIELD_NAME) {
+                    // All TEnum are enums
+                    @SuppressWarnings({ "unchecked", "rawtypes" })
+                    final TEnum tEnum = (TEnum) Enum.valueOf((Class<Enum>) fieldClass, text);
+                    return tEnum.getValue();
+                } else {
+                    throw new TTransportException("invalid value type for enum field: " + token +
+                                                  " (" + text + ')');
+                }
+            } catch (IOException e) {
+                throw new TException("Could not parse input, is it valid json?", e);
             }
         } else {
             return readNameOrValue(TypedParser.INTEGER);
@@ -707,37 +809,65 @@ final class TTextProtocol extends TProtocol {
      * (meaning the JSONElement has the type we expect).
      * Uses a TypedParser to do the real work.
      */
-    private <T> T readNameOrValue(TypedParser<T> ch) {
-        final JsonNode elem = getCurrentContext().getCurrentChild();
-        if (getCurrentContext().isMapKey()) {
-            // Will throw a ClassCastException if this is not a JsonPrimitive string
-            return ch.readFromString(elem.asText());
-        } else {
-            return ch.readFromJsonElement(elem);
+    private <T> T readNameOrValue(TypedParser<T> ch) throws TException {
+        final JsonParser parser = getCurrentContext().reader().parser();
+        try {
+            if (getCurrentContext().isMapKey()) {
+                return ch.readFromString(parser.getCurrentName());
+            } else {
+                return ch.readFromParser(parser);
+            }
+        } catch (IOException e) {
+            throw new TException("Could not parse input, is it valid json?", e);
         }
     }
 
     /**
-     * Read in the root node if it has not yet been read.
+     * Start reading the root node if it has not yet been started. The input
+     * is parsed as a stream of tokens, so we don't hold the whole tree of
+     * the input in memory.
      */
     private void readRoot() throws IOException {
         if (root != null) {
             return;
         }
-        final ByteArrayOutputStream content = new ByteArrayOutputStream();
-        try (TemporaryThreadLocals tempThreadLocals = TemporaryThreadLocals.acquire()) {
-            final byte[] buffer = tempThreadLocals.byteArray(READ_BUFFER_SIZE);
-            try {
-                while (trans_.read(buffer, 0, READ_BUFFER_SIZE) > 0) {
-                    content.write(buffer);
-                }
-            } catch (TTransportException e) {
-                if (TTransportException.END_OF_FILE != e.getType()) {
-                    throw new IOException(e);
+        final ByteBuf buf;
+        if (trans_ instanceof TByteBufTransport) {
+            // Read the request content directly rather than copying it.
+            final ByteBuf content = ((TByteBufTransport) trans_).byteBuf();
+            buf = content.slice();
+            content.skipBytes(content.readableBytes());
+        } else {
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            try (TemporaryThreadLocals tempThreadLocals = TemporaryThreadLocals.acquire()) {
+                final byte[] buffer = tempThreadLocals.byteArray(READ_BUFFER_SIZE);
+                try {
+                    int numBytes;
+                    while ((numBytes = trans_.read(buffer, 0, READ_BUFFER_SIZE)) > 0) {
+                        content.write(buffer, 0, numBytes);
+                    }
+                } catch (TTransportException e) {
+                    if (TTransportException.END_OF_FILE != e.getType()) {
+                        throw new IOException(e);
+                    }
                 }
             }
-            root = OBJECT_MAPPER.readTree(content.toByteArray());
+            buf = Unpooled.wrappedBuffer(content.toByteArray());
         }
+        root = new JsonStreamReader(OBJECT_MAPPER.getFactory(), buf);
+        root.nextToken();
+    }
+
+    private void closeRoot() {
+        if (root == null) {
+            return;
+        }
+        try {
+            root.close();
+        } catch (IOException ignored) {
+            // Can't happen, closing a parser on an in-memory buffer.
+        }
+        root = null;
     }
 
     /**
@@ -758,8 +888,12 @@ final class TTextProtocol extends TProtocol {
     /**
      * Prepare the current parsing context for reading.
      */
-    private void readCurrentContext() {
-        getCurrentContext().read();
+    private void readCurrentContext() throws TException {
+        try {
+            getCurrentContext().read();
+        } catch (IOException e) {
+            throw new TException("Could not parse input, is it valid json?", e);
+        }
         updateCurrentFieldName();
     }
 
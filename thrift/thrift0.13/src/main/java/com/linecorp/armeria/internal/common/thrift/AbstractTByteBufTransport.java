@@ -33,6 +33,13 @@ abstract class AbstractTByteBufTransport extends TTransport {
         this.buf = requireNonNull(buf, "buf");
     }
 
+    /**
+     * Returns the {@link ByteBuf} which this transport reads from and writes to.
+     */
+    public ByteBuf byteBuf() {
+        return buf;
+    }
+
     @Override
     public void close() {}
 
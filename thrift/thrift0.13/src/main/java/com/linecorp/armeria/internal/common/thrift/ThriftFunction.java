@@ -58,10 +58,13 @@ public final class ThriftFunction {
     private final Object implementation;
     @Nullable
     private final TBase<?, ?> result;
-    private final TFieldIdEnum[] argFields;
+    private final List<TFieldIdEnum> argFields;
     @Nullable
     private final TFieldIdEnum successField;
     private final Map<Class<Throwable>, TFieldIdEnum> exceptionFields;
+    // The same as exceptionFields, but as arrays so that no iterator is created for every call.
+    private final Class<Throwable>[] exceptionTypeArray;
+    private final TFieldIdEnum[] exceptionFieldArray;
     private final Class<?>[] declaredExceptions;
     private final List<DecoratorAndOrder> declaredDecorators;
 
@@ -89,7 +92,7 @@ public final class ThriftFunction {
         this.type = type;
         this.serviceType = serviceType;
         this.name = name;
-        this.argFields = argFields;
+        this.argFields = ImmutableList.copyOf(argFields);
         this.result = result;
         this.declaredExceptions = declaredExceptions;
         this.declaredDecorators = declaredDecorators;
@@ -128,6 +131,10 @@ public final class ThriftFunction {
 
         this.successField = successField;
         exceptionFields = exceptionFieldsBuilder.build();
+        @SuppressWarnings("unchecked")
+        final Class<Throwable>[] exceptionTypeArray = exceptionFields.keySet().toArray(new Class[0]);
+        this.exceptionTypeArray = exceptionTypeArray;
+        exceptionFieldArray = exceptionFields.values().toArray(new TFieldIdEnum[0]);
     }
 
     /**
@@ -202,6 +209,13 @@ public final class ThriftFunction {
         return exceptionFields.values();
     }
 
+    /**
+     * Returns the fields of the arguments, in the order of declaration.
+     */
+    public List<TFieldIdEnum> argFields() {
+        return argFields;
+    }
+
     /**
      * Returns the exceptions declared by this function.
      */
@@ -243,7 +257,7 @@ public final class ThriftFunction {
         final TBase<?, ?> newArgs = newArgs();
         final int size = args.size();
         for (int i = 0; i < size; i++) {
-            ThriftFieldAccess.set(newArgs, argFields[i], args.get(i));
+            ThriftFieldAccess.set(newArgs, argFields.get(i), args.get(i));
         }
         return newArgs;
     }
@@ -270,7 +284,7 @@ public final class ThriftFunction {
      */
     @Nullable
     public Object getResult(TBase<?, ?> result) throws TException {
-        for (TFieldIdEnum fieldIdEnum : exceptionFields()) {
+        for (TFieldIdEnum fieldIdEnum : exceptionFieldArray) {
             if (ThriftFieldAccess.isSet(result, fieldIdEnum)) {
                 throw (TException) ThriftFieldAccess.get(result, fieldIdEnum);
             }
@@ -320,9 +334,9 @@ public final class ThriftFunction {
      */
     public boolean setException(TBase<?, ?> result, Throwable cause) {
         final Class<?> causeType = cause.getClass();
-        for (Entry<Class<Throwable>, TFieldIdEnum> e : exceptionFields.entrySet()) {
-            if (e.getKey().isAssignableFrom(causeType)) {
-                ThriftFieldAccess.set(result, e.getValue(), cause);
+        for (int i = 0; i < exceptionTypeArray.length; i++) {
+            if (exceptionTypeArray[i].isAssignableFrom(causeType)) {
+                ThriftFieldAccess.set(result, exceptionFieldArray[i], cause);
                 return true;
             }
         }
@@ -34,7 +34,6 @@ import org.apache.thrift.TApplicationException;
 import org.apache.thrift.TBase;
 import org.apache.thrift.TException;
 import org.apache.thrift.TFieldIdEnum;
-import org.apache.thrift.meta_data.FieldMetaData;
 import org.apache.thrift.protocol.TMessage;
 import org.apache.thrift.protocol.TMessageType;
 import org.apache.thrift.protocol.TProtocol;
@@ -562,7 +561,7 @@ public final class THttpService extends DecoratingService<RpcRequest, RpcRespons
                 args.read(inProto);
                 inProto.readMessageEnd();
 
-                decodedReq = toRpcRequest(f.serviceType(), header.name, args);
+                decodedReq = toRpcRequest(f, header.name, args);
                 ctx.logBuilder().requestContent(decodedReq, new ThriftCall(header, args));
             } catch (Exception e) {
                 final TApplicationException cause;
@@ -647,13 +646,13 @@ public final class THttpService extends DecoratingService<RpcRequest, RpcRespons
         }).exceptionally(CompletionActions::log);
     }
 
-    private static RpcRequest toRpcRequest(Class<?> serviceType, String method, TBase<?, ?> thriftArgs) {
+    private static RpcRequest toRpcRequest(ThriftFunction func, String method, TBase<?, ?> thriftArgs) {
         requireNonNull(thriftArgs, "thriftArgs");
 
-        // NB: The map returned by FieldMetaData.getStructMetaDataMap() is an EnumMap,
-        //     so the parameter ordering is preserved correctly during iteration.
-        final Set<? extends TFieldIdEnum> fields =
-                FieldMetaData.getStructMetaDataMap(thriftArgs.getClass()).keySet();
+        // NB: Use the argument fields resolved when the service was bound rather than
+        //     FieldMetaData.getStructMetaDataMap(), which is a synchronized lookup in old Thrift versions.
+        final Class<?> serviceType = func.serviceType();
+        final List<TFieldIdEnum> fields = func.argFields();
 
         // Handle the case where the number of arguments is 0 or 1.
         final int numFields = fields.size();
@@ -661,14 +660,13 @@ public final class THttpService extends DecoratingService<RpcRequest, RpcRespons
             case 0:
                 return RpcRequest.of(serviceType, method);
             case 1:
-                return RpcRequest.of(serviceType, method,
-                                     ThriftFieldAccess.get(thriftArgs, fields.iterator().next()));
+                return RpcRequest.of(serviceType, method, ThriftFieldAccess.get(thriftArgs, fields.get(0)));
         }
 
         // Handle the case where the number of arguments is greater than 1.
         final List<Object> list = new ArrayList<>(numFields);
-        for (TFieldIdEnum field : fields) {
-            list.add(ThriftFieldAccess.get(thriftArgs, field));
+        for (int i = 0; i < numFields; i++) {
+            list.add(ThriftFieldAccess.get(thriftArgs, fields.get(i)));
         }
 
         return RpcRequest.of(serviceType, method, list);
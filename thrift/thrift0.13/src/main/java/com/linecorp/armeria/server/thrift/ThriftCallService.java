@@ -19,7 +19,6 @@ package com.linecorp.armeria.server.thrift;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static java.util.Objects.requireNonNull;
 
-import java.util.List;
 import java.util.Map;
 
 import org.apache.thrift.AsyncProcessFunction;
@@ -39,6 +38,10 @@ import com.linecorp.armeria.common.RequestContext;
 import com.linecorp.armeria.common.RpcRequest;
 import com.linecorp.armeria.common.RpcResponse;
 import com.linecorp.armeria.common.annotation.Nullable;
+import com.linecorp.armeria.common.logging.RequestLog;
+import com.linecorp.armeria.common.logging.RequestLogAccess;
+import com.linecorp.armeria.common.logging.RequestLogProperty;
+import com.linecorp.armeria.common.thrift.ThriftCall;
 import com.linecorp.armeria.internal.common.thrift.ThriftFunction;
 import com.linecorp.armeria.server.RpcService;
 import com.linecorp.armeria.server.ServiceRequestContext;
@@ -128,7 +131,7 @@ public final class ThriftCallService implements RpcService {
             if (f != null) {
                 if (f.implementation() != null) {
                     final CompletableRpcResponse reply = new CompletableRpcResponse();
-                    invoke(ctx, f.implementation(), f, call.params(), reply);
+                    invoke(ctx, f.implementation(), f, call, reply);
                     return reply;
                 }
                 // Should never reach here because of the way ThriftServiceEntry is created
@@ -142,10 +145,10 @@ public final class ThriftCallService implements RpcService {
 
     private static void invoke(
             ServiceRequestContext ctx,
-            Object impl, ThriftFunction func, List<Object> args, CompletableRpcResponse reply) {
+            Object impl, ThriftFunction func, RpcRequest call, CompletableRpcResponse reply) {
 
         try {
-            final TBase<?, ?> tArgs = func.newArgs(args);
+            final TBase<?, ?> tArgs = decodedArgs(ctx, call, func);
             if (func.isAsync()) {
                 invokeAsynchronously(impl, func, tArgs, reply);
             } else {
@@ -156,6 +159,22 @@ public final class ThriftCallService implements RpcService {
         }
     }
 
+    /**
+     * Returns the arguments decoded by {@link THttpService} if the specified {@link RpcRequest} is the one
+     * it created, so that the arguments don't have to be converted back into a {@link TBase}.
+     */
+    private static TBase<?, ?> decodedArgs(ServiceRequestContext ctx, RpcRequest call, ThriftFunction func) {
+        final RequestLogAccess log = ctx.log();
+        if (log.isAvailable(RequestLogProperty.REQUEST_CONTENT)) {
+            final RequestLog partial = log.partial();
+            final Object rawContent = partial.rawRequestContent();
+            if (partial.requestContent() == call && rawContent instanceof ThriftCall) {
+                return ((ThriftCall) rawContent).args();
+            }
+        }
+        return func.newArgs(call.params());
+    }
+
     private static void invokeAsynchronously(Object impl, ThriftFunction func, TBase<?, ?> args,
                                              CompletableRpcResponse reply) throws TException {
 
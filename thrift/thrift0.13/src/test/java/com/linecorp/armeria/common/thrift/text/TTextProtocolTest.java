@@ -34,6 +34,7 @@ import static net.javacrumbs.jsonunit.core.Option.IGNORING_ARRAY_ORDER;
 import static net.javacrumbs.jsonunit.fluent.JsonFluentAssert.assertThatJson;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -59,10 +60,16 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.io.Resources;
 
 import com.linecorp.armeria.internal.common.thrift.TApplicationExceptions;
+import com.linecorp.armeria.internal.common.thrift.TByteBufTransport;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import testing.thrift.debug.RpcDebugService;
 import testing.thrift.debug.RpcDebugService.doDebug_args;
 import testing.thrift.debug.RpcDebugService.doDebug_result;
+import testing.thrift.main.FooService;
+import testing.thrift.main.FooService.bar6_args;
+import testing.thrift.main.FooStruct;
 import testing.thrift.text.Letter;
 import testing.thrift.text.Number;
 import testing.thrift.text.NumberSub;
@@ -281,6 +288,92 @@ class TTextProtocolTest {
         assertThat(header.seqid).isZero();
     }
 
+    @Test
+    void rpcCall_argsFirst() throws Exception {
+        final String request =
+                "{\n" +
+                "  \"args\" : {\n" +
+                "    \"methodArg1\" : \"foo1\",\n" +
+                "    \"methodArg2\" : 200,\n" +
+                "    \"details\" : {\n" +
+                "      \"detailsArg1\" : \"foo2\",\n" +
+                "      \"detailsArg2\" : 100\n" +
+                "    }\n" +
+                "  },\n" +
+                "  \"method\" : \"doDebug\",\n" +
+                "  \"type\" : \"CALL\",\n" +
+                "  \"seqid\" : 1\n" +
+                '}';
+
+        final ByteBuf buf = Unpooled.directBuffer().writeBytes(request.getBytes(StandardCharsets.UTF_8));
+        try {
+            final TTextProtocol prot = new TTextProtocol(new TByteBufTransport(buf));
+            final TMessage header = prot.readMessageBegin();
+            final doDebug_args args = new RpcDebugService.Processor.doDebug().getEmptyArgsInstance();
+            args.read(prot);
+            prot.readMessageEnd();
+
+            assertThat(header.name).isEqualTo("doDebug");
+            assertThat(header.type).isEqualTo(TMessageType.CALL);
+            assertThat(header.seqid).isOne();
+
+            assertThat(args.getMethodArg1()).isEqualTo("foo1");
+            assertThat(args.getMethodArg2()).isEqualTo(200);
+            assertThat(args.getDetails().getDetailsArg1()).isEqualTo("foo2");
+            assertThat(args.getDetails().getDetailsArg2()).isEqualTo(100);
+        } finally {
+            buf.release();
+        }
+
+        // A list and a map in the args which are read after the other fields.
+        final String requestWithContainers =
+                "{\n" +
+                "  \"args\" : {\n" +
+                "    \"foo4\" : { \"a\" : \"1\", \"b\" : \"2\" },\n" +
+                "    \"foo5\" : [ \"x\", \"y\", \"z\" ],\n" +
+                "    \"foo8\" : [ [ { \"i32Val\" : 1 }, { \"i32Val\" : 2 } ], [ ] ]\n" +
+                "  },\n" +
+                "  \"method\" : \"bar6\",\n" +
+                "  \"type\" : \"CALL\",\n" +
+                "  \"seqid\" : 2\n" +
+                '}';
+        final TTextProtocol prot = new TTextProtocol(new TByteBufTransport(
+                Unpooled.wrappedBuffer(requestWithContainers.getBytes(StandardCharsets.UTF_8))));
+        final TMessage header = prot.readMessageBegin();
+        final bar6_args args = new FooService.Processor.bar6<>().getEmptyArgsInstance();
+        args.read(prot);
+        prot.readMessageEnd();
+
+        assertThat(header.name).isEqualTo("bar6");
+        assertThat(header.seqid).isEqualTo(2);
+        assertThat(args.getFoo4()).containsOnly(entry("a", "1"), entry("b", "2"));
+        assertThat(args.getFoo5()).containsExactly("x", "y", "z");
+        assertThat(args.getFoo8()).hasSize(2);
+        assertThat(args.getFoo8().get(0)).extracting(FooStruct::getI32Val).containsExactly(1, 2);
+        assertThat(args.getFoo8().get(1)).isEmpty();
+    }
+
+    @Test
+    void rpcCall_invalidJsonAfterArgs() throws Exception {
+        final String request =
+                "{\n" +
+                "  \"method\" : \"doDebug\",\n" +
+                "  \"type\" : \"CALL\",\n" +
+                "  \"seqid\" : 1,\n" +
+                "  \"args\" : {\n" +
+                "    \"methodArg1\" : \"foo1\"\n" +
+                "  },\n" +
+                "  \"foo\" : [ 1, 2,\n" +
+                '}';
+
+        final TTextProtocol prot = new TTextProtocol(
+                new TIOStreamTransport(new ByteArrayInputStream(request.getBytes())));
+        prot.readMessageBegin();
+        final doDebug_args args = new RpcDebugService.Processor.doDebug().getEmptyArgsInstance();
+        args.read(prot);
+        assertThatThrownBy(prot::readMessageEnd).isInstanceOf(TException.class);
+    }
+
     @Test
     void rpcCall_oneWay() throws Exception {
         final String request =
@@ -33,11 +33,18 @@ final class CompositeXdsStream implements XdsStream {
 
     CompositeXdsStream(GrpcClientBuilder clientBuilder, Node node, Backoff backoff,
                        EventExecutor eventLoop, XdsResponseHandler handler,
-                       SubscriberStorage subscriberStorage) {
+                       SubscriberStorage subscriberStorage, boolean delta) {
         for (XdsType type: XdsType.values()) {
-            final SotwXdsStream stream = new SotwXdsStream(
-                    SotwDiscoveryStub.basic(type, clientBuilder), node, backoff, eventLoop,
-                    handler, subscriberStorage, EnumSet.of(type));
+            final XdsStream stream;
+            if (delta) {
+                stream = new DeltaXdsStream(
+                        DeltaDiscoveryStub.basic(type, clientBuilder), node, backoff, eventLoop,
+                        handler, subscriberStorage, EnumSet.of(type));
+            } else {
+                stream = new SotwXdsStream(
+                        SotwDiscoveryStub.basic(type, clientBuilder), node, backoff, eventLoop,
+                        handler, subscriberStorage, EnumSet.of(type));
+            }
             streamMap.put(type, stream);
         }
     }
@@ -65,8 +65,10 @@ final class ConfigSourceClient implements SafeCloseable {
         final ClusterSnapshot clusterSnapshot = bootstrapClusters.get(clusterName);
         checkArgument(clusterSnapshot != null, "Unable to find static cluster '%s'", clusterName);
 
-        endpointGroup = new XdsEndpointGroup(clusterSnapshot);
-        final boolean ads = apiConfigSource.getApiType() == ApiType.AGGREGATED_GRPC;
+        endpointGroup = new XdsEndpointGroup(clusterSnapshot, node.getLocality());
+        final ApiType apiType = apiConfigSource.getApiType();
+        final boolean ads = apiType == ApiType.AGGREGATED_GRPC || apiType == ApiType.AGGREGATED_DELTA_GRPC;
+        final boolean delta = apiType == ApiType.DELTA_GRPC || apiType == ApiType.AGGREGATED_DELTA_GRPC;
         final UpstreamTlsContext tlsContext = clusterSnapshot.holder().upstreamTlsContext();
         final SessionProtocol sessionProtocol =
                 tlsContext != null ? SessionProtocol.HTTPS : SessionProtocol.HTTP;
@@ -75,13 +77,17 @@ final class ConfigSourceClient implements SafeCloseable {
         builder.maxResponseLength(0);
         clientCustomizer.accept(builder);
 
-        if (ads) {
+        if (ads && delta) {
+            final DeltaDiscoveryStub stub = DeltaDiscoveryStub.ads(builder);
+            stream = new DeltaXdsStream(stub, node, Backoff.ofDefault(),
+                                        eventLoop, handler, subscriberStorage);
+        } else if (ads) {
             final SotwDiscoveryStub stub = SotwDiscoveryStub.ads(builder);
             stream = new SotwXdsStream(stub, node, Backoff.ofDefault(),
                                        eventLoop, handler, subscriberStorage);
         } else {
             stream = new CompositeXdsStream(builder, node, Backoff.ofDefault(),
-                                            eventLoop, handler, subscriberStorage);
+                                            eventLoop, handler, subscriberStorage, delta);
         }
     }
 
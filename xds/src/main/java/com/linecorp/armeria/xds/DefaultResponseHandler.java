@@ -16,11 +16,17 @@
 
 package com.linecorp.armeria.xds;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.Any;
 
+import io.envoyproxy.envoy.service.discovery.v3.DeltaDiscoveryResponse;
 import io.envoyproxy.envoy.service.discovery.v3.DiscoveryResponse;
+import io.envoyproxy.envoy.service.discovery.v3.Resource;
 import io.grpc.Status;
 
 final class DefaultResponseHandler implements XdsResponseHandler {
@@ -78,4 +84,62 @@ final class DefaultResponseHandler implements XdsResponseHandler {
             subscriber.onAbsent();
         }
     }
+
+    @Override
+    public void handleResponse(
+            ResourceParser resourceParser, DeltaDiscoveryResponse response, DeltaXdsStream sender) {
+        final XdsType type = resourceParser.type();
+
+        // Only parse the subscribed resources whose versions have changed, so that neither CPU is wasted
+        // nor the watchers are notified for the resources which are sent again for some reason.
+        final Map<String, XdsStreamSubscriber> subscribers = storage.subscribers(type);
+        final List<Resource> resources = response.getResourcesList();
+        final ImmutableList.Builder<Any> changedResources = ImmutableList.builder();
+        final Map<String, String> versions = new HashMap<>();
+        for (int i = 0; i < resources.size(); i++) {
+            final Resource resource = resources.get(i);
+            final XdsStreamSubscriber subscriber = subscribers.get(resource.getName());
+            if (subscriber == null || !resource.hasResource()) {
+                continue;
+            }
+            final String version = resource.getVersion();
+            if (subscriber.data() != null && !version.isEmpty() && version.equals(subscriber.version())) {
+                continue;
+            }
+            changedResources.add(resource.getResource());
+            versions.put(resource.getName(), version);
+        }
+
+        final ParsedResourcesHolder holder = resourceParser.parseResources(changedResources.build());
+        String errorDetail = null;
+        if (holder.errors().isEmpty()) {
+            sender.ackResponse(type, response.getNonce());
+        } else {
+            errorDetail = errorMessageJoiner.join(holder.errors());
+            sender.nackResponse(type, response.getNonce(), errorDetail);
+        }
+
+        // Look up the subscribers again for each resource because a watcher may add or remove
+        // a subscriber while being notified.
+        for (Map.Entry<String, AbstractResourceHolder> entry : holder.parsedResources().entrySet()) {
+            final XdsStreamSubscriber subscriber = storage.subscribers(type).get(entry.getKey());
+            if (subscriber != null) {
+                subscriber.version(versions.get(entry.getKey()));
+                subscriber.onData(entry.getValue());
+            }
+        }
+        for (String resourceName : holder.invalidResources()) {
+            final XdsStreamSubscriber subscriber = storage.subscribers(type).get(resourceName);
+            if (subscriber != null && subscriber.data() == null) {
+                // No cached resource. Notify the watchers of an invalid update.
+                subscriber.onError(Status.UNAVAILABLE.withDescription(errorDetail));
+            }
+        }
+        for (String resourceName : response.getRemovedResourcesList()) {
+            final XdsStreamSubscriber subscriber = storage.subscribers(type).get(resourceName);
+            if (subscriber != null) {
+                subscriber.onAbsent();
+            }
+        }
+    }
 }
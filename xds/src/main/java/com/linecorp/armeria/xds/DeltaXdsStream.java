@@ -0,0 +1,290 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.xds;
+
+import static com.linecorp.armeria.xds.XdsResourceParserUtil.fromTypeUrl;
+import static java.util.Objects.requireNonNull;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.rpc.Code;
+
+import com.linecorp.armeria.client.retry.Backoff;
+import com.linecorp.armeria.common.annotation.Nullable;
+
+import io.envoyproxy.envoy.config.core.v3.Node;
+import io.envoyproxy.envoy.service.discovery.v3.DeltaDiscoveryRequest;
+import io.envoyproxy.envoy.service.discovery.v3.DeltaDiscoveryRequest.Builder;
+import io.envoyproxy.envoy.service.discovery.v3.DeltaDiscoveryResponse;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import io.netty.util.concurrent.EventExecutor;
+
+/**
+ * An {@link XdsStream} which uses the incremental (delta) variant of the xDS protocol.
+ * Unlike {@link SotwXdsStream}, only the changes of the subscribed resource names are sent to the
+ * control plane, and the control plane only sends the resources which were added, updated or removed.
+ * When the stream is re-established, the versions of the resources which are already known are sent
+ * so that the control plane doesn't have to resend the unchanged resources.
+ */
+final class DeltaXdsStream implements XdsStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeltaXdsStream.class);
+
+    private final DeltaDiscoveryStub stub;
+    private final Node node;
+    private final Backoff backoff;
+    private final EventExecutor eventLoop;
+    private final XdsResponseHandler responseHandler;
+    private final SubscriberStorage subscriberStorage;
+    private final StreamObserver<DeltaDiscoveryResponse> responseObserver =
+            new DeltaDiscoveryResponseObserver();
+    @Nullable
+    @VisibleForTesting
+    StreamObserver<DeltaDiscoveryRequest> requestObserver;
+    private int connBackoffAttempts;
+    private int ackBackoffAttempts;
+    // whether the stream is stopped explicitly by the user
+    private boolean stopped;
+
+    // The resource names which the control plane is aware of in the current stream.
+    private final Map<XdsType, Set<String>> subscribedResources = new EnumMap<>(XdsType.class);
+    private final Set<XdsType> targetTypes;
+
+    DeltaXdsStream(DeltaDiscoveryStub stub,
+                   Node node,
+                   Backoff backoff,
+                   EventExecutor eventLoop,
+                   XdsResponseHandler responseHandler,
+                   SubscriberStorage subscriberStorage) {
+        this(stub, node, backoff, eventLoop, responseHandler, subscriberStorage,
+             EnumSet.allOf(XdsType.class));
+    }
+
+    DeltaXdsStream(DeltaDiscoveryStub stub,
+                   Node node,
+                   Backoff backoff,
+                   EventExecutor eventLoop,
+                   XdsResponseHandler responseHandler,
+                   SubscriberStorage subscriberStorage,
+                   Set<XdsType> targetTypes) {
+        this.stub = requireNonNull(stub, "stub");
+        this.node = requireNonNull(node, "node");
+        this.backoff = requireNonNull(backoff, "backoff");
+        this.eventLoop = requireNonNull(eventLoop, "eventLoop");
+        this.responseHandler = requireNonNull(responseHandler, "responseHandler");
+        this.subscriberStorage = requireNonNull(subscriberStorage, "subscriberStorage");
+        this.targetTypes = targetTypes;
+    }
+
+    @VisibleForTesting
+    void start() {
+        if (!eventLoop.inEventLoop()) {
+            eventLoop.execute(this::start);
+            return;
+        }
+        stopped = false;
+        reset();
+    }
+
+    private void reset() {
+        if (stopped) {
+            return;
+        }
+
+        // A new stream doesn't know about any of the previous subscriptions.
+        subscribedResources.clear();
+        for (XdsType targetType : targetTypes) {
+            // An initial request without any resource names is a wildcard subscription,
+            // so make sure the resource type actually has subscriptions.
+            if (!subscriberStorage.resources(targetType).isEmpty()) {
+                resourcesUpdated(targetType);
+            }
+        }
+    }
+
+    void stop() {
+        stop(Status.CANCELLED.withDescription("shutdown").asException());
+    }
+
+    void stop(Throwable throwable) {
+        requireNonNull(throwable, "throwable");
+        if (!eventLoop.inEventLoop()) {
+            eventLoop.execute(() -> stop(throwable));
+            return;
+        }
+        stopped = true;
+        if (requestObserver == null) {
+            return;
+        }
+        requestObserver.onError(throwable);
+        requestObserver = null;
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    @Override
+    public void resourcesUpdated(XdsType type) {
+        assert targetTypes.contains(type);
+        final Set<String> resources = subscriberStorage.resources(type);
+        final Set<String> subscribed = subscribedResources.get(type);
+        final Builder builder = newRequestBuilder(type);
+        if (subscribed == null) {
+            if (resources.isEmpty()) {
+                // Don't send an initial request without any resource names which is a wildcard request.
+                return;
+            }
+            // The first request of this type in the current stream.
+            builder.addAllResourceNamesSubscribe(resources)
+                   .putAllInitialResourceVersions(subscriberStorage.resourceVersions(type));
+        } else {
+            final ImmutableList.Builder<String> toSubscribe = ImmutableList.builder();
+            final ImmutableList.Builder<String> toUnsubscribe = ImmutableList.builder();
+            for (String resource : resources) {
+                if (!subscribed.contains(resource)) {
+                    toSubscribe.add(resource);
+                }
+            }
+            for (String resource : subscribed) {
+                if (!resources.contains(resource)) {
+                    toUnsubscribe.add(resource);
+                }
+            }
+            builder.addAllResourceNamesSubscribe(toSubscribe.build())
+                   .addAllResourceNamesUnsubscribe(toUnsubscribe.build());
+            if (builder.getResourceNamesSubscribeCount() == 0 &&
+                builder.getResourceNamesUnsubscribeCount() == 0) {
+                // Nothing has changed.
+                return;
+            }
+        }
+        subscribedResources.put(type, new HashSet<>(resources));
+        sendDiscoveryRequest(builder.build(), false);
+    }
+
+    void ackResponse(XdsType type, String nonce) {
+        sendDiscoveryRequest(newRequestBuilder(type).setResponseNonce(nonce).build(), false);
+    }
+
+    void nackResponse(XdsType type, String nonce, String errorDetail) {
+        final com.google.rpc.Status status = com.google.rpc.Status.newBuilder()
+                                                                  .setCode(Code.INVALID_ARGUMENT_VALUE)
+                                                                  .setMessage(errorDetail)
+                                                                  .build();
+        final DeltaDiscoveryRequest request = newRequestBuilder(type).setResponseNonce(nonce)
+                                                                     .setErrorDetail(status)
+                                                                     .build();
+        sendDiscoveryRequest(request, true);
+    }
+
+    private Builder newRequestBuilder(XdsType type) {
+        return DeltaDiscoveryRequest.newBuilder()
+                                    .setTypeUrl(type.typeUrl())
+                                    .setNode(node);
+    }
+
+    private void sendDiscoveryRequest(DeltaDiscoveryRequest request, boolean nack) {
+        if (requestObserver == null) {
+            requestObserver = stub.stream(responseObserver);
+        }
+        if (nack) {
+            ackBackoffAttempts++;
+            logger.debug("Sending delta discovery request: {} with backoff attempt ({})",
+                         request, ackBackoffAttempts);
+            eventLoop.schedule(() -> requestObserver.onNext(request),
+                               backoff.nextDelayMillis(ackBackoffAttempts), TimeUnit.MILLISECONDS);
+        } else {
+            ackBackoffAttempts = 0;
+            logger.debug("Sending delta discovery request: {}", request);
+            requestObserver.onNext(request);
+        }
+    }
+
+    private class DeltaDiscoveryResponseObserver implements StreamObserver<DeltaDiscoveryResponse> {
+        @Override
+        public void onNext(DeltaDiscoveryResponse value) {
+            if (!eventLoop.inEventLoop()) {
+                eventLoop.execute(() -> onNext(value));
+                return;
+            }
+
+            logger.debug("Received delta discovery response: {}", value);
+
+            final ResourceParser resourceParser = fromTypeUrl(value.getTypeUrl());
+            if (resourceParser == null) {
+                logger.warn("XDS stream Received unexpected type: {}", value.getTypeUrl());
+                return;
+            }
+
+            try {
+                responseHandler.handleResponse(resourceParser, value, DeltaXdsStream.this);
+            } catch (Exception e) {
+                // Handling the response threw an error for some reason.
+                // Close the stream in case a request wasn't sent so that the most recent
+                // version is still fetched.
+                logger.warn("The delta stream was unexpectedly reset while handling ({}): ", value, e);
+                responseObserver.onError(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            requireNonNull(throwable, "throwable");
+            retryOrClose(Status.fromThrowable(throwable));
+        }
+
+        @Override
+        public void onCompleted() {
+            retryOrClose(Status.UNAVAILABLE.withDescription("Closed by server"));
+        }
+
+        private void retryOrClose(Status status) {
+            if (!eventLoop.inEventLoop()) {
+                eventLoop.execute(() -> retryOrClose(status));
+                return;
+            }
+            if (stopped) {
+                // don't reschedule automatically since the user explicitly closed the stream
+                return;
+            }
+            requestObserver = null;
+            // wait backoff
+            connBackoffAttempts++;
+            final long nextDelayMillis = backoff.nextDelayMillis(connBackoffAttempts);
+            if (nextDelayMillis < 0) {
+                logger.warn("Stream closed with status {}, not retrying.", status);
+                return;
+            }
+            logger.debug("Stream closed with status {}. Retrying for attempt ({}) in {}ms.",
+                         status, connBackoffAttempts, nextDelayMillis);
+            eventLoop.schedule(DeltaXdsStream.this::reset, nextDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
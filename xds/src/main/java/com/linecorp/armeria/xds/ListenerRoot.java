@@ -16,6 +16,7 @@
 
 package com.linecorp.armeria.xds;
 
+import io.envoyproxy.envoy.config.core.v3.Locality;
 import io.envoyproxy.envoy.config.listener.v3.Listener;
 
 /**
@@ -26,14 +27,20 @@ import io.envoyproxy.envoy.config.listener.v3.Listener;
 public final class ListenerRoot extends AbstractRoot<ListenerSnapshot> {
 
     private final ListenerResourceNode node;
+    private final Locality localLocality;
 
     ListenerRoot(XdsBootstrapImpl xdsBootstrap, String resourceName) {
         super(xdsBootstrap.eventLoop());
+        localLocality = xdsBootstrap.bootstrapNode().getLocality();
         node = new ListenerResourceNode(null, resourceName, xdsBootstrap, null,
                                         this, ResourceNodeType.DYNAMIC);
         xdsBootstrap.subscribe(node);
     }
 
+    Locality localLocality() {
+        return localLocality;
+    }
+
     @Override
     public void close() {
         if (!eventLoop().inEventLoop()) {
@@ -22,6 +22,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
+import com.google.common.collect.ImmutableMap;
+
 import com.linecorp.armeria.common.util.SafeCloseable;
 
 import io.netty.util.concurrent.EventExecutor;
@@ -87,6 +89,25 @@ final class SubscriberStorage implements SafeCloseable {
         return subscriberMap.getOrDefault(type, Collections.emptyMap()).keySet();
     }
 
+    /**
+     * Returns the versions of the resources of the specified {@link XdsType} which were received
+     * via the delta xDS protocol.
+     */
+    Map<String, String> resourceVersions(XdsType type) {
+        final Map<String, XdsStreamSubscriber> subscribers = subscribers(type);
+        if (subscribers.isEmpty()) {
+            return ImmutableMap.of();
+        }
+        final ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+        subscribers.forEach((resourceName, subscriber) -> {
+            final String version = subscriber.version();
+            if (version != null) {
+                builder.put(resourceName, version);
+            }
+        });
+        return builder.build();
+    }
+
     Map<XdsType, Map<String, XdsStreamSubscriber>> allSubscribers() {
         return subscriberMap;
     }
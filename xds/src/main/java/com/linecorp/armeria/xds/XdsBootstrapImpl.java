@@ -63,6 +63,10 @@ final class XdsBootstrapImpl implements XdsBootstrap {
         bootstrapNode = bootstrap.hasNode() ? bootstrap.getNode() : Node.getDefaultInstance();
     }
 
+    Node bootstrapNode() {
+        return bootstrapNode;
+    }
+
     void subscribe(ResourceNode<AbstractResourceHolder> node) {
         subscribe(null, node);
     }
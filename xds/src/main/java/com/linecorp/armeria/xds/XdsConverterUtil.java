@@ -18,10 +18,6 @@ package com.linecorp.armeria.xds;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
-import java.util.Collection;
-import java.util.List;
-import java.util.stream.Collectors;
-
 import com.google.common.base.Strings;
 
 import com.linecorp.armeria.client.Endpoint;
@@ -31,34 +27,26 @@ import io.envoyproxy.envoy.config.core.v3.ApiConfigSource;
 import io.envoyproxy.envoy.config.core.v3.ApiConfigSource.ApiType;
 import io.envoyproxy.envoy.config.core.v3.ConfigSource;
 import io.envoyproxy.envoy.config.core.v3.SocketAddress;
-import io.envoyproxy.envoy.config.endpoint.v3.ClusterLoadAssignment;
+import io.envoyproxy.envoy.config.endpoint.v3.LbEndpoint;
 
 final class XdsConverterUtil {
 
     private XdsConverterUtil() {}
 
-    static List<Endpoint> convertEndpoints(ClusterLoadAssignment clusterLoadAssignment) {
-        return clusterLoadAssignment.getEndpointsList().stream().flatMap(
-                localityLbEndpoints -> localityLbEndpoints
-                        .getLbEndpointsList()
-                        .stream()
-                        .map(lbEndpoint -> {
-                            final SocketAddress socketAddress =
-                                    lbEndpoint.getEndpoint().getAddress().getSocketAddress();
-                            final String hostname = lbEndpoint.getEndpoint().getHostname();
-                            if (!Strings.isNullOrEmpty(hostname)) {
-                                return Endpoint.of(hostname, socketAddress.getPortValue())
-                                               .withIpAddr(socketAddress.getAddress());
-                            } else {
-                                return Endpoint.of(socketAddress.getAddress(), socketAddress.getPortValue());
-                            }
-                        })).collect(Collectors.toList());
-    }
-
-    static List<Endpoint> convertEndpoints(Collection<ClusterLoadAssignment> clusterLoadAssignments) {
-        return clusterLoadAssignments.stream()
-                                     .flatMap(cla -> convertEndpoints(cla).stream())
-                                     .collect(Collectors.toList());
+    static Endpoint convertEndpoint(LbEndpoint lbEndpoint) {
+        final SocketAddress socketAddress = lbEndpoint.getEndpoint().getAddress().getSocketAddress();
+        final String hostname = lbEndpoint.getEndpoint().getHostname();
+        final Endpoint endpoint;
+        if (!Strings.isNullOrEmpty(hostname)) {
+            endpoint = Endpoint.of(hostname, socketAddress.getPortValue())
+                               .withIpAddr(socketAddress.getAddress());
+        } else {
+            endpoint = Endpoint.of(socketAddress.getAddress(), socketAddress.getPortValue());
+        }
+        // The weight of an endpoint is 1 by default in Envoy.
+        final int weight = lbEndpoint.hasLoadBalancingWeight() ? lbEndpoint.getLoadBalancingWeight().getValue()
+                                                               : 1;
+        return endpoint.withWeight(weight);
     }
 
     static void validateConfigSource(@Nullable ConfigSource configSource) {
@@ -70,8 +58,10 @@ final class XdsConverterUtil {
         if (configSource.hasApiConfigSource()) {
             final ApiConfigSource apiConfigSource = configSource.getApiConfigSource();
             final ApiType apiType = apiConfigSource.getApiType();
-            checkArgument(apiType == ApiType.GRPC || apiType == ApiType.AGGREGATED_GRPC,
-                          "Unsupported apiType %s. Only GRPC and AGGREGATED_GRPC are supported.", configSource);
+            checkArgument(apiType == ApiType.GRPC || apiType == ApiType.AGGREGATED_GRPC ||
+                          apiType == ApiType.DELTA_GRPC || apiType == ApiType.AGGREGATED_DELTA_GRPC,
+                          "Unsupported apiType %s. Only GRPC, AGGREGATED_GRPC, DELTA_GRPC and " +
+                          "AGGREGATED_DELTA_GRPC are supported.", configSource);
             checkArgument(apiConfigSource.getGrpcServicesCount() > 0,
                           "At least once GrpcService is required for ApiConfigSource for %s", configSource);
             apiConfigSource.getGrpcServicesList().forEach(
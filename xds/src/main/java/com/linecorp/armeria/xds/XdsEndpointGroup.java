@@ -17,19 +17,29 @@
 package com.linecorp.armeria.xds;
 
 import static com.google.common.base.Preconditions.checkArgument;
-import static com.linecorp.armeria.xds.XdsConverterUtil.convertEndpoints;
 import static java.util.Objects.requireNonNull;
 
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.client.endpoint.AbstractEndpointSelector;
 import com.linecorp.armeria.client.endpoint.DynamicEndpointGroup;
 import com.linecorp.armeria.client.endpoint.EndpointGroup;
+import com.linecorp.armeria.client.endpoint.EndpointSelectionStrategy;
+import com.linecorp.armeria.client.endpoint.EndpointSelector;
+import com.linecorp.armeria.common.annotation.Nullable;
 import com.linecorp.armeria.common.util.SafeCloseable;
 
-import io.envoyproxy.envoy.config.core.v3.SocketAddress;
+import io.envoyproxy.envoy.config.cluster.v3.Cluster;
+import io.envoyproxy.envoy.config.core.v3.Locality;
 import io.envoyproxy.envoy.config.endpoint.v3.ClusterLoadAssignment;
 
 /**
@@ -40,15 +50,20 @@ import io.envoyproxy.envoy.config.endpoint.v3.ClusterLoadAssignment;
  * EndpointGroup endpointGroup = XdsEndpointGroup.of(watchersStorage, "my-cluster");
  * WebClient client = WebClient.of(SessionProtocol.HTTP, endpointGroup);
  * }</pre>
- * Currently, all {@link SocketAddress}es of a {@link ClusterLoadAssignment} are aggregated
- * to a list and added to this {@link EndpointGroup}. Features such as automatic TLS detection
- * or locality based load balancing are not supported yet.
+ * An {@link Endpoint} is selected according to the priorities, the localities and the load balancing
+ * weights of the {@link ClusterLoadAssignment} and the {@code lb_policy} of the {@link Cluster}.
+ * {@code ROUND_ROBIN}, {@code LEAST_REQUEST}, {@code RANDOM} and {@code RING_HASH} are supported.
+ * {@code MAGLEV} is treated as {@code RING_HASH} and the other policies as {@code ROUND_ROBIN}.
+ * Features such as automatic TLS detection are not supported yet.
  * Note that it is important to shut down the endpoint group to clean up resources
  * for the provided {@link XdsBootstrap}.
  */
 public final class XdsEndpointGroup extends DynamicEndpointGroup {
 
     private final SafeCloseable safeCloseable;
+    private final Locality localLocality;
+    private final Map<Endpoint, AtomicInteger> numActiveRequests = new ConcurrentHashMap<>();
+    private volatile XdsLoadBalancer loadBalancer = XdsLoadBalancer.EMPTY;
 
     /**
      * Creates a {@link XdsEndpointGroup} which listens to the specified listener.
@@ -59,33 +74,68 @@ public final class XdsEndpointGroup extends DynamicEndpointGroup {
     }
 
     XdsEndpointGroup(ListenerRoot listenerRoot) {
+        super(XdsEndpointSelectionStrategy.INSTANCE);
+        localLocality = listenerRoot.localLocality();
         final SnapshotWatcher<ListenerSnapshot> watcher = update -> {
             final RouteSnapshot routeSnapshot = update.routeSnapshot();
             if (routeSnapshot == null) {
                 return;
             }
-            final List<ClusterLoadAssignment> endpoints =
-                    routeSnapshot.clusterSnapshots().stream()
-                                 .map(ClusterSnapshot::endpointSnapshot)
-                                 .filter(Objects::nonNull)
-                                 .map(endpointSnapshot -> endpointSnapshot.holder().resource())
-                                 .collect(Collectors.toList());
-            setEndpoints(convertEndpoints(endpoints));
+            updateLoadBalancer(routeSnapshot.clusterSnapshots());
         };
         listenerRoot.addSnapshotWatcher(watcher);
         safeCloseable = () -> listenerRoot.removeSnapshotWatcher(watcher);
     }
 
-    XdsEndpointGroup(ClusterSnapshot clusterSnapshot) {
+    XdsEndpointGroup(ClusterSnapshot clusterSnapshot, Locality localLocality) {
+        super(XdsEndpointSelectionStrategy.INSTANCE);
+        this.localLocality = localLocality;
         final EndpointSnapshot endpointSnapshot = clusterSnapshot.endpointSnapshot();
         checkArgument(endpointSnapshot != null, "No endpoints are defined for cluster %s", clusterSnapshot);
-        setEndpoints(convertEndpoints(clusterSnapshot.endpointSnapshot().holder().resource()));
+        updateLoadBalancer(ImmutableList.of(clusterSnapshot));
         safeCloseable = () -> {};
     }
 
+    private void updateLoadBalancer(List<ClusterSnapshot> clusterSnapshots) {
+        final XdsLoadBalancer loadBalancer = XdsLoadBalancer.of(clusterSnapshots, localLocality,
+                                                                numActiveRequests);
+        final List<Endpoint> endpoints = loadBalancer.endpoints();
+        numActiveRequests.keySet().retainAll(ImmutableSet.copyOf(endpoints));
+        // Update the load balancer first so that the pending selections see the new load balancer.
+        this.loadBalancer = loadBalancer;
+        setEndpoints(endpoints);
+    }
+
     @Override
     protected void doCloseAsync(CompletableFuture<?> future) {
         safeCloseable.close();
         super.doCloseAsync(future);
     }
+
+    private static final class XdsEndpointSelectionStrategy implements EndpointSelectionStrategy {
+
+        static final XdsEndpointSelectionStrategy INSTANCE = new XdsEndpointSelectionStrategy();
+
+        @Override
+        public EndpointSelector newSelector(EndpointGroup endpointGroup) {
+            return new XdsEndpointSelector((XdsEndpointGroup) endpointGroup);
+        }
+    }
+
+    private static final class XdsEndpointSelector extends AbstractEndpointSelector {
+
+        private final XdsEndpointGroup endpointGroup;
+
+        XdsEndpointSelector(XdsEndpointGroup endpointGroup) {
+            super(endpointGroup);
+            this.endpointGroup = endpointGroup;
+            initialize();
+        }
+
+        @Nullable
+        @Override
+        public Endpoint selectNow(ClientRequestContext ctx) {
+            return endpointGroup.loadBalancer.select(ctx);
+        }
+    }
 }
@@ -0,0 +1,611 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.xds;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.QueryParams;
+import com.linecorp.armeria.common.annotation.Nullable;
+
+import io.envoyproxy.envoy.config.cluster.v3.Cluster;
+import io.envoyproxy.envoy.config.cluster.v3.Cluster.CommonLbConfig;
+import io.envoyproxy.envoy.config.cluster.v3.Cluster.CommonLbConfig.ZoneAwareLbConfig;
+import io.envoyproxy.envoy.config.cluster.v3.Cluster.LbPolicy;
+import io.envoyproxy.envoy.config.cluster.v3.Cluster.LeastRequestLbConfig;
+import io.envoyproxy.envoy.config.cluster.v3.Cluster.RingHashLbConfig;
+import io.envoyproxy.envoy.config.core.v3.HealthStatus;
+import io.envoyproxy.envoy.config.core.v3.Locality;
+import io.envoyproxy.envoy.config.endpoint.v3.ClusterLoadAssignment;
+import io.envoyproxy.envoy.config.endpoint.v3.LbEndpoint;
+import io.envoyproxy.envoy.config.endpoint.v3.LocalityLbEndpoints;
+import io.envoyproxy.envoy.config.route.v3.Route;
+import io.envoyproxy.envoy.config.route.v3.RouteAction.HashPolicy;
+
+/**
+ * An immutable snapshot of the load balancing state of a {@link Cluster}, which selects an {@link Endpoint}
+ * in a similar way to Envoy:
+ * <ol>
+ *   <li>A priority is chosen according to the health of each priority, so that the traffic fails over
+ *       to the next priority only when the endpoints in the higher priorities are not healthy enough.
+ *       The overprovisioning factor of the {@link ClusterLoadAssignment} is taken into account.</li>
+ *   <li>If {@link ZoneAwareLbConfig} is set and the bootstrap node has a {@link Locality}, the endpoints
+ *       in the same zone are preferred, in proportion to the availability of the local zone.</li>
+ *   <li>If {@code locality_weighted_lb_config} is set, a locality is chosen according to its
+ *       {@code load_balancing_weight} scaled by its availability.</li>
+ *   <li>An endpoint is chosen from the chosen priority or locality with the {@link LbPolicy} of the
+ *       {@link Cluster}, honoring the {@code load_balancing_weight} of each endpoint.</li>
+ * </ol>
+ * If none of the priorities has a healthy endpoint, all endpoints in the highest priority are used,
+ * which is similar to the panic mode of Envoy.
+ */
+final class XdsLoadBalancer {
+
+    static final XdsLoadBalancer EMPTY = new XdsLoadBalancer();
+
+    private static final int DEFAULT_OVERPROVISIONING_FACTOR = 140;
+    private static final long DEFAULT_MIN_CLUSTER_SIZE = 6;
+    private static final long DEFAULT_MINIMUM_RING_SIZE = 1024;
+    private static final long MAXIMUM_RING_SIZE = 8 * 1024 * 1024;
+    private static final int DEFAULT_CHOICE_COUNT = 2;
+
+    static XdsLoadBalancer of(List<ClusterSnapshot> clusterSnapshots, Locality localLocality,
+                              Map<Endpoint, AtomicInteger> numActiveRequests) {
+        if (clusterSnapshots.isEmpty()) {
+            return EMPTY;
+        }
+        // A route may refer to multiple clusters. The endpoints of all clusters are load-balanced together
+        // with the policy of the first cluster.
+        final ClusterSnapshot first = clusterSnapshots.get(0);
+        final List<ClusterLoadAssignment> loadAssignments =
+                clusterSnapshots.stream()
+                                .map(ClusterSnapshot::endpointSnapshot)
+                                .filter(endpointSnapshot -> endpointSnapshot != null)
+                                .map(endpointSnapshot -> endpointSnapshot.holder().resource())
+                                .collect(toImmutableList());
+        return of(first.holder().resource(), loadAssignments, first.route(), localLocality,
+                  numActiveRequests);
+    }
+
+    static XdsLoadBalancer of(Cluster cluster, List<ClusterLoadAssignment> loadAssignments,
+                              @Nullable Route route, Locality localLocality,
+                              Map<Endpoint, AtomicInteger> numActiveRequests) {
+        return new XdsLoadBalancer(cluster, loadAssignments, route, localLocality, numActiveRequests);
+    }
+
+    private final List<Endpoint> endpoints;
+    private final Priority[] priorities;
+    private final int[] cumulativePriorityLoads;
+    private final boolean localityWeighted;
+    private final boolean zoneAware;
+    private final double zoneAwareRoutingEnabled;
+    private final long zoneAwareMinClusterSize;
+
+    private XdsLoadBalancer() {
+        endpoints = ImmutableList.of();
+        priorities = new Priority[0];
+        cumulativePriorityLoads = new int[0];
+        localityWeighted = false;
+        zoneAware = false;
+        zoneAwareRoutingEnabled = 0;
+        zoneAwareMinClusterSize = 0;
+    }
+
+    private XdsLoadBalancer(Cluster cluster, List<ClusterLoadAssignment> loadAssignments,
+                            @Nullable Route route, Locality localLocality,
+                            Map<Endpoint, AtomicInteger> numActiveRequests) {
+        final CommonLbConfig commonLbConfig = cluster.getCommonLbConfig();
+        localityWeighted = commonLbConfig.hasLocalityWeightedLbConfig();
+        zoneAware = commonLbConfig.hasZoneAwareLbConfig() &&
+                    !localLocality.equals(Locality.getDefaultInstance());
+        final ZoneAwareLbConfig zoneAwareLbConfig = commonLbConfig.getZoneAwareLbConfig();
+        zoneAwareRoutingEnabled = zoneAwareLbConfig.hasRoutingEnabled() ?
+                                  zoneAwareLbConfig.getRoutingEnabled().getValue() / 100 : 1.0;
+        zoneAwareMinClusterSize = zoneAwareLbConfig.hasMinClusterSize() ?
+                                  zoneAwareLbConfig.getMinClusterSize().getValue() : DEFAULT_MIN_CLUSTER_SIZE;
+
+        final PickerFactory pickerFactory = pickerFactory(cluster, route, numActiveRequests);
+
+        // Group the endpoints by priority and then by locality.
+        int overprovisioningFactor = DEFAULT_OVERPROVISIONING_FACTOR;
+        final Map<Integer, List<LocalityLbEndpoints>> localitiesByPriority = new TreeMap<>();
+        for (ClusterLoadAssignment loadAssignment : loadAssignments) {
+            if (loadAssignment.getPolicy().hasOverprovisioningFactor()) {
+                overprovisioningFactor = loadAssignment.getPolicy().getOverprovisioningFactor().getValue();
+            }
+            for (LocalityLbEndpoints localityLbEndpoints : loadAssignment.getEndpointsList()) {
+                localitiesByPriority.computeIfAbsent(localityLbEndpoints.getPriority(),
+                                                     unused -> new ArrayList<>())
+                                    .add(localityLbEndpoints);
+            }
+        }
+
+        final ImmutableList.Builder<Endpoint> endpointsBuilder = ImmutableList.builder();
+        priorities = new Priority[localitiesByPriority.size()];
+        int i = 0;
+        for (List<LocalityLbEndpoints> localities : localitiesByPriority.values()) {
+            priorities[i++] = new Priority(localities, localLocality, overprovisioningFactor,
+                                           pickerFactory, endpointsBuilder);
+        }
+        endpoints = endpointsBuilder.build();
+        cumulativePriorityLoads = cumulativePriorityLoads(priorities, overprovisioningFactor);
+    }
+
+    /**
+     * Returns the cumulative percentages of the traffic sent to each priority. The higher priorities take
+     * as much traffic as their health allows, and the remainder spills over to the lower priorities.
+     * The loads are normalized later by choosing a random number less than the total.
+     */
+    private static int[] cumulativePriorityLoads(Priority[] priorities, int overprovisioningFactor) {
+        final int[] cumulativeLoads = new int[priorities.length];
+        int remaining = 100;
+        int cumulative = 0;
+        for (int i = 0; i < priorities.length; i++) {
+            final Priority priority = priorities[i];
+            final int health = availability(priority.numHealthy, priority.numEndpoints,
+                                            overprovisioningFactor);
+            final int load = Math.min(remaining, health);
+            remaining -= load;
+            cumulative += load;
+            cumulativeLoads[i] = cumulative;
+        }
+        return cumulativeLoads;
+    }
+
+    /**
+     * Returns the percentage of the traffic the specified number of healthy endpoints can take, as Envoy
+     * does, e.g. 4 healthy endpoints out of 5 can take {@code min(100, 4 / 5 * 140) = 100}% of the traffic
+     * with the default overprovisioning factor.
+     */
+    private static int availability(int numHealthy, int numEndpoints, int overprovisioningFactor) {
+        if (numEndpoints == 0) {
+            return 0;
+        }
+        return (int) Math.min(100, (long) numHealthy * overprovisioningFactor / numEndpoints);
+    }
+
+    /**
+     * Returns all {@link Endpoint}s regardless of their health status.
+     */
+    List<Endpoint> endpoints() {
+        return endpoints;
+    }
+
+    @Nullable
+    Endpoint select(ClientRequestContext ctx) {
+        if (priorities.length == 0) {
+            return null;
+        }
+        final int totalLoad = cumulativePriorityLoads[cumulativePriorityLoads.length - 1];
+        if (totalLoad == 0) {
+            // No healthy endpoints at all. Use all endpoints in the highest priority rather than failing.
+            return priorities[0].allPicker.get().pick(ctx);
+        }
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int priorityIndex = indexOf(cumulativePriorityLoads, random.nextInt(totalLoad));
+        final Priority priority = priorities[priorityIndex];
+        if (zoneAware && priority.local != null && priority.numEndpoints >= zoneAwareMinClusterSize &&
+            random.nextDouble() < zoneAwareRoutingEnabled * priority.localAvailability / 100) {
+            return priority.local.healthyPicker.get().pick(ctx);
+        }
+        if (localityWeighted && priority.localityWeightTotal > 0) {
+            final int localityIndex = indexOf(priority.cumulativeLocalityWeights,
+                                              random.nextLong(priority.localityWeightTotal));
+            return priority.localities.get(localityIndex).healthyPicker.get().pick(ctx);
+        }
+        if (priority.healthyPicker != null) {
+            return priority.healthyPicker.pick(ctx);
+        }
+        return null;
+    }
+
+    private static int indexOf(int[] cumulativeValues, int value) {
+        for (int i = 0; i < cumulativeValues.length; i++) {
+            if (value < cumulativeValues[i]) {
+                return i;
+            }
+        }
+        return cumulativeValues.length - 1;
+    }
+
+    /**
+     * Returns the index of the first element which is greater than the specified {@code value}.
+     * Note that the {@code cumulativeValues} may contain the same value more than once when there's
+     * an element whose weight is {@code 0}.
+     */
+    private static int indexOf(long[] cumulativeValues, long value) {
+        int low = 0;
+        int high = cumulativeValues.length - 1;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (cumulativeValues[mid] > value) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private static final class Priority {
+
+        private final List<LocalityEndpoints> localities;
+        private final int numEndpoints;
+        private final int numHealthy;
+        @Nullable
+        private final EndpointPicker healthyPicker;
+        private final Supplier<EndpointPicker> allPicker;
+        private final long[] cumulativeLocalityWeights;
+        private final long localityWeightTotal;
+        @Nullable
+        private final LocalityEndpoints local;
+        private final int localAvailability;
+
+        Priority(List<LocalityLbEndpoints> localityLbEndpointsList, Locality localLocality,
+                 int overprovisioningFactor, PickerFactory pickerFactory,
+                 ImmutableList.Builder<Endpoint> endpointsBuilder) {
+            final ImmutableList.Builder<LocalityEndpoints> localitiesBuilder = ImmutableList.builder();
+            final ImmutableList.Builder<Endpoint> allBuilder = ImmutableList.builder();
+            final ImmutableList.Builder<Endpoint> healthyBuilder = ImmutableList.builder();
+            LocalityEndpoints local = null;
+            for (LocalityLbEndpoints localityLbEndpoints : localityLbEndpointsList) {
+                final LocalityEndpoints locality = new LocalityEndpoints(localityLbEndpoints,
+                                                                         overprovisioningFactor,
+                                                                         pickerFactory);
+                localitiesBuilder.add(locality);
+                allBuilder.addAll(locality.all);
+                healthyBuilder.addAll(locality.healthy);
+                if (local == null && !locality.healthy.isEmpty() &&
+                    sameZone(localityLbEndpoints.getLocality(), localLocality)) {
+                    local = locality;
+                }
+            }
+            localities = localitiesBuilder.build();
+            final List<Endpoint> all = allBuilder.build();
+            final List<Endpoint> healthy = healthyBuilder.build();
+            endpointsBuilder.addAll(all);
+            numEndpoints = all.size();
+            numHealthy = healthy.size();
+            healthyPicker = healthy.isEmpty() ? null : pickerFactory.newPicker(healthy);
+            // Only used when there are no healthy endpoints at all.
+            allPicker = Suppliers.memoize(() -> pickerFactory.newPicker(all));
+
+            cumulativeLocalityWeights = new long[localities.size()];
+            long cumulative = 0;
+            for (int i = 0; i < localities.size(); i++) {
+                cumulative += localities.get(i).effectiveWeight;
+                cumulativeLocalityWeights[i] = cumulative;
+            }
+            localityWeightTotal = cumulative;
+
+            this.local = local;
+            localAvailability = local != null ? availability(local.healthy.size(), local.all.size(),
+                                                             overprovisioningFactor) : 0;
+        }
+
+        private static boolean sameZone(Locality locality, Locality localLocality) {
+            return locality.getRegion().equals(localLocality.getRegion()) &&
+                   locality.getZone().equals(localLocality.getZone());
+        }
+    }
+
+    private static final class LocalityEndpoints {
+
+        private final List<Endpoint> all;
+        private final List<Endpoint> healthy;
+        // Only used by the zone aware or locality weighted load balancing.
+        private final Supplier<EndpointPicker> healthyPicker;
+        private final long effectiveWeight;
+
+        LocalityEndpoints(LocalityLbEndpoints localityLbEndpoints, int overprovisioningFactor,
+                          PickerFactory pickerFactory) {
+            final ImmutableList.Builder<Endpoint> allBuilder = ImmutableList.builder();
+            final ImmutableList.Builder<Endpoint> healthyBuilder = ImmutableList.builder();
+            for (LbEndpoint lbEndpoint : localityLbEndpoints.getLbEndpointsList()) {
+                final Endpoint endpoint = XdsConverterUtil.convertEndpoint(lbEndpoint);
+                allBuilder.add(endpoint);
+                if (isHealthy(lbEndpoint.getHealthStatus())) {
+                    healthyBuilder.add(endpoint);
+                }
+            }
+            all = allBuilder.build();
+            healthy = healthyBuilder.build();
+            healthyPicker = Suppliers.memoize(() -> pickerFactory.newPicker(healthy));
+
+            // A locality without a weight is not used by the locality weighted load balancing.
+            final long weight = localityLbEndpoints.hasLoadBalancingWeight() ?
+                                localityLbEndpoints.getLoadBalancingWeight().getValue() : 0;
+            effectiveWeight = weight * availability(healthy.size(), all.size(), overprovisioningFactor);
+        }
+
+        private static boolean isHealthy(HealthStatus healthStatus) {
+            return healthStatus == HealthStatus.HEALTHY || healthStatus == HealthStatus.UNKNOWN;
+        }
+    }
+
+    private static PickerFactory pickerFactory(Cluster cluster, @Nullable Route route,
+                                               Map<Endpoint, AtomicInteger> numActiveRequests) {
+        switch (cluster.getLbPolicy()) {
+            case LEAST_REQUEST:
+                final LeastRequestLbConfig leastRequestLbConfig = cluster.getLeastRequestLbConfig();
+                final int choiceCount = leastRequestLbConfig.hasChoiceCount() ?
+                                        leastRequestLbConfig.getChoiceCount().getValue() : DEFAULT_CHOICE_COUNT;
+                return endpoints -> new LeastRequestPicker(endpoints, choiceCount, numActiveRequests);
+            case RING_HASH:
+            case MAGLEV:
+                final RingHashLbConfig ringHashLbConfig = cluster.getRingHashLbConfig();
+                final long minimumRingSize = ringHashLbConfig.hasMinimumRingSize() ?
+                                             ringHashLbConfig.getMinimumRingSize().getValue()
+                                             : DEFAULT_MINIMUM_RING_SIZE;
+                final ToLongFunction<ClientRequestContext> requestHasher = requestHasher(route);
+                return endpoints -> new RingHashPicker(endpoints, minimumRingSize, requestHasher);
+            case RANDOM:
+                return RandomPicker::new;
+            default:
+                return RoundRobinPicker::new;
+        }
+    }
+
+    /**
+     * Returns a function which hashes a request with the {@link HashPolicy}s of the specified {@link Route}.
+     * A random hash is used if no policy produces a hash, as Envoy does.
+     */
+    @VisibleForTesting
+    static ToLongFunction<ClientRequestContext> requestHasher(@Nullable Route route) {
+        final List<HashPolicy> hashPolicies = route != null && route.hasRoute() ?
+                                              route.getRoute().getHashPolicyList() : ImmutableList.of();
+        if (hashPolicies.isEmpty()) {
+            return ctx -> ThreadLocalRandom.current().nextLong();
+        }
+        return ctx -> {
+            Long hash = null;
+            for (HashPolicy hashPolicy : hashPolicies) {
+                final String value = hashKey(hashPolicy, ctx);
+                if (value == null) {
+                    continue;
+                }
+                final long newHash = Hashing.murmur3_128().hashUnencodedChars(value).asLong();
+                // Combine the hashes in the same way with Envoy.
+                hash = hash == null ? newHash : Long.rotateLeft(hash, 1) ^ newHash;
+                if (hashPolicy.getTerminal()) {
+                    break;
+                }
+            }
+            return hash != null ? hash : ThreadLocalRandom.current().nextLong();
+        };
+    }
+
+    @Nullable
+    private static String hashKey(HashPolicy hashPolicy, ClientRequestContext ctx) {
+        switch (hashPolicy.getPolicySpecifierCase()) {
+            case HEADER:
+                final HttpRequest req = ctx.request();
+                return req != null ? req.headers().get(hashPolicy.getHeader().getHeaderName()) : null;
+            case QUERY_PARAMETER:
+                final String query = ctx.query();
+                return query != null ? QueryParams.fromQueryString(query)
+                                                  .get(hashPolicy.getQueryParameter().getName())
+                                     : null;
+            default:
+                // Cookies, connection properties and filter states are not supported.
+                return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PickerFactory {
+        EndpointPicker newPicker(List<Endpoint> endpoints);
+    }
+
+    @FunctionalInterface
+    private interface EndpointPicker {
+        @Nullable
+        Endpoint pick(ClientRequestContext ctx);
+    }
+
+    /**
+     * Picks the {@link Endpoint}s in a weighted round-robin manner.
+     */
+    private static final class RoundRobinPicker implements EndpointPicker {
+
+        private final List<Endpoint> endpoints;
+        private final long[] cumulativeWeights;
+        private final long totalWeight;
+        private final AtomicLong sequence = new AtomicLong();
+
+        RoundRobinPicker(List<Endpoint> endpoints) {
+            this.endpoints = endpoints;
+            cumulativeWeights = cumulativeWeights(endpoints);
+            totalWeight = cumulativeWeights.length > 0 ? cumulativeWeights[cumulativeWeights.length - 1] : 0;
+        }
+
+        @Nullable
+        @Override
+        public Endpoint pick(ClientRequestContext ctx) {
+            if (totalWeight == 0) {
+                return null;
+            }
+            final long value = Math.floorMod(sequence.getAndIncrement(), totalWeight);
+            return endpoints.get(indexOf(cumulativeWeights, value));
+        }
+    }
+
+    /**
+     * Picks the {@link Endpoint}s randomly in proportion to their weights.
+     */
+    private static final class RandomPicker implements EndpointPicker {
+
+        private final List<Endpoint> endpoints;
+        private final long[] cumulativeWeights;
+        private final long totalWeight;
+
+        RandomPicker(List<Endpoint> endpoints) {
+            this.endpoints = endpoints;
+            cumulativeWeights = cumulativeWeights(endpoints);
+            totalWeight = cumulativeWeights.length > 0 ? cumulativeWeights[cumulativeWeights.length - 1] : 0;
+        }
+
+        @Nullable
+        @Override
+        public Endpoint pick(ClientRequestContext ctx) {
+            if (totalWeight == 0) {
+                return null;
+            }
+            final long value = ThreadLocalRandom.current().nextLong(totalWeight);
+            return endpoints.get(indexOf(cumulativeWeights, value));
+        }
+    }
+
+    private static long[] cumulativeWeights(List<Endpoint> endpoints) {
+        final long[] cumulativeWeights = new long[endpoints.size()];
+        long cumulative = 0;
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            cumulative += endpoints.get(i).weight();
+            cumulativeWeights[i] = cumulative;
+        }
+        return cumulativeWeights;
+    }
+
+    /**
+     * Picks the {@link Endpoint} with the fewest active requests among the randomly chosen
+     * {@code choiceCount} {@link Endpoint}s, i.e. the power of two choices by default.
+     */
+    private static final class LeastRequestPicker implements EndpointPicker {
+
+        private final List<Endpoint> endpoints;
+        private final int choiceCount;
+        private final Map<Endpoint, AtomicInteger> numActiveRequests;
+
+        LeastRequestPicker(List<Endpoint> endpoints, int choiceCount,
+                           Map<Endpoint, AtomicInteger> numActiveRequests) {
+            this.endpoints = endpoints;
+            this.choiceCount = Math.max(1, choiceCount);
+            this.numActiveRequests = numActiveRequests;
+        }
+
+        @Nullable
+        @Override
+        public Endpoint pick(ClientRequestContext ctx) {
+            final int size = endpoints.size();
+            if (size == 0) {
+                return null;
+            }
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            Endpoint selected = null;
+            AtomicInteger selectedCounter = null;
+            for (int i = 0; i < choiceCount; i++) {
+                final Endpoint candidate = endpoints.get(random.nextInt(size));
+                final AtomicInteger counter =
+                        numActiveRequests.computeIfAbsent(candidate, unused -> new AtomicInteger());
+                if (selectedCounter == null || counter.get() < selectedCounter.get()) {
+                    selected = candidate;
+                    selectedCounter = counter;
+                }
+            }
+            assert selectedCounter != null;
+            selectedCounter.incrementAndGet();
+            final AtomicInteger counter = selectedCounter;
+            ctx.log().whenComplete().thenRun(counter::decrementAndGet);
+            return selected;
+        }
+    }
+
+    /**
+     * Picks the {@link Endpoint}s with consistent hashing. Each {@link Endpoint} is placed on a ring as
+     * many times as its weight allows, as Envoy's {@code RING_HASH} does.
+     */
+    private static final class RingHashPicker implements EndpointPicker {
+
+        private final long[] hashes;
+        private final Endpoint[] ring;
+        private final ToLongFunction<ClientRequestContext> requestHasher;
+
+        RingHashPicker(List<Endpoint> endpoints, long minimumRingSize,
+                       ToLongFunction<ClientRequestContext> requestHasher) {
+            this.requestHasher = requestHasher;
+            if (endpoints.isEmpty()) {
+                hashes = new long[0];
+                ring = new Endpoint[0];
+                return;
+            }
+
+            double totalWeight = 0;
+            for (Endpoint endpoint : endpoints) {
+                totalWeight += endpoint.weight();
+            }
+            double minNormalizedWeight = 1.0;
+            for (Endpoint endpoint : endpoints) {
+                minNormalizedWeight = Math.min(minNormalizedWeight, endpoint.weight() / totalWeight);
+            }
+            // Make sure that the endpoint with the smallest weight is placed on the ring at least once.
+            final double scale = Math.min(Math.ceil(minNormalizedWeight * minimumRingSize) /
+                                          minNormalizedWeight, MAXIMUM_RING_SIZE);
+
+            final TreeMap<Long, Endpoint> ringMap = new TreeMap<>();
+            for (Endpoint endpoint : endpoints) {
+                final long numHashes = (long) Math.ceil(endpoint.weight() / totalWeight * scale);
+                final String key = endpoint.authority();
+                for (long i = 0; i < numHashes; i++) {
+                    final long hash = Hashing.murmur3_128().hashUnencodedChars(key + '_' + i).asLong();
+                    ringMap.putIfAbsent(hash, endpoint);
+                }
+            }
+            hashes = new long[ringMap.size()];
+            ring = new Endpoint[ringMap.size()];
+            int i = 0;
+            for (Map.Entry<Long, Endpoint> entry : ringMap.entrySet()) {
+                hashes[i] = entry.getKey();
+                ring[i] = entry.getValue();
+                i++;
+            }
+        }
+
+        @Nullable
+        @Override
+        public Endpoint pick(ClientRequestContext ctx) {
+            if (ring.length == 0) {
+                return null;
+            }
+            final long hash = requestHasher.applyAsLong(ctx);
+            int index = Arrays.binarySearch(hashes, hash);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            // Wrap around the ring.
+            return ring[index == ring.length ? 0 : index];
+        }
+    }
+}
@@ -16,10 +16,11 @@
 
 package com.linecorp.armeria.xds;
 
+import io.envoyproxy.envoy.service.discovery.v3.DeltaDiscoveryResponse;
 import io.envoyproxy.envoy.service.discovery.v3.DiscoveryResponse;
 
 /**
- * Handles callbacks for {@link SotwXdsStream}.
+ * Handles callbacks for {@link SotwXdsStream} and {@link DeltaXdsStream}.
  * Note that it is important that exceptions are not raised from the callback.
  * Otherwise, the infinite loop will break as a discovery request is not sent.
  */
@@ -27,4 +28,14 @@ interface XdsResponseHandler {
 
     void handleResponse(
             ResourceParser resourceParser, DiscoveryResponse value, SotwXdsStream sender);
+
+    /**
+     * Handles a response of the delta xDS protocol. The default implementation rejects the response
+     * because the handler supports only the state-of-the-world protocol.
+     */
+    default void handleResponse(
+            ResourceParser resourceParser, DeltaDiscoveryResponse value, DeltaXdsStream sender) {
+        sender.nackResponse(resourceParser.type(), value.getNonce(),
+                            "Delta xDS responses are not supported by " + getClass().getSimpleName());
+    }
 }
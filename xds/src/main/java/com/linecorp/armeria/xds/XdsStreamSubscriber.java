@@ -42,6 +42,9 @@ class XdsStreamSubscriber implements SafeCloseable {
 
     @Nullable
     private AbstractResourceHolder data;
+    // The version of the resource which is only set by the delta xDS protocol.
+    @Nullable
+    private String version;
     private boolean absent;
     @Nullable
     private ScheduledFuture<?> initialAbsentFuture;
@@ -102,6 +105,15 @@ class XdsStreamSubscriber implements SafeCloseable {
         return data;
     }
 
+    @Nullable
+    String version() {
+        return version;
+    }
+
+    void version(@Nullable String version) {
+        this.version = version;
+    }
+
     void onError(Status status) {
         maybeCancelAbsentTimer();
         for (ResourceWatcher<AbstractResourceHolder> watcher: resourceWatchers) {
@@ -119,6 +131,7 @@ class XdsStreamSubscriber implements SafeCloseable {
 
         if (!absent) {
             data = null;
+            version = null;
             absent = true;
             for (ResourceWatcher<AbstractResourceHolder> watcher: resourceWatchers) {
                 try {
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.xds;
+
+import static com.linecorp.armeria.xds.SotwXdsStreamTest.createCluster;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.client.grpc.GrpcClients;
+import com.linecorp.armeria.client.retry.Backoff;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.server.grpc.GrpcService;
+import com.linecorp.armeria.testing.junit5.common.EventLoopExtension;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+import io.envoyproxy.controlplane.cache.v3.SimpleCache;
+import io.envoyproxy.controlplane.cache.v3.Snapshot;
+import io.envoyproxy.controlplane.server.V3DiscoveryServer;
+import io.envoyproxy.envoy.config.cluster.v3.Cluster;
+import io.envoyproxy.envoy.config.core.v3.Node;
+
+class DeltaXdsStreamTest {
+
+    private static final Node SERVER_INFO = Node.getDefaultInstance();
+
+    private static final String GROUP = "key";
+    private static final SimpleCache<String> cache = new SimpleCache<>(node -> GROUP);
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) throws Exception {
+            final V3DiscoveryServer v3DiscoveryServer = new V3DiscoveryServer(cache);
+            sb.service(GrpcService.builder()
+                                  .addService(v3DiscoveryServer.getAggregatedDiscoveryServiceImpl())
+                                  .build());
+        }
+    };
+
+    @RegisterExtension
+    static EventLoopExtension eventLoop = new EventLoopExtension();
+
+    @BeforeEach
+    void beforeEach() {
+        setClusters("1", createCluster("cluster1", 0), createCluster("cluster2", 0));
+    }
+
+    @Test
+    void onlyChangedResourcesAreNotified() throws Exception {
+        final DeltaDiscoveryStub stub = DeltaDiscoveryStub.ads(GrpcClients.builder(server.httpUri()));
+        final SubscriberStorage subscriberStorage = new SubscriberStorage(eventLoop.get(), 15_000);
+        final RecordingWatcher watcher1 = new RecordingWatcher();
+        final RecordingWatcher watcher2 = new RecordingWatcher();
+        try (DeltaXdsStream stream = new DeltaXdsStream(stub, SERVER_INFO, Backoff.ofDefault(),
+                                                        eventLoop.get(),
+                                                        new DefaultResponseHandler(subscriberStorage),
+                                                        subscriberStorage)) {
+            eventLoop.get().submit(() -> {
+                subscriberStorage.register(XdsType.CLUSTER, "cluster1", watcher1);
+                subscriberStorage.register(XdsType.CLUSTER, "cluster2", watcher2);
+            }).syncUninterruptibly();
+            stream.start();
+
+            await().untilAsserted(() -> {
+                assertThat(watcher1.clusters).containsExactly(createCluster("cluster1", 0));
+                assertThat(watcher2.clusters).containsExactly(createCluster("cluster2", 0));
+            });
+            await().untilAsserted(() -> assertThat(versions(subscriberStorage)).hasSize(2));
+
+            // Only cluster1 is updated.
+            setClusters("2", createCluster("cluster1", 1), createCluster("cluster2", 0));
+            await().untilAsserted(() -> assertThat(watcher1.clusters).containsExactly(
+                    createCluster("cluster1", 0), createCluster("cluster1", 1)));
+            await().pollDelay(200, TimeUnit.MILLISECONDS)
+                   .untilAsserted(() -> assertThat(watcher2.clusters).hasSize(1));
+
+            // cluster2 is removed.
+            setClusters("3", createCluster("cluster1", 1));
+            await().untilAsserted(() -> assertThat(watcher2.missing).isTrue());
+            assertThat(watcher1.clusters).hasSize(2);
+            assertThat(versions(subscriberStorage)).containsOnlyKeys("cluster1");
+        }
+    }
+
+    @Test
+    void subscribeIncrementally() throws Exception {
+        final DeltaDiscoveryStub stub = DeltaDiscoveryStub.ads(GrpcClients.builder(server.httpUri()));
+        final SubscriberStorage subscriberStorage = new SubscriberStorage(eventLoop.get(), 15_000);
+        final RecordingWatcher watcher1 = new RecordingWatcher();
+        final RecordingWatcher watcher2 = new RecordingWatcher();
+        try (DeltaXdsStream stream = new DeltaXdsStream(stub, SERVER_INFO, Backoff.ofDefault(),
+                                                        eventLoop.get(),
+                                                        new DefaultResponseHandler(subscriberStorage),
+                                                        subscriberStorage)) {
+            eventLoop.get().submit(() -> subscriberStorage.register(XdsType.CLUSTER, "cluster1", watcher1))
+                     .syncUninterruptibly();
+            stream.start();
+            await().untilAsserted(() -> assertThat(watcher1.clusters).hasSize(1));
+
+            eventLoop.get().submit(() -> {
+                if (subscriberStorage.register(XdsType.CLUSTER, "cluster2", watcher2)) {
+                    stream.resourcesUpdated(XdsType.CLUSTER);
+                }
+            }).syncUninterruptibly();
+            // The delta implementation of SimpleCache only responds when the snapshot version changes.
+            setClusters("2", createCluster("cluster1", 0), createCluster("cluster2", 0));
+            await().untilAsserted(() -> assertThat(watcher2.clusters).containsExactly(
+                    createCluster("cluster2", 0)));
+            assertThat(watcher1.clusters).hasSize(1);
+
+            // Restart the stream. The known versions are sent so that nothing is notified again.
+            stream.stop();
+            await().until(() -> stream.requestObserver == null);
+            stream.start();
+            await().pollDelay(200, TimeUnit.MILLISECONDS).untilAsserted(() -> {
+                assertThat(watcher1.clusters).hasSize(1);
+                assertThat(watcher2.clusters).hasSize(1);
+            });
+        }
+    }
+
+    private static void setClusters(String version, Cluster... clusters) {
+        cache.setSnapshot(GROUP, Snapshot.create(ImmutableList.copyOf(clusters), ImmutableList.of(),
+                                                 ImmutableList.of(), ImmutableList.of(),
+                                                 ImmutableList.of(), version));
+    }
+
+    private static Map<String, String> versions(SubscriberStorage subscriberStorage) {
+        return eventLoop.get().submit(() -> subscriberStorage.resourceVersions(XdsType.CLUSTER))
+                        .syncUninterruptibly().getNow();
+    }
+
+    private static final class RecordingWatcher implements ResourceWatcher<AbstractResourceHolder> {
+
+        private final List<Cluster> clusters = new CopyOnWriteArrayList<>();
+        private volatile boolean missing;
+
+        @Override
+        public void onResourceDoesNotExist(XdsType type, String resourceName) {
+            missing = true;
+        }
+
+        @Override
+        public void onChanged(AbstractResourceHolder update) {
+            clusters.add((Cluster) update.resource());
+        }
+    }
+}
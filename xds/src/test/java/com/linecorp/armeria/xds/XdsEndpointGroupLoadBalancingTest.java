@@ -0,0 +1,162 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.xds;
+
+import static com.linecorp.armeria.xds.XdsTestResources.endpoint;
+import static com.linecorp.armeria.xds.XdsTestResources.localityLbEndpoints;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import com.google.common.collect.ImmutableList;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.client.endpoint.EndpointGroup;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.server.ServerBuilder;
+import com.linecorp.armeria.server.grpc.GrpcService;
+import com.linecorp.armeria.testing.junit5.server.ServerExtension;
+
+import io.envoyproxy.controlplane.cache.v3.SimpleCache;
+import io.envoyproxy.controlplane.cache.v3.Snapshot;
+import io.envoyproxy.controlplane.server.V3DiscoveryServer;
+import io.envoyproxy.envoy.config.bootstrap.v3.Bootstrap;
+import io.envoyproxy.envoy.config.cluster.v3.Cluster;
+import io.envoyproxy.envoy.config.cluster.v3.Cluster.CommonLbConfig;
+import io.envoyproxy.envoy.config.cluster.v3.Cluster.CommonLbConfig.ZoneAwareLbConfig;
+import io.envoyproxy.envoy.config.core.v3.ConfigSource;
+import io.envoyproxy.envoy.config.core.v3.HealthStatus;
+import io.envoyproxy.envoy.config.core.v3.Locality;
+import io.envoyproxy.envoy.config.core.v3.Node;
+import io.envoyproxy.envoy.config.endpoint.v3.ClusterLoadAssignment;
+
+class XdsEndpointGroupLoadBalancingTest {
+
+    private static final String GROUP = "key";
+    private static final SimpleCache<String> cache = new SimpleCache<>(node -> GROUP);
+    private static final String clusterName = "cluster1";
+    private static final String listenerName = "listener1";
+    private static final String routeName = "route1";
+    private static final String bootstrapClusterName = "bootstrap-cluster";
+
+    private static final Locality zoneA = Locality.newBuilder().setRegion("r").setZone("a").build();
+    private static final Locality zoneB = Locality.newBuilder().setRegion("r").setZone("b").build();
+
+    @RegisterExtension
+    static final ServerExtension server = new ServerExtension() {
+        @Override
+        protected void configure(ServerBuilder sb) {
+            final V3DiscoveryServer v3DiscoveryServer = new V3DiscoveryServer(cache);
+            sb.service(GrpcService.builder()
+                                  .addService(v3DiscoveryServer.getAggregatedDiscoveryServiceImpl())
+                                  .addService(v3DiscoveryServer.getListenerDiscoveryServiceImpl())
+                                  .addService(v3DiscoveryServer.getClusterDiscoveryServiceImpl())
+                                  .addService(v3DiscoveryServer.getRouteDiscoveryServiceImpl())
+                                  .addService(v3DiscoveryServer.getEndpointDiscoveryServiceImpl())
+                                  .build());
+        }
+    };
+
+    @Test
+    void zoneAwareRoutingWithPriorityFailover() {
+        final Cluster cluster =
+                XdsTestResources.createCluster(clusterName, 0).toBuilder().setCommonLbConfig(
+                        CommonLbConfig.newBuilder().setZoneAwareLbConfig(
+                                ZoneAwareLbConfig.getDefaultInstance())).build();
+        // The local zone has 6 healthy endpoints, so all traffic should stay in the local zone.
+        final ClusterLoadAssignment loadAssignment =
+                ClusterLoadAssignment.newBuilder()
+                                     .setClusterName(clusterName)
+                                     .addEndpoints(localityLbEndpoints(
+                                             zoneA, 0, 1,
+                                             endpoint("127.0.0.1", 1, HealthStatus.HEALTHY, 1),
+                                             endpoint("127.0.0.1", 2, HealthStatus.HEALTHY, 1),
+                                             endpoint("127.0.0.1", 3, HealthStatus.HEALTHY, 1)))
+                                     .addEndpoints(localityLbEndpoints(
+                                             zoneB, 0, 1,
+                                             endpoint("127.0.0.1", 4, HealthStatus.HEALTHY, 1),
+                                             endpoint("127.0.0.1", 5, HealthStatus.HEALTHY, 1),
+                                             endpoint("127.0.0.1", 6, HealthStatus.HEALTHY, 1)))
+                                     .addEndpoints(localityLbEndpoints(
+                                             zoneA, 1, 1,
+                                             endpoint("127.0.0.1", 7, HealthStatus.HEALTHY, 1)))
+                                     .build();
+        setSnapshot(cluster, loadAssignment, "1");
+
+        final ConfigSource configSource = XdsTestResources.basicConfigSource(bootstrapClusterName);
+        final URI uri = server.httpUri();
+        final ClusterLoadAssignment bootstrapAssignment =
+                XdsTestResources.loadAssignment(bootstrapClusterName, uri.getHost(), uri.getPort());
+        final Cluster bootstrapCluster =
+                XdsTestResources.createStaticCluster(bootstrapClusterName, bootstrapAssignment);
+        final Bootstrap bootstrap =
+                XdsTestResources.bootstrap(configSource, bootstrapCluster)
+                                .toBuilder()
+                                .setNode(Node.newBuilder().setId("node").setLocality(zoneB))
+                                .build();
+        try (XdsBootstrap xdsBootstrap = XdsBootstrap.of(bootstrap)) {
+            final EndpointGroup endpointGroup = XdsEndpointGroup.of(xdsBootstrap.listenerRoot(listenerName));
+            assertThat(endpointGroup.whenReady().join()).hasSize(7);
+            assertThat(select(endpointGroup)).containsOnlyKeys(4, 5, 6);
+
+            // All endpoints in the priority 0 became unhealthy, so the traffic fails over to the priority 1.
+            final ClusterLoadAssignment unhealthy =
+                    ClusterLoadAssignment.newBuilder()
+                                         .setClusterName(clusterName)
+                                         .addEndpoints(localityLbEndpoints(
+                                                 zoneB, 0, 1,
+                                                 endpoint("127.0.0.1", 4, HealthStatus.UNHEALTHY, 1),
+                                                 endpoint("127.0.0.1", 5, HealthStatus.UNHEALTHY, 1)))
+                                         .addEndpoints(localityLbEndpoints(
+                                                 zoneA, 1, 1,
+                                                 endpoint("127.0.0.1", 7, HealthStatus.HEALTHY, 1)))
+                                         .build();
+            setSnapshot(cluster, unhealthy, "2");
+            await().untilAsserted(() -> assertThat(endpointGroup.endpoints()).hasSize(3));
+            assertThat(select(endpointGroup)).containsOnlyKeys(7);
+        }
+    }
+
+    private static void setSnapshot(Cluster cluster, ClusterLoadAssignment loadAssignment, String version) {
+        cache.setSnapshot(
+                GROUP,
+                Snapshot.create(ImmutableList.of(cluster),
+                                ImmutableList.of(loadAssignment),
+                                ImmutableList.of(XdsTestResources.exampleListener(listenerName, routeName)),
+                                ImmutableList.of(XdsTestResources.routeConfiguration(routeName, clusterName)),
+                                ImmutableList.of(), version));
+    }
+
+    private static Map<Integer, Integer> select(EndpointGroup endpointGroup) {
+        final Map<Integer, Integer> counts = new ConcurrentHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            final ClientRequestContext ctx = ClientRequestContext.of(HttpRequest.of(HttpMethod.GET, "/"));
+            final Endpoint endpoint = endpointGroup.selectNow(ctx);
+            assertThat(endpoint).isNotNull();
+            counts.merge(endpoint.port(), 1, Integer::sum);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2024 LINE Corporation
+ *
+ * LINE Corporation licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.linecorp.armeria.xds;
+
+import static com.linecorp.armeria.xds.XdsTestResources.endpoint;
+import static com.linecorp.armeria.xds.XdsTestResources.localityLbEndpoints;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.UInt32Value;
+import com.google.protobuf.UInt64Value;
+
+import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Endpoint;
+import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequest;
+import com.linecorp.armeria.common.RequestHeaders;
+
+import io.envoyproxy.envoy.config.cluster.v3.Cluster;
+import io.envoyproxy.envoy.config.cluster.v3.Cluster.CommonLbConfig;
+import io.envoyproxy.envoy.config.cluster.v3.Cluster.CommonLbConfig.LocalityWeightedLbConfig;
+import io.envoyproxy.envoy.config.cluster.v3.Cluster.CommonLbConfig.ZoneAwareLbConfig;
+import io.envoyproxy.envoy.config.cluster.v3.Cluster.LbPolicy;
+import io.envoyproxy.envoy.config.cluster.v3.Cluster.LeastRequestLbConfig;
+import io.envoyproxy.envoy.config.core.v3.HealthStatus;
+import io.envoyproxy.envoy.config.core.v3.Locality;
+import io.envoyproxy.envoy.config.endpoint.v3.ClusterLoadAssignment;
+import io.envoyproxy.envoy.config.endpoint.v3.LocalityLbEndpoints;
+import io.envoyproxy.envoy.config.route.v3.Route;
+import io.envoyproxy.envoy.config.route.v3.RouteAction;
+import io.envoyproxy.envoy.config.route.v3.RouteAction.HashPolicy;
+import io.envoyproxy.envoy.config.route.v3.RouteAction.HashPolicy.Header;
+
+class XdsLoadBalancerTest {
+
+    private static final int NUM_REQUESTS = 10000;
+    private static final Offset<Double> TOLERANCE = Offset.offset(0.03);
+
+    private static final Locality zoneA = Locality.newBuilder().setRegion("r").setZone("a").build();
+    private static final Locality zoneB = Locality.newBuilder().setRegion("r").setZone("b").build();
+
+    private static final Cluster roundRobin = Cluster.newBuilder().setName("cluster").build();
+
+    @Test
+    void failOverToLowerPriority() {
+        // Only 2 out of 5 endpoints are healthy in the priority 0,
+        // so it takes only 2 / 5 * 140% = 56% of the traffic.
+        final ClusterLoadAssignment loadAssignment = loadAssignment(
+                localityLbEndpoints(zoneA, 0, 1,
+                                    endpoint("127.0.0.1", 1, HealthStatus.HEALTHY, 1),
+                                    endpoint("127.0.0.1", 2, HealthStatus.UNKNOWN, 1),
+                                    endpoint("127.0.0.1", 3, HealthStatus.UNHEALTHY, 1),
+                                    endpoint("127.0.0.1", 4, HealthStatus.DRAINING, 1),
+                                    endpoint("127.0.0.1", 5, HealthStatus.TIMEOUT, 1)),
+                localityLbEndpoints(zoneA, 1, 1, endpoint("127.0.0.1", 6, HealthStatus.HEALTHY, 1)));
+        final XdsLoadBalancer loadBalancer =
+                loadBalancer(roundRobin, loadAssignment, Locality.getDefaultInstance());
+        assertThat(loadBalancer.endpoints()).hasSize(6);
+
+        final Map<Integer, Integer> counts = selectMany(loadBalancer);
+        assertThat(counts).containsOnlyKeys(1, 2, 6);
+        assertThat(ratio(counts, 6)).isCloseTo(0.44, TOLERANCE);
+    }
+
+    @Test
+    void noFailOverWhenHealthyEnough() {
+        // 4 out of 5 endpoints are healthy, which can take all traffic with the overprovisioning factor.
+        final ClusterLoadAssignment loadAssignment = loadAssignment(
+                localityLbEndpoints(zoneA, 0, 1,
+                                    endpoint("127.0.0.1", 1, HealthStatus.HEALTHY, 1),
+                                    endpoint("127.0.0.1", 2, HealthStatus.HEALTHY, 1),
+                                    endpoint("127.0.0.1", 3, HealthStatus.HEALTHY, 1),
+                                    endpoint("127.0.0.1", 4, HealthStatus.HEALTHY, 1),
+                                    endpoint("127.0.0.1", 5, HealthStatus.UNHEALTHY, 1)),
+                localityLbEndpoints(zoneA, 1, 1, endpoint("127.0.0.1", 6, HealthStatus.HEALTHY, 1)));
+        final Map<Integer, Integer> counts =
+                selectMany(loadBalancer(roundRobin, loadAssignment, Locality.getDefaultInstance()));
+        assertThat(counts).containsOnlyKeys(1, 2, 3, 4);
+    }
+
+    @Test
+    void panicWhenNoHealthyEndpoints() {
+        final ClusterLoadAssignment loadAssignment = loadAssignment(
+                localityLbEndpoints(zoneA, 0, 1,
+                                    endpoint("127.0.0.1", 1, HealthStatus.UNHEALTHY, 1),
+                                    endpoint("127.0.0.1", 2, HealthStatus.UNHEALTHY, 1)),
+                localityLbEndpoints(zoneA, 1, 1, endpoint("127.0.0.1", 3, HealthStatus.UNHEALTHY, 1)));
+        final Map<Integer, Integer> counts =
+                selectMany(loadBalancer(roundRobin, loadAssignment, Locality.getDefaultInstance()));
+        assertThat(counts).containsOnlyKeys(1, 2);
+    }
+
+    @Test
+    void weightedRoundRobin() {
+        final ClusterLoadAssignment loadAssignment = loadAssignment(
+                localityLbEndpoints(zoneA, 0, 1,
+                                    endpoint("127.0.0.1", 1, HealthStatus.HEALTHY, 1),
+                                    endpoint("127.0.0.1", 2, HealthStatus.HEALTHY, 3)));
+        final XdsLoadBalancer loadBalancer = loadBalancer(roundRobin, loadAssignment, zoneA);
+        final Map<Integer, Integer> counts = new ConcurrentHashMap<>();
+        for (int i = 0; i < 400; i++) {
+            counts.merge(loadBalancer.select(newContext()).port(), 1, Integer::sum);
+        }
+        assertThat(counts).containsEntry(1, 100).containsEntry(2, 300);
+    }
+
+    @Test
+    void localityWeighted() {
+        final Cluster cluster = roundRobin.toBuilder().setCommonLbConfig(
+                CommonLbConfig.newBuilder().setLocalityWeightedLbConfig(
+                        LocalityWeightedLbConfig.getDefaultInstance())).build();
+        final ClusterLoadAssignment loadAssignment = loadAssignment(
+                localityLbEndpoints(zoneA, 0, 1, endpoint("127.0.0.1", 1, HealthStatus.HEALTHY, 1)),
+                localityLbEndpoints(zoneB, 0, 3, endpoint("127.0.0.1", 2, HealthStatus.HEALTHY, 1),
+                                    endpoint("127.0.0.1", 3, HealthStatus.HEALTHY, 1)));
+        final Map<Integer, Integer> counts =
+                selectMany(loadBalancer(cluster, loadAssignment, Locality.getDefaultInstance()));
+        // Without the locality weights, the endpoint 1 would take 1/3 of the traffic.
+        assertThat(ratio(counts, 1)).isCloseTo(0.25, TOLERANCE);
+    }
+
+    @Test
+    void zoneAware() {
+        final Cluster cluster = roundRobin.toBuilder().setCommonLbConfig(
+                CommonLbConfig.newBuilder().setZoneAwareLbConfig(
+                        ZoneAwareLbConfig.newBuilder().setMinClusterSize(
+                                UInt64Value.of(2)))).build();
+        final ClusterLoadAssignment loadAssignment = loadAssignment(
+                localityLbEndpoints(zoneA, 0, 1, endpoint("127.0.0.1", 1, HealthStatus.HEALTHY, 1),
+                                    endpoint("127.0.0.1", 2, HealthStatus.HEALTHY, 1)),
+                localityLbEndpoints(zoneB, 0, 1, endpoint("127.0.0.1", 3, HealthStatus.HEALTHY, 1),
+                                    endpoint("127.0.0.1", 4, HealthStatus.HEALTHY, 1)));
+        assertThat(selectMany(loadBalancer(cluster, loadAssignment, zoneB))).containsOnlyKeys(3, 4);
+
+        // The traffic spills over to the other zones in proportion to the unavailability of the local zone.
+        final ClusterLoadAssignment degraded = loadAssignment(
+                localityLbEndpoints(zoneA, 0, 1, endpoint("127.0.0.1", 1, HealthStatus.HEALTHY, 1),
+                                    endpoint("127.0.0.1", 2, HealthStatus.HEALTHY, 1)),
+                localityLbEndpoints(zoneB, 0, 1, endpoint("127.0.0.1", 3, HealthStatus.HEALTHY, 1),
+                                    endpoint("127.0.0.1", 4, HealthStatus.UNHEALTHY, 1),
+                                    endpoint("127.0.0.1", 5, HealthStatus.UNHEALTHY, 1),
+                                    endpoint("127.0.0.1", 6, HealthStatus.UNHEALTHY, 1)));
+        final Map<Integer, Integer> counts = selectMany(loadBalancer(cluster, degraded, zoneB));
+        // The local zone is available for 1 / 4 * 140% = 35%, and the endpoint 3 also takes 1/3 of the rest.
+        assertThat(ratio(counts, 3)).isCloseTo(0.35 + 0.65 / 3, TOLERANCE);
+    }
+
+    @Test
+    void leastRequest() {
+        final Cluster cluster =
+                roundRobin.toBuilder()
+                          .setLbPolicy(LbPolicy.LEAST_REQUEST)
+                          .setLeastRequestLbConfig(LeastRequestLbConfig.newBuilder()
+                                                                       .setChoiceCount(UInt32Value.of(10)))
+                          .build();
+        final ClusterLoadAssignment loadAssignment = loadAssignment(
+                localityLbEndpoints(zoneA, 0, 1, endpoint("127.0.0.1", 1, HealthStatus.HEALTHY, 1),
+                                    endpoint("127.0.0.1", 2, HealthStatus.HEALTHY, 1)));
+        final Map<Endpoint, AtomicInteger> numActiveRequests = new ConcurrentHashMap<>();
+        final XdsLoadBalancer loadBalancer =
+                XdsLoadBalancer.of(cluster, ImmutableList.of(loadAssignment), null,
+                                   Locality.getDefaultInstance(), numActiveRequests);
+
+        final List<ClientRequestContext> contexts = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final ClientRequestContext ctx = newContext();
+            assertThat(loadBalancer.select(ctx)).isNotNull();
+            contexts.add(ctx);
+        }
+        final Map<Integer, Integer> active =
+                numActiveRequests.entrySet().stream().collect(
+                        Collectors.toMap(e -> e.getKey().port(), e -> e.getValue().get()));
+        assertThat(active.get(1)).isBetween(45, 55);
+        assertThat(active.get(2)).isBetween(45, 55);
+
+        contexts.forEach(ctx -> {
+            ctx.logBuilder().endRequest();
+            ctx.logBuilder().endResponse();
+        });
+        await().untilAsserted(() -> assertThat(numActiveRequests.values())
+                .allSatisfy(counter -> assertThat(counter).hasValue(0)));
+    }
+
+    @Test
+    void ringHash() {
+        final Cluster cluster = roundRobin.toBuilder().setLbPolicy(LbPolicy.RING_HASH).build();
+        final HashPolicy hashPolicy =
+                HashPolicy.newBuilder()
+                          .setHeader(Header.newBuilder().setHeaderName("x-user-id"))
+                          .build();
+        final Route route = Route.newBuilder()
+                                 .setRoute(RouteAction.newBuilder().addHashPolicy(hashPolicy))
+                                 .build();
+        final ClusterLoadAssignment loadAssignment = loadAssignment(
+                localityLbEndpoints(zoneA, 0, 1, endpoint("127.0.0.1", 1, HealthStatus.HEALTHY, 1),
+                                    endpoint("127.0.0.1", 2, HealthStatus.HEALTHY, 1),
+                                    endpoint("127.0.0.1", 3, HealthStatus.HEALTHY, 1)));
+        final XdsLoadBalancer loadBalancer =
+                XdsLoadBalancer.of(cluster, ImmutableList.of(loadAssignment), route,
+                                   Locality.getDefaultInstance(), new ConcurrentHashMap<>());
+
+        final Map<Integer, Integer> counts = new ConcurrentHashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            final Endpoint endpoint = loadBalancer.select(newContext("user-" + i));
+            // The same key is always routed to the same endpoint.
+            assertThat(loadBalancer.select(newContext("user-" + i))).isEqualTo(endpoint);
+            counts.merge(endpoint.port(), 1, Integer::sum);
+        }
+        assertThat(counts).hasSize(3);
+        counts.values().forEach(count -> assertThat(count).isBetween(700, 1300));
+    }
+
+    private static ClusterLoadAssignment loadAssignment(LocalityLbEndpoints... localityLbEndpoints) {
+        return ClusterLoadAssignment.newBuilder()
+                                    .setClusterName("cluster")
+                                    .addAllEndpoints(ImmutableList.copyOf(localityLbEndpoints))
+                                    .build();
+    }
+
+    private static XdsLoadBalancer loadBalancer(Cluster cluster, ClusterLoadAssignment loadAssignment,
+                                                Locality localLocality) {
+        return XdsLoadBalancer.of(cluster, ImmutableList.of(loadAssignment), null, localLocality,
+                                  new ConcurrentHashMap<>());
+    }
+
+    private static Map<Integer, Integer> selectMany(XdsLoadBalancer loadBalancer) {
+        final List<Endpoint> selected = new ArrayList<>();
+        for (int i = 0; i < NUM_REQUESTS; i++) {
+            selected.add(loadBalancer.select(newContext()));
+        }
+        return selected.stream().collect(Collectors.groupingBy(Endpoint::port,
+                                                               Collectors.reducing(0, e -> 1, Integer::sum)));
+    }
+
+    private static double ratio(Map<Integer, Integer> counts, int port) {
+        return counts.getOrDefault(port, 0) / (double) NUM_REQUESTS;
+    }
+
+    private static ClientRequestContext newContext() {
+        return ClientRequestContext.of(HttpRequest.of(HttpMethod.GET, "/"));
+    }
+
+    private static ClientRequestContext newContext(String userId) {
+        return ClientRequestContext.of(HttpRequest.of(RequestHeaders.of(HttpMethod.GET, "/",
+                                                                        "x-user-id", userId)));
+    }
+}
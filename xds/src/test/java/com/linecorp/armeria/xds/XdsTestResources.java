@@ -17,11 +17,13 @@
 package com.linecorp.armeria.xds;
 
 import java.net.URI;
+import java.util.Arrays;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.protobuf.Any;
 import com.google.protobuf.Duration;
+import com.google.protobuf.UInt32Value;
 import com.google.protobuf.util.Durations;
 
 import com.linecorp.armeria.common.annotation.Nullable;
@@ -39,6 +41,8 @@ import io.envoyproxy.envoy.config.core.v3.ApiVersion;
 import io.envoyproxy.envoy.config.core.v3.ConfigSource;
 import io.envoyproxy.envoy.config.core.v3.GrpcService;
 import io.envoyproxy.envoy.config.core.v3.GrpcService.EnvoyGrpc;
+import io.envoyproxy.envoy.config.core.v3.HealthStatus;
+import io.envoyproxy.envoy.config.core.v3.Locality;
 import io.envoyproxy.envoy.config.core.v3.SocketAddress;
 import io.envoyproxy.envoy.config.core.v3.TransportSocket;
 import io.envoyproxy.envoy.config.endpoint.v3.ClusterLoadAssignment;
@@ -77,6 +81,23 @@ public final class XdsTestResources {
                                      .build()).build();
     }
 
+    public static LbEndpoint endpoint(String address, int port, HealthStatus healthStatus, int weight) {
+        return endpoint(address, port).toBuilder()
+                                      .setHealthStatus(healthStatus)
+                                      .setLoadBalancingWeight(UInt32Value.of(weight))
+                                      .build();
+    }
+
+    public static LocalityLbEndpoints localityLbEndpoints(Locality locality, int priority, int weight,
+                                                          LbEndpoint... lbEndpoints) {
+        return LocalityLbEndpoints.newBuilder()
+                                  .setLocality(locality)
+                                  .setPriority(priority)
+                                  .setLoadBalancingWeight(UInt32Value.of(weight))
+                                  .addAllLbEndpoints(Arrays.asList(lbEndpoints))
+                                  .build();
+    }
+
     public static ClusterLoadAssignment loadAssignment(String clusterName, URI uri) {
         return loadAssignment(clusterName, uri.getHost(), uri.getPort());
     }